@@ -0,0 +1,86 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de salida con los cambios del catálogo posteriores a una revisión, para que los clientes
+ * mantengan su copia local al día sin volver a descargar los listados.
+ * Si completo es true, los cambios no se pueden calcular (revisión demasiado antigua, de otra ejecución
+ * o modificación que afecta a un número indeterminado de productos) y el cliente debe recargar el catálogo.
+ * En cualquier caso, la siguiente petición debe usar la revisión devuelta.
+ *
+ * @version 1.0
+ */
+public class CambiosCatalogoDTO {
+
+    private long revision;
+    private boolean completo;
+
+    // Productos creados o modificados, con su estado actual
+    private List<ProductoDTO> productos = new ArrayList<>();
+    private List<Long> productosEliminados = new ArrayList<>();
+
+    // Imágenes eliminadas: el cliente debe quitarlas de los productos que las contengan
+    private List<Long> imagenesEliminadas = new ArrayList<>();
+
+    // Resumen actual de todas las categorías (vacío si no hay cambios)
+    private List<CategoriaResumenDTO> categorias = new ArrayList<>();
+
+    public CambiosCatalogoDTO() {
+        // Constructor por defecto
+    }
+
+    public CambiosCatalogoDTO(long revision, boolean completo) {
+        this.revision = revision;
+        this.completo = completo;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public boolean isCompleto() {
+        return completo;
+    }
+
+    public void setCompleto(boolean completo) {
+        this.completo = completo;
+    }
+
+    public List<ProductoDTO> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(List<ProductoDTO> productos) {
+        this.productos = productos;
+    }
+
+    public List<Long> getProductosEliminados() {
+        return productosEliminados;
+    }
+
+    public void setProductosEliminados(List<Long> productosEliminados) {
+        this.productosEliminados = productosEliminados;
+    }
+
+    public List<Long> getImagenesEliminadas() {
+        return imagenesEliminadas;
+    }
+
+    public void setImagenesEliminadas(List<Long> imagenesEliminadas) {
+        this.imagenesEliminadas = imagenesEliminadas;
+    }
+
+    public List<CategoriaResumenDTO> getCategorias() {
+        return categorias;
+    }
+
+    public void setCategorias(List<CategoriaResumenDTO> categorias) {
+        this.categorias = categorias;
+    }
+}
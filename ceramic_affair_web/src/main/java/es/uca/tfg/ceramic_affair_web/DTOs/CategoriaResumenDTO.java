@@ -0,0 +1,81 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+/**
+ * DTO de salida con el resumen de una categoría para los listados públicos.
+ * Sustituye a la entidad Categoria, que serializaba la lista completa de sus productos:
+ * solo incluye los recuentos de productos y la imagen de portada.
+ *
+ * @version 1.0
+ */
+public class CategoriaResumenDTO {
+
+    private Long id;
+    private String nombre;
+    private long version;
+    private long numeroProductos;
+    private long numeroEnStock;
+
+    // Imagen más antigua de los productos de la categoría (null si ninguno tiene imágenes)
+    private ImagenDTO portada;
+
+    public CategoriaResumenDTO() {
+        // Constructor por defecto
+    }
+
+    public CategoriaResumenDTO(Long id, String nombre, long version, long numeroProductos, long numeroEnStock, ImagenDTO portada) {
+        this.id = id;
+        this.nombre = nombre;
+        this.version = version;
+        this.numeroProductos = numeroProductos;
+        this.numeroEnStock = numeroEnStock;
+        this.portada = portada;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public long getNumeroProductos() {
+        return numeroProductos;
+    }
+
+    public void setNumeroProductos(long numeroProductos) {
+        this.numeroProductos = numeroProductos;
+    }
+
+    public long getNumeroEnStock() {
+        return numeroEnStock;
+    }
+
+    public void setNumeroEnStock(long numeroEnStock) {
+        this.numeroEnStock = numeroEnStock;
+    }
+
+    public ImagenDTO getPortada() {
+        return portada;
+    }
+
+    public void setPortada(ImagenDTO portada) {
+        this.portada = portada;
+    }
+}
@@ -0,0 +1,180 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de salida con las estadísticas de la caché de segundo nivel y de la caché de consultas.
+ * Los recuentos son acumulados desde el arranque de la aplicación.
+ *
+ * @version 1.0
+ */
+public class EstadisticasCacheDTO {
+
+    // Totales de las regiones de entidades y colecciones
+    private long aciertos;
+    private long fallos;
+    private double ratioAciertos;
+
+    // Totales de la caché de consultas
+    private long aciertosConsultas;
+    private long fallosConsultas;
+    private double ratioAciertosConsultas;
+
+    private List<Region> regiones = new ArrayList<>();
+
+    /**
+     * Estadísticas de una región de la caché.
+     */
+    public static class Region {
+        private String nombre;
+        private long aciertos;
+        private long fallos;
+        private long escrituras;
+        private long elementos;
+        private double ratioAciertos;
+
+        public Region() {
+            // Constructor por defecto
+        }
+
+        public Region(String nombre, long aciertos, long fallos, long escrituras, long elementos) {
+            this.nombre = nombre;
+            this.aciertos = aciertos;
+            this.fallos = fallos;
+            this.escrituras = escrituras;
+            this.elementos = elementos;
+            this.ratioAciertos = ratio(aciertos, fallos);
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public void setNombre(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public long getAciertos() {
+            return aciertos;
+        }
+
+        public void setAciertos(long aciertos) {
+            this.aciertos = aciertos;
+        }
+
+        public long getFallos() {
+            return fallos;
+        }
+
+        public void setFallos(long fallos) {
+            this.fallos = fallos;
+        }
+
+        public long getEscrituras() {
+            return escrituras;
+        }
+
+        public void setEscrituras(long escrituras) {
+            this.escrituras = escrituras;
+        }
+
+        public long getElementos() {
+            return elementos;
+        }
+
+        public void setElementos(long elementos) {
+            this.elementos = elementos;
+        }
+
+        public double getRatioAciertos() {
+            return ratioAciertos;
+        }
+
+        public void setRatioAciertos(double ratioAciertos) {
+            this.ratioAciertos = ratioAciertos;
+        }
+    }
+
+    public EstadisticasCacheDTO() {
+        // Constructor por defecto
+    }
+
+    public EstadisticasCacheDTO(long aciertos, long fallos, long aciertosConsultas, long fallosConsultas, List<Region> regiones) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.ratioAciertos = ratio(aciertos, fallos);
+        this.aciertosConsultas = aciertosConsultas;
+        this.fallosConsultas = fallosConsultas;
+        this.ratioAciertosConsultas = ratio(aciertosConsultas, fallosConsultas);
+        this.regiones = regiones;
+    }
+
+    /**
+     * Método para calcular la proporción de aciertos sobre el total de accesos.
+     *
+     * @param aciertos el número de aciertos
+     * @param fallos el número de fallos
+     * @return la proporción de aciertos entre 0 y 1 (0 si no ha habido accesos)
+     */
+    public static double ratio(long aciertos, long fallos) {
+        long accesos = aciertos + fallos;
+        return accesos == 0 ? 0 : (double) aciertos / accesos;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public void setAciertos(long aciertos) {
+        this.aciertos = aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    public void setFallos(long fallos) {
+        this.fallos = fallos;
+    }
+
+    public double getRatioAciertos() {
+        return ratioAciertos;
+    }
+
+    public void setRatioAciertos(double ratioAciertos) {
+        this.ratioAciertos = ratioAciertos;
+    }
+
+    public long getAciertosConsultas() {
+        return aciertosConsultas;
+    }
+
+    public void setAciertosConsultas(long aciertosConsultas) {
+        this.aciertosConsultas = aciertosConsultas;
+    }
+
+    public long getFallosConsultas() {
+        return fallosConsultas;
+    }
+
+    public void setFallosConsultas(long fallosConsultas) {
+        this.fallosConsultas = fallosConsultas;
+    }
+
+    public double getRatioAciertosConsultas() {
+        return ratioAciertosConsultas;
+    }
+
+    public void setRatioAciertosConsultas(double ratioAciertosConsultas) {
+        this.ratioAciertosConsultas = ratioAciertosConsultas;
+    }
+
+    public List<Region> getRegiones() {
+        return regiones;
+    }
+
+    public void setRegiones(List<Region> regiones) {
+        this.regiones = regiones;
+    }
+}
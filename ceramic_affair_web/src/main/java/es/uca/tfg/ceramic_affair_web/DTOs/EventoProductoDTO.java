@@ -0,0 +1,64 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.math.BigDecimal;
+
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+
+/**
+ * DTO de salida con un cambio de producto enviado por el flujo de eventos del catálogo.
+ * Solo incluye los campos que la tienda muestra en directo (stock y precio); para el resto,
+ * el cliente vuelve a pedir el producto o los cambios desde la revisión del evento.
+ * En las eliminaciones, soldOut y precio son null.
+ *
+ * @version 1.0
+ */
+public class EventoProductoDTO {
+
+    private Operacion operacion;
+    private Long id;
+    private Boolean soldOut;
+    private BigDecimal precio;
+
+    public EventoProductoDTO() {
+        // Constructor por defecto
+    }
+
+    public EventoProductoDTO(Operacion operacion, Long id, Boolean soldOut, BigDecimal precio) {
+        this.operacion = operacion;
+        this.id = id;
+        this.soldOut = soldOut;
+        this.precio = precio;
+    }
+
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(Operacion operacion) {
+        this.operacion = operacion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Boolean getSoldOut() {
+        return soldOut;
+    }
+
+    public void setSoldOut(Boolean soldOut) {
+        this.soldOut = soldOut;
+    }
+
+    public BigDecimal getPrecio() {
+        return precio;
+    }
+
+    public void setPrecio(BigDecimal precio) {
+        this.precio = precio;
+    }
+}
@@ -0,0 +1,223 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con los recuentos por faceta para la barra lateral de filtros de la tienda.
+ * Las facetas de categoría y de stock se cuentan sin aplicar su propio filtro, para que la interfaz
+ * pueda mostrar cuántos productos tendría cada opción; el resto se cuenta con todos los filtros aplicados.
+ *
+ * @version 1.0
+ */
+public class FacetasDTO {
+
+    /**
+     * Número de productos de una categoría.
+     */
+    public static class FacetaCategoria {
+
+        private Long id;
+        private String nombre;
+        private long total;
+
+        public FacetaCategoria() {
+            // Constructor por defecto
+        }
+
+        public FacetaCategoria(Long id, String nombre, long total) {
+            this.id = id;
+            this.nombre = nombre;
+            this.total = total;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public void setNombre(String nombre) {
+            this.nombre = nombre;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+    }
+
+    /**
+     * Número de productos con el precio en un intervalo [desde, hasta); hasta es null en el último intervalo.
+     */
+    public static class IntervaloPrecio {
+
+        private BigDecimal desde;
+        private BigDecimal hasta;
+        private long total;
+
+        public IntervaloPrecio() {
+            // Constructor por defecto
+        }
+
+        public IntervaloPrecio(BigDecimal desde, BigDecimal hasta, long total) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.total = total;
+        }
+
+        public BigDecimal getDesde() {
+            return desde;
+        }
+
+        public void setDesde(BigDecimal desde) {
+            this.desde = desde;
+        }
+
+        public BigDecimal getHasta() {
+            return hasta;
+        }
+
+        public void setHasta(BigDecimal hasta) {
+            this.hasta = hasta;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+    }
+
+    /**
+     * Valores mínimo y máximo de un campo (null si no hay productos).
+     */
+    public static class Rango {
+
+        private BigDecimal min;
+        private BigDecimal max;
+
+        public Rango() {
+            // Constructor por defecto
+        }
+
+        public Rango(BigDecimal min, BigDecimal max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        public BigDecimal getMin() {
+            return min;
+        }
+
+        public void setMin(BigDecimal min) {
+            this.min = min;
+        }
+
+        public BigDecimal getMax() {
+            return max;
+        }
+
+        public void setMax(BigDecimal max) {
+            this.max = max;
+        }
+    }
+
+    private long total;
+    private long enStock;
+    private long agotados;
+    private List<FacetaCategoria> categorias = new ArrayList<>();
+    private List<IntervaloPrecio> precios = new ArrayList<>();
+    private Rango precio = new Rango();
+    private Rango altura = new Rango();
+    private Rango anchura = new Rango();
+    private Rango diametro = new Rango();
+
+    public FacetasDTO() {
+        // Constructor por defecto
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getEnStock() {
+        return enStock;
+    }
+
+    public void setEnStock(long enStock) {
+        this.enStock = enStock;
+    }
+
+    public long getAgotados() {
+        return agotados;
+    }
+
+    public void setAgotados(long agotados) {
+        this.agotados = agotados;
+    }
+
+    public List<FacetaCategoria> getCategorias() {
+        return categorias;
+    }
+
+    public void setCategorias(List<FacetaCategoria> categorias) {
+        this.categorias = categorias;
+    }
+
+    public List<IntervaloPrecio> getPrecios() {
+        return precios;
+    }
+
+    public void setPrecios(List<IntervaloPrecio> precios) {
+        this.precios = precios;
+    }
+
+    public Rango getPrecio() {
+        return precio;
+    }
+
+    public void setPrecio(Rango precio) {
+        this.precio = precio;
+    }
+
+    public Rango getAltura() {
+        return altura;
+    }
+
+    public void setAltura(Rango altura) {
+        this.altura = altura;
+    }
+
+    public Rango getAnchura() {
+        return anchura;
+    }
+
+    public void setAnchura(Rango anchura) {
+        this.anchura = anchura;
+    }
+
+    public Rango getDiametro() {
+        return diametro;
+    }
+
+    public void setDiametro(Rango diametro) {
+        this.diametro = diametro;
+    }
+}
@@ -0,0 +1,133 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO con los filtros por rango de precio y de dimensiones de los productos.
+ * Cada límite es opcional e inclusivo; un límite null no restringe ese extremo del rango.
+ * Se rellena directamente a partir de los parámetros de la petición (precioMin, precioMax, alturaMin...).
+ *
+ * @version 1.0
+ */
+public class FiltroRangosDTO {
+
+    private BigDecimal precioMin;
+    private BigDecimal precioMax;
+    private Float alturaMin;
+    private Float alturaMax;
+    private Float anchuraMin;
+    private Float anchuraMax;
+    private Float diametroMin;
+    private Float diametroMax;
+
+    public FiltroRangosDTO() {
+        // Constructor por defecto
+    }
+
+    public FiltroRangosDTO(BigDecimal precioMin, BigDecimal precioMax) {
+        this.precioMin = precioMin;
+        this.precioMax = precioMax;
+    }
+
+    /**
+     * Método para saber si el filtro no restringe ningún rango.
+     *
+     * @return true si todos los límites son null
+     */
+    public boolean estaVacio() {
+        return precioMin == null && precioMax == null && alturaMin == null && alturaMax == null
+            && anchuraMin == null && anchuraMax == null && diametroMin == null && diametroMax == null;
+    }
+
+    /**
+     * Método para comprobar si un producto está dentro de todos los rangos.
+     *
+     * @param producto el DTO del producto
+     * @return true si el producto cumple el filtro
+     */
+    public boolean cumple(ProductoDTO producto) {
+        return dentro(producto.getPrecio(), precioMin, precioMax)
+            && dentro(producto.getAltura(), alturaMin, alturaMax)
+            && dentro(producto.getAnchura(), anchuraMin, anchuraMax)
+            && dentro(producto.getDiametro(), diametroMin, diametroMax);
+    }
+
+    /**
+     * Método para obtener una representación canónica del filtro, usada como parte de claves de caché.
+     *
+     * @return los límites del filtro separados por ';'
+     */
+    public String firma() {
+        return (precioMin == null ? "" : precioMin.stripTrailingZeros().toPlainString()) + ";"
+            + (precioMax == null ? "" : precioMax.stripTrailingZeros().toPlainString()) + ";"
+            + alturaMin + ";" + alturaMax + ";" + anchuraMin + ";" + anchuraMax + ";" + diametroMin + ";" + diametroMax;
+    }
+
+    private static <T extends Comparable<T>> boolean dentro(T valor, T min, T max) {
+        return (min == null || valor.compareTo(min) >= 0) && (max == null || valor.compareTo(max) <= 0);
+    }
+
+    public BigDecimal getPrecioMin() {
+        return precioMin;
+    }
+
+    public void setPrecioMin(BigDecimal precioMin) {
+        this.precioMin = precioMin;
+    }
+
+    public BigDecimal getPrecioMax() {
+        return precioMax;
+    }
+
+    public void setPrecioMax(BigDecimal precioMax) {
+        this.precioMax = precioMax;
+    }
+
+    public Float getAlturaMin() {
+        return alturaMin;
+    }
+
+    public void setAlturaMin(Float alturaMin) {
+        this.alturaMin = alturaMin;
+    }
+
+    public Float getAlturaMax() {
+        return alturaMax;
+    }
+
+    public void setAlturaMax(Float alturaMax) {
+        this.alturaMax = alturaMax;
+    }
+
+    public Float getAnchuraMin() {
+        return anchuraMin;
+    }
+
+    public void setAnchuraMin(Float anchuraMin) {
+        this.anchuraMin = anchuraMin;
+    }
+
+    public Float getAnchuraMax() {
+        return anchuraMax;
+    }
+
+    public void setAnchuraMax(Float anchuraMax) {
+        this.anchuraMax = anchuraMax;
+    }
+
+    public Float getDiametroMin() {
+        return diametroMin;
+    }
+
+    public void setDiametroMin(Float diametroMin) {
+        this.diametroMin = diametroMin;
+    }
+
+    public Float getDiametroMax() {
+        return diametroMax;
+    }
+
+    public void setDiametroMax(Float diametroMax) {
+        this.diametroMax = diametroMax;
+    }
+}
@@ -0,0 +1,81 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+/**
+ * DTO de salida para la entidad Imagen.
+ * Incluye las dimensiones de la imagen y la URL desde la que se sirve, para que el frontend
+ * pueda pintarla sin pedir antes sus metadatos.
+ * 
+ * @version 1.0
+ */
+public class ImagenDTO {
+
+    private Long id;
+    private String ruta;
+    private String formato;
+    private float ancho;
+    private float alto;
+    private String url;
+
+    public ImagenDTO() {
+        // Constructor por defecto
+    }
+
+    public ImagenDTO(Long id, String ruta, String formato, float ancho, float alto, String url) {
+        this.id = id;
+        this.ruta = ruta;
+        this.formato = formato;
+        this.ancho = ancho;
+        this.alto = alto;
+        this.url = url;
+    }
+
+    // Getters y setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRuta() {
+        return ruta;
+    }
+
+    public void setRuta(String ruta) {
+        this.ruta = ruta;
+    }
+
+    public String getFormato() {
+        return formato;
+    }
+
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+
+    public float getAncho() {
+        return ancho;
+    }
+
+    public void setAncho(float ancho) {
+        this.ancho = ancho;
+    }
+
+    public float getAlto() {
+        return alto;
+    }
+
+    public void setAlto(float alto) {
+        this.alto = alto;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+}
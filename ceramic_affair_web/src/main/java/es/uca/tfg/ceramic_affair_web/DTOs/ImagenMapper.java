@@ -0,0 +1,56 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+
+/**
+ * Mapper para convertir entre Imagen e ImagenDTO.
+ * 
+ * @version 1.0
+ */
+public class ImagenMapper {
+
+    /**
+     * Prefijo de las URLs desde las que se sirven las imágenes (ver StaticResourceConfig).
+     */
+    public static final String PREFIJO_URL = "/uploads/";
+
+    public static ImagenDTO toDTO(Imagen imagen) {
+        if (imagen == null) {
+            return null;
+        }
+        return new ImagenDTO(
+            imagen.getId(),
+            imagen.getRuta(),
+            imagen.getFormato(),
+            imagen.getAncho(),
+            imagen.getAlto(),
+            PREFIJO_URL + imagen.getRuta()
+        );
+    }
+
+    /**
+     * Método para mapear las imágenes de un producto conservando el orden de sus ids.
+     * Los ids que no se encuentran en el mapa se omiten.
+     * 
+     * @param ids los ids de las imágenes del producto
+     * @param imagenes las imágenes disponibles, indexadas por id
+     * @return la lista de DTOs de las imágenes
+     */
+    public static List<ImagenDTO> toDTOList(List<Long> ids, Map<Long, Imagen> imagenes) {
+        List<ImagenDTO> resultado = new ArrayList<>();
+        if (ids == null) {
+            return resultado;
+        }
+        for (Long id : ids) {
+            Imagen imagen = imagenes.get(id);
+            if (imagen != null) {
+                resultado.add(toDTO(imagen));
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,151 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con el progreso y el informe de una importación de productos.
+ * Mientras la importación está en curso refleja las filas procesadas hasta el momento;
+ * al terminar contiene el informe completo con los errores de cada fila rechazada.
+ *
+ * @version 1.0
+ */
+public class ImportacionDTO {
+
+    /**
+     * Formato del archivo importado (también el de las exportaciones del catálogo).
+     */
+    public enum Formato {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * Estado de la importación.
+     */
+    public enum Estado {
+        EN_CURSO,
+        COMPLETADA,
+        FALLIDA
+    }
+
+    /**
+     * Error de una fila rechazada.
+     */
+    public static class ErrorFila {
+
+        private int fila;
+        private String mensaje;
+
+        public ErrorFila() {
+            // Constructor por defecto
+        }
+
+        public ErrorFila(int fila, String mensaje) {
+            this.fila = fila;
+            this.mensaje = mensaje;
+        }
+
+        public int getFila() {
+            return fila;
+        }
+
+        public void setFila(int fila) {
+            this.fila = fila;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        public void setMensaje(String mensaje) {
+            this.mensaje = mensaje;
+        }
+    }
+
+    private String id;
+    private Formato formato;
+    private Estado estado;
+    private int filasProcesadas;
+    private int filasImportadas;
+    private int filasConError;
+    private List<ErrorFila> errores;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+
+    public ImportacionDTO() {
+        // Constructor por defecto
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Formato getFormato() {
+        return formato;
+    }
+
+    public void setFormato(Formato formato) {
+        this.formato = formato;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    public int getFilasProcesadas() {
+        return filasProcesadas;
+    }
+
+    public void setFilasProcesadas(int filasProcesadas) {
+        this.filasProcesadas = filasProcesadas;
+    }
+
+    public int getFilasImportadas() {
+        return filasImportadas;
+    }
+
+    public void setFilasImportadas(int filasImportadas) {
+        this.filasImportadas = filasImportadas;
+    }
+
+    public int getFilasConError() {
+        return filasConError;
+    }
+
+    public void setFilasConError(int filasConError) {
+        this.filasConError = filasConError;
+    }
+
+    public List<ErrorFila> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<ErrorFila> errores) {
+        this.errores = errores;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+}
@@ -0,0 +1,72 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con el resultado de una petición por lotes a la API pública.
+ * Cada recurso se devuelve indexado por su id y con la misma representación que su endpoint individual;
+ * los ids que no existen se enumeran en noEncontrados, agrupados por tipo de recurso.
+ * Las categorías se devuelven como resúmenes (CategoriaResumenDTO), como en el listado público de categorías,
+ * y las imágenes como ImagenDTO, igual que en los productos expandidos.
+ *
+ * @version 1.2
+ */
+public class LoteDTO {
+
+    public static final String PRODUCTOS = "productos";
+    public static final String IMAGENES = "imagenes";
+    public static final String CATEGORIAS = "categorias";
+    public static final String FIND_ME_POSTS = "findMePosts";
+
+    private Map<Long, ProductoDTO> productos = new LinkedHashMap<>();
+    private Map<Long, ImagenDTO> imagenes = new LinkedHashMap<>();
+    private Map<Long, CategoriaResumenDTO> categorias = new LinkedHashMap<>();
+    private Map<Long, FindMePostDTO> findMePosts = new LinkedHashMap<>();
+    private Map<String, List<Long>> noEncontrados = new LinkedHashMap<>();
+
+    public LoteDTO() {
+        // Constructor por defecto
+    }
+
+    public Map<Long, ProductoDTO> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(Map<Long, ProductoDTO> productos) {
+        this.productos = productos;
+    }
+
+    public Map<Long, ImagenDTO> getImagenes() {
+        return imagenes;
+    }
+
+    public void setImagenes(Map<Long, ImagenDTO> imagenes) {
+        this.imagenes = imagenes;
+    }
+
+    public Map<Long, CategoriaResumenDTO> getCategorias() {
+        return categorias;
+    }
+
+    public void setCategorias(Map<Long, CategoriaResumenDTO> categorias) {
+        this.categorias = categorias;
+    }
+
+    public Map<Long, FindMePostDTO> getFindMePosts() {
+        return findMePosts;
+    }
+
+    public void setFindMePosts(Map<Long, FindMePostDTO> findMePosts) {
+        this.findMePosts = findMePosts;
+    }
+
+    public Map<String, List<Long>> getNoEncontrados() {
+        return noEncontrados;
+    }
+
+    public void setNoEncontrados(Map<String, List<Long>> noEncontrados) {
+        this.noEncontrados = noEncontrados;
+    }
+}
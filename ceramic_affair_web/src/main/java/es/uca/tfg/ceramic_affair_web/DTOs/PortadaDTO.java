@@ -0,0 +1,76 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO de salida con todo lo que necesita la página de inicio en una sola respuesta:
+ * las categorías con sus productos más recientes y las próximas publicaciones "Encuéntrame".
+ *
+ * @version 1.0
+ */
+public class PortadaDTO {
+
+    /**
+     * Categoría con sus productos más recientes.
+     */
+    public static class Seccion {
+
+        private CategoriaResumenDTO categoria;
+        private List<ProductoDTO> productos = new ArrayList<>();
+
+        public Seccion() {
+            // Constructor por defecto
+        }
+
+        public Seccion(CategoriaResumenDTO categoria, List<ProductoDTO> productos) {
+            this.categoria = categoria;
+            this.productos = productos;
+        }
+
+        public CategoriaResumenDTO getCategoria() {
+            return categoria;
+        }
+
+        public void setCategoria(CategoriaResumenDTO categoria) {
+            this.categoria = categoria;
+        }
+
+        public List<ProductoDTO> getProductos() {
+            return productos;
+        }
+
+        public void setProductos(List<ProductoDTO> productos) {
+            this.productos = productos;
+        }
+    }
+
+    // Secciones en el orden de las categorías (por id); los productos, del más reciente al más antiguo
+    private List<Seccion> secciones = new ArrayList<>();
+    private List<FindMePostDTO> proximasPublicaciones = new ArrayList<>();
+
+    public PortadaDTO() {
+        // Constructor por defecto
+    }
+
+    public PortadaDTO(List<Seccion> secciones, List<FindMePostDTO> proximasPublicaciones) {
+        this.secciones = secciones;
+        this.proximasPublicaciones = proximasPublicaciones;
+    }
+
+    public List<Seccion> getSecciones() {
+        return secciones;
+    }
+
+    public void setSecciones(List<Seccion> secciones) {
+        this.secciones = secciones;
+    }
+
+    public List<FindMePostDTO> getProximasPublicaciones() {
+        return proximasPublicaciones;
+    }
+
+    public void setProximasPublicaciones(List<FindMePostDTO> proximasPublicaciones) {
+        this.proximasPublicaciones = proximasPublicaciones;
+    }
+}
@@ -0,0 +1,143 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import es.uca.tfg.ceramic_affair_web.exceptions.ProductoException;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
+
+/**
+ * Cursor opaco para la paginación por clave (keyset) de productos.
+ * Identifica un producto frontera por su fecha de creación y su id, junto con la dirección
+ * en la que se quiere continuar el recorrido a partir de él.
+ * Como la clave es (fechaCreacion, id), solo admite los órdenes por fecha; los órdenes por precio
+ * ("baratos" y "caros") solo están disponibles con la paginación por páginas.
+ * 
+ * @version 1.1
+ */
+public class ProductoCursor {
+
+    /**
+     * Orden natural de la clave (fechaCreacion, id), de más antiguo a más reciente.
+     */
+    public static final Comparator<ProductoDTO> ORDEN_CLAVE = Comparator
+        .comparing(ProductoDTO::getFechaCreacion, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparing(ProductoDTO::getId);
+
+    /**
+     * Dirección del recorrido respecto al producto frontera.
+     */
+    public enum Direccion {
+        SIGUIENTE,
+        ANTERIOR
+    }
+
+    private static final String SEPARADOR = "|";
+
+    private final Direccion direccion;
+    private final LocalDateTime fechaCreacion;
+    private final Long id;
+
+    public ProductoCursor(Direccion direccion, LocalDateTime fechaCreacion, Long id) {
+        this.direccion = direccion;
+        this.fechaCreacion = fechaCreacion;
+        this.id = id;
+    }
+
+    public Direccion getDireccion() {
+        return direccion;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Método para saber si el cursor pide la página anterior.
+     * 
+     * @return true si el cursor pide la página anterior
+     */
+    public boolean esAnterior() {
+        return direccion == Direccion.ANTERIOR;
+    }
+
+    /**
+     * Método para codificar el cursor como una cadena opaca apta para URLs.
+     * 
+     * @return el cursor codificado
+     */
+    public String codificar() {
+        String valor = direccion.name() + SEPARADOR + fechaCreacion + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Método para comprobar que un orden se puede recorrer por cursor.
+     * 
+     * @param orden el orden pedido
+     * @throws ProductoException.OrdenNoValido si el orden es por precio
+     */
+    public static void comprobarOrden(String orden) {
+        if ("baratos".equalsIgnoreCase(orden) || "caros".equalsIgnoreCase(orden)) {
+            throw new ProductoException.OrdenNoValido(orden);
+        }
+    }
+
+    /**
+     * Método para decodificar un cursor recibido en una petición.
+     * 
+     * @param cursor el cursor codificado (null o vacío para la primera página)
+     * @return el cursor decodificado, o null si se pide la primera página
+     * @throws ProductoException.CursorNoValido si el cursor no tiene un formato válido
+     */
+    public static ProductoCursor decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\" + SEPARADOR);
+            if (partes.length != 3) {
+                throw new ProductoException.CursorNoValido(cursor);
+            }
+            return new ProductoCursor(Direccion.valueOf(partes[0]), LocalDateTime.parse(partes[1]), Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ProductoException.CursorNoValido(cursor);
+        }
+    }
+
+    /**
+     * Método para construir la página de resultados y sus cursores.
+     * 
+     * @param contenido los productos de la página, en el orden en que se muestran
+     * @param size el tamaño de página solicitado
+     * @param cursor el cursor de la petición (null si es la primera página)
+     * @param hayMas true si existen más productos más allá de la página en la dirección recorrida
+     * @return la página con los cursores siguiente y anterior (null si no hay más páginas en esa dirección)
+     */
+    public static PaginaCursor<ProductoDTO> paginar(List<ProductoDTO> contenido, int size, ProductoCursor cursor, boolean hayMas) {
+        if (contenido.isEmpty()) {
+            return new PaginaCursor<>(contenido, size, null, null);
+        }
+
+        ProductoDTO primero = contenido.get(0);
+        ProductoDTO ultimo = contenido.get(contenido.size() - 1);
+
+        // Si se viene de una página posterior siempre hay página siguiente; si no, solo cuando quedan productos
+        boolean haySiguiente = (cursor != null && cursor.esAnterior()) || hayMas;
+        // Si se viene de una página anterior siempre hay página anterior; si no, solo cuando quedan productos
+        boolean hayAnterior = cursor != null && (!cursor.esAnterior() || hayMas);
+
+        return new PaginaCursor<>(contenido, size,
+            haySiguiente ? new ProductoCursor(Direccion.SIGUIENTE, ultimo.getFechaCreacion(), ultimo.getId()).codificar() : null,
+            hayAnterior ? new ProductoCursor(Direccion.ANTERIOR, primero.getFechaCreacion(), primero.getId()).codificar() : null);
+    }
+}
@@ -1,6 +1,7 @@
 package es.uca.tfg.ceramic_affair_web.DTOs;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import jakarta.validation.constraints.*;
 
@@ -8,7 +9,7 @@ import jakarta.validation.constraints.*;
  * DTO para la entidad Producto.
  * Este DTO se utiliza para transferir datos de productos entre la capa de presentación y la capa de servicio.
  * 
- * @version 1.1
+ * @version 1.3
  */
 public class ProductoDTO {
 
@@ -44,6 +45,12 @@ public class ProductoDTO {
     
     private List<Long> idsImagenes;
 
+    // Solo de salida: se ignora al crear o modificar productos
+    private LocalDateTime fechaCreacion;
+
+    // Solo de salida: versión para el bloqueo optimista, que se envía en If-Match al modificar
+    private Long version;
+
     public ProductoDTO() {
         // Constructor por defecto
     }
@@ -170,4 +177,20 @@ public class ProductoDTO {
     public void setIdsImagenes(List<Long> idsImagenes) {
         this.idsImagenes = idsImagenes;
     }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,37 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.util.List;
+
+/**
+ * DTO expandido de salida para la entidad Producto.
+ * Además de los ids de las imágenes incluye sus metadatos y URLs, de modo que una tarjeta
+ * o la ficha de un producto se pueden pintar sin una petición adicional por imagen.
+ * Se devuelve solo cuando el cliente lo solicita con el parámetro expandir=imagenes.
+ * 
+ * @version 1.1
+ */
+public class ProductoExpandidoDTO extends ProductoDTO {
+
+    private List<ImagenDTO> imagenes;
+
+    public ProductoExpandidoDTO() {
+        // Constructor por defecto
+    }
+
+    // Constructor para expandir un ProductoDTO existente con los metadatos de sus imágenes
+    public ProductoExpandidoDTO(ProductoDTO base, List<ImagenDTO> imagenes) {
+        super(base.getId(), base.getNombre(), base.getIdCategoria(), base.getNombreCategoria(), base.getDescripcion(),
+            base.getAltura(), base.getAnchura(), base.getDiametro(), base.getPrecio(), base.isSoldOut(), base.getIdsImagenes());
+        setFechaCreacion(base.getFechaCreacion());
+        setVersion(base.getVersion());
+        this.imagenes = imagenes;
+    }
+
+    public List<ImagenDTO> getImagenes() {
+        return imagenes;
+    }
+
+    public void setImagenes(List<ImagenDTO> imagenes) {
+        this.imagenes = imagenes;
+    }
+}
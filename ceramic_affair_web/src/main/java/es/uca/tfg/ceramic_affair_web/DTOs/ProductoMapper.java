@@ -12,7 +12,7 @@ import es.uca.tfg.ceramic_affair_web.entities.Producto;
  * Este mapper se utiliza para transformar entidades Producto a DTOs y viceversa,
  * facilitando la transferencia de datos entre la capa de servicio y la capa de presentación.
  * 
- * @version 1.0
+ * @version 1.2
  */
 public class ProductoMapper {
 
@@ -25,7 +25,7 @@ public class ProductoMapper {
             producto.getImagenes().stream().map(Imagen::getId).collect(Collectors.toList())
             : null;
         
-        return new ProductoDTO(
+        ProductoDTO dto = new ProductoDTO(
             producto.getId(),
             producto.getNombre(),
             producto.getCategoria() != null ? producto.getCategoria().getId() : null,
@@ -38,6 +38,9 @@ public class ProductoMapper {
             producto.isSoldOut(),
             idsImagenes
         );
+        dto.setFechaCreacion(producto.getFechaCreacion());
+        dto.setVersion(producto.getVersion());
+        return dto;
     }
 
     public static Producto fromDTO(ProductoDTO dto, Categoria categoria, List<Imagen> imagenes) {
@@ -0,0 +1,73 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Data Transfer Object (DTO) para la actualización de stock por lotes.
+ * Contiene los pares {id, soldOut} que se aplican en una sola transacción,
+ * por ejemplo para marcar como agotadas todas las piezas vendidas en un mercado.
+ * 
+ * @version 1.0
+ */
+public class ProductoStockLoteDTO {
+
+    /**
+     * Estado de stock que se quiere establecer para un producto.
+     */
+    public static class Elemento {
+
+        @NotNull(message = "El campo 'id' no puede ser nulo")
+        private Long id;
+
+        @NotNull(message = "El campo 'soldOut' no puede ser nulo")
+        private Boolean soldOut;
+
+        public Elemento() {
+            // Constructor por defecto
+        }
+
+        public Elemento(Long id, Boolean soldOut) {
+            this.id = id;
+            this.soldOut = soldOut;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Boolean getSoldOut() {
+            return soldOut;
+        }
+
+        public void setSoldOut(Boolean soldOut) {
+            this.soldOut = soldOut;
+        }
+    }
+
+    @NotEmpty(message = "La lista de productos no puede estar vacía")
+    private List<@Valid Elemento> productos;
+
+    public ProductoStockLoteDTO() {
+        // Constructor por defecto
+    }
+
+    public ProductoStockLoteDTO(List<Elemento> productos) {
+        this.productos = productos;
+    }
+
+    public List<Elemento> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(List<Elemento> productos) {
+        this.productos = productos;
+    }
+}
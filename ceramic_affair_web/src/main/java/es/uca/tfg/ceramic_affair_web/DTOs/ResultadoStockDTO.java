@@ -0,0 +1,46 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+/**
+ * DTO con el resultado de la actualización de stock de un producto dentro de un lote.
+ * 
+ * @version 1.0
+ */
+public class ResultadoStockDTO {
+
+    /**
+     * Resultado de la actualización para un producto.
+     */
+    public enum Estado {
+        ACTUALIZADO,
+        SIN_CAMBIOS,
+        NO_ENCONTRADO
+    }
+
+    private Long id;
+    private Estado estado;
+
+    public ResultadoStockDTO() {
+        // Constructor por defecto
+    }
+
+    public ResultadoStockDTO(Long id, Estado estado) {
+        this.id = id;
+        this.estado = estado;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+}
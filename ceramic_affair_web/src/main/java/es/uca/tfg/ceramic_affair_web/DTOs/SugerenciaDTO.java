@@ -0,0 +1,38 @@
+package es.uca.tfg.ceramic_affair_web.DTOs;
+
+/**
+ * DTO para las sugerencias de autocompletado de productos.
+ * Contiene solo lo necesario para mostrar la sugerencia y enlazar al producto.
+ *
+ * @version 1.0
+ */
+public class SugerenciaDTO {
+
+    private Long id;
+    private String nombre;
+
+    public SugerenciaDTO() {
+        // Constructor por defecto
+    }
+
+    public SugerenciaDTO(Long id, String nombre) {
+        this.id = id;
+        this.nombre = nombre;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+}
@@ -0,0 +1,53 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import es.uca.tfg.ceramic_affair_web.services.RevisionCatalogo;
+
+/**
+ * Configuración de las peticiones condicionales (ETag / Last-Modified) de la API pública.
+ * Registra el contador de revisiones del contenido público y aplica el interceptor
+ * a los endpoints de lectura del catálogo y de las publicaciones "Encuéntrame".
+ *
+ * @version 1.1
+ */
+@Configuration
+public class CabecerasCondicionalesConfig implements WebMvcConfigurer {
+
+    /**
+     * Rutas públicas cuyas respuestas dependen solo del contenido versionado por RevisionCatalogo.
+     */
+    public static final String[] RUTAS_CONDICIONALES = {
+        "/api/public/productos/**",
+        "/api/public/categorias/**",
+        "/api/public/imagenes/**",
+        "/api/public/find-me-posts/**",
+        "/api/public/batch"
+    };
+
+    /**
+     * Declara el contador de revisiones del contenido público.
+     * Empieza en el instante de arranque en milisegundos, de modo que las revisiones de una ejecución son siempre
+     * mayores que las de las anteriores y un cliente con una revisión de otra ejecución se detecta como desfasado.
+     *
+     * @return el contador de revisiones
+     */
+    @Bean
+    public RevisionCatalogo revisionCatalogo() {
+        return new RevisionCatalogo(System.currentTimeMillis());
+    }
+
+    /**
+     * Registra el interceptor de peticiones condicionales.
+     *
+     * @param registry el registro de interceptores
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CabecerasCondicionalesInterceptor(revisionCatalogo()))
+                .addPathPatterns(RUTAS_CONDICIONALES);
+    }
+}
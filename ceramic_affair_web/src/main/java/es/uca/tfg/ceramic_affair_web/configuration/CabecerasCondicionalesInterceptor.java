@@ -0,0 +1,57 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import es.uca.tfg.ceramic_affair_web.services.RevisionCatalogo;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor que añade validadores HTTP (ETag y Last-Modified) a las lecturas públicas
+ * y responde 304 Not Modified a las peticiones condicionales cuyo contenido no ha cambiado.
+ * Los validadores se derivan de la revisión global de RevisionCatalogo, por lo que la comprobación
+ * se hace antes de ejecutar el controlador: sin consultar la base de datos ni serializar la respuesta.
+ *
+ * @version 1.0
+ */
+public class CabecerasCondicionalesInterceptor implements HandlerInterceptor {
+
+    private final RevisionCatalogo revisionCatalogo;
+
+    /**
+     * Constructor del interceptor.
+     *
+     * @param revisionCatalogo el contador de revisiones del contenido público
+     */
+    public CabecerasCondicionalesInterceptor(RevisionCatalogo revisionCatalogo) {
+        this.revisionCatalogo = revisionCatalogo;
+    }
+
+    /**
+     * Comprueba If-None-Match / If-Modified-Since frente a la revisión vigente.
+     *
+     * @param request  la petición HTTP
+     * @param response la respuesta HTTP
+     * @param handler  el controlador que atenderá la petición
+     * @return false si ya se ha respondido 304, true para continuar con el controlador
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String metodo = request.getMethod();
+        if (!"GET".equals(metodo) && !"HEAD".equals(metodo)) {
+            return true;
+        }
+
+        // La ETag se lee antes que los datos: si se confirma un cambio entretanto, la respuesta
+        // será más nueva que su ETag y la siguiente validación la descargará de nuevo
+        ServletWebRequest peticion = new ServletWebRequest(request, response);
+        if (peticion.checkNotModified(revisionCatalogo.getEtag(), revisionCatalogo.getUltimaModificacion())) {
+            return false;
+        }
+        // Las respuestas se pueden almacenar, pero siempre se revalidan
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return true;
+    }
+}
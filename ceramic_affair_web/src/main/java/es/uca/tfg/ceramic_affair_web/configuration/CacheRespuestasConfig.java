@@ -0,0 +1,42 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import java.util.Arrays;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.uca.tfg.ceramic_affair_web.services.CacheRespuestas;
+
+/**
+ * Configuración de la caché de respuestas de las lecturas públicas.
+ * El filtro se aplica a las mismas rutas que las peticiones condicionales, cuyas respuestas dependen solo
+ * del contenido público; el resto de rutas públicas (contacto, login, suscripciones) nunca se guardan.
+ * Se registra después de la cadena de seguridad para que las respuestas servidas desde la caché también lleven
+ * las cabeceras CORS. Se activa con la propiedad ceramic.affair.cache.respuestas.enabled (activada por defecto).
+ *
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ceramic.affair.cache.respuestas", name = "enabled", matchIfMissing = true)
+public class CacheRespuestasConfig {
+
+    /**
+     * Registra el filtro de la caché de respuestas.
+     *
+     * @param cacheRespuestas la caché de respuestas
+     * @return el registro del filtro
+     */
+    @Bean
+    public FilterRegistrationBean<CacheRespuestasFilter> cacheRespuestasFilter(CacheRespuestas cacheRespuestas) {
+        FilterRegistrationBean<CacheRespuestasFilter> registro = new FilterRegistrationBean<>(new CacheRespuestasFilter(cacheRespuestas));
+        // Los patrones de servlet solo admiten el comodín final '/*'
+        registro.setUrlPatterns(Arrays.stream(CabecerasCondicionalesConfig.RUTAS_CONDICIONALES)
+            .map(ruta -> ruta.replace("/**", "/*"))
+            .toList());
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registro;
+    }
+}
@@ -0,0 +1,155 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import es.uca.tfg.ceramic_affair_web.services.CacheRespuestas;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que sirve las lecturas públicas desde CacheRespuestas.
+ * En un acierto escribe directamente los bytes guardados (o 304 si la ETag coincide), sin pasar por el
+ * controlador ni por Jackson; en un fallo captura la respuesta del controlador y, si es un 200 etiquetado,
+ * la guarda. La clave es la ruta con los parámetros ordenados, de modo que el orden de los parámetros no importa.
+ *
+ * @version 1.0
+ */
+public class CacheRespuestasFilter extends OncePerRequestFilter {
+
+    /**
+     * Cabecera que indica si la respuesta se ha servido desde la caché (HIT) o se ha calculado (MISS).
+     */
+    public static final String CABECERA_CACHE = "X-Cache";
+
+    private final CacheRespuestas cacheRespuestas;
+
+    /**
+     * Constructor del filtro.
+     *
+     * @param cacheRespuestas la caché de respuestas
+     */
+    public CacheRespuestasFilter(CacheRespuestas cacheRespuestas) {
+        this.cacheRespuestas = cacheRespuestas;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clave = clave(request);
+        CacheRespuestas.Respuesta guardada = cacheRespuestas.obtener(clave);
+        if (guardada != null) {
+            escribir(guardada, request, response);
+            return;
+        }
+
+        // La generación se lee antes de calcular la respuesta: si se purga algo entretanto, no se guarda
+        long generacion = cacheRespuestas.getGeneracion();
+        ContentCachingResponseWrapper envoltura = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, envoltura);
+
+        Set<String> etiquetas = CacheRespuestas.etiquetasDe(request);
+        if (etiquetas != null && envoltura.getStatus() == HttpServletResponse.SC_OK && !request.isAsyncStarted()) {
+            byte[] cuerpo = envoltura.getContentAsByteArray();
+            byte[] cuerpoGzip = cuerpo.length >= CacheRespuestas.TAMANO_MINIMO_GZIP ? gzip(cuerpo) : null;
+            cacheRespuestas.guardar(clave, new CacheRespuestas.Respuesta(envoltura.getContentType(),
+                envoltura.getHeader(HttpHeaders.ETAG), envoltura.getHeader(HttpHeaders.LAST_MODIFIED),
+                envoltura.getHeader(HttpHeaders.CACHE_CONTROL), cuerpo, cuerpoGzip, Set.copyOf(etiquetas)), generacion);
+            if (cuerpoGzip != null) {
+                envoltura.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+        }
+        envoltura.setHeader(CABECERA_CACHE, "MISS");
+        envoltura.copyBodyToResponse();
+    }
+
+    /**
+     * Método helper para escribir una respuesta guardada, comprimida si el cliente acepta gzip.
+     *
+     * @param guardada la respuesta guardada
+     * @param request la petición HTTP
+     * @param response la respuesta HTTP
+     * @throws IOException si ocurre un error al escribir
+     */
+    private static void escribir(CacheRespuestas.Respuesta guardada, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setHeader(CABECERA_CACHE, "HIT");
+        if (guardada.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, guardada.cacheControl());
+        }
+        if (guardada.ultimaModificacion() != null) {
+            response.setHeader(HttpHeaders.LAST_MODIFIED, guardada.ultimaModificacion());
+        }
+        if (guardada.etag() != null && new ServletWebRequest(request, response).checkNotModified(guardada.etag())) {
+            return;
+        }
+
+        byte[] cuerpo = guardada.cuerpo();
+        if (guardada.cuerpoGzip() != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String aceptadas = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+            if (aceptadas != null && aceptadas.contains("gzip")) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                cuerpo = guardada.cuerpoGzip();
+            }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(guardada.tipoContenido());
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+
+    /**
+     * Método helper para obtener la clave de una petición: la ruta y los parámetros ordenados por nombre
+     * (los valores repetidos de un parámetro conservan su orden).
+     *
+     * @param request la petición HTTP
+     * @return la clave de la petición
+     */
+    static String clave(HttpServletRequest request) {
+        StringBuilder clave = new StringBuilder(request.getRequestURI());
+        char separador = '?';
+        for (Map.Entry<String, String[]> parametro : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String valor : parametro.getValue()) {
+                clave.append(separador)
+                     .append(URLEncoder.encode(parametro.getKey(), StandardCharsets.UTF_8)).append('=')
+                     .append(URLEncoder.encode(valor, StandardCharsets.UTF_8));
+                separador = '&';
+            }
+        }
+        return clave.toString();
+    }
+
+    /**
+     * Método helper para comprimir un cuerpo con gzip.
+     *
+     * @param cuerpo el cuerpo a comprimir
+     * @return el cuerpo comprimido
+     * @throws IOException si ocurre un error al comprimir
+     */
+    private static byte[] gzip(byte[] cuerpo) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(cuerpo.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(cuerpo);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,101 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de la caché de segundo nivel y de la caché de consultas de Hibernate.
+ * Las regiones se guardan en memoria con Ehcache a través de JCache; cada una tiene un número máximo
+ * de entradas y un tiempo de vida propios. Las entidades cacheadas usan la estrategia READ_WRITE, así que
+ * las escrituras del propio Hibernate (incluidas las sentencias UPDATE/DELETE masivas) mantienen la caché al día.
+ * Se activa con la propiedad ceramic.affair.cache.enabled (activada por defecto).
+ *
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ceramic.affair.cache", name = "enabled", matchIfMissing = true)
+public class CacheSegundoNivelConfig {
+
+    public static final String REGION_CATEGORIA = "categoria";
+    public static final String REGION_IMAGEN = "imagen";
+    public static final String REGION_PRODUCTO = "producto";
+    public static final String REGION_PRODUCTO_IMAGENES = "producto.imagenes";
+    public static final String REGION_CONSULTAS = "consultas";
+
+    /**
+     * Límites de una región de la caché.
+     *
+     * @param nombre el nombre de la región
+     * @param maxEntradas el número máximo de entradas en memoria
+     * @param ttl el tiempo de vida de cada entrada (null si no caduca)
+     */
+    public record Region(String nombre, long maxEntradas, Duration ttl) {
+    }
+
+    /**
+     * Regiones de la caché con sus límites.
+     * La región de marcas de tiempo registra la última modificación de cada tabla para invalidar la caché
+     * de consultas; tiene una entrada por tabla y no debe caducar.
+     */
+    public static final List<Region> REGIONES = List.of(
+        new Region(REGION_CATEGORIA, 500, Duration.ofHours(1)),
+        new Region(REGION_IMAGEN, 5_000, Duration.ofHours(1)),
+        new Region(REGION_PRODUCTO, 5_000, Duration.ofMinutes(30)),
+        new Region(REGION_PRODUCTO_IMAGENES, 5_000, Duration.ofMinutes(30)),
+        new Region(REGION_CONSULTAS, 100, Duration.ofMinutes(10)),
+        new Region("default-query-results-region", 100, Duration.ofMinutes(10)),
+        new Region("default-update-timestamps-region", 1_000, null));
+
+    /**
+     * Crea el gestor de cachés JCache con todas las regiones.
+     * Se usa una instancia propia del proveedor para que cada contexto de la aplicación tenga sus propias cachés.
+     *
+     * @return el gestor de cachés
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel() {
+        CachingProvider proveedor = new EhcacheCachingProvider();
+        CacheManager cacheManager = proveedor.getCacheManager(proveedor.getDefaultURI(), getClass().getClassLoader());
+        for (Region region : REGIONES) {
+            cacheManager.createCache(region.nombre(), Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(region.maxEntradas()))
+                    .withExpiry(region.ttl() == null ? ExpiryPolicyBuilder.noExpiration() : ExpiryPolicyBuilder.timeToLiveExpiration(region.ttl()))));
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Activa la caché de segundo nivel y la caché de consultas de Hibernate sobre el gestor de cachés.
+     * También activa las estadísticas de Hibernate, de las que salen los ratios de aciertos.
+     *
+     * @param cacheManager el gestor de cachés
+     * @return el personalizador de las propiedades de Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager cacheManager) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.USE_QUERY_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+            // Una región sin configurar es un error: no se crea con límites por defecto
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            propiedades.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca los endpoints de listado que admiten el parámetro fields=campo1,campo2...
+ * CamposParcialesAdvice reduce cada elemento de la respuesta a los atributos pedidos.
+ *
+ * @version 1.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CamposParciales {
+}
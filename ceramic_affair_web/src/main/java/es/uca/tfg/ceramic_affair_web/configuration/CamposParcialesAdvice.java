@@ -0,0 +1,105 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
+
+/**
+ * Reduce las respuestas de los listados marcados con @CamposParciales a los atributos pedidos en el parámetro fields,
+ * para que las vistas de cuadrícula no reciban las descripciones completas.
+ * Se aplica a cada elemento de data, tanto si es una lista como una página (content). El id se incluye siempre.
+ * Se ejecuta después de EtiquetasRespuestaAdvice, que necesita los DTOs completos para etiquetar la respuesta.
+ *
+ * @version 1.0
+ */
+@ControllerAdvice(basePackages = "es.uca.tfg.ceramic_affair_web.controllers.common")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class CamposParcialesAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Nombre del parámetro con los atributos pedidos, separados por comas.
+     */
+    public static final String PARAMETRO = "fields";
+
+    private static final String CONTENIDO_PAGINA = "content";
+
+    private static final String ID = "id";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Método para obtener los atributos pedidos en el parámetro fields.
+     *
+     * @param fields el valor del parámetro (null si no se ha enviado)
+     * @return los atributos pedidos, o null si se deben devolver todos
+     */
+    public static Set<String> campos(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> campos = new LinkedHashSet<>();
+        Arrays.stream(fields.split(",")).map(String::trim).filter(campo -> !campo.isEmpty()).forEach(campos::add);
+        return campos.isEmpty() ? null : campos;
+    }
+
+    /**
+     * Método para saber si se debe devolver un atributo.
+     *
+     * @param campos los atributos pedidos (null si se deben devolver todos)
+     * @param campo el nombre del atributo
+     * @return true si el atributo se debe devolver
+     */
+    public static boolean incluye(Set<String> campos, String campo) {
+        return campos == null || campos.contains(campo);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(CamposParciales.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof ApiResponseType<?>) || !(request instanceof ServletServerHttpRequest peticion)) {
+            return body;
+        }
+        Set<String> campos = campos(peticion.getServletRequest().getParameter(PARAMETRO));
+        if (campos == null) {
+            return body;
+        }
+        campos.add(ID);
+
+        JsonNode respuesta = objectMapper.valueToTree(body);
+        JsonNode data = respuesta.path("data");
+        JsonNode elementos = data.has(CONTENIDO_PAGINA) ? data.get(CONTENIDO_PAGINA) : data;
+        if (elementos.isArray()) {
+            for (JsonNode elemento : elementos) {
+                if (elemento instanceof ObjectNode objeto) {
+                    objeto.retain(campos);
+                }
+            }
+        }
+        return respuesta;
+    }
+}
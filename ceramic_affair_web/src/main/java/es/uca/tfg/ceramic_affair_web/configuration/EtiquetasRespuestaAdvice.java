@@ -0,0 +1,46 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
+import es.uca.tfg.ceramic_affair_web.services.CacheRespuestas;
+
+/**
+ * Etiqueta las respuestas de las lecturas públicas con las entidades que contienen, justo antes de serializarlas,
+ * para que CacheRespuestasFilter pueda guardarlas y purgarlas por etiqueta.
+ * Solo se etiquetan las respuestas con el formato ApiResponseType; las demás nunca se guardan en la caché.
+ * Se ejecuta antes que el resto de adaptaciones del cuerpo, mientras data aún contiene los DTOs.
+ *
+ * @version 1.1
+ */
+@ControllerAdvice(basePackages = "es.uca.tfg.ceramic_affair_web.controllers.common")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class EtiquetasRespuestaAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof ApiResponseType<?> respuesta && respuesta.isSuccess()
+                && HttpMethod.GET.equals(request.getMethod()) && request instanceof ServletServerHttpRequest peticion) {
+            CacheRespuestas.etiquetar(peticion.getServletRequest(),
+                CacheRespuestas.etiquetasDe(respuesta.getData(), peticion.getServletRequest().getRequestURI()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,52 @@
+package es.uca.tfg.ceramic_affair_web.configuration;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Clase de configuración para alinear la tabla de secuencias de ids con los datos existentes.
+ * Producto, Categoria e Imagen reservan sus ids por bloques en la tabla secuencias_id; en una
+ * base de datos que ya tenía filas (ids generados antes por IDENTITY) el siguiente valor de cada
+ * segmento se adelanta al mayor id existente para que los nuevos ids no colisionen.
+ * La alineación se hace al inicializar el bean, antes de que el servidor web acepte peticiones: si se hiciera
+ * después, una inserción en ese intervalo reservaría (y guardaría en memoria) un bloque de ids que ya existen.
+ * Depende del EntityManagerFactory para que Hibernate haya creado ya la tabla secuencias_id.
+ *
+ * @version 1.1
+ */
+@Component
+public class SecuenciasIdInit implements InitializingBean {
+
+    // Segmento de la tabla de secuencias -> tabla de la entidad
+    private static final Map<String, String> SEGMENTOS = Map.of(
+        "producto", "producto",
+        "categoria", "categoria",
+        "imagen", "imagen");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SecuenciasIdInit(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        // entityManagerFactory solo fuerza el orden de inicialización: la tabla se crea con el esquema de Hibernate
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEGMENTOS.forEach((segmento, tabla) -> {
+            Long siguiente = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabla, Long.class);
+            Integer existe = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM secuencias_id WHERE entidad = ?", Integer.class, segmento);
+            if (existe == null || existe == 0) {
+                jdbcTemplate.update("INSERT INTO secuencias_id (entidad, siguiente) VALUES (?, ?)", segmento, siguiente);
+            } else {
+                jdbcTemplate.update("UPDATE secuencias_id SET siguiente = ? WHERE entidad = ? AND siguiente < ?",
+                    siguiente, segmento, siguiente);
+            }
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package es.uca.tfg.ceramic_affair_web.controllers.admin;
+
+import es.uca.tfg.ceramic_affair_web.exceptions.ConcurrenciaException;
+
+/**
+ * Clase de utilidad para las ETags de los endpoints de administración y la cabecera If-Match.
+ * La ETag de un producto o una categoría es su versión entre comillas (por ejemplo "3"),
+ * la misma que se devuelve en el campo version del recurso; la envían los GET por id de administración.
+ * Las ETags de las lecturas públicas son de la revisión global del catálogo, no de un recurso,
+ * así que en If-Match nunca coinciden y se responde 412.
+ *
+ * @version 1.1
+ */
+final class CabeceraIfMatch {
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase.
+     */
+    private CabeceraIfMatch() {
+        throw new UnsupportedOperationException("This class cannot be instantiated.");
+    }
+
+    /**
+     * Versión esperada de una ETag fuerte que no es la de ningún recurso: no coincide con ninguna versión.
+     */
+    static final long VERSION_NINGUNA = -1;
+
+    /**
+     * Método para obtener la ETag de un recurso a partir de su versión.
+     *
+     * @param version la versión del recurso
+     * @return la ETag, entre comillas
+     */
+    static String etag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Método para obtener la versión esperada a partir de la cabecera If-Match.
+     *
+     * @param cabecera el valor de la cabecera (puede ser null)
+     * @return la versión esperada, VERSION_NINGUNA si la ETag no es una versión, o null si no hay cabecera o es "*"
+     * @throws ConcurrenciaException.IfMatchNoValido si la cabecera no es una ETag fuerte
+     */
+    static Long versionEsperada(String cabecera) {
+        if (cabecera == null || cabecera.isBlank() || cabecera.strip().equals("*")) {
+            return null;
+        }
+        String valor = cabecera.strip();
+        // Las ETags débiles nunca coinciden en If-Match, que usa comparación fuerte
+        if (valor.length() < 3 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new ConcurrenciaException.IfMatchNoValido(cabecera);
+        }
+        try {
+            return Long.parseLong(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            // ETag de otro recurso (por ejemplo, la de una lectura pública): la precondición no se cumple
+            return VERSION_NINGUNA;
+        }
+    }
+}
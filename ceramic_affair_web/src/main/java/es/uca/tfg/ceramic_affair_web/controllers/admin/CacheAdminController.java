@@ -0,0 +1,42 @@
+package es.uca.tfg.ceramic_affair_web.controllers.admin;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.EstadisticasCacheDTO;
+import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
+import es.uca.tfg.ceramic_affair_web.services.EstadisticasCacheService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador para consultar el estado de la caché de segundo nivel en el panel de administración.
+ *
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@Tag(name = "Caché Admin", description = "Controlador para consultar el estado de la caché en el panel de administración")
+public class CacheAdminController {
+
+    @Autowired
+    private EstadisticasCacheService estadisticasCacheService;
+
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Obtener las estadísticas de la caché",
+               description = "Devuelve los aciertos, fallos y ratios de aciertos de la caché de segundo nivel y de la caché de consultas, en total y por región",
+               tags = { "Caché Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Estadísticas obtenidas"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<EstadisticasCacheDTO>> obtenerEstadisticas() {
+        EstadisticasCacheDTO estadisticas = estadisticasCacheService.obtenerEstadisticas();
+        return ResponseEntity.ok().body(new ApiResponseType<>(true, "Estadísticas obtenidas", estadisticas));
+    }
+}
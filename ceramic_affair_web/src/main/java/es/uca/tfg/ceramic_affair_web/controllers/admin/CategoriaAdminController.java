@@ -1,17 +1,21 @@
 package es.uca.tfg.ceramic_affair_web.controllers.admin;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
 import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
 import es.uca.tfg.ceramic_affair_web.services.CategoriaService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -23,9 +27,11 @@ import jakarta.validation.Valid;
 
 /**
  * Controlador para la gestión de categorías en el panel de administración.
- * Proporciona endpoints para crear, actualizar y eliminar categorías.
+ * Proporciona endpoints para consultar, crear, actualizar y eliminar categorías.
+ * GET /{id} devuelve la ETag de la categoría (su versión); la modificación y la eliminación la aceptan
+ * en la cabecera If-Match, y si no coincide se responde 412.
  * 
- * @version 1.0
+ * @version 1.3
  */
 @RestController
 @RequestMapping("/api/admin/categorias")
@@ -35,6 +41,20 @@ public class CategoriaAdminController {
     @Autowired
     private CategoriaService categoriaService;
 
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener una categoría por su ID para editarla", description = "Devuelve el resumen de la categoría correspondiente al ID proporcionado con su versión en la cabecera ETag, para enviarla en If-Match al modificarla o eliminarla", tags = { "Categorias Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Categoría encontrada"),
+        @ApiResponse(responseCode = "404", description = "Categoría no encontrada"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<CategoriaResumenDTO>> obtenerCategoria(@PathVariable Long id) {
+        CategoriaResumenDTO categoria = categoriaService.obtenerResumen(id);
+        return ResponseEntity.ok()
+                .eTag(CabeceraIfMatch.etag(categoria.getVersion()))
+                .body(new ApiResponseType<>(true, "Categoría encontrada", categoria));
+    }
+
     @PostMapping("/crear")
     @Operation(summary = "Crear una nueva categoría", description = "Crea una nueva categoría con el nombre proporcionado", tags = { "Categorias Admin" })
     @ApiResponses({
@@ -56,22 +76,26 @@ public class CategoriaAdminController {
         @ApiResponse(responseCode = "400", description = "Datos inválidos proporcionados"),
         @ApiResponse(responseCode = "404", description = "Categoría no encontrada"),
         @ApiResponse(responseCode = "409", description = "Nombre de categoría ya existente"),
+        @ApiResponse(responseCode = "412", description = "La categoría ha sido modificada por otra petición"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<Void>> modificarCategoria(@PathVariable Long id, @Valid @RequestBody CategoriaDTO dto) {
-        categoriaService.modificarCategoria(id, dto.getNombre());
+    public ResponseEntity<ApiResponseType<Void>> modificarCategoria(@PathVariable Long id, @Valid @RequestBody CategoriaDTO dto,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        categoriaService.modificarCategoria(id, dto.getNombre(), CabeceraIfMatch.versionEsperada(ifMatch));
         return ResponseEntity.ok().body(new ApiResponseType<>(true, "Categoría modificada con éxito", null));
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Eliminar una categoría por su ID", description = "Elimina la categoría correspondiente al ID proporcionado", tags = { "Categorias Admin" })
+    @Operation(summary = "Eliminar una categoría por su ID", description = "Elimina la categoría correspondiente al ID proporcionado y deja sin categoría a sus productos. Devuelve el número de productos afectados", tags = { "Categorias Admin" })
     @ApiResponses({
-        @ApiResponse(responseCode = "204", description = "Categoría eliminada con éxito"),
+        @ApiResponse(responseCode = "200", description = "Categoría eliminada con éxito"),
         @ApiResponse(responseCode = "404", description = "Categoría no encontrada"),
+        @ApiResponse(responseCode = "412", description = "La categoría ha sido modificada por otra petición"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<Void>> eliminarCategoria(@PathVariable Long id) {
-        categoriaService.eliminarCategoria(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<ApiResponseType<Integer>> eliminarCategoria(@PathVariable Long id,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        int desvinculados = categoriaService.eliminarCategoria(id, CabeceraIfMatch.versionEsperada(ifMatch));
+        return ResponseEntity.ok().body(new ApiResponseType<>(true, "Categoría eliminada con éxito", desvinculados));
     }
 }
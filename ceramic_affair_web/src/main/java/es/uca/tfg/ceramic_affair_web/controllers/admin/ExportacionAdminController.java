@@ -0,0 +1,56 @@
+package es.uca.tfg.ceramic_affair_web.controllers.admin;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.services.ExportacionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador para la exportación del catálogo en el panel de administración.
+ * La respuesta se escribe según se leen los productos de la base de datos, sin construirla en memoria.
+ *
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/admin/productos/exportar")
+@Tag(name = "Exportaciones Admin", description = "Controlador para la exportación del catálogo en el panel de administración")
+public class ExportacionAdminController {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @GetMapping
+    @Operation(summary = "Exportar el catálogo completo",
+               description = "Devuelve todos los productos, con el nombre de su categoría y las rutas de sus imágenes, en NDJSON (un producto por línea) o CSV",
+               tags = { "Exportaciones Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Catálogo exportado"),
+        @ApiResponse(responseCode = "400", description = "Formato no soportado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarCatalogo(@RequestParam(defaultValue = "ndjson") String formato) {
+        ImportacionDTO.Formato tipo = ExportacionService.formatoDe(formato);
+        boolean csv = tipo == ImportacionDTO.Formato.CSV;
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportar(salida, tipo);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename(csv ? "catalogo.csv" : "catalogo.ndjson").build().toString())
+                .body(cuerpo);
+    }
+}
@@ -0,0 +1,85 @@
+package es.uca.tfg.ceramic_affair_web.controllers.admin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
+import es.uca.tfg.ceramic_affair_web.services.ImportacionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador para la importación masiva de productos en el panel de administración.
+ * El cuerpo de la petición es el propio archivo (text/csv o application/x-ndjson), que se procesa
+ * según se recibe. Mientras dura una importación su progreso se puede consultar en este mismo recurso:
+ * el cliente propone el id en el parámetro id del POST y consulta GET /{id} mientras envía el archivo.
+ *
+ * @version 1.1
+ */
+@RestController
+@RequestMapping("/api/admin/productos/importaciones")
+@Tag(name = "Importaciones Admin", description = "Controlador para la importación masiva de productos en el panel de administración")
+public class ImportacionAdminController {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @PostMapping
+    @Operation(summary = "Importar productos desde CSV o NDJSON",
+               description = "Crea un producto por cada fila válida del archivo y devuelve un informe con los errores de las filas rechazadas. "
+                   + "Las columnas del CSV y las propiedades de cada objeto NDJSON son las de ProductoDTO; la categoría se indica por idCategoria o por nombreCategoria. "
+                   + "Para seguir el progreso mientras se envía el archivo, se puede proponer el id de la importación (hasta 64 letras, dígitos, '-' o '_') "
+                   + "y consultarlo en GET /api/admin/productos/importaciones/{id}",
+               tags = { "Importaciones Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Importación completada"),
+        @ApiResponse(responseCode = "400", description = "Cabecera del CSV o id de importación no válidos"),
+        @ApiResponse(responseCode = "409", description = "Ya existe una importación con el id propuesto"),
+        @ApiResponse(responseCode = "415", description = "Formato no soportado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<ImportacionDTO>> importarProductos(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String tipoContenido,
+            @RequestParam(required = false) String id,
+            InputStream cuerpo) throws IOException {
+        ImportacionDTO.Formato formato = ImportacionService.formatoDe(tipoContenido);
+        ImportacionDTO informe = importacionService.importar(cuerpo, formato, id);
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Importación completada", informe));
+    }
+
+    @GetMapping
+    @Operation(summary = "Obtener las importaciones", description = "Devuelve el progreso de las importaciones en curso y el informe de las últimas terminadas", tags = { "Importaciones Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Importaciones obtenidas"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<List<ImportacionDTO>>> obtenerImportaciones() {
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Importaciones obtenidas", importacionService.obtenerTodas()));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener una importación por su ID", description = "Devuelve el progreso o el informe de la importación correspondiente al ID proporcionado", tags = { "Importaciones Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Importación obtenida"),
+        @ApiResponse(responseCode = "404", description = "Importación no encontrada"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<ImportacionDTO>> obtenerImportacion(@PathVariable String id) {
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Importación obtenida", importacionService.obtenerPorId(id)));
+    }
+}
@@ -1,21 +1,27 @@
 package es.uca.tfg.ceramic_affair_web.controllers.admin;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoStockDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoStockLoteDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ResultadoStockDTO;
 import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
 import es.uca.tfg.ceramic_affair_web.services.ProductoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -26,9 +32,12 @@ import jakarta.validation.Valid;
 
 /**
  * Controlador para la entidad Producto en el panel de administración.
- * Proporciona endpoints para crear, actualizar y eliminar productos.
+ * Proporciona endpoints para consultar, crear, actualizar y eliminar productos.
+ * GET /{id} devuelve la ETag del producto (su versión, "3"); las modificaciones la aceptan en la cabecera
+ * If-Match para evitar sobrescribir los cambios de otro administrador; si no coincide se responde 412.
+ * El stock de varios productos se puede actualizar a la vez con PATCH /stock.
  * 
- * @version 1.0
+ * @version 1.3
  */
 @RestController
 @RequestMapping("/api/admin/productos")
@@ -38,6 +47,20 @@ public class ProductoAdminController {
     @Autowired
     private ProductoService productoService;
 
+    @GetMapping("/{id}")
+    @Operation(summary = "Obtener un producto por su ID para editarlo", description = "Devuelve el producto correspondiente al ID proporcionado con su versión vigente en la cabecera ETag, para enviarla en If-Match al modificarlo", tags = { "Productos Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Producto encontrado"),
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<ProductoDTO>> obtenerProducto(@PathVariable Long id) {
+        ProductoDTO dto = productoService.obtenerDTOPorId(id);
+        return ResponseEntity.ok()
+                .eTag(CabeceraIfMatch.etag(dto.getVersion()))
+                .body(new ApiResponseType<>(true, "Producto encontrado", dto));
+    }
+
     @PostMapping("/crear")
     @Operation(summary = "Crear un nuevo producto", description = "Crea un nuevo producto con los datos proporcionados en el DTO", tags = { "Productos Admin" })
     @ApiResponses({
@@ -58,10 +81,12 @@ public class ProductoAdminController {
         @ApiResponse(responseCode = "200", description = "Producto actualizado con éxito"),
         @ApiResponse(responseCode = "400", description = "Datos inválidos proporcionados"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+        @ApiResponse(responseCode = "412", description = "El producto ha sido modificado por otra petición"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<Void>> actualizarProducto(@PathVariable Long id, @Valid @RequestBody ProductoDTO dto) {
-        productoService.modificarProducto(id, dto);
+    public ResponseEntity<ApiResponseType<Void>> actualizarProducto(@PathVariable Long id, @Valid @RequestBody ProductoDTO dto,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        productoService.modificarProducto(id, dto, CabeceraIfMatch.versionEsperada(ifMatch));
         return ResponseEntity.ok()
                 .body(new ApiResponseType<>(true, "Producto actualizado con éxito", null));
     }
@@ -72,14 +97,29 @@ public class ProductoAdminController {
         @ApiResponse(responseCode = "200", description = "Stock del producto actualizado con éxito"),
         @ApiResponse(responseCode = "400", description = "Datos inválidos proporcionados"),
         @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
+        @ApiResponse(responseCode = "412", description = "El producto ha sido modificado por otra petición"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<Void>> actualizarStockProducto(@PathVariable Long id, @Valid @RequestBody ProductoStockDTO dto) {
-        productoService.establecerStock(id, dto.isSoldOut());
+    public ResponseEntity<ApiResponseType<Void>> actualizarStockProducto(@PathVariable Long id, @Valid @RequestBody ProductoStockDTO dto,
+                                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        productoService.establecerStock(id, dto.isSoldOut(), CabeceraIfMatch.versionEsperada(ifMatch));
         return ResponseEntity.ok()
                 .body(new ApiResponseType<>(true, "Stock del producto actualizado con éxito", null));
     }
 
+    @PatchMapping("/stock")
+    @Operation(summary = "Actualizar el stock de varios productos", description = "Aplica en una sola transacción los pares {id, soldOut} proporcionados y devuelve el resultado de cada id", tags = { "Productos Admin" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock de los productos actualizado con éxito"),
+        @ApiResponse(responseCode = "400", description = "Datos inválidos proporcionados o demasiados productos"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<List<ResultadoStockDTO>>> actualizarStockProductos(@Valid @RequestBody ProductoStockLoteDTO dto) {
+        List<ResultadoStockDTO> resultados = productoService.establecerStockLote(dto.getProductos());
+        return ResponseEntity.ok()
+                .body(new ApiResponseType<>(true, "Stock de los productos actualizado con éxito", resultados));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar un producto por su ID", description = "Elimina el producto correspondiente al ID proporcionado", tags = { "Productos Admin" })
     @ApiResponses({
@@ -8,7 +8,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
 import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
 import es.uca.tfg.ceramic_affair_web.services.CategoriaService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,8 +19,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 /**
  * Controlador para los endpoints públicos relacionados con la entidad Categoria.
  * Proporciona endpoints para crear y gestionar categorías.
+ * Las categorías se devuelven como resúmenes (recuentos de productos y portada), sin la lista de sus productos.
  * 
- * @version 1.1
+ * @version 1.2
  */
 @RestController
 @RequestMapping("/api/public/categorias")
@@ -31,25 +32,25 @@ public class CategoriaPublicController {
     private CategoriaService categoriaService;
 
     @GetMapping("/{id}")
-    @Operation(summary = "Obtener una categoría por su ID", description = "Devuelve la categoría correspondiente al ID proporcionado", tags = { "Categorias Public" })
+    @Operation(summary = "Obtener una categoría por su ID", description = "Devuelve el resumen de la categoría correspondiente al ID proporcionado", tags = { "Categorias Public" })
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Categoría encontrada"),
         @ApiResponse(responseCode = "404", description = "Categoría no encontrada"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<Categoria>> obtenerCategoriaPorId(@PathVariable Long id) {
-        Categoria categoria = categoriaService.obtenerPorId(id);
+    public ResponseEntity<ApiResponseType<CategoriaResumenDTO>> obtenerCategoriaPorId(@PathVariable Long id) {
+        CategoriaResumenDTO categoria = categoriaService.obtenerResumen(id);
         return ResponseEntity.ok(new ApiResponseType<>(true, "Categoría encontrada", categoria));
     }
 
     @GetMapping("/todas")
-    @Operation(summary = "Obtener todas las categorías", description = "Devuelve una lista de todas las categorías disponibles", tags = { "Categorias Public" })
+    @Operation(summary = "Obtener todas las categorías", description = "Devuelve el resumen de todas las categorías disponibles, con su número de productos y su imagen de portada", tags = { "Categorias Public" })
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Lista de categorías encontrada"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<List<Categoria>>> obtenerTodasLasCategorias() {
-        List<Categoria> categorias = categoriaService.obtenerTodas();
+    public ResponseEntity<ApiResponseType<List<CategoriaResumenDTO>>> obtenerTodasLasCategorias() {
+        List<CategoriaResumenDTO> categorias = categoriaService.obtenerResumenes();
         return ResponseEntity.ok(new ApiResponseType<>(true, "Lista de categorías encontrada", categorias));
     }
 }
@@ -0,0 +1,41 @@
+package es.uca.tfg.ceramic_affair_web.controllers.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import es.uca.tfg.ceramic_affair_web.services.EventosCatalogoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador para los flujos públicos de eventos (Server-Sent Events).
+ * Sus rutas quedan fuera de las peticiones condicionales y de la caché de respuestas:
+ * las respuestas son asíncronas e indefinidas y no se pueden validar ni guardar.
+ * 
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/public/eventos")
+@Tag(name = "Eventos Public", description = "Controlador para los flujos de eventos en directo")
+public class EventosPublicController {
+
+    @Autowired
+    private EventosCatalogoService eventosCatalogoService;
+
+    @GetMapping(value = "/catalogo", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse a los cambios del catálogo", description = "Abre un flujo de eventos con los cambios de stock, precio y eliminaciones de productos. El id de cada evento es la revisión del catálogo desde la que pedir los cambios al reconectar", tags = { "Eventos Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Flujo de eventos abierto"),
+        @ApiResponse(responseCode = "503", description = "Demasiados suscriptores conectados"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public SseEmitter suscribirCatalogo() {
+        return eventosCatalogoService.suscribir();
+    }
+}
@@ -7,12 +7,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.configuration.CamposParciales;
+import es.uca.tfg.ceramic_affair_web.configuration.CamposParcialesAdvice;
 import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
 import es.uca.tfg.ceramic_affair_web.services.FindMePostService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,8 +24,9 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 /**
  * Controlador para los endpoints públicos relacionados con la entidad FindMePost.
  * Proporciona endpoints para obtener publicaciones "Encuéntrame".
+ * El listado admite fields=campo1,campo2...; si no se pide la descripción, tampoco se lee de la base de datos.
  * 
- * @version 1.0
+ * @version 1.1
  */
 @RestController
 @RequestMapping("/api/public/find-me-posts")
@@ -46,6 +51,7 @@ public class FindMePostPublicController {
     }
 
     @GetMapping("/todos")
+    @CamposParciales
     @Operation(summary = "Obtener todas las publicaciones 'Encuéntrame'",
                description = "Devuelve una lista de todas las publicaciones 'Encuéntrame'",
                tags = { "FindMePosts Public" })
@@ -53,8 +59,11 @@ public class FindMePostPublicController {
         @ApiResponse(responseCode = "200", description = "Lista de publicaciones 'Encuéntrame' encontrada"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<List<FindMePostDTO>>> obtenerTodasLasPublicaciones() {
-        List<FindMePostDTO> publicaciones = findMePostService.obtenerTodas();
+    public ResponseEntity<ApiResponseType<List<FindMePostDTO>>> obtenerTodasLasPublicaciones(
+            @Parameter(description = "Atributos de cada publicación a devolver, separados por comas (por defecto, todos; el id se incluye siempre)")
+            @RequestParam(required = false) String fields) {
+        boolean conDescripcion = CamposParcialesAdvice.incluye(CamposParcialesAdvice.campos(fields), "descripcion");
+        List<FindMePostDTO> publicaciones = findMePostService.obtenerTodas(conDescripcion);
         return ResponseEntity.ok(new ApiResponseType<>(true, "Lista de publicaciones 'Encuéntrame' encontrada", publicaciones));
     }
 }
@@ -0,0 +1,52 @@
+package es.uca.tfg.ceramic_affair_web.controllers.common;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.LoteDTO;
+import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
+import es.uca.tfg.ceramic_affair_web.services.LoteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador para las peticiones por lotes a la API pública.
+ * Permite obtener en una sola petición varios productos, imágenes, categorías y publicaciones "Encuéntrame",
+ * con la misma representación que sus endpoints individuales.
+ *
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/public/batch")
+@Tag(name = "Lotes Public", description = "Controlador para las peticiones por lotes")
+public class LotePublicController {
+
+    @Autowired
+    private LoteService loteService;
+
+    @GetMapping
+    @Operation(summary = "Obtener varios recursos en una sola petición",
+               description = "Devuelve los productos, imágenes, categorías y publicaciones cuyos ids se indican (separados por comas), junto con los ids no encontrados",
+               tags = { "Lotes Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote obtenido"),
+        @ApiResponse(responseCode = "400", description = "Demasiados elementos en el lote"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<LoteDTO>> obtenerLote(
+            @RequestParam(required = false) List<Long> productos,
+            @RequestParam(required = false) List<Long> imagenes,
+            @RequestParam(required = false) List<Long> categorias,
+            @RequestParam(required = false) List<Long> findMePosts) {
+        LoteDTO lote = loteService.obtenerLote(productos, imagenes, categorias, findMePosts);
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Lote obtenido", lote));
+    }
+}
@@ -0,0 +1,42 @@
+package es.uca.tfg.ceramic_affair_web.controllers.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.PortadaDTO;
+import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
+import es.uca.tfg.ceramic_affair_web.services.PortadaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador para el endpoint público de la página de inicio.
+ * Devuelve en una sola respuesta las categorías con sus productos más recientes y las próximas publicaciones "Encuéntrame".
+ * 
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/public/portada")
+@Tag(name = "Portada Public", description = "Controlador para los datos de la página de inicio")
+public class PortadaPublicController {
+
+    @Autowired
+    private PortadaService portadaService;
+
+    @GetMapping
+    @Operation(summary = "Obtener los datos de la página de inicio", description = "Devuelve las categorías con sus productos más recientes y las próximas publicaciones 'Encuéntrame'", tags = { "Portada Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Portada obtenida"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<PortadaDTO>> obtenerPortada(@RequestParam(defaultValue = "4") int porCategoria) {
+        PortadaDTO portada = portadaService.obtenerPortada(porCategoria);
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Portada obtenida", portada));
+    }
+}
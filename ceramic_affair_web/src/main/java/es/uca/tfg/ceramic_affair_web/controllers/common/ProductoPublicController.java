@@ -1,5 +1,8 @@
 package es.uca.tfg.ceramic_affair_web.controllers.common;
 
+import java.util.List;
+
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -11,12 +14,21 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.CambiosCatalogoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FacetasDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
-import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
-import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.DTOs.SugerenciaDTO;
+import es.uca.tfg.ceramic_affair_web.configuration.CamposParciales;
 import es.uca.tfg.ceramic_affair_web.payload.ApiResponseType;
-import es.uca.tfg.ceramic_affair_web.services.ProductoService;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
+import es.uca.tfg.ceramic_affair_web.services.BusquedaService;
+import es.uca.tfg.ceramic_affair_web.services.CambiosCatalogoService;
+import es.uca.tfg.ceramic_affair_web.services.CatalogoService;
+import es.uca.tfg.ceramic_affair_web.services.FacetasService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,8 +36,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 /**
  * Controlador para los endpoints públicos relacionados con la entidad Producto.
  * Proporciona endpoints para obtener y filtrar productos.
+ * Las lecturas se sirven desde el snapshot en memoria del catálogo.
+ * Con el parámetro expandir=imagenes, los productos incluyen los metadatos y URLs de sus imágenes.
+ * Los filtros admiten rangos de precio y dimensiones (precioMin, precioMax, alturaMin, alturaMax...).
+ * Con /cambios?desde={revision}, los clientes obtienen solo los productos modificados desde su última sincronización.
+ * Los listados admiten fields=campo1,campo2... para devolver solo esos atributos de cada producto.
  * 
- * @version 1.1
+ * @version 1.11
  */
 @RestController
 @RequestMapping("/api/public/productos")
@@ -33,7 +50,20 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class ProductoPublicController {
 
     @Autowired
-    private ProductoService productoService;
+    private CatalogoService catalogoService;
+
+    private static final String EXPANDIR_IMAGENES = "imagenes";
+
+    private static final String DESCRIPCION_CAMPOS = "Atributos de cada producto a devolver, separados por comas (por defecto, todos; el id se incluye siempre)";
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private FacetasService facetasService;
+
+    @Autowired
+    private CambiosCatalogoService cambiosCatalogoService;
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener un producto por su ID", description = "Devuelve el producto correspondiente al ID proporcionado", tags = { "Productos Public" })
@@ -42,14 +72,19 @@ public class ProductoPublicController {
         @ApiResponse(responseCode = "404", description = "Producto no encontrado"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public ResponseEntity<ApiResponseType<ProductoDTO>> obtenerProductoPorId(@PathVariable Long id) {
-        Producto producto = productoService.obtenerPorId(id);
-        ProductoDTO dto = ProductoMapper.toDTO(producto);
+    public ResponseEntity<ApiResponseType<ProductoDTO>> obtenerProductoPorId(@PathVariable Long id,
+                                                           @RequestParam(required = false) String expandir) {
+        ProductoDTO dto = catalogoService.obtenerProducto(id);
+        if (EXPANDIR_IMAGENES.equals(expandir)) {
+            dto = catalogoService.expandirImagenes(dto);
+        }
         return ResponseEntity.ok(new ApiResponseType<>(true, "Producto encontrado", dto));
     }
 
     @GetMapping("/filtrar")
-    @Operation(summary = "Filtrar productos", description = "Devuelve una lista de productos según los filtros proporcionados", tags = { "Productos Public" })
+    @CamposParciales
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = DESCRIPCION_CAMPOS)
+    @Operation(summary = "Filtrar productos", description = "Devuelve una lista de productos según los filtros proporcionados. El orden admite baratos, caros, viejos y recientes (por defecto)", tags = { "Productos Public" })
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Lista de productos encontrada"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
@@ -57,19 +92,107 @@ public class ProductoPublicController {
     public ResponseEntity<ApiResponseType<Page<ProductoDTO>>> filtrarProductos(@RequestParam(required = false) String nombre,
                                                            @RequestParam(required = false) Long categoria,
                                                            @RequestParam(required = false) Boolean soloEnStock,
+                                                           @ParameterObject FiltroRangosDTO rangos,
                                                            @RequestParam(required = false) String orden,
                                                            @RequestParam(defaultValue = "0") int page,
-                                                           @RequestParam(defaultValue = "3") int size) {
+                                                           @RequestParam(defaultValue = "3") int size,
+                                                           @RequestParam(required = false) String expandir) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<Producto> productos = productoService.filtrarProductos(nombre, categoria, soloEnStock, orden, pageable);
+        Page<ProductoDTO> productoDTOs = catalogoService.filtrarProductos(nombre, categoria, soloEnStock, rangos, orden, pageable);
+        if (EXPANDIR_IMAGENES.equals(expandir)) {
+            productoDTOs = catalogoService.expandirImagenes(productoDTOs);
+        }
+
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Lista de productos encontrada", productoDTOs));
+    }
 
-        // Mapeamos la lista de productos a DTOs
-        Page<ProductoDTO> productoDTOs = productos.map(ProductoMapper::toDTO);
+    @GetMapping(value = "/filtrar", params = "cursor")
+    @CamposParciales
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = DESCRIPCION_CAMPOS)
+    @Operation(summary = "Filtrar productos por cursor", description = "Devuelve una página de productos según los filtros proporcionados, paginando por cursor. Un cursor vacío devuelve la primera página. El orden admite viejos y recientes (por defecto); los órdenes por precio (baratos y caros) solo están disponibles sin cursor", tags = { "Productos Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lista de productos encontrada"),
+        @ApiResponse(responseCode = "400", description = "Cursor no válido u orden por precio"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<PaginaCursor<ProductoDTO>>> filtrarProductosPorCursor(@RequestParam(required = false) String nombre,
+                                                           @RequestParam(required = false) Long categoria,
+                                                           @RequestParam(required = false) Boolean soloEnStock,
+                                                           @ParameterObject FiltroRangosDTO rangos,
+                                                           @RequestParam(required = false) String orden,
+                                                           @RequestParam String cursor,
+                                                           @RequestParam(defaultValue = "3") int size,
+                                                           @RequestParam(required = false) String expandir) {
+        PaginaCursor<ProductoDTO> productoDTOs = catalogoService.filtrarProductosPorCursor(nombre, categoria, soloEnStock, rangos, orden, cursor, size);
+        if (EXPANDIR_IMAGENES.equals(expandir)) {
+            productoDTOs = catalogoService.expandirImagenes(productoDTOs);
+        }
 
         return ResponseEntity.ok(new ApiResponseType<>(true, "Lista de productos encontrada", productoDTOs));
     }
 
+    @GetMapping("/facetas")
+    @Operation(summary = "Obtener las facetas de los productos", description = "Devuelve los recuentos por categoría, stock y tramo de precio, y los rangos de precio y dimensiones, de los productos que cumplen los filtros", tags = { "Productos Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Facetas obtenidas"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<FacetasDTO>> obtenerFacetas(@RequestParam(required = false) String nombre,
+                                                           @RequestParam(required = false) Long categoria,
+                                                           @RequestParam(required = false) Boolean soloEnStock,
+                                                           @ParameterObject FiltroRangosDTO rangos) {
+        FacetasDTO facetas = facetasService.obtenerFacetas(nombre, categoria, soloEnStock, rangos);
+
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Facetas obtenidas", facetas));
+    }
+
+    @GetMapping("/cambios")
+    @Operation(summary = "Obtener los cambios del catálogo desde una revisión", description = "Devuelve los productos creados, modificados y eliminados desde la revisión indicada, y la revisión actual para la siguiente petición. Si los cambios no se pueden calcular, indica que el cliente debe recargar el catálogo", tags = { "Productos Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Cambios obtenidos"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<CambiosCatalogoDTO>> obtenerCambios(@RequestParam long desde) {
+        CambiosCatalogoDTO cambios = cambiosCatalogoService.obtenerCambios(desde);
+
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Cambios obtenidos", cambios));
+    }
+
+    @GetMapping("/buscar")
+    @Operation(summary = "Buscar productos", description = "Devuelve los productos cuyo nombre o descripción coinciden con el texto, tolerando erratas y ordenados por relevancia", tags = { "Productos Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resultados de la búsqueda"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<Page<ProductoDTO>>> buscarProductos(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "3") int size,
+                                                           @RequestParam(required = false) String expandir) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<ProductoDTO> productoDTOs = catalogoService.buscarProductos(q, pageable);
+        if (EXPANDIR_IMAGENES.equals(expandir)) {
+            productoDTOs = catalogoService.expandirImagenes(productoDTOs);
+        }
+
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Resultados de la búsqueda", productoDTOs));
+    }
+
+    @GetMapping("/sugerencias")
+    @Operation(summary = "Autocompletar nombres de productos", description = "Devuelve los productos cuyo nombre, o alguna de sus palabras, empieza por el prefijo, de más a menos reciente", tags = { "Productos Public" })
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Sugerencias encontradas"),
+        @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public ResponseEntity<ApiResponseType<List<SugerenciaDTO>>> sugerirProductos(@RequestParam String prefijo,
+                                                           @RequestParam(defaultValue = "5") int limite) {
+        List<SugerenciaDTO> sugerencias = busquedaService.sugerir(prefijo, limite);
+
+        return ResponseEntity.ok(new ApiResponseType<>(true, "Sugerencias encontradas", sugerencias));
+    }
+
     @GetMapping("/todos")
+    @CamposParciales
+    @Parameter(name = "fields", in = ParameterIn.QUERY, description = DESCRIPCION_CAMPOS)
     @Operation(summary = "Obtener todos los productos", description = "Devuelve una lista de todos los productos", tags = { "Productos Public" })
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Lista de productos encontrada"),
@@ -77,13 +200,14 @@ public class ProductoPublicController {
     })
     public ResponseEntity<ApiResponseType<Page<ProductoDTO>>> obtenerTodosLosProductos(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "3") int size) {
+            @RequestParam(defaultValue = "3") int size,
+            @RequestParam(required = false) String expandir) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Producto> productos = productoService.obtenerTodos(pageable);
-
-        // Mapeamos la lista de productos a DTOs
-        Page<ProductoDTO> productoDTOs = productos.map(ProductoMapper::toDTO);
+        Page<ProductoDTO> productoDTOs = catalogoService.obtenerTodos(pageable);
+        if (EXPANDIR_IMAGENES.equals(expandir)) {
+            productoDTOs = catalogoService.expandirImagenes(productoDTOs);
+        }
 
         return ResponseEntity.ok(new ApiResponseType<>(true, "Lista de productos encontrada", productoDTOs));
     }
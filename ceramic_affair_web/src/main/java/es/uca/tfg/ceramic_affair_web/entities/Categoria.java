@@ -1,8 +1,15 @@
 package es.uca.tfg.ceramic_affair_web.entities;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import es.uca.tfg.ceramic_affair_web.configuration.CacheSegundoNivelConfig;
+
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 import jakarta.persistence.Column;
@@ -11,16 +18,23 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 
 /**
  * Clase que representa una categoría de productos en el sistema
  * 
- * @version 1.0
+ * @version 1.3
  */
  @Entity
+// Se lee en cada alta o modificación de producto y apenas cambia
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_CATEGORIA)
 public class Categoria {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids por bloques: permiten enviar las inserciones por lotes (IDENTITY obliga a insertar fila a fila)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "categoria_id")
+    @TableGenerator(name = "categoria_id", table = "secuencias_id", pkColumnName = "entidad", valueColumnName = "siguiente",
+                    pkColumnValue = "categoria", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -30,6 +44,12 @@ public class Categoria {
     @JsonManagedReference
     private List<Producto> productos = new ArrayList<>();
 
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime fechaModificacion;
+
     /**
      * Constructor vacío para JPA
      */
@@ -80,4 +100,23 @@ public class Categoria {
     public List<Producto> getProductos() {
         return productos;
     }
+
+    /**
+     * Método para obtener la versión de la categoría.
+     * Hibernate la incrementa en cada modificación y la usa para el bloqueo optimista.
+     * 
+     * @return la versión de la categoría
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Método para obtener la fecha de la última modificación de la categoría.
+     * 
+     * @return la fecha de la última modificación
+     */
+    public LocalDateTime getFechaModificacion() {
+        return fechaModificacion;
+    }
 }
@@ -2,17 +2,20 @@ package es.uca.tfg.ceramic_affair_web.entities;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.UpdateTimestamp;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Lob;
+import jakarta.persistence.Version;
 
 /**
  * Clase que representa una publicación de tipo "Encuéntrame" en el sistema.
  * 
- * @version 1.0
+ * @version 1.1
  */
 @Entity
 public class FindMePost {
@@ -40,6 +43,12 @@ public class FindMePost {
     @Column(nullable = false)
     private Double longitud;
 
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime fechaModificacion;
+
     /**
      * Constructor vacío para JPA.
      */
@@ -190,4 +199,23 @@ public class FindMePost {
     public void setLongitud(Double longitud) {
         this.longitud = longitud;
     }
+
+    /**
+     * Método para obtener la versión de la publicación.
+     * Hibernate la incrementa en cada modificación y la usa para el bloqueo optimista.
+     * 
+     * @return la versión de la publicación
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Método para obtener la fecha de la última modificación de la publicación.
+     * 
+     * @return la fecha de la última modificación
+     */
+    public LocalDateTime getFechaModificacion() {
+        return fechaModificacion;
+    }
 }
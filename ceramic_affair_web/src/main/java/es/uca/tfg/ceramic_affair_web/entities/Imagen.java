@@ -1,21 +1,34 @@
 package es.uca.tfg.ceramic_affair_web.entities;
 
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import es.uca.tfg.ceramic_affair_web.configuration.CacheSegundoNivelConfig;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 
 /**
  * Clase que representa una imagen en el sistema
  * 
- * @version 1.0
+ * @version 1.3
  */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_IMAGEN)
 public class Imagen {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids por bloques: permiten enviar las inserciones por lotes (IDENTITY obliga a insertar fila a fila)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "imagen_id")
+    @TableGenerator(name = "imagen_id", table = "secuencias_id", pkColumnName = "entidad", valueColumnName = "siguiente",
+                    pkColumnValue = "imagen", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
@@ -28,6 +41,12 @@ public class Imagen {
     private float ancho;
     private float alto;
 
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime fechaModificacion;
+
     /**
      * Constructor vacío para JPA
      */
@@ -104,4 +123,23 @@ public class Imagen {
     public float getAlto() {
         return alto;
     }
+
+    /**
+     * Método para obtener la versión de la imagen.
+     * Hibernate la incrementa en cada modificación y la usa para el bloqueo optimista.
+     * 
+     * @return la versión de la imagen
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Método para obtener la fecha de la última modificación de la imagen.
+     * 
+     * @return la fecha de la última modificación
+     */
+    public LocalDateTime getFechaModificacion() {
+        return fechaModificacion;
+    }
 }
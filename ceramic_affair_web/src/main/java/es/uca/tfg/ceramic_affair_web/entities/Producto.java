@@ -4,7 +4,11 @@ import java.util.List;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import es.uca.tfg.ceramic_affair_web.configuration.CacheSegundoNivelConfig;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
@@ -13,25 +17,46 @@ import java.math.BigDecimal;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreRemove;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.Version;
 
 /**
  * Clase que representa un producto en el sistema
  * 
- * @version 1.1
+ * @version 1.6
  */
 
 @Entity
+@Table(indexes = {
+    // Clave de la paginación por cursor: permite buscar directamente la página sin OFFSET
+    @Index(name = "idx_producto_fecha_creacion_id", columnList = "fechaCreacion, id"),
+    // Orden y rango por precio, con y sin categoría: el desempate por id sigue el orden del índice y evita ordenar en memoria
+    @Index(name = "idx_producto_precio_id", columnList = "precio, id"),
+    @Index(name = "idx_producto_categoria_precio_id", columnList = "categoria_id, precio, id"),
+    // Rangos de dimensiones: un índice por columna, porque en un índice compuesto solo el primer rango aprovecharía el orden
+    @Index(name = "idx_producto_altura", columnList = "altura"),
+    @Index(name = "idx_producto_anchura", columnList = "anchura"),
+    @Index(name = "idx_producto_diametro", columnList = "diametro")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_PRODUCTO)
 public class Producto {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids por bloques: permiten enviar las inserciones por lotes (IDENTITY obliga a insertar fila a fila)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "producto_id")
+    @TableGenerator(name = "producto_id", table = "secuencias_id", pkColumnName = "entidad", valueColumnName = "siguiente",
+                    pkColumnValue = "producto", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -46,7 +71,7 @@ public class Producto {
     @Column(nullable = false)
     private boolean soldOut;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JsonBackReference
     private Categoria categoria;
 
@@ -54,11 +79,17 @@ public class Producto {
     private float anchura;
     private float diametro;
 
-    @CreationTimestamp
     private LocalDateTime fechaCreacion;
 
+    @Version
+    private long version;
+
+    @UpdateTimestamp
+    private LocalDateTime fechaModificacion;
+
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
     @JoinColumn(name = "producto_id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGION_PRODUCTO_IMAGENES)
     private List<Imagen> imagenes = new ArrayList<>();
 
     /**
@@ -299,6 +330,18 @@ public class Producto {
         }
     }
 
+    /**
+     * Método para establecer la fecha de creación al persistir el producto.
+     * Con los ids por bloques el INSERT se aplaza hasta el flush, y la fecha debe estar
+     * disponible antes (por ejemplo, para indexar el producto recién creado).
+     */
+    @PrePersist
+    private void prePersist() {
+        if (this.fechaCreacion == null) {
+            this.fechaCreacion = LocalDateTime.now();
+        }
+    }
+
     /**
      * Método para eliminar el producto de la lista de productos de la categoría antes de ser eliminado.
      */
@@ -309,4 +352,23 @@ public class Producto {
             this.categoria = null;
         }
     }
+
+    /**
+     * Método para obtener la versión del producto.
+     * Hibernate la incrementa en cada modificación y la usa para el bloqueo optimista.
+     * 
+     * @return la versión del producto
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Método para obtener la fecha de la última modificación del producto.
+     * 
+     * @return la fecha de la última modificación
+     */
+    public LocalDateTime getFechaModificacion() {
+        return fechaModificacion;
+    }
 }
@@ -0,0 +1,95 @@
+package es.uca.tfg.ceramic_affair_web.events;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evento publicado por los servicios cada vez que se modifica el catálogo
+ * (productos, categorías o imágenes) o las publicaciones "Encuéntrame".
+ * Los oyentes lo reciben tras el commit de la transacción que lo originó.
+ *
+ * @version 1.3
+ */
+public class CatalogoModificadoEvent {
+
+    /**
+     * Entidad del catálogo afectada por la modificación.
+     */
+    public enum Entidad {
+        PRODUCTO,
+        CATEGORIA,
+        IMAGEN,
+        FIND_ME_POST
+    }
+
+    /**
+     * Tipo de operación realizada sobre la entidad.
+     */
+    public enum Operacion {
+        CREACION,
+        MODIFICACION,
+        ELIMINACION
+    }
+
+    private final Entidad entidad;
+    private final Operacion operacion;
+    private final Long id;
+    private final List<Long> ids;
+
+    /**
+     * Constructor del evento.
+     *
+     * @param entidad   la entidad afectada
+     * @param operacion la operación realizada
+     * @param id        el id de la entidad afectada (null si la operación afecta a varias)
+     */
+    public CatalogoModificadoEvent(Entidad entidad, Operacion operacion, Long id) {
+        this.entidad = entidad;
+        this.operacion = operacion;
+        this.id = id;
+        this.ids = id == null ? List.of() : List.of(id);
+    }
+
+    /**
+     * Constructor helper para una operación que afecta a varias entidades conocidas.
+     */
+    private CatalogoModificadoEvent(Entidad entidad, Operacion operacion, List<Long> ids) {
+        this.entidad = entidad;
+        this.operacion = operacion;
+        this.ids = ids;
+        this.id = ids.size() == 1 ? ids.get(0) : null;
+    }
+
+    /**
+     * Método para crear el evento de una operación que afecta a varias entidades conocidas.
+     *
+     * @param entidad   la entidad afectada
+     * @param operacion la operación realizada
+     * @param ids       los ids de las entidades afectadas
+     * @return el evento
+     */
+    public static CatalogoModificadoEvent deVarias(Entidad entidad, Operacion operacion, Collection<Long> ids) {
+        return new CatalogoModificadoEvent(entidad, operacion, List.copyOf(ids));
+    }
+
+    public Entidad getEntidad() {
+        return entidad;
+    }
+
+    public Operacion getOperacion() {
+        return operacion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Método para obtener los ids de las entidades afectadas.
+     *
+     * @return una lista inmutable con los ids (vacía si no se conocen)
+     */
+    public List<Long> getIds() {
+        return ids;
+    }
+}
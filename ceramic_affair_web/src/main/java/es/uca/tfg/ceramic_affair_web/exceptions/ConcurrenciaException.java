@@ -0,0 +1,44 @@
+package es.uca.tfg.ceramic_affair_web.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepciones relacionadas con las modificaciones concurrentes (If-Match).
+ */
+public class ConcurrenciaException {
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase.
+     */
+    private ConcurrenciaException() {
+        throw new UnsupportedOperationException("This class cannot be instantiated.");
+    }
+
+    /**
+     * Excepción lanzada cuando la versión indicada en If-Match no es la versión vigente del recurso.
+     */
+    public static class VersionNoCoincide extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param recurso el tipo de recurso
+         * @param id el id del recurso
+         * @param versionActual la versión vigente del recurso
+         */
+        public VersionNoCoincide(String recurso, Long id, long versionActual) {
+            super(recurso + " with ID " + id + " has been modified, current version is " + versionActual, HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    /**
+     * Excepción lanzada cuando la cabecera If-Match no es una versión válida.
+     */
+    public static class IfMatchNoValido extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param valor el valor de la cabecera
+         */
+        public IfMatchNoValido(String valor) {
+            super("Invalid If-Match header " + valor, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
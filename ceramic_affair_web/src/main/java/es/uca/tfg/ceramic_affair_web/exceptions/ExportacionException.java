@@ -0,0 +1,29 @@
+package es.uca.tfg.ceramic_affair_web.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepciones relacionadas con la exportación del catálogo.
+ */
+public class ExportacionException {
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase.
+     */
+    private ExportacionException() {
+        throw new UnsupportedOperationException("This class cannot be instantiated.");
+    }
+
+    /**
+     * Excepción lanzada cuando se pide un formato de exportación no soportado.
+     */
+    public static class FormatoNoSoportado extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param formato el formato pedido
+         */
+        public FormatoNoSoportado(String formato) {
+            super("Unsupported export format " + formato + ", use csv or ndjson", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -25,7 +26,7 @@ import jakarta.servlet.http.HttpServletRequest;
  * Clase para manejar excepciones globales en la aplicación.
  * Utiliza @RestControllerAdvice para manejar excepciones de forma centralizada.
  * 
- * @version 1.1
+ * @version 1.2
  */
 @RestControllerAdvice
 @Order(2)
@@ -139,6 +140,21 @@ public class GlobalExceptionHandler {
             null);
     }
 
+    /**
+     * Maneja la excepción de modificación concurrente detectada por el bloqueo optimista.
+     * @param ex la excepción lanzada
+     * @return una respuesta con el mensaje de error y el estado HTTP 412 (Precondition Failed)
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        logger.warn("Concurrent modification: {}", ex.getMessage());
+        return createErrorResponse(HttpStatus.PRECONDITION_FAILED,
+            "Concurrent modification",
+            "The resource has been modified by another request, please reload it and try again.",
+            request.getRequestURI(),
+            null);
+    }
+
     /**
      * Maneja las excepciones relacionadas con las validaciones
      * 
@@ -0,0 +1,81 @@
+package es.uca.tfg.ceramic_affair_web.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepciones relacionadas con la importación de productos.
+ */
+public class ImportacionException {
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase.
+     */
+    private ImportacionException() {
+        throw new UnsupportedOperationException("This class cannot be instantiated.");
+    }
+
+    /**
+     * Excepción lanzada cuando el formato del archivo a importar no está soportado.
+     */
+    public static class FormatoNoSoportado extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param tipo el tipo de contenido recibido
+         */
+        public FormatoNoSoportado(String tipo) {
+            super("Unsupported import format " + tipo + ", use text/csv or application/x-ndjson", HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+    }
+
+    /**
+     * Excepción lanzada cuando la cabecera del CSV no es válida.
+     */
+    public static class CabeceraNoValida extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param mensaje el motivo por el que la cabecera no es válida
+         */
+        public CabeceraNoValida(String mensaje) {
+            super("Invalid CSV header: " + mensaje, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Excepción lanzada cuando no se encuentra una importación.
+     */
+    public static class NoEncontrada extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param id el id de la importación
+         */
+        public NoEncontrada(String id) {
+            super("Import not found with ID " + id, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Excepción lanzada cuando el id de importación propuesto por el cliente no es válido.
+     */
+    public static class IdNoValido extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param id el id propuesto
+         */
+        public IdNoValido(String id) {
+            super("Invalid import ID " + id + ", use up to 64 letters, digits, '-' or '_'", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Excepción lanzada cuando ya existe una importación con el id propuesto por el cliente.
+     */
+    public static class IdDuplicado extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param id el id propuesto
+         */
+        public IdDuplicado(String id) {
+            super("Import already exists with ID " + id, HttpStatus.CONFLICT);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package es.uca.tfg.ceramic_affair_web.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Clase para manejar excepciones relacionadas con las peticiones por lotes.
+ */
+public class LoteException {
+
+    /**
+     * Constructor privado para evitar la instanciación de esta clase.
+     */
+    private LoteException() {
+        throw new UnsupportedOperationException("This class cannot be instantiated.");
+    }
+
+    /**
+     * Excepción lanzada cuando un lote pide más elementos de los permitidos.
+     */
+    public static class DemasiadosElementos extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param maximo el número máximo de elementos por lote
+         */
+        public DemasiadosElementos(int maximo) {
+            super("Too many elements in batch request, maximum is " + maximo, HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -34,4 +34,30 @@ public class ProductoException {
             super(mensaje, HttpStatus.NOT_FOUND);
         }
     }
+
+    /**
+     * Excepción lanzada cuando el cursor de paginación no es válido.
+     */
+    public static class CursorNoValido extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param cursor
+         */
+        public CursorNoValido(String cursor) {
+            super("Invalid pagination cursor " + cursor, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Excepción lanzada cuando se pide un orden que no admite la paginación por cursor.
+     */
+    public static class OrdenNoValido extends BusinessException {
+        /**
+         * Constructor de la excepción.
+         * @param orden
+         */
+        public OrdenNoValido(String orden) {
+            super("Order " + orden + " is not supported with cursor pagination", HttpStatus.BAD_REQUEST);
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package es.uca.tfg.ceramic_affair_web.payload;
+
+import java.util.List;
+
+/**
+ * Clase que representa una página obtenida mediante paginación por cursor (keyset).
+ * A diferencia de Page, no incluye el número total de elementos, ya que no se ejecuta
+ * ninguna consulta de recuento.
+ * @param <T> Tipo de los elementos de la página.
+ * 
+ * @version 1.0
+ */
+public class PaginaCursor<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final String cursorSiguiente;
+    private final String cursorAnterior;
+
+    public PaginaCursor(List<T> content, int size, String cursorSiguiente, String cursorAnterior) {
+        this.content = content;
+        this.size = size;
+        this.cursorSiguiente = cursorSiguiente;
+        this.cursorAnterior = cursorAnterior;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getCursorSiguiente() {
+        return cursorSiguiente;
+    }
+
+    public String getCursorAnterior() {
+        return cursorAnterior;
+    }
+}
@@ -1,6 +1,9 @@
 package es.uca.tfg.ceramic_affair_web.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import es.uca.tfg.ceramic_affair_web.entities.Categoria;
@@ -9,11 +12,34 @@ import es.uca.tfg.ceramic_affair_web.entities.Categoria;
  * Repositorio para la entidad Categoria.
  * Proporciona métodos para realizar operaciones CRUD en la base de datos.
  * 
- * @version 1.0
+ * @version 1.1
  */
 @Repository
 public interface CategoriaRepo extends JpaRepository<Categoria, Long> {
 
     boolean existsByNombre(String nombre); // Verifica si existe una categoría con el nombre dado
-    
+
+    /**
+     * Proyección con el resumen de una categoría.
+     */
+    interface Resumen {
+        Long getId();
+        String getNombre();
+        Long getVersion();
+        Long getNumeroProductos();
+        Long getNumeroEnStock();
+        Long getIdPortada();
+    }
+
+    /**
+     * Calcula el resumen de todas las categorías con una única consulta agrupada, sin cargar sus productos:
+     * número de productos, número de productos en stock y la imagen más antigua de sus productos como portada.
+     * 
+     * @return el resumen de cada categoría, ordenado por id
+     */
+    @Query("SELECT c.id AS id, c.nombre AS nombre, c.version AS version, COUNT(DISTINCT p.id) AS numeroProductos, "
+        + "COUNT(DISTINCT CASE WHEN p.soldOut = false THEN p.id END) AS numeroEnStock, MIN(i.id) AS idPortada "
+        + "FROM Categoria c LEFT JOIN c.productos p LEFT JOIN p.imagenes i "
+        + "GROUP BY c.id, c.nombre, c.version ORDER BY c.id")
+    List<Resumen> findResumenes();
 }
@@ -1,24 +1,60 @@
 package es.uca.tfg.ceramic_affair_web.repositories;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.configuration.CacheSegundoNivelConfig;
 import es.uca.tfg.ceramic_affair_web.entities.FindMePost;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio para la entidad FindMePost.
  * Proporciona métodos para realizar operaciones CRUD en la base de datos.
  * 
- * @version 1.0
+ * @version 1.3
  */
 @Repository
 public interface FindMePostRepo extends JpaRepository<FindMePost, Long> {
     /**
      * Busca todas las publicaciones "Encuéntrame" ordenadas por fecha de inicio de forma descendente.
+     * El resultado se guarda en la caché de consultas hasta que se modifica la tabla.
      *
      * @return una lista de publicaciones "Encuéntrame" ordenadas por fecha de inicio
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS)
+    })
     List<FindMePost> findAllByOrderByFechaInicioDesc();
+
+    /**
+     * Busca todas las publicaciones "Encuéntrame" sin su descripción, ordenadas por fecha de inicio de forma descendente.
+     * La consulta no lee la columna de la descripción.
+     *
+     * @return una lista de DTOs sin descripción ordenados por fecha de inicio
+     */
+    @Query("SELECT new es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO(f.id, f.titulo, CAST(NULL AS String), f.fechaInicio, "
+        + "f.fechaFin, f.latitud, f.longitud) FROM FindMePost f ORDER BY f.fechaInicio DESC")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS)
+    })
+    List<FindMePostDTO> findResumenesOrderByFechaInicioDesc();
+
+    /**
+     * Busca las próximas publicaciones "Encuéntrame": las que aún no han terminado, de la más cercana a la más lejana.
+     *
+     * @param ahora el instante actual
+     * @param limite el número máximo de publicaciones
+     * @return una lista de publicaciones "Encuéntrame" ordenadas por fecha de inicio
+     */
+    List<FindMePost> findByFechaFinAfterOrderByFechaInicioAsc(LocalDateTime ahora, Limit limite);
 }
@@ -1,6 +1,9 @@
 package es.uca.tfg.ceramic_affair_web.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import es.uca.tfg.ceramic_affair_web.entities.Imagen;
@@ -9,10 +12,20 @@ import es.uca.tfg.ceramic_affair_web.entities.Imagen;
  * Repositorio para la entidad Imagen.
  * Proporciona métodos para realizar operaciones CRUD en la base de datos.
  * 
- * @version 1.0
+ * @version 1.1
  */
 @Repository
 public interface ImagenRepo extends JpaRepository<Imagen, Long> {
-    // No se necesitan métodos adicionales por ahora, ya que JpaRepository proporciona
-    // todos los métodos CRUD necesarios.
+
+    /**
+     * Elimina una imagen con una sentencia DELETE.
+     * Al ser una sentencia masiva, Hibernate invalida también las listas de imágenes de los productos
+     * guardadas en la caché de segundo nivel, que una eliminación de la entidad dejaría desactualizadas.
+     * 
+     * @param id el id de la imagen
+     * @return el número de imágenes eliminadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Imagen i WHERE i.id = :id")
+    int eliminarPorId(@Param("id") Long id);
 }
@@ -1,7 +1,15 @@
 package es.uca.tfg.ceramic_affair_web.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import es.uca.tfg.ceramic_affair_web.entities.Producto;
@@ -11,10 +19,90 @@ import es.uca.tfg.ceramic_affair_web.entities.Producto;
  * Repositorio para la entidad Producto.
  * Proporciona métodos para realizar operaciones CRUD en la base de datos.
  * 
- * @version 1.0
+ * @version 1.5
  */
 @Repository
 public interface ProductoRepo extends JpaRepository<Producto, Long>, JpaSpecificationExecutor<Producto> {
-    // No se necesitan métodos adicionales por ahora, ya que JpaRepository proporciona
-    // todos los métodos CRUD necesarios.
+
+    /**
+     * Busca los productos con los ids dados, cargando su categoría y sus imágenes en la misma consulta.
+     * 
+     * @param ids los ids de los productos a buscar
+     * @return una lista con los productos encontrados, sin orden garantizado
+     */
+    @EntityGraph(attributePaths = { "categoria", "imagenes" })
+    List<Producto> findConRelacionesByIdIn(Collection<Long> ids);
+
+    /**
+     * Busca todos los productos, cargando su categoría y sus imágenes en la misma consulta.
+     * 
+     * @return una lista con todos los productos
+     */
+    @EntityGraph(attributePaths = { "categoria", "imagenes" })
+    @Query("SELECT p FROM Producto p")
+    List<Producto> findAllConRelaciones();
+
+    /**
+     * Proyección con el estado de stock de un producto.
+     */
+    interface EstadoStock {
+        Long getId();
+        Boolean getSoldOut();
+    }
+
+    /**
+     * Obtiene los ids de los productos más recientes de cada categoría con una única consulta,
+     * numerando los productos de cada categoría por fecha de creación con una función de ventana.
+     * Los productos sin categoría no se incluyen.
+     * 
+     * @param numero el número máximo de productos por categoría
+     * @return los ids de los productos, sin orden garantizado
+     */
+    @Query("SELECT r.id FROM (SELECT p.id AS id, ROW_NUMBER() OVER (PARTITION BY p.categoria.id "
+        + "ORDER BY p.fechaCreacion DESC, p.id DESC) AS posicion FROM Producto p WHERE p.categoria IS NOT NULL) r "
+        + "WHERE r.posicion <= :numero")
+    List<Long> findIdsMasRecientesPorCategoria(@Param("numero") int numero);
+
+    /**
+     * Obtiene los ids de los productos de varias categorías, sin cargarlos.
+     * 
+     * @param ids los ids de las categorías
+     * @return los ids de sus productos
+     */
+    @Query("SELECT p.id FROM Producto p WHERE p.categoria.id IN :ids")
+    List<Long> findIdsByCategoriaIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca el estado de stock de los productos con los ids dados, sin cargar las entidades.
+     * 
+     * @param ids los ids de los productos
+     * @return el id y el estado de stock de los productos encontrados
+     */
+    @Query("SELECT p.id AS id, p.soldOut AS soldOut FROM Producto p WHERE p.id IN :ids")
+    List<EstadoStock> findEstadoStockByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Establece el estado de stock de varios productos con una única sentencia UPDATE.
+     * Incrementa la versión de cada producto para que el bloqueo optimista y los ETag sigan siendo válidos.
+     * 
+     * @param ids los ids de los productos a modificar
+     * @param soldOut el nuevo estado de stock
+     * @param fecha la fecha de modificación
+     * @return el número de productos modificados
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.soldOut = :soldOut, p.version = p.version + 1, p.fechaModificacion = :fecha WHERE p.id IN :ids")
+    int actualizarStock(@Param("ids") Collection<Long> ids, @Param("soldOut") boolean soldOut, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Deja sin categoría todos los productos de una categoría con una única sentencia UPDATE.
+     * Incrementa la versión de cada producto para que el bloqueo optimista y los ETag sigan siendo válidos.
+     * 
+     * @param idCategoria el id de la categoría
+     * @param fecha la fecha de modificación
+     * @return el número de productos modificados
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.categoria = null, p.version = p.version + 1, p.fechaModificacion = :fecha WHERE p.categoria.id = :idCategoria")
+    int desvincularCategoria(@Param("idCategoria") Long idCategoria, @Param("fecha") LocalDateTime fecha);
 }
@@ -1,14 +1,20 @@
 package es.uca.tfg.ceramic_affair_web.repositories;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 import org.springframework.data.jpa.domain.Specification;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
 import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import jakarta.persistence.criteria.Path;
 
 /**
  * Clase que contiene las especificaciones para la entidad Producto.
  * Se utiliza para construir consultas dinámicas y complejas en la base de datos.
  * 
- * @version 1.0
+ * @version 1.3
  */
 public class ProductoSpecifications {
     
@@ -53,8 +59,140 @@ public class ProductoSpecifications {
         };
     }
 
+    /**
+     * Especificación para ordenar productos por precio y, a igualdad de precio, por id.
+     * El desempate por id hace el orden estable entre páginas y coincide con el índice (precio, id).
+     * 
+     * @param ascendente true para los más baratos primero, false para los más caros primero
+     * @return null, ya que el ordenamiento no requiere un predicado
+     */
+    public static Specification<Producto> ordenarPorPrecio(boolean ascendente) {
+        return (root, query, criteriaBuilder) -> {
+            if (ascendente) {
+                query.orderBy(criteriaBuilder.asc(root.get("precio")), criteriaBuilder.asc(root.get("id")));
+            } else {
+                query.orderBy(criteriaBuilder.desc(root.get("precio")), criteriaBuilder.desc(root.get("id")));
+            }
+            return null; // No se necesita un predicado para el ordenamiento
+        };
+    }
+
+    /**
+     * Especificación para ordenar productos según el parámetro de orden de la tienda.
+     * 
+     * @param orden "baratos" o "caros" para ordenar por precio, "viejos" para más antiguos primero,
+     *              o cualquier otro valor para más recientes primero
+     * @return null, ya que el ordenamiento no requiere un predicado
+     */
+    public static Specification<Producto> ordenar(String orden) {
+        if ("baratos".equalsIgnoreCase(orden)) {
+            return ordenarPorPrecio(true);
+        }
+        if ("caros".equalsIgnoreCase(orden)) {
+            return ordenarPorPrecio(false);
+        }
+        return ordenarPorFecha(orden);
+    }
+
+    /**
+     * Especificación para filtrar productos por rango de precio (límites inclusivos).
+     * 
+     * @param min el precio mínimo (null si no hay mínimo)
+     * @param max el precio máximo (null si no hay máximo)
+     * @return una especificación que filtra productos por precio
+     */
+    public static Specification<Producto> precioEntre(BigDecimal min, BigDecimal max) {
+        return entre("precio", min, max);
+    }
+
+    /**
+     * Especificación para filtrar productos por rango de altura (límites inclusivos).
+     * 
+     * @param min la altura mínima (null si no hay mínimo)
+     * @param max la altura máxima (null si no hay máximo)
+     * @return una especificación que filtra productos por altura
+     */
+    public static Specification<Producto> alturaEntre(Float min, Float max) {
+        return entre("altura", min, max);
+    }
+
+    /**
+     * Especificación para filtrar productos por rango de anchura (límites inclusivos).
+     * 
+     * @param min la anchura mínima (null si no hay mínimo)
+     * @param max la anchura máxima (null si no hay máximo)
+     * @return una especificación que filtra productos por anchura
+     */
+    public static Specification<Producto> anchuraEntre(Float min, Float max) {
+        return entre("anchura", min, max);
+    }
+
+    /**
+     * Especificación para filtrar productos por rango de diámetro (límites inclusivos).
+     * 
+     * @param min el diámetro mínimo (null si no hay mínimo)
+     * @param max el diámetro máximo (null si no hay máximo)
+     * @return una especificación que filtra productos por diámetro
+     */
+    public static Specification<Producto> diametroEntre(Float min, Float max) {
+        return entre("diametro", min, max);
+    }
+
+    /**
+     * Especificación para filtrar productos por todos los rangos de precio y dimensiones.
+     * 
+     * @param rangos los rangos a aplicar (null si no se desea filtrar por rangos)
+     * @return una especificación que filtra productos por rangos
+     */
+    public static Specification<Producto> conRangos(FiltroRangosDTO rangos) {
+        if (rangos == null || rangos.estaVacio()) {
+            return (root, query, criteriaBuilder) -> null;
+        }
+        return Specification
+            .where(precioEntre(rangos.getPrecioMin(), rangos.getPrecioMax()))
+            .and(alturaEntre(rangos.getAlturaMin(), rangos.getAlturaMax()))
+            .and(anchuraEntre(rangos.getAnchuraMin(), rangos.getAnchuraMax()))
+            .and(diametroEntre(rangos.getDiametroMin(), rangos.getDiametroMax()));
+    }
+
+    /**
+     * Especificación helper para filtrar un campo por rango (límites inclusivos).
+     * 
+     * @param campo el nombre del campo
+     * @param min el valor mínimo (null si no hay mínimo)
+     * @param max el valor máximo (null si no hay máximo)
+     * @return una especificación que filtra el campo por rango
+     */
+    private static <T extends Comparable<? super T>> Specification<Producto> entre(String campo, T min, T max) {
+        return (root, query, criteriaBuilder) -> {
+            Path<T> valor = root.get(campo);
+            if (min != null && max != null) {
+                return criteriaBuilder.between(valor, min, max);
+            } else if (min != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(valor, min);
+            } else if (max != null) {
+                return criteriaBuilder.lessThanOrEqualTo(valor, max);
+            }
+            return null; // No se aplica filtro si no hay límites
+        };
+    }
+
+    /**
+     * Especificación para filtrar productos por un conjunto de ids,
+     * normalmente el resultado de resolver un término en el índice de búsqueda.
+     * 
+     * @param ids los ids de los productos (null si no se desea filtrar por id)
+     * @return una especificación que filtra productos por id
+     */
+    public static Specification<Producto> conIds(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> ids == null
+            ? null
+            : root.get("id").in(ids);
+    }
+
     /**
      * Especificación para filtrar productos por nombre.
+     * Obliga a recorrer la tabla completa; los servicios resuelven el filtro por nombre con BusquedaService.
      * 
      * @param nombre el nombre del producto (null o vacío si no se desea filtrar por nombre)
      * @return una especificación que filtra productos por nombre
@@ -68,4 +206,34 @@ public class ProductoSpecifications {
             }
         };
     }
+
+    /**
+     * Especificación para la paginación por cursor (keyset) sobre la clave (fechaCreacion, id).
+     * Selecciona los productos situados estrictamente después del producto frontera en el sentido indicado,
+     * de modo que la base de datos puede buscar directamente en el índice en lugar de usar OFFSET.
+     * 
+     * @param fechaCreacion la fecha de creación del producto frontera (null si no se desea filtrar)
+     * @param id el id del producto frontera
+     * @param ascendente true para seleccionar los productos posteriores, false para los anteriores
+     * @return una especificación que filtra los productos más allá del cursor
+     */
+    public static Specification<Producto> despuesDeCursor(LocalDateTime fechaCreacion, Long id, boolean ascendente) {
+        return (root, query, criteriaBuilder) -> {
+            if (fechaCreacion == null || id == null) {
+                return null; // Primera página: no se aplica filtro
+            }
+            if (ascendente) {
+                return criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(root.get("fechaCreacion"), fechaCreacion),
+                    criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("fechaCreacion"), fechaCreacion),
+                        criteriaBuilder.greaterThan(root.get("id"), id)));
+            }
+            return criteriaBuilder.or(
+                criteriaBuilder.lessThan(root.get("fechaCreacion"), fechaCreacion),
+                criteriaBuilder.and(
+                    criteriaBuilder.equal(root.get("fechaCreacion"), fechaCreacion),
+                    criteriaBuilder.lessThan(root.get("id"), id)));
+        };
+    }
 }
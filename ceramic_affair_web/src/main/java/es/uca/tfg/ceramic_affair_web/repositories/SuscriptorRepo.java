@@ -4,16 +4,20 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import es.uca.tfg.ceramic_affair_web.configuration.CacheSegundoNivelConfig;
 import es.uca.tfg.ceramic_affair_web.entities.Suscriptor;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositorio para la entidad Suscriptor.
  * Proporciona métodos para realizar operaciones CRUD en la base de datos.
  * 
- * @version 1.0
+ * @version 1.1
  */
 @Repository
 public interface SuscriptorRepo extends JpaRepository<Suscriptor, Long> {
@@ -44,9 +48,14 @@ public interface SuscriptorRepo extends JpaRepository<Suscriptor, Long> {
 
     /**
      * Busca los suscriptores que están verificados.
+     * El resultado se guarda en la caché de consultas hasta que se modifica la tabla.
      * 
      * @return Una lista de suscriptores verificados.
      */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGION_CONSULTAS)
+    })
     List<Suscriptor> findByVerificadoTrue();
 
     /**
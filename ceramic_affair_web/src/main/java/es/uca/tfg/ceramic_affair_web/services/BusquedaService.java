@@ -0,0 +1,239 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.SugerenciaDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+
+/**
+ * Servicio de búsqueda de productos.
+ * Mantiene en memoria un IndiceBusqueda sobre el nombre y la descripción de los productos
+ * para resolver búsquedas por subcadena y búsquedas tolerantes a erratas, y un TrieSugerencias
+ * sobre los nombres para el autocompletado, sin consultar la tabla producto.
+ * ProductoService los actualiza de forma incremental en cada alta, modificación o eliminación.
+ *
+ * @version 1.2
+ */
+@Service
+public class BusquedaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaService.class);
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    // Protegidos por el cerrojo: se sustituyen por completo en cada recarga
+    private IndiceBusqueda indice = new IndiceBusqueda();
+    private TrieSugerencias sugerencias = new TrieSugerencias();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // El índice se carga de la base de datos en el primer uso o tras una transacción revertida
+    private volatile boolean obsoleto = true;
+
+    /**
+     * Método para obtener los ids de los productos cuyo nombre contiene un término.
+     * La comparación ignora mayúsculas y tildes.
+     *
+     * @param termino el término a buscar
+     * @return los ids de los productos que coinciden, o null si el término es nulo o vacío (sin filtro)
+     */
+    public Set<Long> buscarPorNombre(String termino) {
+        if (termino == null || termino.isEmpty()) {
+            return null;
+        }
+        asegurarCargado();
+        lock.readLock().lock();
+        try {
+            return indice.buscarSubcadena(termino, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para obtener los ids de los productos cuyo nombre o descripción contiene un término.
+     * La comparación ignora mayúsculas y tildes.
+     *
+     * @param termino el término a buscar
+     * @return los ids de los productos que coinciden, o null si el término es nulo o vacío (sin filtro)
+     */
+    public Set<Long> buscarEnTexto(String termino) {
+        if (termino == null || termino.isEmpty()) {
+            return null;
+        }
+        asegurarCargado();
+        lock.readLock().lock();
+        try {
+            return indice.buscarSubcadena(termino, true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para buscar productos tolerando erratas, ordenados por relevancia.
+     *
+     * @param texto el texto de la búsqueda
+     * @return los ids de los productos que coinciden, de más a menos relevante (vacío si no hay texto)
+     */
+    public List<Long> buscarAproximado(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        asegurarCargado();
+        lock.readLock().lock();
+        try {
+            return indice.buscarAproximado(texto);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para obtener sugerencias de autocompletado para un prefijo.
+     * Se resuelve por completo en memoria: los productos más recientes se sugieren primero.
+     *
+     * @param prefijo el prefijo escrito por el usuario
+     * @param limite  el número máximo de sugerencias (como mucho TrieSugerencias.MAX_SUGERENCIAS)
+     * @return las sugerencias, de más a menos reciente
+     */
+    public List<SugerenciaDTO> sugerir(String prefijo, int limite) {
+        if (prefijo == null || prefijo.isBlank()) {
+            return List.of();
+        }
+        asegurarCargado();
+        lock.readLock().lock();
+        try {
+            return sugerencias.sugerir(prefijo, limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para indexar un producto nuevo o volver a indexar uno modificado.
+     * Si la transacción en curso se revierte, el índice se recargará desde la base de datos.
+     *
+     * @param producto el producto a indexar
+     */
+    public void indexar(Producto producto) {
+        lock.writeLock().lock();
+        try {
+            anadir(producto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        invalidarSiSeRevierte();
+    }
+
+    /**
+     * Método para eliminar un producto del índice.
+     * Si la transacción en curso se revierte, el índice se recargará desde la base de datos.
+     *
+     * @param id el id del producto
+     */
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            indice.quitar(id);
+            sugerencias.quitar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        invalidarSiSeRevierte();
+    }
+
+    /**
+     * Método para marcar el índice como obsoleto.
+     * La siguiente búsqueda lo recargará por completo desde la base de datos.
+     */
+    public void invalidar() {
+        obsoleto = true;
+    }
+
+    /**
+     * Método para normalizar un texto: minúsculas y sin tildes ni diéresis.
+     *
+     * @param texto el texto a normalizar
+     * @return el texto normalizado (cadena vacía si es null)
+     */
+    public static String normalizar(String texto) {
+        return IndiceBusqueda.normalizar(texto);
+    }
+
+    /**
+     * Método helper para recargar el índice completo si está obsoleto.
+     */
+    private void asegurarCargado() {
+        if (!obsoleto) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!obsoleto) {
+                return;
+            }
+            // Se marca antes de consultar: una invalidación concurrente forzará otra recarga
+            obsoleto = false;
+            indice = new IndiceBusqueda();
+            sugerencias = new TrieSugerencias();
+            List<Producto> productos = productoRepo.findAll();
+            productos.forEach(this::anadir);
+            logger.debug("Product search index rebuilt: {} products", productos.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Carga los índices al arrancar la aplicación para que la primera búsqueda no pague la carga.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        asegurarCargado();
+    }
+
+    /**
+     * Método helper para añadir un producto a ambos índices. Debe llamarse con el cerrojo de escritura.
+     * El peso de las sugerencias es la fecha de creación, para sugerir antes las piezas más nuevas.
+     *
+     * @param producto el producto a añadir
+     */
+    private void anadir(Producto producto) {
+        indice.anadir(producto.getId(), producto.getNombre(), producto.getDescripcion());
+        long peso = producto.getFechaCreacion() != null ? producto.getFechaCreacion().toEpochSecond(ZoneOffset.UTC) : 0L;
+        sugerencias.anadir(producto.getId(), producto.getNombre(), peso);
+    }
+
+    /**
+     * Método helper para recargar el índice si la transacción en curso no llega a confirmarse,
+     * ya que los cambios se aplican al índice antes del commit.
+     */
+    private void invalidarSiSeRevierte() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    invalidar();
+                }
+            }
+        });
+    }
+}
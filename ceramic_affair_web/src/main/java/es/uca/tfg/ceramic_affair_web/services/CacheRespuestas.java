@@ -0,0 +1,236 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoExpandidoDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Caché de respuestas completas de las lecturas públicas, ya serializadas (y comprimidas con gzip si son grandes).
+ * Cada respuesta se etiqueta con las entidades que contiene, como producto:42 o categoria:3, y se purga por etiqueta
+ * cuando se confirma una modificación de alguna de ellas. Las respuestas de un único producto, imagen o publicación
+ * "Encuéntrame" solo llevan las etiquetas de sus entidades; el resto (listados, facetas, categorías con recuentos, lotes)
+ * depende de cualquier cambio de su sección y lleva además la etiqueta de la sección (catalogo o find-me-posts).
+ * Para no guardar una respuesta calculada antes de una modificación, cada purga avanza una generación y solo se
+ * guardan las respuestas cuya generación no ha cambiado desde que empezó la petición.
+ *
+ * @version 1.1
+ */
+@Service
+public class CacheRespuestas {
+
+    /**
+     * Número máximo de respuestas en caché; al superarlo se vacía.
+     */
+    public static final int MAX_ENTRADAS = 1_000;
+
+    /**
+     * Tamaño mínimo del cuerpo, en bytes, para guardar también su versión comprimida con gzip.
+     */
+    public static final int TAMANO_MINIMO_GZIP = 1_024;
+
+    public static final String ETIQUETA_CATALOGO = "catalogo";
+    public static final String ETIQUETA_FIND_ME_POSTS = "find-me-posts";
+
+    private static final String ATRIBUTO_ETIQUETAS = CacheRespuestas.class.getName() + ".etiquetas";
+
+    /**
+     * Respuesta guardada en la caché.
+     *
+     * @param tipoContenido el Content-Type de la respuesta
+     * @param etag la ETag de la respuesta (null si no tiene)
+     * @param ultimaModificacion la cabecera Last-Modified de la respuesta (null si no tiene)
+     * @param cacheControl la cabecera Cache-Control de la respuesta (null si no tiene)
+     * @param cuerpo el cuerpo serializado
+     * @param cuerpoGzip el cuerpo comprimido con gzip (null si es demasiado pequeño para comprimirlo)
+     * @param etiquetas las etiquetas de la respuesta
+     */
+    public record Respuesta(String tipoContenido, String etag, String ultimaModificacion, String cacheControl,
+                            byte[] cuerpo, byte[] cuerpoGzip, Set<String> etiquetas) {
+    }
+
+    private final Map<String, Respuesta> respuestas = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> clavesPorEtiqueta = new ConcurrentHashMap<>();
+    private volatile long generacion;
+
+    /**
+     * Método para obtener una respuesta de la caché.
+     *
+     * @param clave la clave de la petición (ruta y parámetros normalizados)
+     * @return la respuesta guardada, o null si no está en caché
+     */
+    public Respuesta obtener(String clave) {
+        return respuestas.get(clave);
+    }
+
+    /**
+     * Método para obtener la generación actual, que avanza con cada purga.
+     *
+     * @return la generación actual
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * Método para guardar una respuesta si no se ha purgado nada desde que empezó su petición.
+     *
+     * @param clave la clave de la petición
+     * @param respuesta la respuesta a guardar
+     * @param generacionInicial la generación leída al empezar la petición
+     * @return true si la respuesta se ha guardado
+     */
+    public synchronized boolean guardar(String clave, Respuesta respuesta, long generacionInicial) {
+        if (generacion != generacionInicial) {
+            return false;
+        }
+        if (respuestas.size() >= MAX_ENTRADAS) {
+            respuestas.clear();
+            clavesPorEtiqueta.clear();
+        }
+        respuestas.put(clave, respuesta);
+        for (String etiqueta : respuesta.etiquetas()) {
+            clavesPorEtiqueta.computeIfAbsent(etiqueta, e -> ConcurrentHashMap.newKeySet()).add(clave);
+        }
+        return true;
+    }
+
+    /**
+     * Método para eliminar las respuestas que llevan alguna de las etiquetas.
+     *
+     * @param etiquetas las etiquetas a purgar
+     */
+    public synchronized void purgar(Collection<String> etiquetas) {
+        generacion++;
+        for (String etiqueta : etiquetas) {
+            Set<String> claves = clavesPorEtiqueta.remove(etiqueta);
+            if (claves != null) {
+                claves.forEach(respuestas::remove);
+            }
+        }
+    }
+
+    /**
+     * Método para vaciar la caché por completo.
+     */
+    public synchronized void vaciar() {
+        generacion++;
+        respuestas.clear();
+        clavesPorEtiqueta.clear();
+    }
+
+    /**
+     * Purga las respuestas afectadas por cada modificación tras el commit de la transacción que la originó.
+     * Si la modificación se realiza fuera de una transacción, se procesa inmediatamente.
+     * Se ejecuta después de que RevisionCatalogo registre la modificación: una lectura que empiece antes de la purga
+     * guarda su respuesta con la generación anterior y se descarta, y una que empiece después ya ve el nuevo snapshot.
+     *
+     * @param evento el evento de modificación del catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        purgar(etiquetasDe(evento));
+    }
+
+    /**
+     * Método para obtener las etiquetas a purgar por una modificación: la de la entidad modificada
+     * (o la de su tipo, si afecta a varias) y la de su sección.
+     *
+     * @param evento el evento de modificación
+     * @return las etiquetas a purgar
+     */
+    public static Set<String> etiquetasDe(CatalogoModificadoEvent evento) {
+        String tipo = tipo(evento.getEntidad());
+        String seccion = evento.getEntidad() == Entidad.FIND_ME_POST ? ETIQUETA_FIND_ME_POSTS : ETIQUETA_CATALOGO;
+        return Set.of(evento.getId() == null ? tipo : etiqueta(evento.getEntidad(), evento.getId()), seccion);
+    }
+
+    /**
+     * Método para obtener las etiquetas de los datos de una respuesta pública.
+     *
+     * @param datos los datos de la respuesta
+     * @param ruta la ruta de la petición
+     * @return las etiquetas de la respuesta
+     */
+    public static Set<String> etiquetasDe(Object datos, String ruta) {
+        Set<String> etiquetas = new LinkedHashSet<>();
+        if (datos instanceof ProductoDTO producto) {
+            etiquetas.add(tipo(Entidad.PRODUCTO));
+            etiquetas.add(etiqueta(Entidad.PRODUCTO, producto.getId()));
+            if (producto.getIdCategoria() != null) {
+                etiquetas.add(etiqueta(Entidad.CATEGORIA, producto.getIdCategoria()));
+            }
+            if (producto.getIdsImagenes() != null) {
+                producto.getIdsImagenes().forEach(id -> etiquetas.add(etiqueta(Entidad.IMAGEN, id)));
+            }
+            if (producto instanceof ProductoExpandidoDTO expandido && expandido.getImagenes() != null) {
+                expandido.getImagenes().forEach(imagen -> etiquetas.add(etiqueta(Entidad.IMAGEN, imagen.getId())));
+            }
+        } else if (datos instanceof ImagenDTO imagen) {
+            etiquetas.add(tipo(Entidad.IMAGEN));
+            etiquetas.add(etiqueta(Entidad.IMAGEN, imagen.getId()));
+        } else if (datos instanceof Imagen imagen) {
+            etiquetas.add(tipo(Entidad.IMAGEN));
+            etiquetas.add(etiqueta(Entidad.IMAGEN, imagen.getId()));
+        } else if (datos instanceof FindMePostDTO publicacion) {
+            etiquetas.add(tipo(Entidad.FIND_ME_POST));
+            etiquetas.add(etiqueta(Entidad.FIND_ME_POST, publicacion.getId()));
+        } else {
+            // Listados y agregados: cualquier cambio de la sección puede alterarlos
+            if (!ruta.contains("/find-me-posts")) {
+                etiquetas.add(ETIQUETA_CATALOGO);
+            }
+            if (ruta.contains("/find-me-posts") || ruta.contains("/batch")) {
+                etiquetas.add(ETIQUETA_FIND_ME_POSTS);
+            }
+        }
+        return etiquetas;
+    }
+
+    /**
+     * Método para asociar a una petición las etiquetas de su respuesta.
+     * Solo las respuestas etiquetadas se guardan en la caché.
+     *
+     * @param request la petición HTTP
+     * @param etiquetas las etiquetas de la respuesta
+     */
+    public static void etiquetar(HttpServletRequest request, Set<String> etiquetas) {
+        request.setAttribute(ATRIBUTO_ETIQUETAS, etiquetas);
+    }
+
+    /**
+     * Método para obtener las etiquetas asociadas a una petición.
+     *
+     * @param request la petición HTTP
+     * @return las etiquetas de la respuesta, o null si no se ha etiquetado
+     */
+    @SuppressWarnings("unchecked")
+    public static Set<String> etiquetasDe(HttpServletRequest request) {
+        return (Set<String>) request.getAttribute(ATRIBUTO_ETIQUETAS);
+    }
+
+    private static String tipo(Entidad entidad) {
+        return entidad.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    private static String etiqueta(Entidad entidad, Long id) {
+        return tipo(entidad) + ":" + id;
+    }
+}
@@ -0,0 +1,122 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.CambiosCatalogoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+
+/**
+ * Servicio para obtener los cambios del catálogo posteriores a una revisión (sincronización incremental).
+ * Los ids modificados salen del registro de RevisionCatalogo y los productos se cargan con su estado actual,
+ * que puede ser más reciente que la revisión devuelta pero nunca anterior: la siguiente petición los volverá
+ * a enviar si vuelven a cambiar.
+ * Las modificaciones de las que no se conocen los productos afectados (eliminación de una categoría,
+ * invalidaciones manuales) y los cambios de más de MAX_PRODUCTOS productos obligan a recargar el catálogo.
+ *
+ * @version 1.0
+ */
+@Service
+public class CambiosCatalogoService {
+
+    /**
+     * Número máximo de productos modificados que se devuelven; por encima, es más barato recargar el catálogo.
+     */
+    public static final int MAX_PRODUCTOS = 500;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    /**
+     * Método para obtener los cambios del catálogo posteriores a una revisión.
+     *
+     * @param desde la última revisión conocida por el cliente
+     * @return los cambios, o una respuesta con completo = true si el cliente debe recargar el catálogo
+     */
+    @Transactional(readOnly = true)
+    public CambiosCatalogoDTO obtenerCambios(long desde) {
+        RevisionCatalogo.Cambios registro = revisionCatalogo.cambiosDesde(desde);
+        if (registro == null) {
+            return new CambiosCatalogoDTO(revisionCatalogo.getRevision(), true);
+        }
+
+        // 1. Reunir los ids afectados
+        Set<Long> idsProductos = new LinkedHashSet<>();
+        Set<Long> idsCategorias = new LinkedHashSet<>();
+        Set<Long> imagenesEliminadas = new LinkedHashSet<>();
+        for (RevisionCatalogo.Cambio cambio : registro.cambios()) {
+            if (cambio.id() == null) {
+                return new CambiosCatalogoDTO(registro.revision(), true);
+            }
+            switch (cambio.entidad()) {
+                case PRODUCTO -> idsProductos.add(cambio.id());
+                case CATEGORIA -> {
+                    // Al eliminar una categoría sus productos quedan sin categoría, pero ya no se sabe cuáles eran
+                    if (cambio.operacion() == Operacion.ELIMINACION) {
+                        return new CambiosCatalogoDTO(registro.revision(), true);
+                    }
+                    idsCategorias.add(cambio.id());
+                }
+                case IMAGEN -> {
+                    // Las imágenes nuevas solo aparecen al asociarlas a un producto, que registra su propio cambio
+                    if (cambio.operacion() == Operacion.ELIMINACION) {
+                        imagenesEliminadas.add(cambio.id());
+                    }
+                }
+                default -> {
+                    // Las publicaciones "Encuéntrame" no forman parte del catálogo
+                }
+            }
+        }
+
+        // 2. Los productos de las categorías modificadas cambian de nombre de categoría
+        if (!idsCategorias.isEmpty()) {
+            idsProductos.addAll(productoRepo.findIdsByCategoriaIdIn(idsCategorias));
+        }
+        if (idsProductos.size() > MAX_PRODUCTOS) {
+            return new CambiosCatalogoDTO(registro.revision(), true);
+        }
+
+        // 3. Cargar el estado actual: los ids que ya no existen son productos eliminados
+        CambiosCatalogoDTO cambios = new CambiosCatalogoDTO(registro.revision(), false);
+        if (!idsProductos.isEmpty()) {
+            Map<Long, Producto> actuales = productoRepo.findConRelacionesByIdIn(idsProductos).stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+            List<Long> eliminados = new ArrayList<>();
+            for (Long id : idsProductos) {
+                Producto producto = actuales.get(id);
+                if (producto != null) {
+                    cambios.getProductos().add(ProductoMapper.toDTO(producto));
+                } else {
+                    eliminados.add(id);
+                }
+            }
+            cambios.setProductosEliminados(eliminados);
+        }
+        cambios.setImagenesEliminadas(new ArrayList<>(imagenesEliminadas));
+
+        // 4. Cualquier cambio puede alterar los recuentos de las categorías, que son pocas: se envían todas
+        if (!registro.cambios().isEmpty()) {
+            cambios.setCategorias(categoriaService.obtenerResumenes());
+        }
+        return cambios;
+    }
+}
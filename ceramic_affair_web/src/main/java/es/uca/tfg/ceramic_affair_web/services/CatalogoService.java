@@ -0,0 +1,394 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoCursor;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenMapper;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoExpandidoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.exceptions.ProductoException;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
+import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+
+/**
+ * Servicio de lectura del catálogo público.
+ * Sirve las consultas públicas de productos desde un snapshot inmutable en memoria,
+ * que se reconstruye por completo cuando RevisionCatalogo registra una modificación confirmada del catálogo.
+ * Si el snapshot está desactivado, delega en ProductoService y consulta la base de datos.
+ *
+ * @version 1.9
+ */
+@Service
+public class CatalogoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogoService.class);
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private CategoriaRepo categoriaRepo;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${ceramic.affair.catalogo.snapshot.enabled:true}")
+    private boolean snapshotActivo;
+
+    // Snapshot publicado; los lectores nunca lo ven a medio construir
+    private volatile CatalogoSnapshot snapshot;
+
+    /**
+     * Método para obtener un producto del catálogo por su id.
+     *
+     * @param id el id del producto
+     * @return el DTO del producto
+     * @throws ProductoException.NoEncontrado si no se encuentra el producto
+     */
+    public ProductoDTO obtenerProducto(Long id) {
+        if (!snapshotActivo) {
+            return ProductoMapper.toDTO(productoService.obtenerPorId(id));
+        }
+        ProductoDTO dto = obtenerSnapshot().obtenerProducto(id);
+        if (dto == null) {
+            throw new ProductoException.NoEncontrado(id);
+        }
+        return dto;
+    }
+
+    /**
+     * Método para obtener varios productos del catálogo por sus ids.
+     * Los ids que no existen se omiten del resultado.
+     *
+     * @param ids los ids de los productos
+     * @return un mapa id -> producto, en el orden de los ids recibidos
+     */
+    public Map<Long, ProductoDTO> obtenerProductos(Collection<Long> ids) {
+        Map<Long, ProductoDTO> resultado = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return resultado;
+        }
+        if (!snapshotActivo) {
+            // Una única consulta por ids, cargando categoría e imágenes
+            Map<Long, ProductoDTO> encontrados = new HashMap<>();
+            productoRepo.findConRelacionesByIdIn(ids).forEach(p -> encontrados.put(p.getId(), ProductoMapper.toDTO(p)));
+            ids.stream().filter(encontrados::containsKey).forEach(id -> resultado.put(id, encontrados.get(id)));
+            return resultado;
+        }
+        CatalogoSnapshot actual = obtenerSnapshot();
+        for (Long id : ids) {
+            ProductoDTO dto = actual.obtenerProducto(id);
+            if (dto != null) {
+                resultado.put(id, dto);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Método para obtener varias imágenes del catálogo por sus ids.
+     * Los ids que no existen se omiten del resultado. Se devuelven con la misma representación
+     * (y URL pública) que las imágenes de los productos expandidos.
+     *
+     * @param ids los ids de las imágenes
+     * @return un mapa id -> DTO de la imagen, en el orden de los ids recibidos
+     */
+    public Map<Long, ImagenDTO> obtenerImagenes(Collection<Long> ids) {
+        Map<Long, ImagenDTO> resultado = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return resultado;
+        }
+        Map<Long, Imagen> disponibles;
+        if (snapshotActivo) {
+            disponibles = obtenerSnapshot().getImagenes();
+        } else {
+            disponibles = new HashMap<>();
+            for (Imagen imagen : imagenRepo.findAllById(ids)) {
+                disponibles.put(imagen.getId(), imagen);
+            }
+        }
+        ids.stream().filter(disponibles::containsKey).forEach(id -> resultado.put(id, ImagenMapper.toDTO(disponibles.get(id))));
+        return resultado;
+    }
+
+    /**
+     * Método para filtrar los productos del catálogo.
+     *
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param orden el orden "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
+     * @param pageable objeto Pageable para la paginación
+     * @return una página de productos que cumplen con los filtros
+     */
+    public Page<ProductoDTO> filtrarProductos(String nombre, Long categoria, Boolean soloEnStock, String orden, Pageable pageable) {
+        return filtrarProductos(nombre, categoria, soloEnStock, null, orden, pageable);
+    }
+
+    /**
+     * Método para filtrar los productos del catálogo, incluidos los rangos de precio y dimensiones.
+     *
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro (null si no se desea filtrar por rangos)
+     * @param orden "baratos" o "caros" para ordenar por precio, "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
+     * @param pageable objeto Pageable para la paginación
+     * @return una página de productos que cumplen con los filtros
+     */
+    public Page<ProductoDTO> filtrarProductos(String nombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos, String orden,
+                                              Pageable pageable) {
+        if (!snapshotActivo) {
+            return productoService.filtrarProductos(nombre, categoria, soloEnStock, rangos, orden, pageable);
+        }
+        return obtenerSnapshot().filtrar(busquedaService.buscarPorNombre(nombre), categoria, soloEnStock, rangos, orden, pageable);
+    }
+
+    /**
+     * Método para filtrar los productos del catálogo paginando por cursor (keyset).
+     *
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param orden el orden "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
+     * @param cursor el cursor opaco devuelto en la página previa (null o vacío para la primera página)
+     * @param size el tamaño de la página
+     * @return la página de productos con los cursores siguiente y anterior
+     * @throws ProductoException.CursorNoValido si el cursor no es válido
+     * @throws ProductoException.OrdenNoValido si el orden es por precio, que no admite la paginación por cursor
+     */
+    public PaginaCursor<ProductoDTO> filtrarProductosPorCursor(String nombre, Long categoria, Boolean soloEnStock, String orden,
+                                                               String cursor, int size) {
+        return filtrarProductosPorCursor(nombre, categoria, soloEnStock, null, orden, cursor, size);
+    }
+
+    /**
+     * Método para filtrar los productos del catálogo, incluidos los rangos de precio y dimensiones, paginando por cursor (keyset).
+     *
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro (null si no se desea filtrar por rangos)
+     * @param orden el orden "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
+     * @param cursor el cursor opaco devuelto en la página previa (null o vacío para la primera página)
+     * @param size el tamaño de la página
+     * @return la página de productos con los cursores siguiente y anterior
+     * @throws ProductoException.CursorNoValido si el cursor no es válido
+     * @throws ProductoException.OrdenNoValido si el orden es por precio, que no admite la paginación por cursor
+     */
+    public PaginaCursor<ProductoDTO> filtrarProductosPorCursor(String nombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos,
+                                                               String orden, String cursor, int size) {
+        ProductoCursor.comprobarOrden(orden);
+        if (!snapshotActivo) {
+            return productoService.filtrarProductosPorCursor(nombre, categoria, soloEnStock, rangos, orden, cursor, size);
+        }
+        return obtenerSnapshot().filtrarPorCursor(busquedaService.buscarPorNombre(nombre), categoria, soloEnStock, rangos, orden,
+            ProductoCursor.decodificar(cursor), size);
+    }
+
+    /**
+     * Método para buscar productos del catálogo tolerando erratas, ordenados por relevancia.
+     * Tanto la clasificación como la carga de los productos se resuelven en memoria.
+     *
+     * @param texto el texto de la búsqueda
+     * @param pageable objeto Pageable para la paginación
+     * @return una página de productos, de más a menos relevante
+     */
+    public Page<ProductoDTO> buscarProductos(String texto, Pageable pageable) {
+        if (!snapshotActivo) {
+            return productoService.buscarProductos(texto, pageable);
+        }
+
+        // Se descartan los ids que aún no están en el snapshot antes de paginar, para que el total sea exacto
+        CatalogoSnapshot actual = obtenerSnapshot();
+        List<ProductoDTO> resultados = new ArrayList<>();
+        for (Long id : busquedaService.buscarAproximado(texto)) {
+            ProductoDTO dto = actual.obtenerProducto(id);
+            if (dto != null) {
+                resultados.add(dto);
+            }
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(resultados, pageable, resultados.size());
+        }
+
+        int inicio = (int) Math.min(pageable.getOffset(), resultados.size());
+        int fin = Math.min(inicio + pageable.getPageSize(), resultados.size());
+        return new PageImpl<>(new ArrayList<>(resultados.subList(inicio, fin)), pageable, resultados.size());
+    }
+
+    /**
+     * Método para obtener todos los productos del catálogo.
+     *
+     * @param pageable objeto Pageable para la paginación
+     * @return una página con todos los productos
+     */
+    public Page<ProductoDTO> obtenerTodos(Pageable pageable) {
+        if (!snapshotActivo) {
+            return productoService.obtenerTodos(pageable);
+        }
+        return obtenerSnapshot().obtenerTodos(pageable);
+    }
+
+    /**
+     * Método para expandir un producto con los metadatos de sus imágenes.
+     *
+     * @param producto el DTO del producto
+     * @return el DTO expandido
+     */
+    public ProductoDTO expandirImagenes(ProductoDTO producto) {
+        return expandir(producto, imagenesDe(List.of(producto)));
+    }
+
+    /**
+     * Método para expandir una página de productos con los metadatos de sus imágenes.
+     * Las imágenes de toda la página se obtienen de una vez: del snapshot o, si está desactivado,
+     * con una única consulta por ids.
+     *
+     * @param pagina la página de productos
+     * @return la página con los DTOs expandidos
+     */
+    public Page<ProductoDTO> expandirImagenes(Page<ProductoDTO> pagina) {
+        Map<Long, Imagen> imagenes = imagenesDe(pagina.getContent());
+        return pagina.map(producto -> expandir(producto, imagenes));
+    }
+
+    /**
+     * Método para expandir una página por cursor con los metadatos de las imágenes de sus productos.
+     *
+     * @param pagina la página de productos
+     * @return la página con los DTOs expandidos
+     */
+    public PaginaCursor<ProductoDTO> expandirImagenes(PaginaCursor<ProductoDTO> pagina) {
+        Map<Long, Imagen> imagenes = imagenesDe(pagina.getContent());
+        List<ProductoDTO> contenido = new ArrayList<>();
+        for (ProductoDTO producto : pagina.getContent()) {
+            contenido.add(expandir(producto, imagenes));
+        }
+        return new PaginaCursor<>(contenido, pagina.getSize(), pagina.getCursorSiguiente(), pagina.getCursorAnterior());
+    }
+
+    /**
+     * Método para obtener el snapshot vigente del catálogo.
+     * Si alguna modificación se ha confirmado después de construirlo, se reconstruye antes de devolverlo,
+     * de modo que un administrador siempre ve sus propios cambios en la siguiente lectura.
+     *
+     * @return el snapshot vigente
+     */
+    public CatalogoSnapshot obtenerSnapshot() {
+        CatalogoSnapshot actual = snapshot;
+        if (actual != null && actual.getGeneracion() >= revisionCatalogo.getRevisionCatalogo()) {
+            return actual;
+        }
+        return reconstruir();
+    }
+
+    /**
+     * Método para reconstruir el snapshot desde la base de datos.
+     * Las reconstrucciones se serializan: si otro hilo ya ha publicado un snapshot al día
+     * mientras se esperaba, se reutiliza en lugar de volver a consultar la base de datos.
+     *
+     * @return el nuevo snapshot publicado
+     */
+    public synchronized CatalogoSnapshot reconstruir() {
+        // Se lee la revisión antes de consultar: cualquier commit posterior forzará otra reconstrucción
+        long objetivo = revisionCatalogo.getRevisionCatalogo();
+        CatalogoSnapshot actual = snapshot;
+        if (actual != null && actual.getGeneracion() >= objetivo) {
+            return actual;
+        }
+
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        CatalogoSnapshot nuevo = lectura.execute(status -> new CatalogoSnapshot(
+            objetivo,
+            productoRepo.findAllConRelaciones(),
+            categoriaRepo.findAll(),
+            imagenRepo.findAll()));
+
+        snapshot = nuevo;
+        logger.debug("Catalog snapshot rebuilt: generation {}, {} products", objetivo, nuevo.getNumeroProductos());
+        return nuevo;
+    }
+
+    /**
+     * Método helper para obtener las imágenes de una lista de productos, indexadas por id.
+     *
+     * @param productos los productos
+     * @return un mapa id -> imagen con, al menos, las imágenes de los productos
+     */
+    private Map<Long, Imagen> imagenesDe(List<ProductoDTO> productos) {
+        if (snapshotActivo) {
+            return obtenerSnapshot().getImagenes();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (ProductoDTO producto : productos) {
+            if (producto.getIdsImagenes() != null) {
+                ids.addAll(producto.getIdsImagenes());
+            }
+        }
+        Map<Long, Imagen> imagenes = new HashMap<>();
+        if (!ids.isEmpty()) {
+            imagenRepo.findAllById(ids).forEach(imagen -> imagenes.put(imagen.getId(), imagen));
+        }
+        return imagenes;
+    }
+
+    /**
+     * Método helper para expandir un producto con las imágenes ya cargadas.
+     *
+     * @param producto el DTO del producto
+     * @param imagenes las imágenes disponibles, indexadas por id
+     * @return el DTO expandido
+     */
+    private static ProductoDTO expandir(ProductoDTO producto, Map<Long, Imagen> imagenes) {
+        return new ProductoExpandidoDTO(producto, ImagenMapper.toDTOList(producto.getIdsImagenes(), imagenes));
+    }
+
+    /**
+     * Construye el snapshot al arrancar la aplicación para que la primera visita no pague la carga.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargar() {
+        if (snapshotActivo) {
+            reconstruir();
+        }
+    }
+}
@@ -0,0 +1,433 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoCursor;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
+import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
+
+/**
+ * Copia inmutable en memoria del catálogo público.
+ * Contiene los productos ya mapeados a DTO, las categorías y los metadatos de las imágenes,
+ * junto con índices precalculados por categoría, stock, fecha de creación y precio.
+ * Una vez construida no se modifica: cualquier cambio en el catálogo genera una nueva instancia.
+ *
+ * @version 1.5
+ */
+public final class CatalogoSnapshot {
+
+    /**
+     * Orden de los índices: más recientes primero y, a igualdad de fecha, mayor id primero.
+     */
+    private static final Comparator<Producto> MAS_RECIENTES_PRIMERO = Comparator
+        .comparing(Producto::getFechaCreacion, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparing(Producto::getId)
+        .reversed();
+
+    /**
+     * Orden del índice por precio: más baratos primero y, a igualdad de precio, menor id primero.
+     */
+    private static final Comparator<ProductoDTO> MAS_BARATOS_PRIMERO = Comparator
+        .comparing(ProductoDTO::getPrecio)
+        .thenComparing(ProductoDTO::getId);
+
+    private final long generacion;
+    private final Map<Long, ProductoDTO> productos;
+    private final Map<Long, String> categorias;
+    private final Map<Long, Imagen> imagenes;
+
+    // Índices precalculados (ordenados de más recientes a más antiguos)
+    private final List<ProductoDTO> recientes;
+    private final List<ProductoDTO> recientesEnStock;
+    private final Map<Long, List<ProductoDTO>> porCategoria;
+    private final Map<Long, List<ProductoDTO>> porCategoriaEnStock;
+
+    // Índice ordenado por id, usado por el listado completo
+    private final List<ProductoDTO> porId;
+
+    // Índice ordenado por precio, usado por los órdenes "baratos" y "caros"
+    private final List<ProductoDTO> porPrecio;
+
+    /**
+     * Construye el snapshot a partir de las entidades cargadas de la base de datos.
+     * Debe invocarse dentro de una transacción para poder recorrer las relaciones de los productos.
+     *
+     * @param generacion la generación del catálogo que representa este snapshot
+     * @param productos  todos los productos del catálogo
+     * @param categorias todas las categorías del catálogo
+     * @param imagenes   todas las imágenes del catálogo
+     */
+    public CatalogoSnapshot(long generacion, List<Producto> productos, List<Categoria> categorias, List<Imagen> imagenes) {
+        this.generacion = generacion;
+
+        List<Producto> ordenados = new ArrayList<>(productos);
+        ordenados.sort(MAS_RECIENTES_PRIMERO);
+
+        Map<Long, ProductoDTO> mapaProductos = new LinkedHashMap<>();
+        List<ProductoDTO> todos = new ArrayList<>();
+        List<ProductoDTO> enStock = new ArrayList<>();
+        Map<Long, List<ProductoDTO>> mapaCategoria = new HashMap<>();
+        Map<Long, List<ProductoDTO>> mapaCategoriaEnStock = new HashMap<>();
+
+        for (Producto producto : ordenados) {
+            ProductoDTO dto = ProductoMapper.toDTO(producto);
+            if (dto.getIdsImagenes() != null) {
+                dto.setIdsImagenes(List.copyOf(dto.getIdsImagenes()));
+            }
+            mapaProductos.put(dto.getId(), dto);
+            todos.add(dto);
+            if (!dto.isSoldOut()) {
+                enStock.add(dto);
+            }
+            if (dto.getIdCategoria() != null) {
+                mapaCategoria.computeIfAbsent(dto.getIdCategoria(), k -> new ArrayList<>()).add(dto);
+                if (!dto.isSoldOut()) {
+                    mapaCategoriaEnStock.computeIfAbsent(dto.getIdCategoria(), k -> new ArrayList<>()).add(dto);
+                }
+            }
+        }
+
+        List<ProductoDTO> ordenadosPorId = new ArrayList<>(todos);
+        ordenadosPorId.sort(Comparator.comparing(ProductoDTO::getId));
+        List<ProductoDTO> ordenadosPorPrecio = new ArrayList<>(todos);
+        ordenadosPorPrecio.sort(MAS_BARATOS_PRIMERO);
+
+        Map<Long, String> mapaCategorias = new LinkedHashMap<>();
+        for (Categoria categoria : categorias) {
+            mapaCategorias.put(categoria.getId(), categoria.getNombre());
+        }
+
+        Map<Long, Imagen> mapaImagenes = new HashMap<>();
+        for (Imagen imagen : imagenes) {
+            mapaImagenes.put(imagen.getId(), imagen);
+        }
+
+        this.productos = Collections.unmodifiableMap(mapaProductos);
+        this.categorias = Collections.unmodifiableMap(mapaCategorias);
+        this.imagenes = Collections.unmodifiableMap(mapaImagenes);
+        this.recientes = List.copyOf(todos);
+        this.recientesEnStock = List.copyOf(enStock);
+        this.porCategoria = copiarIndice(mapaCategoria);
+        this.porCategoriaEnStock = copiarIndice(mapaCategoriaEnStock);
+        this.porId = List.copyOf(ordenadosPorId);
+        this.porPrecio = List.copyOf(ordenadosPorPrecio);
+    }
+
+    /**
+     * Método para obtener la generación del catálogo que representa el snapshot.
+     *
+     * @return la generación del snapshot
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * Método para obtener un producto por su id.
+     *
+     * @param id el id del producto
+     * @return el DTO del producto, o null si no existe
+     */
+    public ProductoDTO obtenerProducto(Long id) {
+        return productos.get(id);
+    }
+
+    /**
+     * Método para obtener los metadatos de una imagen por su id.
+     *
+     * @param id el id de la imagen
+     * @return la imagen, o null si no existe
+     */
+    public Imagen obtenerImagen(Long id) {
+        return imagenes.get(id);
+    }
+
+    /**
+     * Método para obtener los metadatos de todas las imágenes del catálogo.
+     *
+     * @return un mapa inmutable id -> imagen
+     */
+    public Map<Long, Imagen> getImagenes() {
+        return imagenes;
+    }
+
+    /**
+     * Método para obtener las categorías del catálogo.
+     *
+     * @return un mapa inmutable id -> nombre de las categorías
+     */
+    public Map<Long, String> getCategorias() {
+        return categorias;
+    }
+
+    /**
+     * Método para obtener el número de productos del catálogo.
+     *
+     * @return el número de productos
+     */
+    public int getNumeroProductos() {
+        return productos.size();
+    }
+
+    /**
+     * Método para filtrar los productos del snapshot.
+     * Aplica la misma semántica que ProductoService.filtrarProductos, pero sin acceder a la base de datos.
+     *
+     * @param idsNombre   los ids que coinciden con el filtro por nombre, resueltos en BusquedaService (null si no se filtra)
+     * @param categoria   el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock
+     * @param orden       "viejos" para más antiguos primero, cualquier otro valor para más recientes primero
+     * @param pageable    objeto Pageable para la paginación
+     * @return una página de productos que cumplen con los filtros
+     */
+    public Page<ProductoDTO> filtrar(Set<Long> idsNombre, Long categoria, Boolean soloEnStock, String orden, Pageable pageable) {
+        return filtrar(idsNombre, categoria, soloEnStock, null, orden, pageable);
+    }
+
+    /**
+     * Método para filtrar los productos del snapshot, incluidos los rangos de precio y dimensiones.
+     * Aplica la misma semántica que ProductoService.filtrarProductos, pero sin acceder a la base de datos.
+     * Los órdenes por precio recorren el índice por precio y descartan los productos que no cumplen los filtros.
+     *
+     * @param idsNombre   los ids que coinciden con el filtro por nombre, resueltos en BusquedaService (null si no se filtra)
+     * @param categoria   el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock
+     * @param rangos      los rangos de precio y dimensiones a aplicar como filtro (null si no se filtra por rangos)
+     * @param orden       "baratos" o "caros" para ordenar por precio, "viejos" para más antiguos primero,
+     *                    cualquier otro valor para más recientes primero
+     * @param pageable    objeto Pageable para la paginación
+     * @return una página de productos que cumplen con los filtros
+     */
+    public Page<ProductoDTO> filtrar(Set<Long> idsNombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos, String orden,
+                                     Pageable pageable) {
+        boolean baratos = "baratos".equalsIgnoreCase(orden);
+        if (baratos || "caros".equalsIgnoreCase(orden)) {
+            boolean stock = soloEnStock != null && soloEnStock;
+            List<ProductoDTO> lista = seleccionar(porPrecio, dto -> (categoria == null || categoria.equals(dto.getIdCategoria()))
+                && (!stock || !dto.isSoldOut())
+                && (idsNombre == null || idsNombre.contains(dto.getId()))
+                && (rangos == null || rangos.cumple(dto)));
+            return paginar(lista, !baratos, pageable);
+        }
+        return paginar(candidatos(idsNombre, categoria, soloEnStock, rangos), "viejos".equalsIgnoreCase(orden), pageable);
+    }
+
+    /**
+     * Método para filtrar los productos del snapshot paginando por cursor (keyset).
+     * Localiza el producto frontera mediante búsqueda binaria en el índice y recorre solo la página pedida.
+     *
+     * @param idsNombre   los ids que coinciden con el filtro por nombre, resueltos en BusquedaService (null si no se filtra)
+     * @param categoria   el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock
+     * @param orden       "viejos" para más antiguos primero, cualquier otro valor para más recientes primero
+     *                    (CatalogoService rechaza antes los órdenes por precio)
+     * @param cursor      el cursor decodificado (null para la primera página)
+     * @param size        el tamaño de la página
+     * @return la página de productos con los cursores siguiente y anterior
+     */
+    public PaginaCursor<ProductoDTO> filtrarPorCursor(Set<Long> idsNombre, Long categoria, Boolean soloEnStock, String orden,
+                                                      ProductoCursor cursor, int size) {
+        return filtrarPorCursor(idsNombre, categoria, soloEnStock, null, orden, cursor, size);
+    }
+
+    /**
+     * Método para filtrar los productos del snapshot, incluidos los rangos de precio y dimensiones, paginando por cursor (keyset).
+     *
+     * @param idsNombre   los ids que coinciden con el filtro por nombre, resueltos en BusquedaService (null si no se filtra)
+     * @param categoria   el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock
+     * @param rangos      los rangos de precio y dimensiones a aplicar como filtro (null si no se filtra por rangos)
+     * @param orden       "viejos" para más antiguos primero, cualquier otro valor para más recientes primero
+     *                    (CatalogoService rechaza antes los órdenes por precio)
+     * @param cursor      el cursor decodificado (null para la primera página)
+     * @param size        el tamaño de la página
+     * @return la página de productos con los cursores siguiente y anterior
+     */
+    public PaginaCursor<ProductoDTO> filtrarPorCursor(Set<Long> idsNombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos,
+                                                      String orden, ProductoCursor cursor, int size) {
+        List<ProductoDTO> lista = candidatos(idsNombre, categoria, soloEnStock, rangos);
+        boolean anterior = cursor != null && cursor.esAnterior();
+
+        // Los índices están ordenados de más recientes a más antiguos: recorrer hacia atrás es ir hacia los más antiguos
+        boolean haciaAntiguos = "viejos".equalsIgnoreCase(orden) == anterior;
+
+        int inicio;
+        if (cursor == null) {
+            inicio = haciaAntiguos ? 0 : lista.size() - 1;
+        } else if (haciaAntiguos) {
+            inicio = primeroAnteriorA(lista, cursor);
+        } else {
+            inicio = primeroAnteriorA(lista, cursor) - 1;
+            if (inicio >= 0 && compararConCursor(lista.get(inicio), cursor) == 0) {
+                inicio--;
+            }
+        }
+
+        List<ProductoDTO> contenido = new ArrayList<>(size);
+        int paso = haciaAntiguos ? 1 : -1;
+        for (int i = inicio; i >= 0 && i < lista.size() && contenido.size() < size; i += paso) {
+            contenido.add(lista.get(i));
+        }
+        int siguiente = inicio + paso * contenido.size();
+        boolean hayMas = siguiente >= 0 && siguiente < lista.size();
+
+        if (anterior) {
+            Collections.reverse(contenido);
+        }
+        return ProductoCursor.paginar(contenido, size, cursor, hayMas);
+    }
+
+    /**
+     * Método para obtener todos los productos del snapshot ordenados por id.
+     *
+     * @param pageable objeto Pageable para la paginación
+     * @return una página con los productos
+     */
+    public Page<ProductoDTO> obtenerTodos(Pageable pageable) {
+        return paginar(porId, false, pageable);
+    }
+
+    /**
+     * Método helper para obtener los productos que cumplen los filtros, en el orden de los índices.
+     *
+     * @param idsNombre   los ids que coinciden con el filtro por nombre (null si no se filtra)
+     * @param categoria   el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock
+     * @param rangos      los rangos de precio y dimensiones a aplicar como filtro (null si no se filtra por rangos)
+     * @return los productos candidatos, de más recientes a más antiguos
+     */
+    private List<ProductoDTO> candidatos(Set<Long> idsNombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos) {
+        boolean stock = soloEnStock != null && soloEnStock;
+
+        // 1. Elegir el índice más selectivo
+        List<ProductoDTO> candidatos;
+        if (categoria != null) {
+            candidatos = (stock ? porCategoriaEnStock : porCategoria).getOrDefault(categoria, List.of());
+        } else {
+            candidatos = stock ? recientesEnStock : recientes;
+        }
+
+        // 2. Filtrar por nombre y por rangos si es necesario
+        if (idsNombre != null) {
+            candidatos = seleccionar(candidatos, dto -> idsNombre.contains(dto.getId()));
+        }
+        if (rangos != null && !rangos.estaVacio()) {
+            candidatos = seleccionar(candidatos, rangos::cumple);
+        }
+        return candidatos;
+    }
+
+    /**
+     * Método helper para seleccionar, conservando el orden, los productos de una lista que cumplen una condición.
+     *
+     * @param lista     la lista ordenada
+     * @param condicion la condición a cumplir
+     * @return los productos que cumplen la condición
+     */
+    private static List<ProductoDTO> seleccionar(List<ProductoDTO> lista, Predicate<ProductoDTO> condicion) {
+        List<ProductoDTO> seleccionados = new ArrayList<>();
+        for (ProductoDTO dto : lista) {
+            if (condicion.test(dto)) {
+                seleccionados.add(dto);
+            }
+        }
+        return seleccionados;
+    }
+
+    /**
+     * Método helper para localizar, mediante búsqueda binaria, la primera posición de una lista
+     * ordenada de más recientes a más antiguos cuyo producto es estrictamente más antiguo que el cursor.
+     *
+     * @param lista  la lista ordenada
+     * @param cursor el cursor
+     * @return la posición encontrada (el tamaño de la lista si no hay ninguno)
+     */
+    private static int primeroAnteriorA(List<ProductoDTO> lista, ProductoCursor cursor) {
+        int bajo = 0;
+        int alto = lista.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (compararConCursor(lista.get(medio), cursor) < 0) {
+                alto = medio;
+            } else {
+                bajo = medio + 1;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Método helper para comparar la clave (fechaCreacion, id) de un producto con la del cursor.
+     *
+     * @param dto    el producto
+     * @param cursor el cursor
+     * @return negativo, cero o positivo si el producto es más antiguo, igual o más reciente que el cursor
+     */
+    private static int compararConCursor(ProductoDTO dto, ProductoCursor cursor) {
+        ProductoDTO frontera = new ProductoDTO();
+        frontera.setFechaCreacion(cursor.getFechaCreacion());
+        frontera.setId(cursor.getId());
+        return ProductoCursor.ORDEN_CLAVE.compare(dto, frontera);
+    }
+
+    /**
+     * Método helper para paginar una lista ya ordenada.
+     *
+     * @param lista     la lista ordenada
+     * @param invertir  true para recorrer la lista en orden inverso
+     * @param pageable  objeto Pageable para la paginación
+     * @return la página solicitada
+     */
+    private static Page<ProductoDTO> paginar(List<ProductoDTO> lista, boolean invertir, Pageable pageable) {
+        int total = lista.size();
+        if (pageable.isUnpaged()) {
+            List<ProductoDTO> contenido = new ArrayList<>(lista);
+            if (invertir) {
+                Collections.reverse(contenido);
+            }
+            return new PageImpl<>(contenido, pageable, total);
+        }
+
+        long inicio = pageable.getOffset();
+        if (inicio >= total) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        int fin = (int) Math.min(inicio + pageable.getPageSize(), total);
+
+        List<ProductoDTO> contenido = new ArrayList<>(fin - (int) inicio);
+        for (int i = (int) inicio; i < fin; i++) {
+            contenido.add(lista.get(invertir ? total - 1 - i : i));
+        }
+        return new PageImpl<>(contenido, pageable, total);
+    }
+
+    /**
+     * Método helper para convertir un índice mutable en uno inmutable.
+     *
+     * @param indice el índice a copiar
+     * @return una copia inmutable del índice
+     */
+    private static Map<Long, List<ProductoDTO>> copiarIndice(Map<Long, List<ProductoDTO>> indice) {
+        Map<Long, List<ProductoDTO>> copia = new HashMap<>();
+        indice.forEach((clave, lista) -> copia.put(clave, List.copyOf(lista)));
+        return Collections.unmodifiableMap(copia);
+    }
+}
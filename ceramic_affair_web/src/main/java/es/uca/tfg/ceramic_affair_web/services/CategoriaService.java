@@ -1,20 +1,39 @@
 package es.uca.tfg.ceramic_affair_web.services;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenMapper;
 import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
 import es.uca.tfg.ceramic_affair_web.exceptions.CategoriaException;
+import es.uca.tfg.ceramic_affair_web.exceptions.ConcurrenciaException;
 import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
 import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
 
 /**
  * Servicio para la entidad Categoria.
+ * Los listados públicos se sirven con resúmenes de las categorías, que se guardan en caché
+ * hasta que cambia la revisión del catálogo.
  * 
- * @version 1.0
+ * @version 1.5
  */
 @Service
 public class CategoriaService {
@@ -25,12 +44,34 @@ public class CategoriaService {
     @Autowired
     private ProductoRepo productoRepo;
 
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private record Resumenes(long revision, Map<Long, CategoriaResumenDTO> porId) {
+    }
+
+    // Resúmenes calculados para una revisión del catálogo
+    private volatile Resumenes resumenes;
+
+    // Cálculos de resúmenes en curso por revisión, para que un cambio de revisión no los lance a la vez
+    private final ConsultasCompartidas<Long, Map<Long, CategoriaResumenDTO>> resumenesEnCurso = new ConsultasCompartidas<>();
+
     /**
      * Método para insertar una nueva categoría
      * 
      * @param categoria la categoría a insertar
      * @throws CategoriaException.YaExistente si ya existe una categoría con el mismo nombre
      */
+    @Transactional
     public Long insertarCategoria(String nombre) {
         if (categoriaRepo.existsByNombre(nombre)) {
             throw new CategoriaException.YaExistente(nombre);
@@ -38,6 +79,7 @@ public class CategoriaService {
         
         Categoria categoria = new Categoria(nombre);
         categoriaRepo.save(categoria);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.CATEGORIA, Operacion.CREACION, categoria.getId()));
         return categoria.getId();
     }
 
@@ -49,9 +91,26 @@ public class CategoriaService {
      * @throws CategoriaException.NoEncontrada si no se encuentra la categoría
      * @throws CategoriaException.YaExistente si ya existe una categoría con el nuevo nombre
      */
+    @Transactional
     public void modificarCategoria(Long id, String nombre) {
+        modificarCategoria(id, nombre, null);
+    }
+
+    /**
+     * Método para modificar una categoría existente comprobando antes su versión (bloqueo optimista)
+     * 
+     * @param id el id de la categoría a modificar
+     * @param nombre el nuevo nombre de la categoría
+     * @param versionEsperada la versión que el cliente leyó (null para no comprobarla)
+     * @throws CategoriaException.NoEncontrada si no se encuentra la categoría
+     * @throws CategoriaException.YaExistente si ya existe una categoría con el nuevo nombre
+     * @throws ConcurrenciaException.VersionNoCoincide si la categoría ha cambiado desde que se leyó
+     */
+    @Transactional
+    public void modificarCategoria(Long id, String nombre, Long versionEsperada) {
         Categoria categoria = categoriaRepo.findById(id)
             .orElseThrow(() -> new CategoriaException.NoEncontrada(id));
+        comprobarVersion(categoria, versionEsperada);
         
         if (categoriaRepo.existsByNombre(nombre)) {
             throw new CategoriaException.YaExistente(nombre);
@@ -59,6 +118,7 @@ public class CategoriaService {
         
         categoria.setNombre(nombre);
         categoriaRepo.save(categoria);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.CATEGORIA, Operacion.MODIFICACION, id));
     }
 
     /**
@@ -77,20 +137,36 @@ public class CategoriaService {
      * Método para eliminar una categoría
      * 
      * @param id el id de la categoría a eliminar
+     * @return el número de productos que se han quedado sin categoría
+     * @throws CategoriaException.NoEncontrada si no se encuentra la categoría
+     */
+    @Transactional
+    public int eliminarCategoria(Long id) {
+        return eliminarCategoria(id, null);
+    }
+
+    /**
+     * Método para eliminar una categoría comprobando antes su versión (bloqueo optimista)
+     * 
+     * @param id el id de la categoría a eliminar
+     * @param versionEsperada la versión que el cliente leyó (null para no comprobarla)
+     * @return el número de productos que se han quedado sin categoría
      * @throws CategoriaException.NoEncontrada si no se encuentra la categoría
+     * @throws ConcurrenciaException.VersionNoCoincide si la categoría ha cambiado desde que se leyó
      */
-    public void eliminarCategoria(Long id) {
+    @Transactional
+    public int eliminarCategoria(Long id, Long versionEsperada) {
         Categoria categoria = categoriaRepo.findById(id)
             .orElseThrow(() -> new CategoriaException.NoEncontrada(id));
+        comprobarVersion(categoria, versionEsperada);
         
-        // Desvincular todos los productos de la categoría antes de eliminarla
-        new ArrayList<>(categoria.getProductos()).forEach(producto -> {
-            producto.setCategoria(null);
-            productoRepo.save(producto);
-        });
+        // Desvincular todos los productos de la categoría con una única sentencia, sin cargarlos
+        int desvinculados = productoRepo.desvincularCategoria(id, LocalDateTime.now());
 
-        // Eliminar la categoría
+        // La sentencia vacía el contexto de persistencia: la categoría se elimina comprobando su versión
         categoriaRepo.delete(categoria);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.CATEGORIA, Operacion.ELIMINACION, id));
+        return desvinculados;
     }
 
     /**
@@ -101,4 +177,89 @@ public class CategoriaService {
     public List<Categoria> obtenerTodas() {
         return categoriaRepo.findAll();
     }
+
+    /**
+     * Método para obtener el resumen de todas las categorías (recuentos de productos y portada),
+     * sin cargar ni serializar sus productos.
+     * 
+     * @return una lista inmutable con el resumen de cada categoría, ordenada por id
+     */
+    public List<CategoriaResumenDTO> obtenerResumenes() {
+        return List.copyOf(resumenesVigentes().values());
+    }
+
+    /**
+     * Método para obtener el resumen de una categoría
+     * 
+     * @param id el id de la categoría
+     * @return el resumen de la categoría
+     * @throws CategoriaException.NoEncontrada si no se encuentra la categoría
+     */
+    public CategoriaResumenDTO obtenerResumen(Long id) {
+        CategoriaResumenDTO resumen = resumenesVigentes().get(id);
+        if (resumen == null) {
+            throw new CategoriaException.NoEncontrada(id);
+        }
+        return resumen;
+    }
+
+    /**
+     * Método helper para obtener los resúmenes de la revisión vigente del catálogo, calculándolos si hace falta.
+     * Las peticiones que encuentran la misma revisión sin calcular comparten un único cálculo, que se ejecuta
+     * en su propia transacción de solo lectura.
+     * 
+     * @return un mapa inmutable id -> resumen, ordenado por id
+     */
+    private Map<Long, CategoriaResumenDTO> resumenesVigentes() {
+        // La revisión se lee antes de consultar: una modificación concurrente invalidará el resultado
+        long revision = revisionCatalogo.getRevisionCatalogo();
+        Resumenes actuales = resumenes;
+        if (actuales != null && actuales.revision() == revision) {
+            return actuales.porId();
+        }
+
+        return resumenesEnCurso.obtener(revision, () -> {
+            TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+            lectura.setReadOnly(true);
+            return lectura.execute(status -> calcularResumenes(revision));
+        });
+    }
+
+    /**
+     * Método helper para calcular los resúmenes de las categorías y guardarlos con la revisión leída.
+     * Se calculan con la consulta agrupada de CategoriaRepo y una consulta por ids para las imágenes de portada.
+     * 
+     * @param revision la revisión del catálogo leída antes de consultar
+     * @return un mapa inmutable id -> resumen, ordenado por id
+     */
+    private Map<Long, CategoriaResumenDTO> calcularResumenes(long revision) {
+        List<CategoriaRepo.Resumen> filas = categoriaRepo.findResumenes();
+        Map<Long, Imagen> portadas = new HashMap<>();
+        List<Long> idsPortada = filas.stream().map(CategoriaRepo.Resumen::getIdPortada).filter(Objects::nonNull).toList();
+        if (!idsPortada.isEmpty()) {
+            imagenRepo.findAllById(idsPortada).forEach(imagen -> portadas.put(imagen.getId(), imagen));
+        }
+
+        Map<Long, CategoriaResumenDTO> porId = new LinkedHashMap<>();
+        for (CategoriaRepo.Resumen fila : filas) {
+            porId.put(fila.getId(), new CategoriaResumenDTO(fila.getId(), fila.getNombre(), fila.getVersion(),
+                fila.getNumeroProductos(), fila.getNumeroEnStock(), ImagenMapper.toDTO(portadas.get(fila.getIdPortada()))));
+        }
+        Map<Long, CategoriaResumenDTO> inmutable = Collections.unmodifiableMap(porId);
+        resumenes = new Resumenes(revision, inmutable);
+        return inmutable;
+    }
+
+    /**
+     * Método helper para comprobar que una categoría sigue en la versión que leyó el cliente
+     * 
+     * @param categoria la categoría cargada
+     * @param versionEsperada la versión esperada (null para no comprobarla)
+     * @throws ConcurrenciaException.VersionNoCoincide si las versiones no coinciden
+     */
+    private static void comprobarVersion(Categoria categoria, Long versionEsperada) {
+        if (versionEsperada != null && categoria.getVersion() != versionEsperada) {
+            throw new ConcurrenciaException.VersionNoCoincide("Category", categoria.getId(), categoria.getVersion());
+        }
+    }
 }
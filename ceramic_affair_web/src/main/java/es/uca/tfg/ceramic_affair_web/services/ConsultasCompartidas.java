@@ -0,0 +1,88 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Agrupa las consultas idénticas que llegan a la vez: la primera petición con una clave ejecuta la consulta
+ * y las que llegan mientras está en curso esperan su resultado en lugar de repetirla. El resultado no se
+ * guarda: en cuanto termina la consulta, la siguiente petición con la misma clave vuelve a ejecutarla.
+ * Para no compartir un resultado calculado antes de una modificación, la clave debe incluir la revisión
+ * del contenido leída al empezar la petición.
+ * El resultado se comparte entre las peticiones agrupadas, así que no se debe modificar.
+ *
+ * @param <K> el tipo de la clave de la consulta
+ * @param <V> el tipo del resultado
+ * @version 1.0
+ */
+public class ConsultasCompartidas<K, V> {
+
+    private final Map<K, CompletableFuture<V>> enCurso = new ConcurrentHashMap<>();
+
+    /**
+     * Método para obtener el resultado de una consulta, compartiendo la ejecución con las peticiones
+     * concurrentes de la misma clave.
+     * Dentro de una transacción la consulta se ejecuta sin agruparla, porque puede ver cambios aún no confirmados.
+     *
+     * @param clave la clave de la consulta
+     * @param consulta la consulta a ejecutar si no hay otra en curso con la misma clave
+     * @return el resultado de la consulta
+     */
+    public V obtener(K clave, Supplier<V> consulta) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return consulta.get();
+        }
+
+        CompletableFuture<V> nueva = new CompletableFuture<>();
+        CompletableFuture<V> existente = enCurso.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            return esperar(existente);
+        }
+
+        try {
+            V resultado = consulta.get();
+            nueva.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            // Las peticiones agrupadas reciben la misma excepción
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, nueva);
+        }
+    }
+
+    /**
+     * Método para saber cuántas consultas distintas están en curso.
+     *
+     * @return el número de consultas en curso
+     */
+    public int getEnCurso() {
+        return enCurso.size();
+    }
+
+    /**
+     * Método helper para esperar el resultado de una consulta en curso.
+     *
+     * @param consulta la consulta en curso
+     * @return su resultado
+     */
+    private static <V> V esperar(CompletableFuture<V> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.EstadisticasCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Servicio para consultar los ratios de aciertos de la caché de segundo nivel y de la caché de consultas.
+ * Los datos salen de las estadísticas de Hibernate, que se activan junto con la caché.
+ *
+ * @version 1.0
+ */
+@Service
+public class EstadisticasCacheService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Método para obtener las estadísticas de la caché, en total y por región.
+     *
+     * @return las estadísticas de la caché (sin regiones si la caché está desactivada)
+     */
+    public EstadisticasCacheDTO obtenerEstadisticas() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<EstadisticasCacheDTO.Region> regiones = new ArrayList<>();
+        String[] nombres = estadisticas.getSecondLevelCacheRegionNames();
+        Arrays.sort(nombres);
+        for (String nombre : nombres) {
+            CacheRegionStatistics region = estadisticas.getCacheRegionStatistics(nombre);
+            if (region != null) {
+                regiones.add(new EstadisticasCacheDTO.Region(nombre, region.getHitCount(), region.getMissCount(),
+                    region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+
+        return new EstadisticasCacheDTO(estadisticas.getSecondLevelCacheHitCount(), estadisticas.getSecondLevelCacheMissCount(),
+            estadisticas.getQueryCacheHitCount(), estadisticas.getQueryCacheMissCount(), regiones);
+    }
+}
@@ -0,0 +1,408 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.EventoProductoDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Servicio del flujo de eventos del catálogo (Server-Sent Events) para que la tienda muestre en directo
+ * los cambios de stock, de precio y las eliminaciones de productos.
+ * Las conexiones son respuestas asíncronas: mientras no hay eventos no ocupan ningún hilo del servidor.
+ * Cada modificación confirmada se serializa una sola vez en un hilo de difusión y se encola en el buffer acotado
+ * de cada suscriptor; un pequeño grupo de hilos vacía los buffers. Si el buffer de un suscriptor se llena
+ * (cliente lento o conexión caída), se cierra su conexión: el cliente se reconecta y recupera lo perdido
+ * con /api/public/productos/cambios a partir de la última revisión recibida (el id de cada evento).
+ * La escritura en el socket es bloqueante, así que los hilos de envío no escriben directamente: delegan cada envío
+ * en un hilo de escritura y esperan como mucho TIEMPO_MAXIMO_ENVIO. Si el cliente no lee (ventana TCP llena),
+ * se cierra su conexión y el hilo de envío sigue con los demás suscriptores; solo el hilo de escritura queda
+ * bloqueado hasta el tiempo de escritura del contenedor.
+ *
+ * @version 1.1
+ */
+@Service
+public class EventosCatalogoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventosCatalogoService.class);
+
+    /**
+     * Número máximo de eventos pendientes de enviar por suscriptor.
+     */
+    public static final int CAPACIDAD_BUFFER = 32;
+
+    /**
+     * Número máximo de suscriptores simultáneos.
+     */
+    public static final int MAX_SUSCRIPTORES = 5_000;
+
+    /**
+     * Tiempo máximo de una conexión; al cumplirse, el cliente se reconecta.
+     */
+    public static final Duration TIEMPO_MAXIMO = Duration.ofMinutes(30);
+
+    /**
+     * Tiempo máximo de escritura de un evento; si se supera, se cierra la conexión del suscriptor.
+     */
+    public static final Duration TIEMPO_MAXIMO_ENVIO = Duration.ofSeconds(2);
+
+    // Hilos que vacían los buffers de los suscriptores
+    static final int HILOS_ENVIO = 4;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Set<Suscripcion> suscripciones = ConcurrentHashMap.newKeySet();
+
+    // Un único hilo de difusión conserva el orden de los eventos
+    private final ExecutorService difusion = Executors.newSingleThreadExecutor(hilos("catalogo-eventos-difusion"));
+    private final ExecutorService envio = Executors.newFixedThreadPool(HILOS_ENVIO, hilos("catalogo-eventos-envio"));
+    // Escrituras en el socket y cierres de conexión, que pueden bloquearse con un cliente que no lee
+    private final ExecutorService escritura = Executors.newCachedThreadPool(hilos("catalogo-eventos-escritura"));
+
+    // Comentario SSE periódico: mantiene abiertas las conexiones en los proxies y detecta las caídas
+    private static final Set<DataWithMediaType> LATIDO = Collections.unmodifiableSet(SseEmitter.event().comment("latido").build());
+
+    /**
+     * Conexión de un suscriptor con su buffer de eventos pendientes.
+     */
+    private static final class Suscripcion {
+
+        private final SseEmitter emisor;
+        private final BlockingQueue<Set<DataWithMediaType>> pendientes;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        Suscripcion(SseEmitter emisor, int capacidad) {
+            this.emisor = emisor;
+            this.pendientes = new ArrayBlockingQueue<>(capacidad);
+        }
+
+        /**
+         * Método para encolar un evento sin esperar.
+         *
+         * @param evento el evento serializado
+         * @return false si el buffer está lleno
+         */
+        boolean encolar(Set<DataWithMediaType> evento) {
+            return pendientes.offer(evento);
+        }
+    }
+
+    /**
+     * Método para abrir una conexión al flujo de eventos.
+     * El primer evento (conectado) lleva la revisión vigente, a partir de la cual se pueden pedir los cambios.
+     *
+     * @return el emisor de eventos de la conexión
+     * @throws ResponseStatusException si se ha alcanzado el número máximo de suscriptores
+     */
+    public SseEmitter suscribir() {
+        if (suscripciones.size() >= MAX_SUSCRIPTORES) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many catalog event subscribers");
+        }
+
+        SseEmitter emisor = new SseEmitter(TIEMPO_MAXIMO.toMillis());
+        suscribir(emisor);
+        return emisor;
+    }
+
+    /**
+     * Método helper para registrar un emisor como suscriptor y enviarle el evento inicial.
+     *
+     * @param emisor el emisor de eventos de la conexión
+     */
+    void suscribir(SseEmitter emisor) {
+        Suscripcion suscripcion = new Suscripcion(emisor, CAPACIDAD_BUFFER);
+        emisor.onCompletion(() -> suscripciones.remove(suscripcion));
+        emisor.onTimeout(() -> suscripciones.remove(suscripcion));
+        emisor.onError(e -> suscripciones.remove(suscripcion));
+        suscripciones.add(suscripcion);
+
+        long revision = revisionCatalogo.getRevision();
+        entregar(suscripcion, evento("conectado", revision, Long.toString(revision)));
+    }
+
+    /**
+     * Método para saber cuántos suscriptores hay conectados.
+     *
+     * @return el número de suscriptores
+     */
+    public int getSuscriptores() {
+        return suscripciones.size();
+    }
+
+    /**
+     * Difunde las modificaciones de productos tras el commit de la transacción que las originó.
+     * La carga del estado actual y el envío se hacen fuera del hilo de la petición que modificó el producto.
+     * Se ejecuta antes de que RevisionCatalogo registre la modificación, así que la revisión leída es la anterior
+     * a ella: los eventos de todas las modificaciones hasta esa revisión ya se han encolado antes que este,
+     * y pedir los cambios desde ella no pierde nada.
+     *
+     * @param evento el evento de modificación del catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        if (evento.getEntidad() != Entidad.PRODUCTO || suscripciones.isEmpty()) {
+            return;
+        }
+        long revision = revisionCatalogo.getRevision();
+        difusion.execute(() -> {
+            try {
+                difundirProductos(evento, revision);
+            } catch (RuntimeException e) {
+                logger.warn("Catalog event for {} could not be broadcast", evento.getIds(), e);
+            }
+        });
+    }
+
+    /**
+     * Envía periódicamente un latido a todos los suscriptores.
+     */
+    @Scheduled(fixedRate = 30_000)
+    public void latir() {
+        if (!suscripciones.isEmpty()) {
+            difusion.execute(() -> difundir(LATIDO));
+        }
+    }
+
+    /**
+     * Cierra las conexiones abiertas y detiene los hilos al parar la aplicación.
+     */
+    @PreDestroy
+    public void cerrar() {
+        difusion.shutdownNow();
+        envio.shutdownNow();
+        escritura.shutdownNow();
+        suscripciones.forEach(suscripcion -> suscripcion.emisor.complete());
+        suscripciones.clear();
+    }
+
+    /**
+     * Método helper para serializar y difundir los cambios de productos de un evento.
+     *
+     * @param evento el evento de modificación
+     * @param revision la revisión del catálogo al recibirlo
+     */
+    private void difundirProductos(CatalogoModificadoEvent evento, long revision) {
+        // Sin ids (operaciones masivas), los clientes deben pedir los cambios
+        if (evento.getIds().isEmpty()) {
+            difundir(evento("recarga", revision, Long.toString(revision)));
+            return;
+        }
+
+        Map<Long, Producto> actuales = evento.getOperacion() == Operacion.ELIMINACION ? Map.of()
+            : productoRepo.findAllById(evento.getIds()).stream().collect(Collectors.toMap(Producto::getId, Function.identity()));
+        for (Long id : evento.getIds()) {
+            Producto producto = actuales.get(id);
+            EventoProductoDTO cambio = producto == null
+                ? new EventoProductoDTO(Operacion.ELIMINACION, id, null, null)
+                : new EventoProductoDTO(evento.getOperacion(), id, producto.isSoldOut(), producto.getPrecio());
+            difundir(evento("producto", revision, json(cambio)));
+        }
+    }
+
+    /**
+     * Método helper para encolar un evento en todos los suscriptores.
+     *
+     * @param evento el evento serializado
+     */
+    private void difundir(Set<DataWithMediaType> evento) {
+        suscripciones.forEach(suscripcion -> entregar(suscripcion, evento));
+    }
+
+    /**
+     * Método helper para encolar un evento en un suscriptor y programar su envío.
+     * Si el buffer está lleno, se cierra la conexión del suscriptor.
+     *
+     * @param suscripcion el suscriptor
+     * @param evento el evento serializado
+     */
+    private void entregar(Suscripcion suscripcion, Set<DataWithMediaType> evento) {
+        if (!suscripcion.encolar(evento)) {
+            logger.debug("Catalog event subscriber dropped: buffer full");
+            cancelar(suscripcion);
+            return;
+        }
+        programar(suscripcion);
+    }
+
+    /**
+     * Método helper para programar el vaciado del buffer de un suscriptor, si no está ya en curso.
+     *
+     * @param suscripcion el suscriptor
+     */
+    private void programar(Suscripcion suscripcion) {
+        if (suscripcion.enviando.compareAndSet(false, true)) {
+            envio.execute(() -> vaciar(suscripcion));
+        }
+    }
+
+    /**
+     * Método helper para enviar los eventos pendientes de un suscriptor.
+     * Si un envío no termina en TIEMPO_MAXIMO_ENVIO, el suscriptor se desconecta como si su buffer se hubiera llenado.
+     *
+     * @param suscripcion el suscriptor
+     */
+    private void vaciar(Suscripcion suscripcion) {
+        try {
+            Set<DataWithMediaType> evento;
+            while ((evento = suscripcion.pendientes.poll()) != null) {
+                enviar(suscripcion, evento);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Conexión cerrada por el cliente o ya completada
+            cancelar(suscripcion);
+            return;
+        } catch (TimeoutException e) {
+            logger.debug("Catalog event subscriber dropped: send timed out");
+            cancelar(suscripcion);
+            return;
+        } catch (InterruptedException e) {
+            // Parada de la aplicación
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            suscripcion.enviando.set(false);
+        }
+        // Un evento encolado justo antes de liberar el envío se enviaría con el siguiente: se programa ya
+        if (!suscripcion.pendientes.isEmpty()) {
+            programar(suscripcion);
+        }
+    }
+
+    /**
+     * Método helper para escribir un evento en la conexión de un suscriptor, esperando como mucho TIEMPO_MAXIMO_ENVIO.
+     * Si se agota el tiempo se interrumpe la escritura; el hilo de escritura puede seguir bloqueado en el socket,
+     * pero no el hilo de envío que la espera.
+     *
+     * @param suscripcion el suscriptor
+     * @param evento el evento serializado
+     * @throws IOException si la conexión está cerrada
+     * @throws TimeoutException si el envío no termina a tiempo
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    private void enviar(Suscripcion suscripcion, Set<DataWithMediaType> evento)
+            throws IOException, TimeoutException, InterruptedException {
+        Future<?> envioEvento = escritura.submit(() -> {
+            suscripcion.emisor.send(evento);
+            return null;
+        });
+        try {
+            envioEvento.get(TIEMPO_MAXIMO_ENVIO.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            envioEvento.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Método helper para cerrar la conexión de un suscriptor.
+     * El cierre se hace en los hilos de escritura: si hay un envío bloqueado, espera a que termine sin frenar
+     * la difusión ni el envío a los demás suscriptores.
+     *
+     * @param suscripcion el suscriptor
+     */
+    private void cancelar(Suscripcion suscripcion) {
+        if (suscripciones.remove(suscripcion)) {
+            suscripcion.pendientes.clear();
+            escritura.execute(suscripcion.emisor::complete);
+        }
+    }
+
+    /**
+     * Método helper para construir un evento SSE ya serializado, que se comparte entre todos los suscriptores.
+     *
+     * @param nombre el nombre del evento
+     * @param revision la revisión, que se envía como id del evento
+     * @param datos los datos del evento
+     * @return el evento serializado
+     */
+    private static Set<DataWithMediaType> evento(String nombre, long revision, String datos) {
+        return Collections.unmodifiableSet(SseEmitter.event()
+            .id(Long.toString(revision))
+            .name(nombre)
+            .data(datos)
+            .build());
+    }
+
+    /**
+     * Método helper para serializar un cambio de producto a JSON.
+     *
+     * @param cambio el cambio
+     * @return el JSON
+     */
+    private String json(EventoProductoDTO cambio) {
+        try {
+            return objectMapper.writeValueAsString(cambio);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog event", e);
+        }
+    }
+
+    /**
+     * Método helper para crear hilos con nombre y que no impidan parar la aplicación.
+     *
+     * @param prefijo el prefijo del nombre de los hilos
+     * @return la factoría de hilos
+     */
+    private static ThreadFactory hilos(String prefijo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, prefijo + "-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+}
@@ -0,0 +1,279 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.exceptions.ExportacionException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Servicio para exportar el catálogo completo de productos en NDJSON o CSV.
+ * Los productos y las rutas de sus imágenes se leen con dos cursores de solo avance ordenados por
+ * el id del producto, que se recorren a la vez, y cada producto se escribe en la salida en cuanto
+ * se completa. Las consultas devuelven columnas sueltas en lugar de entidades, así que nada se
+ * acumula en el contexto de persistencia y la memoria usada no depende del tamaño del catálogo.
+ *
+ * @version 1.0
+ */
+@Service
+public class ExportacionService {
+
+    /**
+     * Número de filas que el driver trae de la base de datos en cada viaje.
+     */
+    public static final int TAMANO_FETCH = 500;
+
+    private static final String CONSULTA_PRODUCTOS = "SELECT p.id, p.nombre, c.id, c.nombre, p.descripcion, p.altura, p.anchura, "
+        + "p.diametro, p.precio, p.soldOut, p.fechaCreacion FROM Producto p LEFT JOIN p.categoria c ORDER BY p.id";
+
+    private static final String CONSULTA_IMAGENES = "SELECT p.id, i.ruta FROM Producto p JOIN p.imagenes i ORDER BY p.id, i.id";
+
+    private static final List<String> COLUMNAS = List.of("id", "nombre", "idCategoria", "nombreCategoria", "descripcion",
+        "altura", "anchura", "diametro", "precio", "soldOut", "fechaCreacion", "rutasImagenes");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Escritor de productos en un formato concreto.
+     */
+    private interface Escritor {
+        void escribir(Object[] producto, List<String> rutas) throws IOException;
+
+        void terminar() throws IOException;
+    }
+
+    /**
+     * Método para obtener el formato de exportación a partir del parámetro de la petición.
+     *
+     * @param formato el nombre del formato (csv o ndjson, sin distinguir mayúsculas)
+     * @return el formato correspondiente
+     * @throws ExportacionException.FormatoNoSoportado si no es CSV ni NDJSON
+     */
+    public static ImportacionDTO.Formato formatoDe(String formato) {
+        try {
+            return ImportacionDTO.Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new ExportacionException.FormatoNoSoportado(formato);
+        }
+    }
+
+    /**
+     * Método para escribir todos los productos en una salida, en orden de id.
+     * Cada producto incluye el nombre de su categoría y las rutas de sus imágenes.
+     * La salida no se cierra.
+     *
+     * @param salida la salida en la que escribir
+     * @param formato el formato de la exportación
+     * @throws IOException si ocurre un error al escribir
+     */
+    public void exportar(OutputStream salida, ImportacionDTO.Formato formato) throws IOException {
+        Escritor escritor = formato == ImportacionDTO.Formato.CSV ? escritorCsv(salida) : escritorNdjson(salida);
+
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        try {
+            lectura.executeWithoutResult(status -> {
+                try (Stream<Object[]> productos = cursor(CONSULTA_PRODUCTOS);
+                     Stream<Object[]> imagenes = cursor(CONSULTA_IMAGENES)) {
+                    recorrer(productos.iterator(), imagenes.iterator(), escritor);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        escritor.terminar();
+    }
+
+    /**
+     * Método helper para abrir un cursor de solo avance sobre una consulta de columnas sueltas.
+     *
+     * @param consulta la consulta JPQL
+     * @return el flujo de filas (hay que cerrarlo)
+     */
+    private Stream<Object[]> cursor(String consulta) {
+        return entityManager.createQuery(consulta, Object[].class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANO_FETCH)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    /**
+     * Método helper para recorrer a la vez los productos y sus imágenes, ambos ordenados por el id
+     * del producto, y escribir cada producto con las rutas de sus imágenes.
+     *
+     * @param productos el cursor de productos
+     * @param imagenes el cursor de pares (id del producto, ruta de la imagen)
+     * @param escritor el escritor del formato de salida
+     * @throws IOException si ocurre un error al escribir
+     */
+    private static void recorrer(Iterator<Object[]> productos, Iterator<Object[]> imagenes, Escritor escritor) throws IOException {
+        Object[] imagen = imagenes.hasNext() ? imagenes.next() : null;
+        List<String> rutas = new ArrayList<>();
+        while (productos.hasNext()) {
+            Object[] producto = productos.next();
+            long id = (Long) producto[0];
+
+            // Saltar imágenes de productos que ya no aparecen y recoger las de este producto
+            while (imagen != null && (Long) imagen[0] < id) {
+                imagen = imagenes.hasNext() ? imagenes.next() : null;
+            }
+            while (imagen != null && (Long) imagen[0] == id) {
+                rutas.add((String) imagen[1]);
+                imagen = imagenes.hasNext() ? imagenes.next() : null;
+            }
+
+            escritor.escribir(producto, rutas);
+            rutas.clear();
+        }
+    }
+
+    /**
+     * Método helper para crear el escritor NDJSON: un objeto JSON por línea, escrito con el
+     * generador de Jackson directamente sobre la salida.
+     *
+     * @param salida la salida en la que escribir
+     * @return el escritor
+     * @throws IOException si no se puede crear el generador
+     */
+    private Escritor escritorNdjson(OutputStream salida) throws IOException {
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(salida, JsonEncoding.UTF8);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return new Escritor() {
+            @Override
+            public void escribir(Object[] producto, List<String> rutas) throws IOException {
+                generador.writeStartObject();
+                for (int i = 0; i < producto.length; i++) {
+                    generador.writeFieldName(COLUMNAS.get(i));
+                    escribirValor(generador, producto[i]);
+                }
+                generador.writeArrayFieldStart(COLUMNAS.get(producto.length));
+                for (String ruta : rutas) {
+                    generador.writeString(ruta);
+                }
+                generador.writeEndArray();
+                generador.writeEndObject();
+                generador.writeRaw('\n');
+            }
+
+            @Override
+            public void terminar() throws IOException {
+                generador.close();
+            }
+        };
+    }
+
+    /**
+     * Método helper para escribir un valor de una columna con el generador de Jackson.
+     *
+     * @param generador el generador
+     * @param valor el valor de la columna
+     * @throws IOException si ocurre un error al escribir
+     */
+    private static void escribirValor(JsonGenerator generador, Object valor) throws IOException {
+        if (valor == null) {
+            generador.writeNull();
+        } else if (valor instanceof Long numero) {
+            generador.writeNumber(numero);
+        } else if (valor instanceof Float numero) {
+            generador.writeNumber(numero);
+        } else if (valor instanceof BigDecimal numero) {
+            generador.writeNumber(numero);
+        } else if (valor instanceof Boolean booleano) {
+            generador.writeBoolean(booleano);
+        } else {
+            generador.writeString(texto(valor));
+        }
+    }
+
+    /**
+     * Método helper para crear el escritor CSV: una cabecera con los nombres de las columnas y
+     * un registro por producto, con las rutas de las imágenes separadas por '|'.
+     *
+     * @param salida la salida en la que escribir
+     * @return el escritor
+     * @throws IOException si no se puede escribir la cabecera
+     */
+    private static Escritor escritorCsv(OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        writer.write(String.join(",", COLUMNAS));
+        writer.write("\r\n");
+        return new Escritor() {
+            @Override
+            public void escribir(Object[] producto, List<String> rutas) throws IOException {
+                for (Object valor : producto) {
+                    writer.write(campoCsv(valor == null ? "" : texto(valor)));
+                    writer.write(',');
+                }
+                writer.write(campoCsv(String.join("|", rutas)));
+                writer.write("\r\n");
+            }
+
+            @Override
+            public void terminar() throws IOException {
+                writer.flush();
+            }
+        };
+    }
+
+    /**
+     * Método helper para convertir un valor en texto.
+     *
+     * @param valor el valor de la columna (no nulo)
+     * @return el texto del valor (los decimales, sin notación científica)
+     */
+    private static String texto(Object valor) {
+        if (valor instanceof BigDecimal numero) {
+            return numero.toPlainString();
+        }
+        if (valor instanceof LocalDateTime fecha) {
+            return fecha.toString();
+        }
+        return valor.toString();
+    }
+
+    /**
+     * Método helper para escapar un campo CSV: se entrecomilla si contiene comas, comillas o saltos de línea.
+     *
+     * @param campo el texto del campo
+     * @return el campo listo para escribir
+     */
+    private static String campoCsv(String campo) {
+        if (campo.indexOf(',') < 0 && campo.indexOf('"') < 0 && campo.indexOf('\n') < 0 && campo.indexOf('\r') < 0) {
+            return campo;
+        }
+        return '"' + campo.replace("\"", "\"\"") + '"';
+    }
+}
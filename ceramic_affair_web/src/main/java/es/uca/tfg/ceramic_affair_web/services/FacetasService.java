@@ -0,0 +1,247 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FacetasDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Servicio para calcular las facetas de la barra lateral de filtros de la tienda.
+ * Todas las facetas salen de una única consulta agrupada por categoría y stock, con los tramos de precio
+ * contados por agregación condicional y los rangos de precio y dimensiones con MIN y MAX; el resultado
+ * tiene como mucho dos filas por categoría y se combina en memoria.
+ * Los filtros de categoría y de stock se aplican al combinar las filas, no en la consulta, de modo que
+ * sus propias facetas muestran los recuentos de todas las opciones; los filtros por nombre y por rangos
+ * se aplican en la consulta y afectan a todas las facetas.
+ * Las facetas se guardan en caché por firma del filtro y se descartan en cuanto cambia la revisión del catálogo.
+ *
+ * @version 1.1
+ */
+@Service
+public class FacetasService {
+
+    /**
+     * Límites de los tramos de precio: [0, 20), [20, 50), [50, 100) y [100, ...).
+     */
+    public static final List<BigDecimal> TRAMOS_PRECIO = List.of(new BigDecimal("20"), new BigDecimal("50"), new BigDecimal("100"));
+
+    /**
+     * Número máximo de firmas de filtro en caché; al superarlo se vacía.
+     */
+    public static final int MAX_ENTRADAS_CACHE = 256;
+
+    // Posición de las columnas de la consulta agrupada
+    private static final int CATEGORIA = 0;
+    private static final int NOMBRE_CATEGORIA = 1;
+    private static final int SOLD_OUT = 2;
+    private static final int TOTAL = 3;
+    private static final int RANGOS = 4; // min y max de precio, altura, anchura y diámetro
+    private static final int TRAMOS = RANGOS + 8; // recuentos acumulados por debajo de cada límite de tramo
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private record Entrada(long revision, FacetasDTO facetas) {
+    }
+
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Método para obtener las facetas de los productos que cumplen un filtro.
+     *
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro (null si no se desea filtrar por rangos)
+     * @return las facetas del filtro
+     */
+    @Transactional(readOnly = true)
+    public FacetasDTO obtenerFacetas(String nombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos) {
+        String firma = BusquedaService.normalizar(nombre).strip() + "|" + categoria + "|" + Boolean.TRUE.equals(soloEnStock)
+            + "|" + (rangos == null ? "" : rangos.firma());
+
+        // La revisión se lee antes de consultar: una modificación concurrente invalidará el resultado
+        long revision = revisionCatalogo.getRevisionCatalogo();
+        Entrada entrada = cache.get(firma);
+        if (entrada != null && entrada.revision() == revision) {
+            return entrada.facetas();
+        }
+
+        FacetasDTO facetas = calcular(nombre, categoria, Boolean.TRUE.equals(soloEnStock), rangos);
+        if (cache.size() >= MAX_ENTRADAS_CACHE) {
+            cache.clear();
+        }
+        cache.put(firma, new Entrada(revision, facetas));
+        return facetas;
+    }
+
+    /**
+     * Método helper para calcular las facetas con la consulta agrupada.
+     *
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro
+     * @return las facetas calculadas
+     */
+    private FacetasDTO calcular(String nombre, Long categoria, boolean soloEnStock, FiltroRangosDTO rangos) {
+        FacetasDTO facetas = new FacetasDTO();
+
+        // El filtro por nombre se resuelve en el índice de búsqueda; si nada coincide no se consulta la base de datos
+        Set<Long> idsNombre = busquedaService.buscarPorNombre(nombre);
+        List<Tuple> filas = idsNombre != null && idsNombre.isEmpty() ? List.of() : consultar(idsNombre, rangos);
+
+        Map<Long, FacetasDTO.FacetaCategoria> categorias = new LinkedHashMap<>();
+        long[] acumulados = new long[TRAMOS_PRECIO.size()];
+        for (Tuple fila : filas) {
+            Long idCategoria = fila.get(CATEGORIA, Long.class);
+            boolean soldOut = fila.get(SOLD_OUT, Boolean.class);
+            long total = fila.get(TOTAL, Long.class);
+            boolean cumpleCategoria = categoria == null || categoria.equals(idCategoria);
+            boolean cumpleStock = !soloEnStock || !soldOut;
+
+            // Faceta de categoría: sin aplicar el filtro de categoría
+            if (cumpleStock) {
+                FacetasDTO.FacetaCategoria faceta = categorias.computeIfAbsent(idCategoria,
+                    id -> new FacetasDTO.FacetaCategoria(id, fila.get(NOMBRE_CATEGORIA, String.class), 0));
+                faceta.setTotal(faceta.getTotal() + total);
+            }
+
+            // Faceta de stock: sin aplicar el filtro de stock
+            if (cumpleCategoria) {
+                if (soldOut) {
+                    facetas.setAgotados(facetas.getAgotados() + total);
+                } else {
+                    facetas.setEnStock(facetas.getEnStock() + total);
+                }
+            }
+
+            // Resto de facetas: con todos los filtros
+            if (cumpleCategoria && cumpleStock) {
+                facetas.setTotal(facetas.getTotal() + total);
+                ampliar(facetas.getPrecio(), fila, RANGOS);
+                ampliar(facetas.getAltura(), fila, RANGOS + 2);
+                ampliar(facetas.getAnchura(), fila, RANGOS + 4);
+                ampliar(facetas.getDiametro(), fila, RANGOS + 6);
+                for (int i = 0; i < acumulados.length; i++) {
+                    acumulados[i] += fila.get(TRAMOS + i, Long.class);
+                }
+            }
+        }
+
+        // Categorías por nombre; los productos sin categoría, al final
+        List<FacetasDTO.FacetaCategoria> listaCategorias = new ArrayList<>(categorias.values());
+        listaCategorias.sort(Comparator.comparing(FacetasDTO.FacetaCategoria::getNombre, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        facetas.setCategorias(listaCategorias);
+
+        // Tramos de precio a partir de los recuentos acumulados
+        BigDecimal desde = BigDecimal.ZERO;
+        long anterior = 0;
+        for (int i = 0; i < acumulados.length; i++) {
+            facetas.getPrecios().add(new FacetasDTO.IntervaloPrecio(desde, TRAMOS_PRECIO.get(i), acumulados[i] - anterior));
+            desde = TRAMOS_PRECIO.get(i);
+            anterior = acumulados[i];
+        }
+        facetas.getPrecios().add(new FacetasDTO.IntervaloPrecio(desde, null, facetas.getTotal() - anterior));
+        return facetas;
+    }
+
+    /**
+     * Método helper para ejecutar la consulta agrupada por categoría y stock.
+     *
+     * @param idsNombre los ids que cumplen el filtro por nombre (null si no se filtra por nombre)
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro
+     * @return una fila por cada combinación de categoría y stock con productos
+     */
+    private List<Tuple> consultar(Set<Long> idsNombre, FiltroRangosDTO rangos) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Producto> producto = query.from(Producto.class);
+        Join<Producto, Categoria> categoria = producto.join("categoria", JoinType.LEFT);
+        Expression<BigDecimal> precio = producto.get("precio");
+
+        List<Selection<?>> columnas = new ArrayList<>();
+        columnas.add(categoria.get("id"));
+        columnas.add(categoria.get("nombre"));
+        columnas.add(producto.get("soldOut"));
+        columnas.add(cb.count(producto));
+        for (String campo : List.of("precio", "altura", "anchura", "diametro")) {
+            columnas.add(cb.min(producto.get(campo)));
+            columnas.add(cb.max(producto.get(campo)));
+        }
+        for (BigDecimal limite : TRAMOS_PRECIO) {
+            columnas.add(cb.sumAsLong(cb.<Integer>selectCase().when(cb.lessThan(precio, limite), 1).otherwise(0)));
+        }
+
+        Specification<Producto> filtro = Specification
+            .where(ProductoSpecifications.conIds(idsNombre))
+            .and(ProductoSpecifications.conRangos(rangos));
+        query.multiselect(columnas)
+            .where(Objects.requireNonNullElse(filtro.toPredicate(producto, query, cb), cb.conjunction()))
+            .groupBy(categoria.get("id"), categoria.get("nombre"), producto.get("soldOut"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /**
+     * Método helper para ampliar un rango con el mínimo y el máximo de una fila.
+     *
+     * @param rango el rango a ampliar
+     * @param fila la fila de la consulta
+     * @param posicion la posición del mínimo (el máximo va a continuación)
+     */
+    private static void ampliar(FacetasDTO.Rango rango, Tuple fila, int posicion) {
+        BigDecimal min = decimal(fila.get(posicion));
+        BigDecimal max = decimal(fila.get(posicion + 1));
+        if (min != null && (rango.getMin() == null || min.compareTo(rango.getMin()) < 0)) {
+            rango.setMin(min);
+        }
+        if (max != null && (rango.getMax() == null || max.compareTo(rango.getMax()) > 0)) {
+            rango.setMax(max);
+        }
+    }
+
+    /**
+     * Método helper para convertir un valor numérico de la consulta en BigDecimal.
+     *
+     * @param valor el valor (BigDecimal o Float)
+     * @return el valor como BigDecimal, o null si es null
+     */
+    private static BigDecimal decimal(Object valor) {
+        if (valor == null || valor instanceof BigDecimal) {
+            return (BigDecimal) valor;
+        }
+        return new BigDecimal(valor.toString());
+    }
+}
@@ -3,18 +3,22 @@ package es.uca.tfg.ceramic_affair_web.services;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
 import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostMapper;
 import es.uca.tfg.ceramic_affair_web.entities.FindMePost;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
 import es.uca.tfg.ceramic_affair_web.exceptions.FindMePostException;
 import es.uca.tfg.ceramic_affair_web.repositories.FindMePostRepo;
 
 /**
  * Servicio para la entidad FindMePost.
  * 
- * @version 1.0
+ * @version 1.3
  */
 @Service
 public class FindMePostService {
@@ -22,6 +26,15 @@ public class FindMePostService {
     @Autowired
     private FindMePostRepo findMePostRepo;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    // Consultas del listado en curso por revisión y descripción, para agrupar las peticiones simultáneas
+    private final ConsultasCompartidas<List<Object>, List<FindMePostDTO>> listadosEnCurso = new ConsultasCompartidas<>();
+
     /**
      * Método para insertar una nueva publicación "Encuéntrame".
      * 
@@ -31,6 +44,7 @@ public class FindMePostService {
     public Long insertarFindMePost(FindMePostDTO findMePostDTO) {
         FindMePost findMePost = FindMePostMapper.fromDTO(findMePostDTO);
         findMePostRepo.save(findMePost);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.FIND_ME_POST, Operacion.CREACION, findMePost.getId()));
         return findMePost.getId();
     }
 
@@ -52,6 +66,7 @@ public class FindMePostService {
         findMePost.setLongitud(findMePostDTO.getLongitud());
 
         findMePostRepo.save(findMePost);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.FIND_ME_POST, Operacion.MODIFICACION, id));
     }
 
     /**
@@ -77,14 +92,29 @@ public class FindMePostService {
         FindMePost findMePost = findMePostRepo.findById(id)
                 .orElseThrow(() -> new FindMePostException.NoEncontrado(id));
         findMePostRepo.delete(findMePost);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.FIND_ME_POST, Operacion.ELIMINACION, id));
     }
 
     /**
      * Método para obtener todas las publicaciones "Encuéntrame".
+     * Las peticiones simultáneas de la misma revisión del contenido comparten una única consulta.
      * 
-     * @return una lista de DTOs de todas las publicaciones "Encuéntrame"
+     * @return una lista inmutable de DTOs de todas las publicaciones "Encuéntrame"
      */
     public List<FindMePostDTO> obtenerTodas() {
-        return FindMePostMapper.toDTOList(findMePostRepo.findAllByOrderByFechaInicioDesc());
+        return obtenerTodas(true);
+    }
+
+    /**
+     * Método para obtener todas las publicaciones "Encuéntrame", con o sin su descripción.
+     * Sin descripción, la consulta no lee la columna de la descripción.
+     * 
+     * @param conDescripcion true si se desea la descripción de las publicaciones
+     * @return una lista inmutable de DTOs de todas las publicaciones "Encuéntrame" (sin descripción, esta es null)
+     */
+    public List<FindMePostDTO> obtenerTodas(boolean conDescripcion) {
+        return listadosEnCurso.obtener(List.of(revisionCatalogo.getRevision(), conDescripcion), () -> List.copyOf(conDescripcion
+            ? FindMePostMapper.toDTOList(findMePostRepo.findAllByOrderByFechaInicioDesc())
+            : findMePostRepo.findResumenesOrderByFechaInicioDesc()));
     }
 }
@@ -5,16 +5,21 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 import javax.imageio.ImageIO;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import es.uca.tfg.ceramic_affair_web.configuration.ImagenProperties;
 import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
 import es.uca.tfg.ceramic_affair_web.exceptions.ImagenException;
 import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
 import jakarta.transaction.Transactional;
@@ -22,16 +27,18 @@ import jakarta.transaction.Transactional;
 /**
  * Servicio para la entidad Imagen.
  * 
- * @version 1.0
+ * @version 1.2
  */
 @Service
 public class ImagenService {
 
     private ImagenRepo imagenRepo;
     private final Path imagenesPath;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ImagenService(ImagenRepo imagenRepo, ImagenProperties props) throws IOException {
+    public ImagenService(ImagenRepo imagenRepo, ImagenProperties props, ApplicationEventPublisher eventPublisher) throws IOException {
         this.imagenRepo = imagenRepo;
+        this.eventPublisher = eventPublisher;
         this.imagenesPath = Paths.get(props.getPath()).toAbsolutePath().normalize();
         Files.createDirectories(this.imagenesPath);
     }
@@ -79,8 +86,9 @@ public class ImagenService {
         Path rutaImagen = imagenesPath.resolve(nombreImagen);
         archivo.transferTo(rutaImagen.toFile());
 
-        Imagen imagen = new Imagen(nombreImagen, extension, tamano, ancho, alto);
-        return imagenRepo.save(imagen);
+        Imagen imagen = imagenRepo.save(new Imagen(nombreImagen, extension, tamano, ancho, alto));
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.IMAGEN, Operacion.CREACION, imagen.getId()));
+        return imagen;
     }
 
     /**
@@ -110,7 +118,33 @@ public class ImagenService {
         Path rutaImagen = imagenesPath.resolve(imagen.getRuta());
         Files.deleteIfExists(rutaImagen);
 
-        // 2. Eliminar la entidad Imagen de la base de datos
-        imagenRepo.delete(imagen);
+        // 2. Eliminar la entidad Imagen de la base de datos (sentencia masiva: invalida las listas de imágenes en caché)
+        imagenRepo.eliminarPorId(id);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.IMAGEN, Operacion.ELIMINACION, id));
+    }
+
+    /**
+     * Método para eliminar varias imágenes de una vez.
+     * Borra sus archivos y elimina todas las filas con una única sentencia DELETE.
+     * 
+     * @param imagenes las imágenes a eliminar
+     * @throws IOException si ocurre un error al eliminar algún archivo
+     */
+    @Transactional
+    public void eliminarImagenes(List<Imagen> imagenes) throws IOException {
+        if (imagenes.isEmpty()) {
+            return;
+        }
+
+        // 1. Eliminar los archivos de imagen del sistema de archivos
+        List<Long> ids = new ArrayList<>(imagenes.size());
+        for (Imagen imagen : imagenes) {
+            Files.deleteIfExists(imagenesPath.resolve(imagen.getRuta()));
+            ids.add(imagen.getId());
+        }
+
+        // 2. Eliminar las entidades Imagen de la base de datos en una sola sentencia
+        imagenRepo.deleteAllByIdInBatch(ids);
+        ids.forEach(id -> eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.IMAGEN, Operacion.ELIMINACION, id)));
     }
 }
@@ -0,0 +1,647 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
+import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+import es.uca.tfg.ceramic_affair_web.exceptions.ImportacionException;
+import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Servicio para la importación masiva de productos desde CSV o NDJSON.
+ * El archivo se procesa según se recibe, fila a fila, sin cargarlo entero en memoria.
+ * Cada fila se valida con las restricciones de ProductoDTO y su categoría se resuelve con un mapa
+ * de categorías cargado una sola vez por importación. Las filas válidas se guardan en lotes de
+ * TAMANO_LOTE productos, cada uno en su propia transacción, y las rechazadas se recogen en el informe.
+ * El progreso de las importaciones en curso y de las últimas terminadas se puede consultar por su id.
+ * Como la importación termina al terminar de leer la petición, el cliente puede proponer el id
+ * para consultar el progreso mientras la envía.
+ *
+ * @version 1.2
+ */
+@Service
+public class ImportacionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionService.class);
+
+    /**
+     * Número de productos que se guardan en cada transacción.
+     */
+    public static final int TAMANO_LOTE = 200;
+
+    /**
+     * Número máximo de errores de fila que se detallan en el informe (el recuento sigue siendo exacto).
+     */
+    public static final int MAX_ERRORES = 1000;
+
+    // Importaciones terminadas que se conservan para consultar su informe
+    private static final int MAX_HISTORIAL = 20;
+
+    // Ids de importación que puede proponer el cliente
+    private static final Pattern ID_VALIDO = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType NDJSON_ESTANDAR = MediaType.parseMediaType("application/ndjson");
+
+    // Columnas admitidas en el CSV: los mismos nombres que las propiedades de ProductoDTO
+    private static final Set<String> COLUMNAS = Set.of("nombre", "idCategoria", "nombreCategoria", "descripcion",
+        "altura", "anchura", "diametro", "precio", "soldOut", "idsImagenes");
+
+    @Autowired
+    private CategoriaRepo categoriaRepo;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Importaciones por id, en orden de inicio (protegido por sí mismo)
+    private final Map<String, Importacion> importaciones = new LinkedHashMap<>();
+
+    /**
+     * Fila leída del archivo, ya convertida a DTO.
+     */
+    private record Fila(int numero, ProductoDTO dto) {
+    }
+
+    /**
+     * Error de una fila que impide importarla.
+     */
+    private static class FilaNoValida extends RuntimeException {
+        private FilaNoValida(String mensaje) {
+            super(mensaje);
+        }
+    }
+
+    /**
+     * Estado mutable de una importación. Lo actualiza el hilo que importa y lo leen las consultas de progreso.
+     */
+    private static final class Importacion {
+        private final String id;
+        private final ImportacionDTO.Formato formato;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+        private ImportacionDTO.Estado estado = ImportacionDTO.Estado.EN_CURSO;
+        private int filasProcesadas;
+        private int filasImportadas;
+        private int filasConError;
+        private final List<ImportacionDTO.ErrorFila> errores = new ArrayList<>();
+        private LocalDateTime fechaFin;
+
+        private Importacion(String id, ImportacionDTO.Formato formato) {
+            this.id = id;
+            this.formato = formato;
+        }
+
+        private synchronized void procesada() {
+            filasProcesadas++;
+        }
+
+        private synchronized void importadas(int filas) {
+            filasImportadas += filas;
+        }
+
+        private synchronized void error(int fila, String mensaje) {
+            filasConError++;
+            if (errores.size() < MAX_ERRORES) {
+                errores.add(new ImportacionDTO.ErrorFila(fila, mensaje));
+            }
+        }
+
+        private synchronized void terminar(ImportacionDTO.Estado estado) {
+            this.estado = estado;
+            this.fechaFin = LocalDateTime.now();
+        }
+
+        private synchronized boolean enCurso() {
+            return estado == ImportacionDTO.Estado.EN_CURSO;
+        }
+
+        private synchronized ImportacionDTO toDTO() {
+            ImportacionDTO dto = new ImportacionDTO();
+            dto.setId(id);
+            dto.setFormato(formato);
+            dto.setEstado(estado);
+            dto.setFilasProcesadas(filasProcesadas);
+            dto.setFilasImportadas(filasImportadas);
+            dto.setFilasConError(filasConError);
+            dto.setErrores(new ArrayList<>(errores));
+            dto.setFechaInicio(fechaInicio);
+            dto.setFechaFin(fechaFin);
+            return dto;
+        }
+    }
+
+    /**
+     * Método para obtener el formato de importación a partir del tipo de contenido de la petición.
+     *
+     * @param tipoContenido el valor de la cabecera Content-Type
+     * @return el formato correspondiente
+     * @throws ImportacionException.FormatoNoSoportado si no es CSV ni NDJSON
+     */
+    public static ImportacionDTO.Formato formatoDe(String tipoContenido) {
+        try {
+            MediaType tipo = MediaType.parseMediaType(tipoContenido);
+            if (tipo.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                return ImportacionDTO.Formato.CSV;
+            }
+            if (tipo.isCompatibleWith(NDJSON) || tipo.isCompatibleWith(NDJSON_ESTANDAR)) {
+                return ImportacionDTO.Formato.NDJSON;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Se trata igual que un tipo no soportado
+        }
+        throw new ImportacionException.FormatoNoSoportado(tipoContenido);
+    }
+
+    /**
+     * Método para importar productos desde un flujo CSV o NDJSON.
+     * Las filas no válidas no detienen la importación: se anotan en el informe con su número de fila
+     * (en CSV, la línea en la que empieza el registro; en NDJSON, la línea del objeto).
+     *
+     * @param entrada el flujo con el contenido del archivo, en UTF-8
+     * @param formato el formato del contenido
+     * @return el informe de la importación
+     * @throws IOException si ocurre un error al leer el flujo
+     * @throws ImportacionException.CabeceraNoValida si la cabecera del CSV no es válida
+     */
+    public ImportacionDTO importar(InputStream entrada, ImportacionDTO.Formato formato) throws IOException {
+        return importar(entrada, formato, null);
+    }
+
+    /**
+     * Método para importar productos desde un flujo CSV o NDJSON con un id propuesto por el cliente.
+     * La importación se registra con ese id antes de leer el flujo, de modo que su progreso
+     * se puede consultar con obtenerPorId mientras se procesa.
+     *
+     * @param entrada el flujo con el contenido del archivo, en UTF-8
+     * @param formato el formato del contenido
+     * @param id el id de la importación (null para generarlo)
+     * @return el informe de la importación
+     * @throws IOException si ocurre un error al leer el flujo
+     * @throws ImportacionException.CabeceraNoValida si la cabecera del CSV no es válida
+     * @throws ImportacionException.IdNoValido si el id no tiene un formato válido
+     * @throws ImportacionException.IdDuplicado si ya existe una importación con ese id
+     */
+    public ImportacionDTO importar(InputStream entrada, ImportacionDTO.Formato formato, String id) throws IOException {
+        Importacion importacion = registrar(id, formato);
+        try {
+            Map<String, Long> categorias = cargarCategorias();
+            Set<Long> idsCategorias = new HashSet<>(categorias.values());
+            List<Fila> pendientes = new ArrayList<>(TAMANO_LOTE);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+            if (formato == ImportacionDTO.Formato.CSV) {
+                LectorCsv lector = new LectorCsv(reader);
+                Map<String, Integer> columnas = leerCabecera(lector.leer());
+                int numero = lector.getLinea();
+                List<String> registro;
+                while ((registro = leerRegistro(lector, numero, importacion)) != null) {
+                    if (!(registro.size() == 1 && registro.get(0).isBlank())) {
+                        final List<String> campos = registro;
+                        procesar(numero, () -> desdeCsv(campos, columnas), categorias, idsCategorias, pendientes, importacion);
+                    }
+                    numero = lector.getLinea();
+                }
+            } else {
+                String linea;
+                int numero = 0;
+                while ((linea = reader.readLine()) != null) {
+                    numero++;
+                    if (!linea.isBlank()) {
+                        final String json = linea;
+                        procesar(numero, () -> desdeJson(json), categorias, idsCategorias, pendientes, importacion);
+                    }
+                }
+            }
+            guardar(pendientes, importacion);
+            importacion.terminar(ImportacionDTO.Estado.COMPLETADA);
+        } catch (IOException | RuntimeException e) {
+            importacion.terminar(ImportacionDTO.Estado.FALLIDA);
+            throw e;
+        }
+
+        ImportacionDTO informe = importacion.toDTO();
+        logger.info("Product import {} finished: {} rows imported, {} rejected",
+            informe.getId(), informe.getFilasImportadas(), informe.getFilasConError());
+        return informe;
+    }
+
+    /**
+     * Método para obtener el progreso o el informe de una importación.
+     *
+     * @param id el id de la importación
+     * @return el estado de la importación
+     * @throws ImportacionException.NoEncontrada si no existe o ya no se conserva
+     */
+    public ImportacionDTO obtenerPorId(String id) {
+        Importacion importacion;
+        synchronized (importaciones) {
+            importacion = importaciones.get(id);
+        }
+        if (importacion == null) {
+            throw new ImportacionException.NoEncontrada(id);
+        }
+        return importacion.toDTO();
+    }
+
+    /**
+     * Método para obtener las importaciones en curso y las últimas terminadas, de la más reciente a la más antigua.
+     *
+     * @return el estado de cada importación
+     */
+    public List<ImportacionDTO> obtenerTodas() {
+        List<Importacion> copia;
+        synchronized (importaciones) {
+            copia = new ArrayList<>(importaciones.values());
+        }
+        List<ImportacionDTO> resultado = new ArrayList<>(copia.size());
+        for (int i = copia.size() - 1; i >= 0; i--) {
+            resultado.add(copia.get(i).toDTO());
+        }
+        return resultado;
+    }
+
+    /**
+     * Método helper para registrar una importación nueva, descartando las terminadas más antiguas.
+     *
+     * @param id el id propuesto por el cliente (null para generarlo)
+     * @param formato el formato de la importación
+     * @return la importación registrada
+     * @throws ImportacionException.IdNoValido si el id no tiene un formato válido
+     * @throws ImportacionException.IdDuplicado si ya existe una importación con ese id
+     */
+    private Importacion registrar(String id, ImportacionDTO.Formato formato) {
+        if (id != null && !ID_VALIDO.matcher(id).matches()) {
+            throw new ImportacionException.IdNoValido(id);
+        }
+        Importacion importacion = new Importacion(id != null ? id : UUID.randomUUID().toString(), formato);
+        synchronized (importaciones) {
+            if (importaciones.putIfAbsent(importacion.id, importacion) != null) {
+                throw new ImportacionException.IdDuplicado(id);
+            }
+            int sobrantes = importaciones.size() - MAX_HISTORIAL;
+            Iterator<Importacion> it = importaciones.values().iterator();
+            while (sobrantes > 0 && it.hasNext()) {
+                if (!it.next().enCurso()) {
+                    it.remove();
+                    sobrantes--;
+                }
+            }
+        }
+        return importacion;
+    }
+
+    /**
+     * Método helper para cargar el mapa de categorías de la importación: nombre normalizado -> id.
+     *
+     * @return el mapa de categorías
+     */
+    private Map<String, Long> cargarCategorias() {
+        Map<String, Long> categorias = new HashMap<>();
+        for (Categoria categoria : categoriaRepo.findAll()) {
+            categorias.put(IndiceBusqueda.normalizar(categoria.getNombre()).strip(), categoria.getId());
+        }
+        return categorias;
+    }
+
+    /**
+     * Método helper para leer un registro del CSV. Si un campo entre comillas no se cierra,
+     * el resto del archivo no se puede interpretar: se anota el error y se termina la lectura.
+     *
+     * @param lector el lector de CSV
+     * @param numero el número de fila del registro
+     * @param importacion la importación en curso
+     * @return el registro, o null si no quedan registros legibles
+     * @throws IOException si ocurre un error al leer el flujo
+     */
+    private static List<String> leerRegistro(LectorCsv lector, int numero, Importacion importacion) throws IOException {
+        try {
+            return lector.leer();
+        } catch (IllegalArgumentException e) {
+            importacion.procesada();
+            importacion.error(numero, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Método helper para interpretar la cabecera del CSV.
+     *
+     * @param cabecera los nombres de las columnas
+     * @return la posición de cada columna
+     * @throws ImportacionException.CabeceraNoValida si falta, tiene columnas desconocidas o repetidas
+     */
+    private static Map<String, Integer> leerCabecera(List<String> cabecera) {
+        if (cabecera == null) {
+            throw new ImportacionException.CabeceraNoValida("the file is empty");
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String nombre = cabecera.get(i).strip();
+            if (i == 0 && nombre.startsWith("\uFEFF")) {
+                nombre = nombre.substring(1); // BOM de UTF-8
+            }
+            if (!COLUMNAS.contains(nombre)) {
+                throw new ImportacionException.CabeceraNoValida("unknown column '" + nombre + "'");
+            }
+            if (columnas.put(nombre, i) != null) {
+                throw new ImportacionException.CabeceraNoValida("duplicated column '" + nombre + "'");
+            }
+        }
+        if (!columnas.containsKey("nombre")) {
+            throw new ImportacionException.CabeceraNoValida("missing column 'nombre'");
+        }
+        return columnas;
+    }
+
+    /**
+     * Método helper para procesar una fila: convertirla, validarla, resolver su categoría
+     * y dejarla pendiente de guardar, guardando el lote cuando se completa.
+     *
+     * @param numero el número de fila
+     * @param lectura la conversión de la fila a DTO
+     * @param categorias el mapa de categorías de la importación
+     * @param idsCategorias los ids de las categorías existentes
+     * @param pendientes las filas pendientes de guardar
+     * @param importacion la importación en curso
+     */
+    private void procesar(int numero, Supplier<ProductoDTO> lectura, Map<String, Long> categorias,
+                          Set<Long> idsCategorias, List<Fila> pendientes, Importacion importacion) {
+        importacion.procesada();
+        try {
+            ProductoDTO dto = lectura.get();
+            validar(dto);
+            dto.setIdCategoria(resolverCategoria(dto, categorias, idsCategorias));
+            pendientes.add(new Fila(numero, dto));
+        } catch (FilaNoValida e) {
+            importacion.error(numero, e.getMessage());
+        }
+        if (pendientes.size() >= TAMANO_LOTE) {
+            guardar(pendientes, importacion);
+        }
+    }
+
+    /**
+     * Método helper para validar una fila con las restricciones de ProductoDTO.
+     *
+     * @param dto el DTO de la fila
+     * @throws FilaNoValida con todos los errores de validación, ordenados por campo
+     */
+    private void validar(ProductoDTO dto) {
+        Set<ConstraintViolation<ProductoDTO>> errores = validator.validate(dto);
+        if (!errores.isEmpty()) {
+            throw new FilaNoValida(errores.stream()
+                .sorted(Comparator.comparing(error -> error.getPropertyPath().toString()))
+                .map(error -> error.getPropertyPath() + ": " + error.getMessage())
+                .collect(Collectors.joining("; ")));
+        }
+    }
+
+    /**
+     * Método helper para resolver la categoría de una fila por su id o, si no lo tiene, por su nombre.
+     *
+     * @param dto el DTO de la fila
+     * @param categorias el mapa de categorías de la importación
+     * @param idsCategorias los ids de las categorías existentes
+     * @return el id de la categoría, o null si la fila no indica ninguna
+     * @throws FilaNoValida si la categoría no existe
+     */
+    private static Long resolverCategoria(ProductoDTO dto, Map<String, Long> categorias, Set<Long> idsCategorias) {
+        if (dto.getIdCategoria() != null) {
+            if (!idsCategorias.contains(dto.getIdCategoria())) {
+                throw new FilaNoValida("Category not found with ID " + dto.getIdCategoria());
+            }
+            return dto.getIdCategoria();
+        }
+        String nombre = dto.getNombreCategoria();
+        if (nombre == null || nombre.isBlank()) {
+            return null;
+        }
+        Long id = categorias.get(IndiceBusqueda.normalizar(nombre).strip());
+        if (id == null) {
+            throw new FilaNoValida("Category not found with name " + nombre.strip());
+        }
+        return id;
+    }
+
+    /**
+     * Método helper para convertir un registro CSV en DTO.
+     *
+     * @param campos los campos del registro
+     * @param columnas la posición de cada columna
+     * @return el DTO de la fila (sin validar)
+     * @throws FilaNoValida si algún valor no tiene el tipo esperado
+     */
+    private static ProductoDTO desdeCsv(List<String> campos, Map<String, Integer> columnas) {
+        if (campos.size() != columnas.size()) {
+            throw new FilaNoValida("Expected " + columnas.size() + " fields but found " + campos.size());
+        }
+        Function<String, String> valor = columna -> {
+            Integer posicion = columnas.get(columna);
+            String texto = posicion != null ? campos.get(posicion).strip() : "";
+            return texto.isEmpty() ? null : texto;
+        };
+
+        ProductoDTO dto = new ProductoDTO();
+        dto.setNombre(valor.apply("nombre"));
+        dto.setNombreCategoria(valor.apply("nombreCategoria"));
+        dto.setDescripcion(valor.apply("descripcion"));
+        dto.setIdCategoria(convertir(valor, "idCategoria", Long::valueOf));
+        Float altura = convertir(valor, "altura", Float::valueOf);
+        if (altura != null) {
+            dto.setAltura(altura);
+        }
+        Float anchura = convertir(valor, "anchura", Float::valueOf);
+        if (anchura != null) {
+            dto.setAnchura(anchura);
+        }
+        Float diametro = convertir(valor, "diametro", Float::valueOf);
+        if (diametro != null) {
+            dto.setDiametro(diametro);
+        }
+        dto.setPrecio(convertir(valor, "precio", BigDecimal::new));
+        Boolean soldOut = convertir(valor, "soldOut", ImportacionService::booleano);
+        if (soldOut != null) {
+            dto.setSoldOut(soldOut);
+        }
+        dto.setIdsImagenes(convertir(valor, "idsImagenes", texto -> Arrays.stream(texto.split("\\|"))
+            .map(String::strip).filter(id -> !id.isEmpty()).map(Long::valueOf).toList()));
+        return dto;
+    }
+
+    /**
+     * Método helper para convertir el valor de una columna.
+     *
+     * @param <T> el tipo del valor
+     * @param valor la función que obtiene el texto de una columna (null si está vacía)
+     * @param columna el nombre de la columna
+     * @param conversion la conversión del texto
+     * @return el valor convertido, o null si la columna está vacía
+     * @throws FilaNoValida si el texto no se puede convertir
+     */
+    private static <T> T convertir(Function<String, String> valor, String columna, Function<String, T> conversion) {
+        String texto = valor.apply(columna);
+        if (texto == null) {
+            return null;
+        }
+        try {
+            return conversion.apply(texto);
+        } catch (IllegalArgumentException e) {
+            throw new FilaNoValida("Invalid value for '" + columna + "': " + texto);
+        }
+    }
+
+    /**
+     * Método helper para interpretar un valor booleano de CSV.
+     *
+     * @param texto el texto (true/false, sin distinguir mayúsculas)
+     * @return el valor booleano
+     * @throws IllegalArgumentException si no es un booleano
+     */
+    private static Boolean booleano(String texto) {
+        return switch (texto.toLowerCase(Locale.ROOT)) {
+            case "true" -> Boolean.TRUE;
+            case "false" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException(texto);
+        };
+    }
+
+    /**
+     * Método helper para convertir una línea NDJSON en DTO.
+     *
+     * @param linea el objeto JSON de la línea
+     * @return el DTO de la fila (sin validar)
+     * @throws FilaNoValida si la línea no es un objeto JSON válido
+     */
+    private ProductoDTO desdeJson(String linea) {
+        try {
+            ProductoDTO dto = objectMapper.readValue(linea, ProductoDTO.class);
+            if (dto == null) {
+                throw new FilaNoValida("Invalid JSON: expected an object");
+            }
+            dto.setId(null);
+            return dto;
+        } catch (JsonProcessingException e) {
+            throw new FilaNoValida("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Método helper para guardar las filas pendientes en una transacción.
+     * Las categorías y las imágenes del lote se cargan con una consulta cada una, los productos se
+     * insertan por lotes JDBC y se publica un único evento de modificación del catálogo por lote.
+     * Si el lote no se puede guardar, todas sus filas se anotan como error y la importación continúa.
+     *
+     * @param pendientes las filas pendientes (se vacía al terminar)
+     * @param importacion la importación en curso
+     */
+    private void guardar(List<Fila> pendientes, Importacion importacion) {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Map<Long, Categoria> categorias = categoriaRepo.findAllById(pendientes.stream()
+                        .map(fila -> fila.dto().getIdCategoria()).filter(Objects::nonNull).collect(Collectors.toSet()))
+                    .stream().collect(Collectors.toMap(Categoria::getId, Function.identity()));
+                Map<Long, Imagen> imagenes = imagenRepo.findAllById(pendientes.stream()
+                        .map(fila -> fila.dto().getIdsImagenes()).filter(Objects::nonNull)
+                        .flatMap(List::stream).collect(Collectors.toSet()))
+                    .stream().collect(Collectors.toMap(Imagen::getId, Function.identity()));
+
+                List<Producto> productos = new ArrayList<>(pendientes.size());
+                for (Fila fila : pendientes) {
+                    List<Imagen> imagenesFila = new ArrayList<>();
+                    if (fila.dto().getIdsImagenes() != null) {
+                        fila.dto().getIdsImagenes().stream().map(imagenes::get).filter(Objects::nonNull).forEach(imagenesFila::add);
+                    }
+                    Categoria categoria = fila.dto().getIdCategoria() != null ? categorias.get(fila.dto().getIdCategoria()) : null;
+                    productos.add(ProductoMapper.fromDTO(fila.dto(), categoria, imagenesFila));
+                }
+                productoRepo.saveAll(productos);
+                productos.forEach(busquedaService::indexar);
+                eventPublisher.publishEvent(CatalogoModificadoEvent.deVarias(Entidad.PRODUCTO, Operacion.CREACION,
+                    productos.stream().map(Producto::getId).toList()));
+            });
+            importacion.importadas(pendientes.size());
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Product import {}: batch of {} rows could not be saved", importacion.id, pendientes.size(), e);
+            String mensaje = "Could not save row: " + e.getMostSpecificCause().getMessage();
+            pendientes.forEach(fila -> importacion.error(fila.numero(), mensaje));
+        } finally {
+            // Las entidades del lote ya no se necesitan: el contexto de persistencia no crece con la importación
+            entityManager.clear();
+            pendientes.clear();
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de búsqueda en memoria sobre el nombre y la descripción de los productos.
+ * Combina dos estructuras:
+ * - Listas invertidas de n-gramas (1 a 3 caracteres) para la búsqueda exacta por subcadena.
+ * - Listas invertidas de palabras y un árbol BK sobre el vocabulario para la búsqueda tolerante a erratas.
+ * Todos los textos se normalizan a minúsculas y sin tildes.
+ * No es seguro para hilos: BusquedaService serializa las escrituras y protege las lecturas.
+ *
+ * @version 1.0
+ */
+public final class IndiceBusqueda {
+
+    // Longitud máxima de los n-gramas indexados; las búsquedas más largas se verifican sobre el texto
+    private static final int N = 3;
+
+    // Peso de una coincidencia en el nombre frente a una en la descripción
+    private static final double PESO_NOMBRE = 3.0;
+    private static final double PESO_DESCRIPCION = 1.0;
+
+    // Factor de una palabra que solo empieza por el término buscado
+    private static final double FACTOR_PREFIJO = 0.8;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Textos normalizados de cada producto indexado
+    private final Map<Long, String> nombres = new HashMap<>();
+    private final Map<Long, String> descripciones = new HashMap<>();
+
+    // Listas invertidas: n-grama -> ids de los productos que lo contienen
+    private final Map<String, Set<Long>> ngramasNombre = new HashMap<>();
+    private final Map<String, Set<Long>> ngramasDescripcion = new HashMap<>();
+
+    // Listas invertidas: palabra -> ids de los productos que la contienen
+    private final Map<String, Set<Long>> palabrasNombre = new HashMap<>();
+    private final Map<String, Set<Long>> palabrasDescripcion = new HashMap<>();
+
+    // Vocabulario vigente (palabra -> número de listas que la contienen), ordenado para buscar por prefijo
+    private final TreeMap<String, Integer> vocabulario = new TreeMap<>();
+
+    // Árbol BK con todas las palabras vistas; las que ya no están en el vocabulario se descartan al buscar
+    private final ArbolBK arbol = new ArbolBK();
+
+    /**
+     * Método para normalizar un texto: minúsculas y sin tildes ni diéresis.
+     *
+     * @param texto el texto a normalizar
+     * @return el texto normalizado (cadena vacía si es null)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Método para dividir un texto normalizado en palabras.
+     *
+     * @param texto el texto normalizado
+     * @return las palabras del texto, sin repetir y en orden de aparición
+     */
+    public static Set<String> palabras(String texto) {
+        Set<String> resultado = new LinkedHashSet<>();
+        for (String palabra : SEPARADORES.split(texto)) {
+            if (!palabra.isEmpty()) {
+                resultado.add(palabra);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Método para añadir un producto al índice, sustituyendo la versión anterior si existía.
+     *
+     * @param id          el id del producto
+     * @param nombre      el nombre del producto
+     * @param descripcion la descripción del producto
+     */
+    public void anadir(Long id, String nombre, String descripcion) {
+        quitar(id);
+        String nombreNormalizado = normalizar(nombre);
+        String descripcionNormalizada = normalizar(descripcion);
+        nombres.put(id, nombreNormalizado);
+        descripciones.put(id, descripcionNormalizada);
+        anadirListas(ngramasNombre, ngramas(nombreNormalizado), id);
+        anadirListas(ngramasDescripcion, ngramas(descripcionNormalizada), id);
+        anadirPalabras(palabrasNombre, palabras(nombreNormalizado), id);
+        anadirPalabras(palabrasDescripcion, palabras(descripcionNormalizada), id);
+    }
+
+    /**
+     * Método para quitar un producto del índice.
+     *
+     * @param id el id del producto
+     */
+    public void quitar(Long id) {
+        String nombre = nombres.remove(id);
+        if (nombre != null) {
+            quitarListas(ngramasNombre, ngramas(nombre), id);
+            quitarPalabras(palabrasNombre, palabras(nombre), id);
+        }
+        String descripcion = descripciones.remove(id);
+        if (descripcion != null) {
+            quitarListas(ngramasDescripcion, ngramas(descripcion), id);
+            quitarPalabras(palabrasDescripcion, palabras(descripcion), id);
+        }
+    }
+
+    /**
+     * Método para obtener el número de productos indexados.
+     *
+     * @return el número de productos
+     */
+    public int getNumeroProductos() {
+        return nombres.size();
+    }
+
+    /**
+     * Método para obtener los ids de los productos cuyo texto contiene una subcadena.
+     * Las consultas de hasta N caracteres son n-gramas indexados; las más largas se resuelven
+     * intersecando las listas de sus trigramas y verificando la subcadena en los candidatos.
+     *
+     * @param termino          el término a buscar
+     * @param incluirDescripcion true para buscar también en la descripción
+     * @return un conjunto mutable con los ids que coinciden
+     */
+    public Set<Long> buscarSubcadena(String termino, boolean incluirDescripcion) {
+        String consulta = normalizar(termino);
+        Set<Long> ids = buscarSubcadena(consulta, ngramasNombre, nombres);
+        if (incluirDescripcion) {
+            ids.addAll(buscarSubcadena(consulta, ngramasDescripcion, descripciones));
+        }
+        return ids;
+    }
+
+    /**
+     * Método para buscar productos tolerando erratas y ordenarlos por relevancia.
+     * Cada palabra de la consulta se compara con el vocabulario admitiendo una distancia de edición
+     * acotada por su longitud, y también como prefijo. Cada producto suma, por cada palabra de la consulta,
+     * la mejor coincidencia encontrada, pesando más las del nombre que las de la descripción.
+     *
+     * @param texto el texto de la búsqueda
+     * @return los ids de los productos que coinciden, de más a menos relevante (a igualdad, los más nuevos primero)
+     */
+    public List<Long> buscarAproximado(String texto) {
+        Map<Long, Double> puntuaciones = new HashMap<>();
+        for (String termino : palabras(normalizar(texto))) {
+            Map<Long, Double> mejores = new HashMap<>();
+            for (Map.Entry<String, Double> coincidencia : coincidencias(termino).entrySet()) {
+                puntuar(mejores, palabrasNombre.get(coincidencia.getKey()), coincidencia.getValue() * PESO_NOMBRE);
+                puntuar(mejores, palabrasDescripcion.get(coincidencia.getKey()), coincidencia.getValue() * PESO_DESCRIPCION);
+            }
+            mejores.forEach((id, puntuacion) -> puntuaciones.merge(id, puntuacion, Double::sum));
+        }
+
+        List<Long> ids = new ArrayList<>(puntuaciones.keySet());
+        ids.sort(Comparator.<Long>comparingDouble(puntuaciones::get).reversed().thenComparing(Comparator.reverseOrder()));
+        return ids;
+    }
+
+    /**
+     * Método para obtener la distancia de edición máxima admitida para un término.
+     *
+     * @param termino el término normalizado
+     * @return 0 para términos de hasta 2 caracteres, 1 hasta 5 y 2 para los más largos
+     */
+    static int distanciaMaxima(String termino) {
+        if (termino.length() <= 2) {
+            return 0;
+        }
+        return termino.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Método para calcular la distancia de Levenshtein entre dos palabras,
+     * abandonando en cuanto se supera un límite.
+     *
+     * @param a      la primera palabra
+     * @param b      la segunda palabra
+     * @param limite la distancia máxima de interés
+     * @return la distancia, o limite + 1 si la supera
+     */
+    static int distancia(String a, String b, int limite) {
+        if (Math.abs(a.length() - b.length()) > limite) {
+            return limite + 1;
+        }
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = actual[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int coste = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                actual[j] = Math.min(Math.min(actual[j - 1] + 1, anterior[j] + 1), anterior[j - 1] + coste);
+                minimoFila = Math.min(minimoFila, actual[j]);
+            }
+            if (minimoFila > limite) {
+                return limite + 1;
+            }
+            int[] auxiliar = anterior;
+            anterior = actual;
+            actual = auxiliar;
+        }
+        return Math.min(anterior[b.length()], limite + 1);
+    }
+
+    /**
+     * Método helper para obtener las palabras del vocabulario que coinciden con un término y su factor.
+     *
+     * @param termino el término normalizado
+     * @return un mapa palabra -> factor de coincidencia (1 exacta, menor cuanto más lejana)
+     */
+    private Map<String, Double> coincidencias(String termino) {
+        Map<String, Double> resultado = new HashMap<>();
+
+        // Coincidencias por prefijo, recorriendo el rango ordenado del vocabulario
+        for (String palabra : vocabulario.subMap(termino, true, termino + Character.MAX_VALUE, false).keySet()) {
+            resultado.put(palabra, palabra.equals(termino) ? 1.0 : FACTOR_PREFIJO);
+        }
+
+        // Coincidencias aproximadas en el árbol BK
+        int maxima = distanciaMaxima(termino);
+        if (maxima > 0) {
+            arbol.buscar(termino, maxima, (palabra, distancia) -> {
+                if (vocabulario.containsKey(palabra)) {
+                    double factor = 1.0 - (double) distancia / (termino.length() + 1);
+                    resultado.merge(palabra, factor, Math::max);
+                }
+            });
+        }
+        return resultado;
+    }
+
+    /**
+     * Método helper para registrar la mejor puntuación de cada producto de una lista.
+     *
+     * @param mejores    el mapa id -> mejor puntuación
+     * @param ids        los ids de la lista (puede ser null)
+     * @param puntuacion la puntuación de la coincidencia
+     */
+    private static void puntuar(Map<Long, Double> mejores, Set<Long> ids, double puntuacion) {
+        if (ids != null) {
+            for (Long id : ids) {
+                mejores.merge(id, puntuacion, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Método helper para resolver una búsqueda por subcadena sobre un campo.
+     *
+     * @param consulta la consulta normalizada
+     * @param ngramas  las listas invertidas del campo
+     * @param textos   los textos normalizados del campo
+     * @return un conjunto mutable con los ids que coinciden
+     */
+    private static Set<Long> buscarSubcadena(String consulta, Map<String, Set<Long>> ngramas, Map<Long, String> textos) {
+        if (consulta.length() <= N) {
+            return new HashSet<>(ngramas.getOrDefault(consulta, Set.of()));
+        }
+
+        // Se empieza por la lista más corta para reducir el trabajo de la intersección
+        List<Set<Long>> listas = new ArrayList<>();
+        for (int i = 0; i + N <= consulta.length(); i++) {
+            Set<Long> lista = ngramas.get(consulta.substring(i, i + N));
+            if (lista == null) {
+                return new HashSet<>();
+            }
+            listas.add(lista);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> resultado = new HashSet<>();
+        for (Long id : listas.get(0)) {
+            boolean enTodas = true;
+            for (int i = 1; i < listas.size() && enTodas; i++) {
+                enTodas = listas.get(i).contains(id);
+            }
+            if (enTodas && textos.get(id).contains(consulta)) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Método helper para añadir las palabras de un producto a las listas invertidas y al vocabulario.
+     *
+     * @param indice   las listas invertidas del campo
+     * @param palabras las palabras del texto del producto
+     * @param id       el id del producto
+     */
+    private void anadirPalabras(Map<String, Set<Long>> indice, Set<String> palabras, Long id) {
+        for (String palabra : palabras) {
+            Set<Long> lista = indice.computeIfAbsent(palabra, k -> new HashSet<>());
+            if (lista.isEmpty()) {
+                vocabulario.merge(palabra, 1, Integer::sum);
+                arbol.insertar(palabra);
+            }
+            lista.add(id);
+        }
+    }
+
+    /**
+     * Método helper para quitar las palabras de un producto de las listas invertidas y del vocabulario.
+     *
+     * @param indice   las listas invertidas del campo
+     * @param palabras las palabras del texto del producto
+     * @param id       el id del producto
+     */
+    private void quitarPalabras(Map<String, Set<Long>> indice, Set<String> palabras, Long id) {
+        for (String palabra : palabras) {
+            Set<Long> lista = indice.get(palabra);
+            if (lista != null && lista.remove(id) && lista.isEmpty()) {
+                indice.remove(palabra);
+                vocabulario.computeIfPresent(palabra, (k, v) -> v > 1 ? v - 1 : null);
+            }
+        }
+    }
+
+    /**
+     * Método helper para añadir un id a varias listas invertidas.
+     *
+     * @param indice las listas invertidas
+     * @param claves los n-gramas del texto del producto
+     * @param id     el id del producto
+     */
+    private static void anadirListas(Map<String, Set<Long>> indice, Set<String> claves, Long id) {
+        for (String clave : claves) {
+            indice.computeIfAbsent(clave, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Método helper para quitar un id de varias listas invertidas, descartando las que quedan vacías.
+     *
+     * @param indice las listas invertidas
+     * @param claves los n-gramas del texto del producto
+     * @param id     el id del producto
+     */
+    private static void quitarListas(Map<String, Set<Long>> indice, Set<String> claves, Long id) {
+        for (String clave : claves) {
+            Set<Long> lista = indice.get(clave);
+            if (lista != null && lista.remove(id) && lista.isEmpty()) {
+                indice.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Método helper para obtener los n-gramas de 1 a N caracteres de un texto.
+     *
+     * @param texto el texto normalizado
+     * @return el conjunto de n-gramas
+     */
+    private static Set<String> ngramas(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (int n = 1; n <= N; n++) {
+            for (int i = 0; i + n <= texto.length(); i++) {
+                resultado.add(texto.substring(i, i + n));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Receptor de las palabras encontradas en el árbol BK.
+     */
+    @FunctionalInterface
+    private interface Visitante {
+        void visitar(String palabra, int distancia);
+    }
+
+    /**
+     * Árbol BK (Burkhard-Keller) sobre la distancia de Levenshtein.
+     * Cada hijo cuelga de su padre según la distancia entre ambos, de modo que por la desigualdad
+     * triangular solo hace falta descender por los hijos a distancia d ± máxima de la consulta.
+     */
+    private static final class ArbolBK {
+
+        private Nodo raiz;
+        private final Set<String> palabras = new HashSet<>();
+
+        private static final class Nodo {
+            private final String palabra;
+            private final Map<Integer, Nodo> hijos = new HashMap<>();
+
+            private Nodo(String palabra) {
+                this.palabra = palabra;
+            }
+        }
+
+        private void insertar(String palabra) {
+            if (!palabras.add(palabra)) {
+                return;
+            }
+            if (raiz == null) {
+                raiz = new Nodo(palabra);
+                return;
+            }
+            Nodo nodo = raiz;
+            while (true) {
+                int d = distancia(palabra, nodo.palabra, Integer.MAX_VALUE - 1);
+                Nodo hijo = nodo.hijos.get(d);
+                if (hijo == null) {
+                    nodo.hijos.put(d, new Nodo(palabra));
+                    return;
+                }
+                nodo = hijo;
+            }
+        }
+
+        private void buscar(String termino, int maxima, Visitante visitante) {
+            if (raiz == null) {
+                return;
+            }
+            List<Nodo> pendientes = new ArrayList<>();
+            pendientes.add(raiz);
+            while (!pendientes.isEmpty()) {
+                Nodo nodo = pendientes.remove(pendientes.size() - 1);
+                int d = distancia(termino, nodo.palabra, Integer.MAX_VALUE - 1);
+                if (d <= maxima) {
+                    visitante.visitar(nodo.palabra, d);
+                }
+                for (Map.Entry<Integer, Nodo> hijo : nodo.hijos.entrySet()) {
+                    if (hijo.getKey() >= d - maxima && hijo.getKey() <= d + maxima) {
+                        pendientes.add(hijo.getValue());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV (RFC 4180) registro a registro.
+ * Admite campos entre comillas con comas, saltos de línea y comillas dobladas ("") en su interior,
+ * y finales de línea LF o CRLF. Solo guarda en memoria el registro en curso, por lo que
+ * permite procesar archivos de cualquier tamaño según se van recibiendo.
+ * No es seguro para hilos.
+ *
+ * @version 1.0
+ */
+public final class LectorCsv {
+
+    private static final int FIN = -1;
+
+    private final Reader reader;
+    private int siguiente = -2; // Carácter leído por adelantado (-2: ninguno)
+    private int linea = 1;
+
+    /**
+     * Constructor del lector.
+     *
+     * @param reader el origen de los caracteres (conviene que tenga buffer)
+     */
+    public LectorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Método para leer el siguiente registro.
+     *
+     * @return los campos del registro, o null si no quedan registros
+     * @throws IOException si ocurre un error de lectura
+     * @throws IllegalArgumentException si un campo entre comillas no se cierra
+     */
+    public List<String> leer() throws IOException {
+        int c = leerCaracter();
+        if (c == FIN) {
+            return null;
+        }
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (entreComillas) {
+                if (c == FIN) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int d = leerCaracter();
+                    if (d == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = d;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == FIN) {
+                if (c == '\r') {
+                    int d = leerCaracter();
+                    if (d != '\n') {
+                        siguiente = d;
+                    }
+                }
+                if (c != FIN) {
+                    linea++;
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+            c = leerCaracter();
+        }
+    }
+
+    /**
+     * Método para obtener la línea en la que empieza el siguiente registro.
+     *
+     * @return el número de línea, empezando en 1
+     */
+    public int getLinea() {
+        return linea;
+    }
+
+    /**
+     * Método helper para leer un carácter, respetando el leído por adelantado.
+     *
+     * @return el carácter, o FIN si no quedan
+     * @throws IOException si ocurre un error de lectura
+     */
+    private int leerCaracter() throws IOException {
+        if (siguiente != -2) {
+            int c = siguiente;
+            siguiente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
@@ -0,0 +1,145 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostMapper;
+import es.uca.tfg.ceramic_affair_web.DTOs.LoteDTO;
+import es.uca.tfg.ceramic_affair_web.entities.FindMePost;
+import es.uca.tfg.ceramic_affair_web.exceptions.LoteException;
+import es.uca.tfg.ceramic_affair_web.repositories.FindMePostRepo;
+
+/**
+ * Servicio para resolver peticiones por lotes de la API pública.
+ * Agrupa los ids pedidos por tipo de recurso y resuelve cada tipo con una única consulta por ids
+ * (o desde el snapshot del catálogo), en lugar de una petición HTTP por recurso.
+ * Las categorías se devuelven como resúmenes, sin la lista de sus productos.
+ *
+ * @version 1.1
+ */
+@Service
+public class LoteService {
+
+    /**
+     * Número máximo de ids, sumando todos los tipos de recurso, que se pueden pedir en un lote.
+     */
+    public static final int MAX_ELEMENTOS = 200;
+
+    @Autowired
+    private CatalogoService catalogoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private FindMePostRepo findMePostRepo;
+
+    /**
+     * Método para obtener en un solo lote productos, imágenes, categorías y publicaciones "Encuéntrame".
+     * Los ids repetidos se resuelven una sola vez y los que no existen se devuelven en noEncontrados.
+     *
+     * @param idsProductos los ids de los productos (puede ser null)
+     * @param idsImagenes los ids de las imágenes (puede ser null)
+     * @param idsCategorias los ids de las categorías (puede ser null)
+     * @param idsFindMePosts los ids de las publicaciones "Encuéntrame" (puede ser null)
+     * @return el resultado del lote
+     * @throws LoteException.DemasiadosElementos si se piden más de MAX_ELEMENTOS ids
+     */
+    @Transactional(readOnly = true)
+    public LoteDTO obtenerLote(List<Long> idsProductos, List<Long> idsImagenes, List<Long> idsCategorias, List<Long> idsFindMePosts) {
+        Set<Long> productos = sinRepetir(idsProductos);
+        Set<Long> imagenes = sinRepetir(idsImagenes);
+        Set<Long> categorias = sinRepetir(idsCategorias);
+        Set<Long> findMePosts = sinRepetir(idsFindMePosts);
+        if (productos.size() + imagenes.size() + categorias.size() + findMePosts.size() > MAX_ELEMENTOS) {
+            throw new LoteException.DemasiadosElementos(MAX_ELEMENTOS);
+        }
+
+        LoteDTO lote = new LoteDTO();
+        lote.setProductos(catalogoService.obtenerProductos(productos));
+        lote.setImagenes(catalogoService.obtenerImagenes(imagenes));
+
+        Map<Long, CategoriaResumenDTO> mapaCategorias = new HashMap<>();
+        if (!categorias.isEmpty()) {
+            categoriaService.obtenerResumenes().forEach(c -> mapaCategorias.put(c.getId(), c));
+        }
+        lote.setCategorias(ordenar(categorias, mapaCategorias));
+
+        Map<Long, FindMePostDTO> mapaFindMePosts = new HashMap<>();
+        if (!findMePosts.isEmpty()) {
+            for (FindMePost post : findMePostRepo.findAllById(findMePosts)) {
+                mapaFindMePosts.put(post.getId(), FindMePostMapper.toDTO(post));
+            }
+        }
+        lote.setFindMePosts(ordenar(findMePosts, mapaFindMePosts));
+
+        anotarNoEncontrados(lote, LoteDTO.PRODUCTOS, productos, lote.getProductos());
+        anotarNoEncontrados(lote, LoteDTO.IMAGENES, imagenes, lote.getImagenes());
+        anotarNoEncontrados(lote, LoteDTO.CATEGORIAS, categorias, lote.getCategorias());
+        anotarNoEncontrados(lote, LoteDTO.FIND_ME_POSTS, findMePosts, lote.getFindMePosts());
+        return lote;
+    }
+
+    /**
+     * Método helper para quitar los ids repetidos o nulos conservando el orden.
+     *
+     * @param ids los ids recibidos (puede ser null)
+     * @return los ids sin repetir
+     */
+    private static Set<Long> sinRepetir(List<Long> ids) {
+        Set<Long> resultado = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(id -> id != null).forEach(resultado::add);
+        }
+        return resultado;
+    }
+
+    /**
+     * Método helper para devolver los elementos encontrados en el orden de los ids pedidos.
+     *
+     * @param ids los ids pedidos
+     * @param encontrados los elementos encontrados, indexados por id
+     * @return un mapa ordenado con los elementos encontrados
+     */
+    private static <T> Map<Long, T> ordenar(Set<Long> ids, Map<Long, T> encontrados) {
+        Map<Long, T> resultado = new LinkedHashMap<>();
+        for (Long id : ids) {
+            T elemento = encontrados.get(id);
+            if (elemento != null) {
+                resultado.put(id, elemento);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Método helper para anotar los ids de un tipo de recurso que no se han encontrado.
+     *
+     * @param lote el lote
+     * @param tipo el tipo de recurso
+     * @param ids los ids pedidos
+     * @param encontrados los elementos encontrados
+     */
+    private static void anotarNoEncontrados(LoteDTO lote, String tipo, Set<Long> ids, Map<Long, ?> encontrados) {
+        List<Long> faltan = new ArrayList<>();
+        for (Long id : ids) {
+            if (!encontrados.containsKey(id)) {
+                faltan.add(id);
+            }
+        }
+        if (!faltan.isEmpty()) {
+            lote.getNoEncontrados().put(tipo, faltan);
+        }
+    }
+}
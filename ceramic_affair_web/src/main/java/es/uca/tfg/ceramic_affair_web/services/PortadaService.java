@@ -0,0 +1,130 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostMapper;
+import es.uca.tfg.ceramic_affair_web.DTOs.PortadaDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
+import es.uca.tfg.ceramic_affair_web.repositories.FindMePostRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+
+/**
+ * Servicio para obtener los datos agregados de la página de inicio.
+ * Se calculan con un número fijo de consultas, independiente del número de categorías: los resúmenes de las
+ * categorías, los ids de los productos más recientes de cada una (función de ventana), esos productos con sus
+ * relaciones y las próximas publicaciones "Encuéntrame".
+ * El resultado se guarda durante TTL mientras no cambie la revisión del contenido público; el TTL hace que las
+ * publicaciones que terminan dejen de mostrarse aunque no haya modificaciones.
+ *
+ * @version 1.0
+ */
+@Service
+public class PortadaService {
+
+    /**
+     * Número máximo de productos por categoría que se pueden pedir.
+     */
+    public static final int MAX_PRODUCTOS_POR_CATEGORIA = 12;
+
+    /**
+     * Número de próximas publicaciones "Encuéntrame" de la portada.
+     */
+    public static final int NUMERO_PUBLICACIONES = 3;
+
+    /**
+     * Tiempo máximo que se reutiliza una portada calculada.
+     */
+    public static final Duration TTL = Duration.ofSeconds(30);
+
+    private static final Comparator<ProductoDTO> MAS_RECIENTES = Comparator
+        .comparing(ProductoDTO::getFechaCreacion, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(ProductoDTO::getId, Comparator.reverseOrder());
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private FindMePostRepo findMePostRepo;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private record Entrada(long revision, long caducidad, PortadaDTO portada) {
+    }
+
+    // Portadas calculadas por número de productos por categoría (como mucho MAX_PRODUCTOS_POR_CATEGORIA entradas)
+    private final Map<Integer, Entrada> cache = new ConcurrentHashMap<>();
+
+    // Cálculos en curso, para que las visitas simultáneas tras caducar la portada compartan uno
+    private final ConsultasCompartidas<List<Long>, PortadaDTO> calculosEnCurso = new ConsultasCompartidas<>();
+
+    /**
+     * Método para obtener los datos de la página de inicio.
+     *
+     * @param porCategoria el número de productos más recientes por categoría (entre 1 y MAX_PRODUCTOS_POR_CATEGORIA)
+     * @return los datos de la portada (compartidos, no se deben modificar)
+     */
+    public PortadaDTO obtenerPortada(int porCategoria) {
+        int numero = Math.max(1, Math.min(porCategoria, MAX_PRODUCTOS_POR_CATEGORIA));
+
+        // La revisión se lee antes de consultar: una modificación concurrente invalidará el resultado
+        long revision = revisionCatalogo.getRevision();
+        Entrada entrada = cache.get(numero);
+        if (entrada != null && entrada.revision() == revision && System.nanoTime() - entrada.caducidad() < 0) {
+            return entrada.portada();
+        }
+
+        return calculosEnCurso.obtener(List.of(revision, (long) numero), () -> {
+            TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+            lectura.setReadOnly(true);
+            PortadaDTO portada = lectura.execute(status -> calcular(numero));
+            cache.put(numero, new Entrada(revision, System.nanoTime() + TTL.toNanos(), portada));
+            return portada;
+        });
+    }
+
+    /**
+     * Método helper para calcular los datos de la portada.
+     *
+     * @param numero el número de productos más recientes por categoría
+     * @return los datos de la portada
+     */
+    private PortadaDTO calcular(int numero) {
+        List<Long> ids = productoRepo.findIdsMasRecientesPorCategoria(numero);
+        Map<Long, List<ProductoDTO>> porCategoria = ids.isEmpty() ? Map.of()
+            : productoRepo.findConRelacionesByIdIn(ids).stream()
+                .map(ProductoMapper::toDTO)
+                .filter(producto -> producto.getIdCategoria() != null)
+                .sorted(MAS_RECIENTES)
+                .collect(Collectors.groupingBy(ProductoDTO::getIdCategoria));
+
+        List<PortadaDTO.Seccion> secciones = new ArrayList<>();
+        for (CategoriaResumenDTO categoria : categoriaService.obtenerResumenes()) {
+            secciones.add(new PortadaDTO.Seccion(categoria, porCategoria.getOrDefault(categoria.getId(), List.of())));
+        }
+
+        return new PortadaDTO(secciones, FindMePostMapper.toDTOList(
+            findMePostRepo.findByFechaFinAfterOrderByFechaInicioAsc(LocalDateTime.now(), Limit.of(NUMERO_PUBLICACIONES))));
+    }
+}
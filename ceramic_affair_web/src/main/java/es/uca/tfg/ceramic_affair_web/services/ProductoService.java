@@ -1,34 +1,67 @@
 package es.uca.tfg.ceramic_affair_web.services;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoCursor;
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoStockLoteDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ResultadoStockDTO;
 import es.uca.tfg.ceramic_affair_web.entities.Categoria;
 import es.uca.tfg.ceramic_affair_web.entities.Imagen;
 import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
 import es.uca.tfg.ceramic_affair_web.exceptions.CategoriaException;
+import es.uca.tfg.ceramic_affair_web.exceptions.ConcurrenciaException;
+import es.uca.tfg.ceramic_affair_web.exceptions.LoteException;
 import es.uca.tfg.ceramic_affair_web.exceptions.ProductoException;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
 import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
 import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
 import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
 import es.uca.tfg.ceramic_affair_web.repositories.ProductoSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 /**
  * Servicio para la entidad Producto.
  * 
- * @version 1.1
+ * @version 1.12
  */
 @Service
 public class ProductoService {
 
+    /**
+     * Número máximo de productos por actualización de stock por lotes.
+     */
+    public static final int MAX_STOCK_LOTE = 500;
+
     @Autowired
     private ProductoRepo productoRepo;
 
@@ -41,6 +74,24 @@ public class ProductoService {
     @Autowired
     private ImagenRepo imagenRepo;
 
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Consultas de filtrado en curso, para agrupar las peticiones idénticas simultáneas
+    private final ConsultasCompartidas<List<Object>, Page<ProductoDTO>> filtradosEnCurso = new ConsultasCompartidas<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * Método para insertar un nuevo producto
      * 
@@ -48,6 +99,7 @@ public class ProductoService {
      * @return el id del producto insertado
      * @throws CategoriaException.NoEncontrada si la categoría no existe
      */
+    @Transactional
     public Long insertarProducto(ProductoDTO productoDTO) {
         // 1. Obtener la categoría por su id
         Categoria categoria = categoriaRepo.findById(productoDTO.getIdCategoria())
@@ -63,6 +115,8 @@ public class ProductoService {
 
         // 4. Guardar el producto y devolver su id
         productoRepo.save(producto);
+        busquedaService.indexar(producto);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.CREACION, producto.getId()));
         return producto.getId();
     }
 
@@ -74,10 +128,29 @@ public class ProductoService {
      * @throws ProductoException.NoEncontrado si no se encuentra el producto
      * @throws CategoriaException.NoEncontrada si la categoría no existe
      */
+    @Transactional
     public void modificarProducto(Long id, ProductoDTO productoDTO) {
-        // 1. Obtener el producto por su id
+        modificarProducto(id, productoDTO, null);
+    }
+
+    /**
+     * Método para modificar un producto comprobando antes su versión (bloqueo optimista).
+     * Si otra transacción lo modifica entre la comprobación y el commit, Hibernate rechaza
+     * la actualización con una OptimisticLockingFailureException.
+     * 
+     * @param id el id del producto a modificar
+     * @param productoDTO el DTO del producto con los nuevos datos
+     * @param versionEsperada la versión que el cliente leyó (null para no comprobarla)
+     * @throws ProductoException.NoEncontrado si no se encuentra el producto
+     * @throws CategoriaException.NoEncontrada si la categoría no existe
+     * @throws ConcurrenciaException.VersionNoCoincide si el producto ha cambiado desde que se leyó
+     */
+    @Transactional
+    public void modificarProducto(Long id, ProductoDTO productoDTO, Long versionEsperada) {
+        // 1. Obtener el producto por su id y comprobar su versión
         Producto producto = productoRepo.findById(id)
             .orElseThrow(() -> new ProductoException.NoEncontrado(id));
+        comprobarVersion(producto, versionEsperada);
 
         // 2. Actualizar los campos del producto
         Categoria categoria = categoriaRepo.findById(productoDTO.getIdCategoria())
@@ -99,6 +172,8 @@ public class ProductoService {
 
         // 3. Guardar el producto modificado
         productoRepo.save(producto);
+        busquedaService.indexar(producto);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, id));
     }
 
     /**
@@ -108,16 +183,91 @@ public class ProductoService {
      * @param soldOut true si el producto está agotado, false si está en stock
      * @throws ProductoException.NoEncontrado si no se encuentra el producto
      */
+    @Transactional
     public void establecerStock(Long id, boolean soldOut) {
-        // 1. Obtener el producto por su id
+        establecerStock(id, soldOut, null);
+    }
+
+    /**
+     * Método para establecer el stock de un producto comprobando antes su versión (bloqueo optimista).
+     * 
+     * @param id el id del producto a modificar
+     * @param soldOut true si el producto está agotado, false si está en stock
+     * @param versionEsperada la versión que el cliente leyó (null para no comprobarla)
+     * @throws ProductoException.NoEncontrado si no se encuentra el producto
+     * @throws ConcurrenciaException.VersionNoCoincide si el producto ha cambiado desde que se leyó
+     */
+    @Transactional
+    public void establecerStock(Long id, boolean soldOut, Long versionEsperada) {
+        // 1. Obtener el producto por su id y comprobar su versión
         Producto producto = productoRepo.findById(id)
             .orElseThrow(() -> new ProductoException.NoEncontrado(id));
+        comprobarVersion(producto, versionEsperada);
 
         // 2. Actualizar el estado de stock del producto
         producto.setSoldOut(soldOut);
 
         // 3. Guardar el producto modificado
         productoRepo.save(producto);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, id));
+    }
+
+    /**
+     * Método para establecer el stock de varios productos en una sola transacción.
+     * Lee el estado actual de todos con una consulta y aplica los cambios con como mucho
+     * dos sentencias UPDATE (una por cada valor de soldOut), sin cargar ni guardar producto a producto.
+     * Si un id aparece varias veces prevalece el último valor.
+     * 
+     * @param elementos los pares {id, soldOut} a aplicar
+     * @return el resultado de cada id, en el orden de la petición
+     * @throws LoteException.DemasiadosElementos si se piden más de MAX_STOCK_LOTE productos
+     */
+    @Transactional
+    public List<ResultadoStockDTO> establecerStockLote(List<ProductoStockLoteDTO.Elemento> elementos) {
+        if (elementos.size() > MAX_STOCK_LOTE) {
+            throw new LoteException.DemasiadosElementos(MAX_STOCK_LOTE);
+        }
+
+        // 1. Estado pedido por id (el último valor prevalece)
+        Map<Long, Boolean> pedidos = new LinkedHashMap<>();
+        elementos.forEach(elemento -> pedidos.put(elemento.getId(), elemento.getSoldOut()));
+
+        // 2. Estado actual de los productos existentes, en una sola consulta
+        Map<Long, Boolean> actuales = productoRepo.findEstadoStockByIdIn(pedidos.keySet()).stream()
+            .collect(Collectors.toMap(ProductoRepo.EstadoStock::getId, ProductoRepo.EstadoStock::getSoldOut));
+
+        // 3. Clasificar cada id y agrupar los que cambian por su nuevo valor
+        List<ResultadoStockDTO> resultados = new ArrayList<>(pedidos.size());
+        List<Long> agotar = new ArrayList<>();
+        List<Long> reponer = new ArrayList<>();
+        pedidos.forEach((id, soldOut) -> {
+            Boolean actual = actuales.get(id);
+            if (actual == null) {
+                resultados.add(new ResultadoStockDTO(id, ResultadoStockDTO.Estado.NO_ENCONTRADO));
+            } else if (actual.equals(soldOut)) {
+                resultados.add(new ResultadoStockDTO(id, ResultadoStockDTO.Estado.SIN_CAMBIOS));
+            } else {
+                (soldOut ? agotar : reponer).add(id);
+                resultados.add(new ResultadoStockDTO(id, ResultadoStockDTO.Estado.ACTUALIZADO));
+            }
+        });
+
+        // 4. Aplicar los cambios con sentencias por conjuntos
+        LocalDateTime ahora = LocalDateTime.now();
+        if (!agotar.isEmpty()) {
+            productoRepo.actualizarStock(agotar, true, ahora);
+        }
+        if (!reponer.isEmpty()) {
+            productoRepo.actualizarStock(reponer, false, ahora);
+        }
+
+        // 5. Un único evento para invalidar las cachés de lectura una sola vez, con los ids para el registro de cambios
+        if (!agotar.isEmpty() || !reponer.isEmpty()) {
+            List<Long> modificados = new ArrayList<>(agotar);
+            modificados.addAll(reponer);
+            eventPublisher.publishEvent(CatalogoModificadoEvent.deVarias(Entidad.PRODUCTO, Operacion.MODIFICACION, modificados));
+        }
+        return resultados;
     }
 
     /**
@@ -132,6 +282,19 @@ public class ProductoService {
             .orElseThrow(() -> new ProductoException.NoEncontrado(id));
     }
 
+    /**
+     * Método para obtener el DTO de un producto por su id, leído de la base de datos y no de la instantánea
+     * del catálogo, para que su versión sea la vigente
+     * 
+     * @param id el id del producto a obtener
+     * @return el DTO del producto con el id especificado
+     * @throws ProductoException.NoEncontrado si no se encuentra el producto
+     */
+    @Transactional(readOnly = true)
+    public ProductoDTO obtenerDTOPorId(Long id) {
+        return ProductoMapper.toDTO(obtenerPorId(id));
+    }
+
     /**
      * Método para obtener una lista de productos según un filtro
      * 
@@ -140,16 +303,156 @@ public class ProductoService {
      * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
      * @param orden el orden "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
      * @param pageable objeto Pageable para la paginación
-     * @return una lista de productos que cumplen con los filtros
+     * @return una página con los DTOs de los productos que cumplen con los filtros
+     */
+    public Page<ProductoDTO> filtrarProductos(String nombre, Long categoria, Boolean soloEnStock, String orden, Pageable pageable) {
+        return filtrarProductos(nombre, categoria, soloEnStock, null, orden, pageable);
+    }
+
+    /**
+     * Método para obtener una lista de productos según un filtro, incluidos los rangos de precio y dimensiones.
+     * Las peticiones idénticas que llegan a la vez comparten una única consulta, que se ejecuta en su propia
+     * transacción de solo lectura: las que esperan no ocupan una conexión a la base de datos.
+     * 
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro (null si no se desea filtrar por rangos)
+     * @param orden "baratos" o "caros" para ordenar por precio, "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
+     * @param pageable objeto Pageable para la paginación
+     * @return una página con los DTOs de los productos que cumplen con los filtros (compartida, no se debe modificar)
+     */
+    public Page<ProductoDTO> filtrarProductos(String nombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos, String orden,
+                                              Pageable pageable) {
+        // La revisión forma parte de la clave: una petición posterior a una modificación no recibe un resultado anterior a ella
+        List<Object> clave = Arrays.asList(revisionCatalogo.getRevisionCatalogo(), nombre, categoria, soloEnStock,
+            rangos == null ? null : rangos.firma(), orden, pageable);
+        return filtradosEnCurso.obtener(clave, () -> {
+            TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+            lectura.setReadOnly(true);
+            return lectura.execute(status -> consultarFiltrado(nombre, categoria, soloEnStock, rangos, orden, pageable));
+        });
+    }
+
+    /**
+     * Método helper para consultar los productos que cumplen un filtro.
+     * 
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro
+     * @param orden el orden de los productos
+     * @param pageable objeto Pageable para la paginación
+     * @return una página con los DTOs de los productos que cumplen con los filtros
      */
-    public Page<Producto> filtrarProductos(String nombre, Long categoria, Boolean soloEnStock, String orden, Pageable pageable) {
+    private Page<ProductoDTO> consultarFiltrado(String nombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos, String orden,
+                                                Pageable pageable) {
+        // El filtro por nombre se resuelve en el índice de búsqueda; si nada coincide no se consulta la base de datos
+        Set<Long> idsNombre = busquedaService.buscarPorNombre(nombre);
+        if (idsNombre != null && idsNombre.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        Specification<Producto> spec = Specification
+            .where(ProductoSpecifications.conIds(idsNombre))
+            .and(ProductoSpecifications.conCategoria(categoria))
+            .and(ProductoSpecifications.enStock(soloEnStock))
+            .and(ProductoSpecifications.conRangos(rangos))
+            .and(ProductoSpecifications.ordenar(orden));
+
+        return mapearPagina(productoRepo.findAll(spec, pageable));
+    }
+
+    /**
+     * Método para obtener una página de productos según un filtro, paginando por cursor (keyset).
+     * En lugar de OFFSET, busca a partir de la clave (fechaCreacion, id) del producto frontera
+     * y no ejecuta la consulta de recuento, por lo que el coste no crece con la profundidad de la página.
+     * 
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param orden el orden "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
+     * @param cursor el cursor opaco devuelto en la página previa (null o vacío para la primera página)
+     * @param size el tamaño de la página
+     * @return la página de DTOs con los cursores siguiente y anterior
+     * @throws ProductoException.CursorNoValido si el cursor no es válido
+     * @throws ProductoException.OrdenNoValido si el orden es por precio, que no admite la paginación por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoDTO> filtrarProductosPorCursor(String nombre, Long categoria, Boolean soloEnStock, String orden,
+                                                               String cursor, int size) {
+        return filtrarProductosPorCursor(nombre, categoria, soloEnStock, null, orden, cursor, size);
+    }
+
+    /**
+     * Método para obtener una página de productos según un filtro, incluidos los rangos de precio y dimensiones,
+     * paginando por cursor (keyset) sobre la clave (fechaCreacion, id).
+     * 
+     * @param nombre el nombre a aplicar como filtro
+     * @param categoria el id de la categoría a aplicar como filtro
+     * @param soloEnStock true si se desean solo productos en stock, false/null si no se desea filtrar por stock
+     * @param rangos los rangos de precio y dimensiones a aplicar como filtro (null si no se desea filtrar por rangos)
+     * @param orden el orden "viejos" para mas antiguos primero, o cualquier otro valor para más recientes primero
+     * @param cursor el cursor opaco devuelto en la página previa (null o vacío para la primera página)
+     * @param size el tamaño de la página
+     * @return la página de DTOs con los cursores siguiente y anterior
+     * @throws ProductoException.CursorNoValido si el cursor no es válido
+     * @throws ProductoException.OrdenNoValido si el orden es por precio, que no admite la paginación por cursor
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursor<ProductoDTO> filtrarProductosPorCursor(String nombre, Long categoria, Boolean soloEnStock, FiltroRangosDTO rangos,
+                                                               String orden, String cursor, int size) {
+        ProductoCursor.comprobarOrden(orden);
+        ProductoCursor posicion = ProductoCursor.decodificar(cursor);
+        boolean anterior = posicion != null && posicion.esAnterior();
+
+        Set<Long> idsNombre = busquedaService.buscarPorNombre(nombre);
+        if (idsNombre != null && idsNombre.isEmpty()) {
+            return ProductoCursor.paginar(new ArrayList<>(), size, posicion, false);
+        }
+
+        // La página anterior se recorre en sentido contrario y se invierte después
+        boolean ascendente = "viejos".equalsIgnoreCase(orden) != anterior;
+
         Specification<Producto> spec = Specification
-            .where(ProductoSpecifications.nombreLike(nombre))
+            .where(ProductoSpecifications.conIds(idsNombre))
             .and(ProductoSpecifications.conCategoria(categoria))
             .and(ProductoSpecifications.enStock(soloEnStock))
-            .and(ProductoSpecifications.ordenarPorFecha(orden));
+            .and(ProductoSpecifications.conRangos(rangos));
+        if (posicion != null) {
+            spec = spec.and(ProductoSpecifications.despuesDeCursor(posicion.getFechaCreacion(), posicion.getId(), ascendente));
+        }
+
+        // Se pide un elemento de más para saber si quedan productos sin contar el total
+        Sort sort = Sort.by(ascendente ? Sort.Direction.ASC : Sort.Direction.DESC, "fechaCreacion", "id");
+        List<Producto> productos = productoRepo.findBy(spec, query -> query.sortBy(sort).limit(size + 1).all());
 
-        return productoRepo.findAll(spec, pageable);
+        boolean hayMas = productos.size() > size;
+        List<ProductoDTO> contenido = mapearLista(hayMas ? productos.subList(0, size) : productos);
+        if (anterior) {
+            Collections.reverse(contenido);
+        }
+        return ProductoCursor.paginar(contenido, size, posicion, hayMas);
+    }
+
+    /**
+     * Método para buscar productos tolerando erratas, ordenados por relevancia.
+     * La clasificación se resuelve en el índice de búsqueda; solo se consultan los productos de la página pedida.
+     * 
+     * @param texto el texto de la búsqueda
+     * @param pageable objeto Pageable para la paginación
+     * @return una página con los DTOs de los productos, de más a menos relevante
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductoDTO> buscarProductos(String texto, Pageable pageable) {
+        List<Long> ids = busquedaService.buscarAproximado(texto);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(cargarEnOrden(ids), pageable, ids.size());
+        }
+
+        int inicio = (int) Math.min(pageable.getOffset(), ids.size());
+        int fin = Math.min(inicio + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(cargarEnOrden(ids.subList(inicio, fin)), pageable, ids.size());
     }
 
     /**
@@ -159,25 +462,103 @@ public class ProductoService {
      * @throws IOException 
      * @throws ProductoException.NoEncontrado si no se encuentra el producto
      */
+    @Transactional
     public void eliminarProducto(Long id) throws IOException {
         Producto producto = productoRepo.findById(id)
             .orElseThrow(() -> new ProductoException.NoEncontrado(id));
 
-        // Eliminar las imágenes asociadas al producto
-        for (Imagen imagen : producto.getImagenes()) {
-            imagenService.eliminarImagen(imagen.getId());
+        // Quitar el producto de la colección de su categoría si ya está cargada (lo que hacía @PreRemove)
+        Categoria categoria = producto.getCategoria();
+        if (categoria != null && Hibernate.isInitialized(categoria.getProductos())) {
+            categoria.getProductos().remove(producto);
         }
-        
-        productoRepo.delete(producto);
+
+        // Eliminar las imágenes asociadas y el producto con una sentencia cada uno, sin cargarlos fila a fila
+        List<Imagen> imagenes = new ArrayList<>(producto.getImagenes());
+        entityManager.flush();
+        entityManager.detach(producto);
+        imagenService.eliminarImagenes(imagenes);
+        productoRepo.deleteAllByIdInBatch(List.of(id));
+        busquedaService.eliminar(id);
+        eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.ELIMINACION, id));
     }
 
     /**
      * Método para obtener todos los productos
      * 
      * @param pageable objeto Pageable para la paginación
-     * @return una lista de todos los productos
+     * @return una página con los DTOs de todos los productos
      */ 
-    public Page<Producto> obtenerTodos(Pageable pageable) {
-        return productoRepo.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<ProductoDTO> obtenerTodos(Pageable pageable) {
+        return mapearPagina(productoRepo.findAll(pageable));
+    }
+
+    /**
+     * Método helper para cargar productos con sus relaciones en el orden indicado, en una única consulta.
+     * Los ids que ya no existen se descartan.
+     * 
+     * @param ids los ids de los productos, en el orden deseado
+     * @return una lista con los DTOs de los productos
+     */
+    private List<ProductoDTO> cargarEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Producto> cargados = productoRepo.findConRelacionesByIdIn(ids).stream()
+            .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
+        return ids.stream()
+            .map(cargados::get)
+            .filter(producto -> producto != null)
+            .map(ProductoMapper::toDTO)
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Método helper para mapear una página de productos a DTOs sin consultas N+1.
+     * 
+     * @param pagina la página de productos obtenida del repositorio
+     * @return la página con los DTOs de los productos, en el mismo orden
+     */
+    private Page<ProductoDTO> mapearPagina(Page<Producto> pagina) {
+        List<ProductoDTO> contenido = mapearLista(pagina.getContent());
+        return new PageImpl<>(contenido, pagina.getPageable(), pagina.getTotalElements());
+    }
+
+    /**
+     * Método helper para mapear una lista de productos a DTOs sin consultas N+1.
+     * La lista se obtiene primero sin relaciones y, a continuación, se cargan la categoría y las
+     * imágenes de todos sus productos en una única consulta antes de mapearlos.
+     * 
+     * @param productos los productos obtenidos del repositorio
+     * @return una lista mutable con los DTOs de los productos, en el mismo orden
+     */
+    private List<ProductoDTO> mapearLista(List<Producto> productos) {
+        if (productos.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = productos.stream().map(Producto::getId).collect(Collectors.toList());
+        Map<Long, Producto> cargados = productoRepo.findConRelacionesByIdIn(ids).stream()
+            .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
+        return productos.stream()
+            .map(producto -> ProductoMapper.toDTO(cargados.get(producto.getId())))
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Método helper para comprobar que un producto sigue en la versión que leyó el cliente.
+     * 
+     * @param producto el producto cargado
+     * @param versionEsperada la versión esperada (null para no comprobarla)
+     * @throws ConcurrenciaException.VersionNoCoincide si las versiones no coinciden
+     */
+    private static void comprobarVersion(Producto producto, Long versionEsperada) {
+        if (versionEsperada != null && producto.getVersion() != versionEsperada) {
+            throw new ConcurrenciaException.VersionNoCoincide("Product", producto.getId(), producto.getVersion());
+        }
     }
 }
@@ -0,0 +1,205 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+
+/**
+ * Contador de revisiones del contenido público (catálogo y publicaciones "Encuéntrame").
+ * Cada modificación confirmada incrementa la revisión global, que sirve de validador HTTP
+ * (ETag y Last-Modified) para todos los endpoints públicos de lectura, y, si afecta a productos,
+ * categorías o imágenes, la revisión del catálogo, que marca como obsoleto el snapshot de CatalogoService.
+ * Ambas se actualizan juntas, de modo que quien observa una revisión global nunca recibe un snapshot anterior a ella.
+ * Además guarda en memoria un registro acotado de las últimas modificaciones del catálogo (entidad, operación e id),
+ * ordenadas por la revisión en la que se confirmaron, para que los clientes puedan pedir solo lo que ha cambiado.
+ * Se declara en CabecerasCondicionalesConfig para que también esté disponible en las pruebas de controladores.
+ *
+ * @version 1.2
+ */
+public class RevisionCatalogo {
+
+    /**
+     * Modificación confirmada del catálogo.
+     *
+     * @param revision la revisión en la que se confirmó
+     * @param entidad la entidad modificada
+     * @param operacion la operación realizada
+     * @param id el id de la entidad (null si no se conoce)
+     */
+    public record Cambio(long revision, Entidad entidad, Operacion operacion, Long id) {
+    }
+
+    /**
+     * Modificaciones del catálogo posteriores a una revisión.
+     *
+     * @param revision la revisión global hasta la que llegan los cambios
+     * @param cambios los cambios, en orden de revisión
+     */
+    public record Cambios(long revision, List<Cambio> cambios) {
+    }
+
+    // Número máximo de modificaciones guardadas en el registro
+    public static final int MAX_CAMBIOS = 10_000;
+
+    // Instante de arranque: distingue las revisiones de distintas ejecuciones de la aplicación
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile long revision;
+    private volatile long revisionCatalogo;
+    private volatile long ultimaModificacion = System.currentTimeMillis();
+
+    // Registro de modificaciones y revisión más antigua a partir de la cual el registro está completo
+    private final Deque<Cambio> cambios = new ArrayDeque<>();
+    private long revisionMinima;
+
+    /**
+     * Constructor del contador, empezando en la revisión 1.
+     */
+    public RevisionCatalogo() {
+        this(1);
+    }
+
+    /**
+     * Constructor del contador.
+     *
+     * @param revisionInicial la revisión de partida
+     */
+    public RevisionCatalogo(long revisionInicial) {
+        this.revision = revisionInicial;
+        this.revisionCatalogo = revisionInicial;
+        this.revisionMinima = revisionInicial;
+    }
+
+    /**
+     * Método para obtener la revisión global del contenido público.
+     *
+     * @return la revisión global
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Método para obtener la última revisión que modificó productos, categorías o imágenes.
+     *
+     * @return la revisión del catálogo
+     */
+    public long getRevisionCatalogo() {
+        return revisionCatalogo;
+    }
+
+    /**
+     * Método para obtener el instante de la última modificación confirmada
+     * (o del arranque, si no ha habido ninguna).
+     *
+     * @return el instante en milisegundos desde epoch
+     */
+    public long getUltimaModificacion() {
+        return ultimaModificacion;
+    }
+
+    /**
+     * Método para obtener la ETag fuerte de la revisión global.
+     *
+     * @return la ETag, entre comillas
+     */
+    public String getEtag() {
+        return "\"" + arranque + "-" + revision + "\"";
+    }
+
+    /**
+     * Método para registrar una modificación confirmada de la que no se conocen las entidades afectadas.
+     *
+     * @param entidad la entidad modificada
+     */
+    public void registrarModificacion(Entidad entidad) {
+        registrarModificacion(entidad, Operacion.MODIFICACION, List.of());
+    }
+
+    /**
+     * Método para registrar una modificación confirmada.
+     *
+     * @param entidad la entidad modificada
+     * @param operacion la operación realizada
+     * @param ids los ids de las entidades afectadas (vacía si no se conocen)
+     */
+    public synchronized void registrarModificacion(Entidad entidad, Operacion operacion, List<Long> ids) {
+        long siguiente = revision + 1;
+        if (entidad != Entidad.FIND_ME_POST) {
+            // Primero la revisión del catálogo: quien vea la nueva revisión global ya verá el snapshot obsoleto
+            revisionCatalogo = siguiente;
+            if (ids.isEmpty()) {
+                anotar(new Cambio(siguiente, entidad, operacion, null));
+            } else {
+                ids.forEach(id -> anotar(new Cambio(siguiente, entidad, operacion, id)));
+            }
+        }
+        ultimaModificacion = Math.max(ultimaModificacion, System.currentTimeMillis());
+        revision = siguiente;
+    }
+
+    /**
+     * Método para obtener las modificaciones del catálogo confirmadas después de una revisión.
+     *
+     * @param desde la última revisión conocida por el cliente
+     * @return los cambios posteriores, o null si el registro ya no los contiene todos
+     *         (la revisión es anterior al registro o de otra ejecución de la aplicación)
+     */
+    public synchronized Cambios cambiosDesde(long desde) {
+        if (desde < revisionMinima || desde > revision) {
+            return null;
+        }
+        List<Cambio> posteriores = new ArrayList<>();
+        Iterator<Cambio> it = cambios.descendingIterator();
+        while (it.hasNext()) {
+            Cambio cambio = it.next();
+            if (cambio.revision() <= desde) {
+                break;
+            }
+            posteriores.add(cambio);
+        }
+        Collections.reverse(posteriores);
+        return new Cambios(revision, posteriores);
+    }
+
+    /**
+     * Orden del registro de las modificaciones entre los listeners posteriores al commit: después de los que necesitan
+     * la revisión anterior (EventosCatalogoService) y antes de los que purgan cachés (CacheRespuestas).
+     */
+    public static final int ORDEN_REGISTRO = 0;
+
+    /**
+     * Registra cada modificación del catálogo tras el commit de la transacción que la originó.
+     * Si la modificación se realiza fuera de una transacción, se procesa inmediatamente.
+     *
+     * @param evento el evento de modificación del catálogo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(ORDEN_REGISTRO)
+    public void alModificarCatalogo(CatalogoModificadoEvent evento) {
+        registrarModificacion(evento.getEntidad(), evento.getOperacion(), evento.getIds());
+    }
+
+    /**
+     * Método helper para añadir una modificación al registro, descartando la más antigua si está lleno.
+     *
+     * @param cambio la modificación
+     */
+    private void anotar(Cambio cambio) {
+        if (cambios.size() >= MAX_CAMBIOS) {
+            // A partir de ahora el registro solo está completo desde la revisión descartada
+            revisionMinima = Math.max(revisionMinima, cambios.removeFirst().revision());
+        }
+        cambios.addLast(cambio);
+    }
+}
@@ -0,0 +1,288 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.SugerenciaDTO;
+
+/**
+ * Árbol radix (trie compacto) para el autocompletado de nombres de producto.
+ * Cada producto se indexa por su nombre normalizado y por cada sufijo que empieza en una palabra,
+ * de modo que "azu" sugiere "Jarrón azul". Cada nodo guarda precalculadas las MAX_SUGERENCIAS
+ * mejores entradas de su subárbol por peso (los productos más recientes primero), por lo que
+ * una consulta solo recorre el prefijo y copia la lista del nodo alcanzado.
+ * No es seguro para hilos: BusquedaService serializa las escrituras y protege las lecturas.
+ *
+ * @version 1.0
+ */
+public final class TrieSugerencias {
+
+    /**
+     * Número máximo de sugerencias que se pueden pedir en una consulta.
+     */
+    public static final int MAX_SUGERENCIAS = 10;
+
+    private static final Comparator<Entrada> POR_PESO = Comparator
+        .comparingLong(Entrada::peso).reversed()
+        .thenComparing(Comparator.comparing(Entrada::id).reversed());
+
+    /**
+     * Producto sugerible: su nombre original y su peso (mayor peso, antes se sugiere).
+     */
+    private record Entrada(Long id, String nombre, long peso) {
+    }
+
+    private static final class Nodo {
+        // Etiqueta de la arista que llega a este nodo
+        private String etiqueta;
+        private final Map<Character, Nodo> hijos = new HashMap<>();
+        // Entradas cuya clave termina exactamente en este nodo
+        private final List<Entrada> terminales = new ArrayList<>();
+        // Mejores entradas del subárbol, ordenadas por peso y sin ids repetidos
+        private List<Entrada> mejores = new ArrayList<>();
+
+        private Nodo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+
+    private final Nodo raiz = new Nodo("");
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+
+    /**
+     * Método para añadir un producto, sustituyendo la versión anterior si existía.
+     *
+     * @param id     el id del producto
+     * @param nombre el nombre del producto
+     * @param peso   el peso del producto (por ejemplo, su fecha de creación en segundos)
+     */
+    public void anadir(Long id, String nombre, long peso) {
+        quitar(id);
+        if (nombre == null || nombre.isBlank()) {
+            return;
+        }
+        Entrada entrada = new Entrada(id, nombre, peso);
+        entradas.put(id, entrada);
+        for (String clave : claves(nombre)) {
+            insertar(clave, entrada);
+        }
+    }
+
+    /**
+     * Método para quitar un producto.
+     *
+     * @param id el id del producto
+     */
+    public void quitar(Long id) {
+        Entrada entrada = entradas.remove(id);
+        if (entrada == null) {
+            return;
+        }
+        for (String clave : claves(entrada.nombre())) {
+            eliminar(raiz, clave, entrada);
+        }
+    }
+
+    /**
+     * Método para obtener las sugerencias para un prefijo.
+     *
+     * @param prefijo el prefijo escrito por el usuario
+     * @param limite  el número máximo de sugerencias (como mucho MAX_SUGERENCIAS)
+     * @return las sugerencias, de mayor a menor peso
+     */
+    public List<SugerenciaDTO> sugerir(String prefijo, int limite) {
+        String consulta = IndiceBusqueda.normalizar(prefijo).strip();
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        Nodo nodo = raiz;
+        int posicion = 0;
+        while (posicion < consulta.length()) {
+            Nodo hijo = nodo.hijos.get(consulta.charAt(posicion));
+            if (hijo == null) {
+                return List.of();
+            }
+            int comun = prefijoComun(hijo.etiqueta, consulta, posicion);
+            if (comun < hijo.etiqueta.length() && posicion + comun < consulta.length()) {
+                return List.of(); // Divergen dentro de la arista
+            }
+            posicion += comun;
+            nodo = hijo;
+        }
+
+        List<SugerenciaDTO> resultado = new ArrayList<>();
+        for (Entrada entrada : nodo.mejores) {
+            if (resultado.size() >= Math.min(limite, MAX_SUGERENCIAS)) {
+                break;
+            }
+            resultado.add(new SugerenciaDTO(entrada.id(), entrada.nombre()));
+        }
+        return resultado;
+    }
+
+    /**
+     * Método para obtener el número de productos sugeribles.
+     *
+     * @return el número de productos
+     */
+    public int getNumeroProductos() {
+        return entradas.size();
+    }
+
+    /**
+     * Método helper para obtener las claves de un nombre: el nombre normalizado
+     * y cada sufijo que empieza al principio de una palabra.
+     *
+     * @param nombre el nombre del producto
+     * @return las claves, sin repetir
+     */
+    private static Set<String> claves(String nombre) {
+        String normalizado = IndiceBusqueda.normalizar(nombre).strip();
+        Set<String> resultado = new LinkedHashSet<>();
+        for (int i = 0; i < normalizado.length(); i++) {
+            boolean inicioPalabra = Character.isLetterOrDigit(normalizado.charAt(i))
+                && (i == 0 || !Character.isLetterOrDigit(normalizado.charAt(i - 1)));
+            if (inicioPalabra) {
+                resultado.add(normalizado.substring(i));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Método helper para insertar una clave, dividiendo aristas cuando es necesario
+     * y actualizando las mejores entradas de los nodos recorridos.
+     *
+     * @param clave   la clave normalizada
+     * @param entrada la entrada a insertar
+     */
+    private void insertar(String clave, Entrada entrada) {
+        Nodo nodo = raiz;
+        ofrecer(nodo, entrada);
+        int posicion = 0;
+        while (posicion < clave.length()) {
+            char siguiente = clave.charAt(posicion);
+            Nodo hijo = nodo.hijos.get(siguiente);
+            if (hijo == null) {
+                hijo = new Nodo(clave.substring(posicion));
+                nodo.hijos.put(siguiente, hijo);
+                posicion = clave.length();
+            } else {
+                int comun = prefijoComun(hijo.etiqueta, clave, posicion);
+                if (comun < hijo.etiqueta.length()) {
+                    // Dividir la arista: el nodo intermedio hereda las mejores entradas del hijo
+                    Nodo intermedio = new Nodo(hijo.etiqueta.substring(0, comun));
+                    hijo.etiqueta = hijo.etiqueta.substring(comun);
+                    intermedio.hijos.put(hijo.etiqueta.charAt(0), hijo);
+                    intermedio.mejores = new ArrayList<>(hijo.mejores);
+                    nodo.hijos.put(siguiente, intermedio);
+                    hijo = intermedio;
+                }
+                posicion += comun;
+            }
+            nodo = hijo;
+            ofrecer(nodo, entrada);
+        }
+        nodo.terminales.add(entrada);
+    }
+
+    /**
+     * Método helper para eliminar una clave y recalcular las mejores entradas del camino.
+     * Los nodos que quedan vacíos se podan y los que quedan con un único hijo se fusionan con él.
+     *
+     * @param nodo     el nodo actual
+     * @param resto    la parte de la clave que queda por recorrer
+     * @param entrada  la entrada a eliminar
+     */
+    private void eliminar(Nodo nodo, String resto, Entrada entrada) {
+        if (resto.isEmpty()) {
+            nodo.terminales.remove(entrada);
+        } else {
+            Nodo hijo = nodo.hijos.get(resto.charAt(0));
+            if (hijo == null || !resto.startsWith(hijo.etiqueta)) {
+                return;
+            }
+            eliminar(hijo, resto.substring(hijo.etiqueta.length()), entrada);
+            if (hijo.terminales.isEmpty() && hijo.hijos.isEmpty()) {
+                nodo.hijos.remove(resto.charAt(0));
+            } else if (hijo.terminales.isEmpty() && hijo.hijos.size() == 1) {
+                Nodo nieto = hijo.hijos.values().iterator().next();
+                nieto.etiqueta = hijo.etiqueta + nieto.etiqueta;
+                nodo.hijos.put(resto.charAt(0), nieto);
+            }
+        }
+        recalcular(nodo);
+    }
+
+    /**
+     * Método helper para recalcular las mejores entradas de un nodo a partir de sus terminales
+     * y de las mejores entradas de sus hijos.
+     *
+     * @param nodo el nodo
+     */
+    private static void recalcular(Nodo nodo) {
+        List<Entrada> candidatas = new ArrayList<>(nodo.terminales);
+        for (Nodo hijo : nodo.hijos.values()) {
+            candidatas.addAll(hijo.mejores);
+        }
+        candidatas.sort(POR_PESO);
+
+        List<Entrada> mejores = new ArrayList<>(MAX_SUGERENCIAS);
+        Set<Long> vistos = new HashSet<>();
+        for (Entrada candidata : candidatas) {
+            if (mejores.size() >= MAX_SUGERENCIAS) {
+                break;
+            }
+            if (vistos.add(candidata.id())) {
+                mejores.add(candidata);
+            }
+        }
+        nodo.mejores = mejores;
+    }
+
+    /**
+     * Método helper para ofrecer una entrada a las mejores de un nodo, manteniendo el orden y el límite.
+     *
+     * @param nodo    el nodo
+     * @param entrada la entrada
+     */
+    private static void ofrecer(Nodo nodo, Entrada entrada) {
+        List<Entrada> mejores = nodo.mejores;
+        if (mejores.stream().anyMatch(e -> e.id().equals(entrada.id()))) {
+            return;
+        }
+        int posicion = 0;
+        while (posicion < mejores.size() && POR_PESO.compare(mejores.get(posicion), entrada) < 0) {
+            posicion++;
+        }
+        if (posicion < MAX_SUGERENCIAS) {
+            mejores.add(posicion, entrada);
+            if (mejores.size() > MAX_SUGERENCIAS) {
+                mejores.remove(mejores.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Método helper para calcular la longitud del prefijo común entre una etiqueta y una clave.
+     *
+     * @param etiqueta la etiqueta de la arista
+     * @param clave    la clave
+     * @param desde    la posición de la clave desde la que comparar
+     * @return el número de caracteres comunes
+     */
+    private static int prefijoComun(String etiqueta, String clave, int desde) {
+        int i = 0;
+        while (i < etiqueta.length() && desde + i < clave.length() && etiqueta.charAt(i) == clave.charAt(desde + i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,61 @@
+package es.uca.tfg.ceramic_affair_web.controllers;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.EstadisticasCacheDTO;
+import es.uca.tfg.ceramic_affair_web.controllers.admin.CacheAdminController;
+import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
+import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.services.EstadisticasCacheService;
+
+/**
+ * Clase de prueba para el controlador CacheAdminController.
+ * Proporciona pruebas de capa web para la consulta de las estadísticas de la caché,
+ * simulando peticiones HTTP sin interactuar con la base de datos.
+ *
+ * @version 1.0
+ */
+@WebMvcTest(controllers = { CacheAdminController.class })
+@AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
+public class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EstadisticasCacheService estadisticasCacheService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Test
+    @DisplayName("Controlador - Obtener estadísticas de la caché")
+    void testObtenerEstadisticas() throws Exception {
+        List<EstadisticasCacheDTO.Region> regiones = List.of(new EstadisticasCacheDTO.Region("categoria", 3, 1, 1, 1));
+        when(estadisticasCacheService.obtenerEstadisticas()).thenReturn(new EstadisticasCacheDTO(3, 1, 0, 0, regiones));
+
+        mockMvc.perform(get("/api/admin/cache/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Estadísticas obtenidas"))
+                .andExpect(jsonPath("$.data.ratioAciertos").value(0.75))
+                .andExpect(jsonPath("$.data.ratioAciertosConsultas").value(0.0))
+                .andExpect(jsonPath("$.data.regiones[0].nombre").value("categoria"))
+                .andExpect(jsonPath("$.data.regiones[0].ratioAciertos").value(0.75));
+    }
+}
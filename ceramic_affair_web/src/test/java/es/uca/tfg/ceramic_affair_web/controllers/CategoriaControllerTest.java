@@ -3,6 +3,8 @@ package es.uca.tfg.ceramic_affair_web.controllers;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -12,25 +14,30 @@ import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenDTO;
 import es.uca.tfg.ceramic_affair_web.controllers.admin.CategoriaAdminController;
 import es.uca.tfg.ceramic_affair_web.controllers.common.CategoriaPublicController;
-import es.uca.tfg.ceramic_affair_web.entities.Categoria;
 import es.uca.tfg.ceramic_affair_web.exceptions.CategoriaException;
+import es.uca.tfg.ceramic_affair_web.exceptions.ConcurrenciaException;
 import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
 import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
 import es.uca.tfg.ceramic_affair_web.services.CategoriaService;
+import es.uca.tfg.ceramic_affair_web.services.RevisionCatalogo;
 
 /**
  * Clase de prueba para los endpoints relacionados con la entidad Categoria.
  * Proporciona pruebas de capa web para las operaciones CRUD expuestas en el controlador,
  * simulando peticiones HTTP sin interactuar con la base de datos.
  * 
- * @version 1.1
+ * @version 1.5
  */
 @WebMvcTest(controllers = { CategoriaPublicController.class, CategoriaAdminController.class })
 @AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
@@ -42,6 +49,9 @@ public class CategoriaControllerTest {
     @MockitoBean
     private CategoriaService categoriaService;
 
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
     @MockitoBean
     private JwtUtils jwtUtils;
 
@@ -74,18 +84,61 @@ public class CategoriaControllerTest {
     @Test
     @DisplayName("Controlador - Obtener categoría por ID")
     void testObtenerCategoriaPorId() throws Exception {
-        // Simular la obtención de una categoría por ID
-        Categoria categoria = new Categoria("Cerámica");
+        // Simular la obtención del resumen de una categoría por ID
         Long id = 1L;
+        CategoriaResumenDTO categoria = new CategoriaResumenDTO(id, "Cerámica", 0, 3, 2,
+            new ImagenDTO(9L, "jarron.jpg", "jpg", 800, 600, "/uploads/jarron.jpg"));
 
-        when(categoriaService.obtenerPorId(id)).thenReturn(categoria);
+        when(categoriaService.obtenerResumen(id)).thenReturn(categoria);
 
         // Realizar la petición GET al endpoint de obtención de categoría por ID
         mockMvc.perform(get("/api/public/categorias/{id}", id))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.message").value("Categoría encontrada"))
-                .andExpect(jsonPath("$.data.nombre").value(categoria.getNombre()));
+                .andExpect(jsonPath("$.data.nombre").value(categoria.getNombre()))
+                .andExpect(jsonPath("$.data.numeroProductos").value(3))
+                .andExpect(jsonPath("$.data.numeroEnStock").value(2))
+                .andExpect(jsonPath("$.data.portada.url").value("/uploads/jarron.jpg"))
+                .andExpect(jsonPath("$.data.productos").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Controlador - Modificar categoría con la ETag obtenida en el GET de administración")
+    void testModificarCategoriaConEtag() throws Exception {
+        Long id = 1L;
+        when(categoriaService.obtenerResumen(id)).thenReturn(new CategoriaResumenDTO(id, "Cerámica", 2, 3, 2, null));
+
+        String etag = mockMvc.perform(get("/api/admin/categorias/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+            .andExpect(jsonPath("$.message").value("Categoría encontrada"))
+            .andExpect(jsonPath("$.data.version").value(2))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // La ETag se devuelve tal cual en If-Match y llega al servicio como la versión esperada
+        mockMvc.perform(put("/api/admin/categorias/{id}", id)
+            .header(HttpHeaders.IF_MATCH, etag)
+            .contentType("application/json")
+            .content("{\"nombre\": \"Cerámica Moderna\"}"))
+            .andExpect(status().isOk());
+        verify(categoriaService).modificarCategoria(id, "Cerámica Moderna", 2L);
+    }
+
+    @Test
+    @DisplayName("Controlador - Modificar categoría con la ETag de una lectura pública")
+    void testModificarCategoriaConEtagPublica() throws Exception {
+        Long id = 1L;
+        doThrow(new ConcurrenciaException.VersionNoCoincide("Category", id, 2))
+            .when(categoriaService).modificarCategoria(id, "Cerámica Moderna", -1L);
+
+        // La ETag pública es de la revisión del catálogo, no de la categoría: la precondición no se cumple
+        mockMvc.perform(put("/api/admin/categorias/{id}", id)
+            .header(HttpHeaders.IF_MATCH, revisionCatalogo.getEtag())
+            .contentType("application/json")
+            .content("{\"nombre\": \"Cerámica Moderna\"}"))
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.message").value("Category with ID 1 has been modified, current version is 2"));
     }
 
     @Test
@@ -93,7 +146,7 @@ public class CategoriaControllerTest {
     void testModificarCategoria() throws Exception {
         // Simular la modificación de una categoría existente
         Long id = 1L;
-        doNothing().when(categoriaService).modificarCategoria(id, "Cerámica Moderna");
+        doNothing().when(categoriaService).modificarCategoria(id, "Cerámica Moderna", null);
 
         // Crear el JSON que representa el cuerpo de la petición
         String jsonBody = """
@@ -114,22 +167,24 @@ public class CategoriaControllerTest {
     void testEliminarCategoria() throws Exception {
         // Simular la eliminación de una categoría por ID
         Long id = 1L;
-        doNothing().when(categoriaService).eliminarCategoria(id);
+        when(categoriaService.eliminarCategoria(id, null)).thenReturn(3);
 
         // Realizar la petición DELETE al endpoint de eliminación de categoría
         mockMvc.perform(delete("/api/admin/categorias/{id}", id))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Categoría eliminada con éxito"))
+                .andExpect(jsonPath("$.data").value(3));
     }
 
     @Test
     @DisplayName("Controlador - Obtener todas las categorías")
     void testObtenerTodasLasCategorias() throws Exception {
         // Simular la obtención de todas las categorías
-        List<Categoria> categorias = new ArrayList<>();
-        categorias.add(new Categoria("Cerámica"));
-        categorias.add(new Categoria("Porcelana"));
+        List<CategoriaResumenDTO> categorias = new ArrayList<>();
+        categorias.add(new CategoriaResumenDTO(1L, "Cerámica", 0, 3, 2, null));
+        categorias.add(new CategoriaResumenDTO(2L, "Porcelana", 0, 0, 0, null));
 
-        when(categoriaService.obtenerTodas()).thenReturn(categorias);
+        when(categoriaService.obtenerResumenes()).thenReturn(categorias);
 
         // Realizar la petición GET al endpoint de obtención de todas las categorías
         mockMvc.perform(get("/api/public/categorias/todas"))
@@ -171,7 +226,7 @@ public class CategoriaControllerTest {
     void testObtenerCategoriaPorIdNoEncontrada() throws Exception {
         // Simular la obtención de una categoría por ID que no existe
         Long id = 999L;
-        when(categoriaService.obtenerPorId(id))
+        when(categoriaService.obtenerResumen(id))
             .thenThrow(new CategoriaException.NoEncontrada(id));
 
         // Realizar la petición GET al endpoint de obtención de categoría por ID
@@ -189,7 +244,7 @@ public class CategoriaControllerTest {
         // Simular la eliminación de una categoría que no existe
         Long id = 999L;
         doThrow(new CategoriaException.NoEncontrada("Categoría no encontrada"))
-            .when(categoriaService).eliminarCategoria(id);
+            .when(categoriaService).eliminarCategoria(id, null);
 
         // Realizar la petición DELETE al endpoint de eliminación de categoría
         mockMvc.perform(delete("/api/admin/categorias/{id}", id))
@@ -200,13 +255,29 @@ public class CategoriaControllerTest {
                 .andExpect(jsonPath("$.path").value("/api/admin/categorias/999"));
     }
 
+    @Test
+    @DisplayName("Controlador - Eliminar categoría (versión no coincide)")
+    void testEliminarCategoriaVersionNoCoincide() throws Exception {
+        // El cliente leyó la versión 0, pero la categoría ya está en la 1
+        Long id = 1L;
+        doThrow(new ConcurrenciaException.VersionNoCoincide("Category", id, 1))
+            .when(categoriaService).eliminarCategoria(id, 0L);
+
+        mockMvc.perform(delete("/api/admin/categorias/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.error").value("Business exception"))
+                .andExpect(jsonPath("$.message").value("Category with ID 1 has been modified, current version is 1"));
+    }
+
     @Test
     @DisplayName("Controlador - Modificar categoría (excepción no encontrada)")
     void testModificarCategoriaNoEncontrada() throws Exception {
         // Simular la modificación de una categoría que no existe
         Long id = 999L;
         doThrow(new CategoriaException.NoEncontrada(id))
-            .when(categoriaService).modificarCategoria(id, "Cerámica Moderna");
+            .when(categoriaService).modificarCategoria(id, "Cerámica Moderna", null);
 
         // Crear el JSON que representa el cuerpo de la petición
         String jsonBody = """
@@ -232,7 +303,7 @@ public class CategoriaControllerTest {
         // Simular la modificación de una categoría con un nombre ya existente
         Long id = 1L;
         doThrow(new CategoriaException.YaExistente("Cerámica Moderna"))
-            .when(categoriaService).modificarCategoria(id, "Cerámica Moderna");
+            .when(categoriaService).modificarCategoria(id, "Cerámica Moderna", null);
 
         // Crear el JSON que representa el cuerpo de la petición
         String jsonBody = """
@@ -251,4 +322,42 @@ public class CategoriaControllerTest {
             .andExpect(jsonPath("$.message").value("Category already exists with name Cerámica Moderna"))
             .andExpect(jsonPath("$.path").value("/api/admin/categorias/1"));
     }
+
+    @Test
+    @DisplayName("Controlador - Validadores de las lecturas públicas")
+    void testObtenerCategoriasConValidadores() throws Exception {
+        when(categoriaService.obtenerResumenes()).thenReturn(List.of(new CategoriaResumenDTO(1L, "Jarrones", 0, 0, 0, null)));
+
+        mockMvc.perform(get("/api/public/categorias/todas"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, revisionCatalogo.getEtag()))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Petición condicional sin cambios")
+    void testObtenerCategoriasNoModificadas() throws Exception {
+        // Se responde 304 sin llegar a consultar el servicio
+        mockMvc.perform(get("/api/public/categorias/todas")
+            .header(HttpHeaders.IF_NONE_MATCH, revisionCatalogo.getEtag()))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, revisionCatalogo.getEtag()))
+            .andExpect(content().string(""));
+        verify(categoriaService, never()).obtenerResumenes();
+    }
+
+    @Test
+    @DisplayName("Controlador - Petición condicional tras una modificación")
+    void testObtenerCategoriasModificadas() throws Exception {
+        String etag = revisionCatalogo.getEtag();
+        revisionCatalogo.registrarModificacion(Entidad.CATEGORIA);
+        when(categoriaService.obtenerResumenes()).thenReturn(List.of(new CategoriaResumenDTO(1L, "Jarrones", 0, 0, 0, null)));
+
+        mockMvc.perform(get("/api/public/categorias/todas")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, revisionCatalogo.getEtag()))
+            .andExpect(jsonPath("$.data[0].nombre").value("Jarrones"));
+    }
 }
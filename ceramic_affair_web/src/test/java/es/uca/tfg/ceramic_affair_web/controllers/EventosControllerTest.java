@@ -0,0 +1,79 @@
+package es.uca.tfg.ceramic_affair_web.controllers;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import es.uca.tfg.ceramic_affair_web.controllers.common.EventosPublicController;
+import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
+import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.services.EventosCatalogoService;
+
+/**
+ * Clase de prueba para el controlador EventosPublicController.
+ * Proporciona pruebas de capa web para la suscripción al flujo de eventos del catálogo,
+ * simulando peticiones HTTP sin interactuar con la base de datos.
+ *
+ * @version 1.0
+ */
+@WebMvcTest(controllers = { EventosPublicController.class })
+@AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
+public class EventosControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EventosCatalogoService eventosCatalogoService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Test
+    @DisplayName("Controlador - Suscribirse a los eventos del catálogo")
+    void testSuscribirCatalogo() throws Exception {
+        SseEmitter emisor = new SseEmitter();
+        when(eventosCatalogoService.suscribir()).thenReturn(emisor);
+
+        MvcResult flujo = mockMvc.perform(get("/api/public/eventos/catalogo"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emisor.send(SseEmitter.event().id("7").name("conectado").data("7"));
+        emisor.complete();
+
+        mockMvc.perform(asyncDispatch(flujo))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", MediaType.TEXT_EVENT_STREAM_VALUE))
+                .andExpect(content().string("id:7\nevent:conectado\ndata:7\n\n"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Suscribirse con demasiados suscriptores")
+    void testSuscribirCatalogoLleno() throws Exception {
+        when(eventosCatalogoService.suscribir())
+            .thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many catalog event subscribers"));
+
+        mockMvc.perform(get("/api/public/eventos/catalogo"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
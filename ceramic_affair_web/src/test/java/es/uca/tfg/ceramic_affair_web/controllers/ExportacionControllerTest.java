@@ -0,0 +1,84 @@
+package es.uca.tfg.ceramic_affair_web.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.controllers.admin.ExportacionAdminController;
+import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
+import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.services.ExportacionService;
+
+/**
+ * Clase de prueba para el controlador ExportacionAdminController.
+ * Proporciona pruebas de capa web para la exportación del catálogo en streaming,
+ * simulando peticiones HTTP sin interactuar con la base de datos.
+ *
+ * @version 1.0
+ */
+@WebMvcTest(controllers = { ExportacionAdminController.class })
+@AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
+public class ExportacionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExportacionService exportacionService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Test
+    @DisplayName("Controlador - Exportar el catálogo en CSV")
+    void testExportarCatalogo() throws Exception {
+        doAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(0);
+            salida.write("id,nombre\r\n1,Taza\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportacionService).exportar(any(OutputStream.class), eq(ImportacionDTO.Formato.CSV));
+
+        MvcResult resultado = mockMvc.perform(get("/api/admin/productos/exportar").param("formato", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"catalogo.csv\""))
+                .andExpect(content().string("id,nombre\r\n1,Taza\r\n"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Exportar el catálogo (formato no soportado)")
+    void testExportarCatalogoFormatoNoSoportado() throws Exception {
+        mockMvc.perform(get("/api/admin/productos/exportar").param("formato", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Business exception"))
+                .andExpect(jsonPath("$.message").value("Unsupported export format xml, use csv or ndjson"));
+    }
+}
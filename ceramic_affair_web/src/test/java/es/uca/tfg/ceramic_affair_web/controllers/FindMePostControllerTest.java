@@ -37,7 +37,7 @@ import es.uca.tfg.ceramic_affair_web.services.FindMePostService;
  * Este controlador se utiliza para realizar pruebas unitarias y de integración
  * de las funcionalidades relacionadas con las publicaciones "Encuéntrame".
  * 
- * @version 1.0
+ * @version 1.1
  */
 @WebMvcTest(controllers = {FindMePostPublicController.class, FindMePostAdminController.class})
 @AutoConfigureMockMvc(addFilters = false) // Desactiva los filtros de seguridad para pruebas
@@ -123,7 +123,7 @@ public class FindMePostControllerTest {
                                                          LocalDateTime.of(2023, 11, 1, 12, 0),
                                                          LocalDateTime.of(2023, 11, 30, 12, 0),
                                                          75.0, -35.0);
-        when(findMePostService.obtenerTodas()).thenReturn(List.of(findMePostDTO1, findMePostDTO2));
+        when(findMePostService.obtenerTodas(true)).thenReturn(List.of(findMePostDTO1, findMePostDTO2));
 
         mockMvc.perform(get("/api/public/find-me-posts/todos"))
                 .andExpect(status().isOk())
@@ -135,6 +135,26 @@ public class FindMePostControllerTest {
                 .andExpect(jsonPath("$.data[1].titulo").value("Título 2"));
     }
 
+    @Test
+    @DisplayName("Controlador - Obtener todas las publicaciones 'Encuéntrame' con campos parciales")
+    public void testObtenerTodasLasPublicacionesEncuentrameCamposParciales() throws Exception {
+        FindMePostDTO findMePostDTO = new FindMePostDTO(1L, "Título 1", null,
+                                                        LocalDateTime.of(2023, 10, 1, 12, 0),
+                                                        LocalDateTime.of(2023, 10, 31, 12, 0),
+                                                        70.0, -30.0);
+        // Sin la descripción entre los campos pedidos, se consulta el listado sin descripción
+        when(findMePostService.obtenerTodas(false)).thenReturn(List.of(findMePostDTO));
+
+        mockMvc.perform(get("/api/public/find-me-posts/todos").param("fields", "titulo,fechaInicio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(1))
+                .andExpect(jsonPath("$.data[0].id").value(1L))
+                .andExpect(jsonPath("$.data[0].titulo").value("Título 1"))
+                .andExpect(jsonPath("$.data[0].fechaInicio").value("2023-10-01T12:00:00"))
+                .andExpect(jsonPath("$.data[0].descripcion").doesNotExist())
+                .andExpect(jsonPath("$.data[0].latitud").doesNotExist());
+    }
+
     @Test
     @DisplayName("Controlador - Actualizar publicación 'Encuéntrame' por ID")
     public void testActualizarPublicacionEncuentramePorId() throws Exception {
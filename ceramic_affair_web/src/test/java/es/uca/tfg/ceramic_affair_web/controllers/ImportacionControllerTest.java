@@ -0,0 +1,174 @@
+package es.uca.tfg.ceramic_affair_web.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.controllers.admin.ImportacionAdminController;
+import es.uca.tfg.ceramic_affair_web.exceptions.ImportacionException;
+import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
+import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.services.ImportacionService;
+
+/**
+ * Clase de prueba para el controlador ImportacionAdminController.
+ * Proporciona pruebas de capa web para la importación de productos y la consulta de su progreso,
+ * simulando peticiones HTTP sin interactuar con la base de datos.
+ *
+ * @version 1.1
+ */
+@WebMvcTest(controllers = { ImportacionAdminController.class })
+@AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
+public class ImportacionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImportacionService importacionService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    private static ImportacionDTO informe() {
+        ImportacionDTO informe = new ImportacionDTO();
+        informe.setId("abc");
+        informe.setFormato(ImportacionDTO.Formato.CSV);
+        informe.setEstado(ImportacionDTO.Estado.COMPLETADA);
+        informe.setFilasProcesadas(2);
+        informe.setFilasImportadas(1);
+        informe.setFilasConError(1);
+        informe.setErrores(List.of(new ImportacionDTO.ErrorFila(3, "Category not found with name Platos")));
+        return informe;
+    }
+
+    @Test
+    @DisplayName("Controlador - Importar productos desde CSV")
+    void testImportarProductos() throws Exception {
+        when(importacionService.importar(any(InputStream.class), eq(ImportacionDTO.Formato.CSV), isNull())).thenReturn(informe());
+
+        mockMvc.perform(post("/api/admin/productos/importaciones")
+                .contentType("text/csv")
+                .content("nombre,precio\nTaza,9.99\nPlato,12\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Importación completada"))
+                .andExpect(jsonPath("$.data.filasImportadas").value(1))
+                .andExpect(jsonPath("$.data.errores[0].fila").value(3))
+                .andExpect(jsonPath("$.data.errores[0].mensaje").value("Category not found with name Platos"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Consultar el progreso de una importación mientras se envía el archivo")
+    void testConsultarImportacionEnCurso() throws Exception {
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ImportacionDTO enCurso = informe();
+        enCurso.setId("mi-importacion");
+        enCurso.setEstado(ImportacionDTO.Estado.EN_CURSO);
+        enCurso.setFilasProcesadas(1);
+        ImportacionDTO terminada = informe();
+        terminada.setId("mi-importacion");
+
+        // La importación no termina hasta que la prueba ha consultado su progreso
+        when(importacionService.importar(any(InputStream.class), eq(ImportacionDTO.Formato.CSV), eq("mi-importacion")))
+            .thenAnswer(invocation -> {
+                iniciada.countDown();
+                liberar.await(10, TimeUnit.SECONDS);
+                return terminada;
+            });
+        when(importacionService.obtenerPorId("mi-importacion")).thenReturn(enCurso);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ResultActions> importacion = executor.submit(() -> mockMvc.perform(post("/api/admin/productos/importaciones")
+                .param("id", "mi-importacion")
+                .contentType("text/csv")
+                .content("nombre,precio\nTaza,9.99\nPlato,12\n")));
+
+            iniciada.await(10, TimeUnit.SECONDS);
+            mockMvc.perform(get("/api/admin/productos/importaciones/{id}", "mi-importacion"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.id").value("mi-importacion"))
+                    .andExpect(jsonPath("$.data.estado").value("EN_CURSO"))
+                    .andExpect(jsonPath("$.data.filasProcesadas").value(1));
+
+            liberar.countDown();
+            importacion.get(10, TimeUnit.SECONDS)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.id").value("mi-importacion"))
+                    .andExpect(jsonPath("$.data.estado").value("COMPLETADA"));
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Controlador - Importar productos (id de importación repetido)")
+    void testImportarProductosIdDuplicado() throws Exception {
+        when(importacionService.importar(any(InputStream.class), eq(ImportacionDTO.Formato.CSV), eq("abc")))
+            .thenThrow(new ImportacionException.IdDuplicado("abc"));
+
+        mockMvc.perform(post("/api/admin/productos/importaciones")
+                .param("id", "abc")
+                .contentType("text/csv")
+                .content("nombre,precio\nTaza,9.99\n"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Import already exists with ID abc"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Importar productos (formato no soportado)")
+    void testImportarProductosFormatoNoSoportado() throws Exception {
+        mockMvc.perform(post("/api/admin/productos/importaciones")
+                .contentType("application/json")
+                .content("[]"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.status").value(415))
+                .andExpect(jsonPath("$.error").value("Business exception"))
+                .andExpect(jsonPath("$.message").value("Unsupported import format application/json, use text/csv or application/x-ndjson"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Obtener el progreso de una importación")
+    void testObtenerImportacion() throws Exception {
+        when(importacionService.obtenerPorId("abc")).thenReturn(informe());
+        when(importacionService.obtenerPorId("xyz")).thenThrow(new ImportacionException.NoEncontrada("xyz"));
+
+        mockMvc.perform(get("/api/admin/productos/importaciones/{id}", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Importación obtenida"))
+                .andExpect(jsonPath("$.data.estado").value("COMPLETADA"));
+
+        mockMvc.perform(get("/api/admin/productos/importaciones/{id}", "xyz"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Import not found with ID xyz"));
+    }
+}
@@ -0,0 +1,88 @@
+package es.uca.tfg.ceramic_affair_web.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.LoteDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.controllers.common.LotePublicController;
+import es.uca.tfg.ceramic_affair_web.exceptions.LoteException;
+import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
+import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.services.LoteService;
+
+/**
+ * Clase de prueba para el controlador LotePublicController.
+ * Proporciona pruebas de integración para el endpoint de peticiones por lotes,
+ * simulando peticiones HTTP sin interactuar con la base de datos.
+ *
+ * @version 1.1
+ */
+@WebMvcTest(controllers = { LotePublicController.class })
+@AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
+public class LoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LoteService loteService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Test
+    @DisplayName("Controlador - Obtener lote")
+    public void testObtenerLote() throws Exception {
+        LoteDTO lote = new LoteDTO();
+        lote.getProductos().put(1L, new ProductoDTO(1L, "Jarrón azul", 2L, "Jarrones", "Jarrón torneado", 10f, 8f, 0f,
+            BigDecimal.valueOf(25), false, List.of(3L)));
+        lote.getImagenes().put(3L, new ImagenDTO(3L, "jarron.jpg", "jpg", 800f, 600f, "/uploads/jarron.jpg"));
+        lote.getNoEncontrados().put(LoteDTO.PRODUCTOS, List.of(4L));
+        when(loteService.obtenerLote(List.of(1L, 4L), List.of(3L), null, null)).thenReturn(lote);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/public/batch")
+            .param("productos", "1,4")
+            .param("imagenes", "3"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.success").value(true))
+            .andExpect(jsonPath("$.message").value("Lote obtenido"))
+            .andExpect(jsonPath("$.data.productos.1.nombre").value("Jarrón azul"))
+            .andExpect(jsonPath("$.data.imagenes.3.ruta").value("jarron.jpg"))
+            .andExpect(jsonPath("$.data.imagenes.3.url").value("/uploads/jarron.jpg"))
+            .andExpect(jsonPath("$.data.noEncontrados.productos[0]").value(4));
+    }
+
+    @Test
+    @DisplayName("Controlador - Obtener lote con demasiados elementos")
+    public void testObtenerLoteDemasiadosElementos() throws Exception {
+        when(loteService.obtenerLote(any(), isNull(), isNull(), isNull()))
+            .thenThrow(new LoteException.DemasiadosElementos(LoteService.MAX_ELEMENTOS));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/public/batch")
+            .param("productos", "1,2,3"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value(400))
+            .andExpect(jsonPath("$.error").value("Business exception"))
+            .andExpect(jsonPath("$.message").value("Too many elements in batch request, maximum is " + LoteService.MAX_ELEMENTOS));
+    }
+}
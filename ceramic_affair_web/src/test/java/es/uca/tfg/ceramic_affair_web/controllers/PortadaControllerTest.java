@@ -0,0 +1,70 @@
+package es.uca.tfg.ceramic_affair_web.controllers;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.PortadaDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.controllers.common.PortadaPublicController;
+import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
+import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.services.PortadaService;
+
+/**
+ * Clase de prueba para el controlador PortadaPublicController.
+ * Proporciona pruebas de capa web para los datos de la página de inicio,
+ * simulando peticiones HTTP sin interactuar con la base de datos.
+ *
+ * @version 1.0
+ */
+@WebMvcTest(controllers = { PortadaPublicController.class })
+@AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
+public class PortadaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PortadaService portadaService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private JwtAuthFilter jwtAuthFilter;
+
+    @Test
+    @DisplayName("Controlador - Obtener los datos de la portada")
+    void testObtenerPortada() throws Exception {
+        ProductoDTO jarron = new ProductoDTO("Jarrón", 1L, "Jarrones", "Jarrón de cerámica", 20f, 10f, 10f,
+            new BigDecimal("25.00"), false, List.of());
+        CategoriaResumenDTO jarrones = new CategoriaResumenDTO(1L, "Jarrones", 0, 1, 1, null);
+        FindMePostDTO feria = new FindMePostDTO(3L, "Feria de cerámica", "Próximamente",
+            LocalDateTime.now().plusDays(5), LocalDateTime.now().plusDays(6), 36.5, -6.2);
+        when(portadaService.obtenerPortada(2))
+            .thenReturn(new PortadaDTO(List.of(new PortadaDTO.Seccion(jarrones, List.of(jarron))), List.of(feria)));
+
+        mockMvc.perform(get("/api/public/portada").param("porCategoria", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Portada obtenida"))
+                .andExpect(jsonPath("$.data.secciones[0].categoria.nombre").value("Jarrones"))
+                .andExpect(jsonPath("$.data.secciones[0].productos[0].nombre").value("Jarrón"))
+                .andExpect(jsonPath("$.data.proximasPublicaciones[0].titulo").value("Feria de cerámica"));
+    }
+}
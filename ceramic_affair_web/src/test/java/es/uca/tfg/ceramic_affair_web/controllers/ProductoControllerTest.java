@@ -1,15 +1,20 @@
 package es.uca.tfg.ceramic_affair_web.controllers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -25,21 +30,38 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.CambiosCatalogoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FacetasDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenDTO;
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoExpandidoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoMapper;
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoStockDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoStockLoteDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ResultadoStockDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.SugerenciaDTO;
 import es.uca.tfg.ceramic_affair_web.controllers.admin.ProductoAdminController;
 import es.uca.tfg.ceramic_affair_web.controllers.common.ProductoPublicController;
 import es.uca.tfg.ceramic_affair_web.entities.Categoria;
 import es.uca.tfg.ceramic_affair_web.entities.Imagen;
 import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.exceptions.ConcurrenciaException;
 import es.uca.tfg.ceramic_affair_web.exceptions.ProductoException;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
 import es.uca.tfg.ceramic_affair_web.security.JwtAuthFilter;
 import es.uca.tfg.ceramic_affair_web.security.JwtUtils;
+import es.uca.tfg.ceramic_affair_web.services.BusquedaService;
+import es.uca.tfg.ceramic_affair_web.services.CambiosCatalogoService;
+import es.uca.tfg.ceramic_affair_web.services.CatalogoService;
+import es.uca.tfg.ceramic_affair_web.services.FacetasService;
 import es.uca.tfg.ceramic_affair_web.services.ProductoService;
 
 /**
@@ -47,7 +69,7 @@ import es.uca.tfg.ceramic_affair_web.services.ProductoService;
  * Proporciona pruebas de capa web para las operaciones CRUD expuestas en el controlador,
  * simulando peticiones HTTP sin interactuar con la base de datos.
  * 
- * @version 1.1
+ * @version 1.13
  */
 @WebMvcTest(controllers = {ProductoPublicController.class, ProductoAdminController.class})
 @AutoConfigureMockMvc(addFilters = false) // Desactivar la configuración de seguridad para las pruebas
@@ -59,6 +81,18 @@ public class ProductoControllerTest {
     @MockitoBean
     private ProductoService productoService;
 
+    @MockitoBean
+    private CatalogoService catalogoService;
+
+    @MockitoBean
+    private BusquedaService busquedaService;
+
+    @MockitoBean
+    private FacetasService facetasService;
+
+    @MockitoBean
+    private CambiosCatalogoService cambiosCatalogoService;
+
     @MockitoBean
     private JwtUtils jwtUtils;
 
@@ -108,7 +142,7 @@ public class ProductoControllerTest {
         Imagen imagen = new Imagen("Imagen1.jpg", "jpg", 0, 0, 0);
         Producto producto = new Producto("Taza", categoria, "Taza de cerámica", 10.0f, 8.0f, 8.0f, new BigDecimal("10.00"), false, List.of(imagen));
 
-        when(productoService.obtenerPorId(id)).thenReturn(producto);
+        when(catalogoService.obtenerProducto(id)).thenReturn(ProductoMapper.toDTO(producto));
 
         // Realizar la petición GET al endpoint de obtención de producto por ID
         mockMvc.perform(get("/api/public/productos/{id}", id))
@@ -161,8 +195,8 @@ public class ProductoControllerTest {
         // Página de paginación
         Page<Producto> productosPage = new PageImpl<>(productos, PageRequest.of(0, 10), productos.size());
         
-        when(productoService.filtrarProductos(any(), any(), any(), any(), any(Pageable.class)))
-                .thenReturn(productosPage);
+        when(catalogoService.filtrarProductos(any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(productosPage.map(ProductoMapper::toDTO));
 
         // Realizar la petición GET al endpoint de filtrado de productos
         mockMvc.perform(get("/api/public/productos/filtrar")
@@ -187,6 +221,204 @@ public class ProductoControllerTest {
                 .andExpect(jsonPath("$.data.content[1].idCategoria").value(categoria.getId()));
     }
 
+    @Test
+    @DisplayName("Controlador - Filtrar productos por rangos y precio")
+    void testFiltrarProductosPorRangos() throws Exception {
+        ProductoDTO dto = new ProductoDTO(4L, "Plato", 1L, "Cerámica", "Plato llano", 2.0f, 20.0f, 20.0f,
+            new BigDecimal("15.00"), false, List.of());
+        when(catalogoService.filtrarProductos(isNull(), isNull(), isNull(), any(FiltroRangosDTO.class), eq("baratos"), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    // Los límites de los rangos llegan desde los parámetros de la petición
+                    FiltroRangosDTO rangos = invocation.getArgument(3);
+                    assertEquals(0, new BigDecimal("10").compareTo(rangos.getPrecioMin()));
+                    assertEquals(0, new BigDecimal("20.50").compareTo(rangos.getPrecioMax()));
+                    assertEquals(15.0f, rangos.getDiametroMin());
+                    assertNull(rangos.getAlturaMax());
+                    return new PageImpl<>(List.of(dto), PageRequest.of(0, 3), 1);
+                });
+
+        mockMvc.perform(get("/api/public/productos/filtrar")
+                    .param("precioMin", "10")
+                    .param("precioMax", "20.50")
+                    .param("diametroMin", "15")
+                    .param("orden", "baratos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(4));
+    }
+
+    @Test
+    @DisplayName("Controlador - Filtrar productos por cursor")
+    void testFiltrarProductosPorCursor() throws Exception {
+        // Simular una página intermedia con cursores en ambas direcciones
+        ProductoDTO dto = new ProductoDTO(7L, "Taza", 1L, "Cerámica", "Taza de cerámica", 10.0f, 8.0f, 8.0f,
+            new BigDecimal("10.00"), false, List.of());
+        PaginaCursor<ProductoDTO> pagina = new PaginaCursor<>(List.of(dto), 1, "c2lndWllbnRl", "YW50ZXJpb3I");
+
+        when(catalogoService.filtrarProductosPorCursor(any(), any(), any(), any(), any(), eq("YWN0dWFs"), eq(1)))
+                .thenReturn(pagina);
+
+        // Realizar la petición GET al endpoint de filtrado en modo cursor
+        mockMvc.perform(get("/api/public/productos/filtrar")
+                    .param("cursor", "YWN0dWFs")
+                    .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(7))
+                .andExpect(jsonPath("$.data.size").value(1))
+                .andExpect(jsonPath("$.data.cursorSiguiente").value("c2lndWllbnRl"))
+                .andExpect(jsonPath("$.data.cursorAnterior").value("YW50ZXJpb3I"))
+                .andExpect(jsonPath("$.data.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Controlador - Filtrar productos por cursor no válido")
+    void testFiltrarProductosPorCursorNoValido() throws Exception {
+        // Simular un cursor que no se puede decodificar
+        when(catalogoService.filtrarProductosPorCursor(any(), any(), any(), any(), any(), eq("xyz"), eq(3)))
+                .thenThrow(new ProductoException.CursorNoValido("xyz"));
+
+        mockMvc.perform(get("/api/public/productos/filtrar")
+                    .param("cursor", "xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Business exception"))
+                .andExpect(jsonPath("$.message").value("Invalid pagination cursor xyz"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Filtrar productos por cursor con orden por precio")
+    void testFiltrarProductosPorCursorOrdenPrecio() throws Exception {
+        when(catalogoService.filtrarProductosPorCursor(any(), any(), any(), any(), eq("baratos"), eq(""), eq(3)))
+                .thenThrow(new ProductoException.OrdenNoValido("baratos"));
+
+        mockMvc.perform(get("/api/public/productos/filtrar")
+                    .param("cursor", "")
+                    .param("orden", "baratos"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("Order baratos is not supported with cursor pagination"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Buscar productos")
+    void testBuscarProductos() throws Exception {
+        // Simular los resultados de la búsqueda
+        ProductoDTO dto = new ProductoDTO(3L, "Jarrón azul", 1L, "Jarrones", "Jarrón de cerámica", 10.0f, 8.0f, 8.0f,
+            new BigDecimal("20.00"), false, List.of());
+        Page<ProductoDTO> resultados = new PageImpl<>(List.of(dto), PageRequest.of(0, 5), 1);
+
+        when(catalogoService.buscarProductos(eq("jaron"), any(Pageable.class))).thenReturn(resultados);
+
+        // Realizar la petición GET al endpoint de búsqueda
+        mockMvc.perform(get("/api/public/productos/buscar")
+                    .param("q", "jaron")
+                    .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Resultados de la búsqueda"))
+                .andExpect(jsonPath("$.data.content.length()").value(1))
+                .andExpect(jsonPath("$.data.content[0].nombre").value("Jarrón azul"))
+                .andExpect(jsonPath("$.data.totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("Controlador - Autocompletar nombres de productos")
+    void testSugerirProductos() throws Exception {
+        // Simular las sugerencias del índice
+        when(busquedaService.sugerir("jar", 5))
+                .thenReturn(List.of(new SugerenciaDTO(2L, "Jarra de agua"), new SugerenciaDTO(1L, "Jarrón azul")));
+
+        // Realizar la petición GET al endpoint de sugerencias
+        mockMvc.perform(get("/api/public/productos/sugerencias")
+                    .param("prefijo", "jar"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Sugerencias encontradas"))
+                .andExpect(jsonPath("$.data.length()").value(2))
+                .andExpect(jsonPath("$.data[0].id").value(2))
+                .andExpect(jsonPath("$.data[0].nombre").value("Jarra de agua"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Obtener facetas de productos")
+    void testObtenerFacetas() throws Exception {
+        // Simular las facetas del filtro
+        FacetasDTO facetas = new FacetasDTO();
+        facetas.setTotal(3);
+        facetas.setEnStock(3);
+        facetas.setAgotados(1);
+        facetas.getCategorias().add(new FacetasDTO.FacetaCategoria(1L, "Jarrones", 3));
+        facetas.getPrecios().add(new FacetasDTO.IntervaloPrecio(BigDecimal.ZERO, new BigDecimal("20"), 3));
+        when(facetasService.obtenerFacetas(eq("jarron"), eq(1L), eq(true), any())).thenReturn(facetas);
+
+        // Realizar la petición GET al endpoint de facetas
+        mockMvc.perform(get("/api/public/productos/facetas")
+                    .param("nombre", "jarron")
+                    .param("categoria", "1")
+                    .param("soloEnStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Facetas obtenidas"))
+                .andExpect(jsonPath("$.data.total").value(3))
+                .andExpect(jsonPath("$.data.agotados").value(1))
+                .andExpect(jsonPath("$.data.categorias[0].nombre").value("Jarrones"))
+                .andExpect(jsonPath("$.data.precios[0].hasta").value(20));
+    }
+
+    @Test
+    @DisplayName("Controlador - Obtener cambios del catálogo desde una revisión")
+    void testObtenerCambios() throws Exception {
+        // Simular un producto modificado y otro eliminado desde la revisión 41
+        ProductoDTO jarron = new ProductoDTO("Jarrón", 1L, "Jarrones", "Jarrón de cerámica", 20f, 10f, 10f,
+            new BigDecimal("25.00"), true, List.of());
+        jarron.setId(7L);
+        CambiosCatalogoDTO cambios = new CambiosCatalogoDTO(43L, false);
+        cambios.getProductos().add(jarron);
+        cambios.setProductosEliminados(List.of(8L));
+        when(cambiosCatalogoService.obtenerCambios(41L)).thenReturn(cambios);
+
+        // Realizar la petición GET al endpoint de cambios
+        mockMvc.perform(get("/api/public/productos/cambios").param("desde", "41"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Cambios obtenidos"))
+                .andExpect(jsonPath("$.data.revision").value(43))
+                .andExpect(jsonPath("$.data.completo").value(false))
+                .andExpect(jsonPath("$.data.productos[0].id").value(7))
+                .andExpect(jsonPath("$.data.productos[0].soldOut").value(true))
+                .andExpect(jsonPath("$.data.productosEliminados[0]").value(8));
+    }
+
+    @Test
+    @DisplayName("Controlador - Obtener producto con imágenes expandidas")
+    void testObtenerProductoExpandido() throws Exception {
+        // Simular un producto con una imagen
+        ProductoDTO dto = new ProductoDTO(5L, "Jarrón", 1L, "Jarrones", "Jarrón de cerámica", 10.0f, 8.0f, 8.0f,
+            new BigDecimal("20.00"), false, List.of(9L));
+        ProductoDTO expandido = new ProductoExpandidoDTO(dto, List.of(new ImagenDTO(9L, "jarron.jpg", "jpg", 800, 600, "/uploads/jarron.jpg")));
+
+        when(catalogoService.obtenerProducto(5L)).thenReturn(dto);
+        when(catalogoService.expandirImagenes(dto)).thenReturn(expandido);
+
+        // Sin el parámetro, el producto no incluye las imágenes
+        mockMvc.perform(get("/api/public/productos/5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.idsImagenes[0]").value(9))
+                .andExpect(jsonPath("$.data.imagenes").doesNotExist());
+
+        // Con expandir=imagenes se incluyen sus metadatos y URL
+        mockMvc.perform(get("/api/public/productos/5")
+                    .param("expandir", "imagenes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.nombre").value("Jarrón"))
+                .andExpect(jsonPath("$.data.imagenes.length()").value(1))
+                .andExpect(jsonPath("$.data.imagenes[0].ancho").value(800))
+                .andExpect(jsonPath("$.data.imagenes[0].alto").value(600))
+                .andExpect(jsonPath("$.data.imagenes[0].url").value("/uploads/jarron.jpg"));
+    }
+
     @Test
     @DisplayName("Controlador - Actualizar producto")
     void testActualizarProducto() throws Exception {
@@ -210,7 +442,7 @@ public class ProductoControllerTest {
         String jsonBody = objectMapper.writeValueAsString(productoDTO);
 
         // Simular la actualización del producto
-        doNothing().when(productoService).modificarProducto(id, productoDTO);
+        doNothing().when(productoService).modificarProducto(id, productoDTO, null);
 
         // Realizar la petición PUT al endpoint de actualización de producto
         mockMvc.perform(put("/api/admin/productos/{id}", id)
@@ -233,7 +465,7 @@ public class ProductoControllerTest {
         String jsonBody = objectMapper.writeValueAsString(stockDTO);
 
         // Simular que no se lanza ninguna excepción al actualizar el stock
-        doNothing().when(productoService).establecerStock(id, stockDTO.isSoldOut());
+        doNothing().when(productoService).establecerStock(id, stockDTO.isSoldOut(), null);
 
         // Realizar la petición PATCH al endpoint de actualización de stock de producto
         mockMvc.perform(patch("/api/admin/productos/{id}/stock", id)
@@ -245,6 +477,41 @@ public class ProductoControllerTest {
                 .andExpect(jsonPath("$.data").doesNotExist());
     }
 
+    @Test
+    @DisplayName("Controlador - Actualizar stock de varios productos")
+    void testActualizarStockProductos() throws Exception {
+        ProductoStockLoteDTO dto = new ProductoStockLoteDTO(List.of(
+            new ProductoStockLoteDTO.Elemento(1L, true),
+            new ProductoStockLoteDTO.Elemento(2L, true)));
+        String jsonBody = new ObjectMapper().writeValueAsString(dto);
+
+        when(productoService.establecerStockLote(any())).thenReturn(List.of(
+            new ResultadoStockDTO(1L, ResultadoStockDTO.Estado.ACTUALIZADO),
+            new ResultadoStockDTO(2L, ResultadoStockDTO.Estado.NO_ENCONTRADO)));
+
+        mockMvc.perform(patch("/api/admin/productos/stock")
+                .contentType("application/json")
+                .content(jsonBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.message").value("Stock de los productos actualizado con éxito"))
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$.data[0].estado").value("ACTUALIZADO"))
+                .andExpect(jsonPath("$.data[1].estado").value("NO_ENCONTRADO"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Actualizar stock de varios productos (datos inválidos)")
+    void testActualizarStockProductosInvalido() throws Exception {
+        // Un elemento sin soldOut invalida la petición completa
+        String jsonBody = "{\"productos\":[{\"id\":1}]}";
+
+        mockMvc.perform(patch("/api/admin/productos/stock")
+                .contentType("application/json")
+                .content(jsonBody))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("Controlador - Eliminar producto")
     void testEliminarProducto() throws Exception {
@@ -257,6 +524,29 @@ public class ProductoControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @DisplayName("Controlador - Obtener todos los productos con campos parciales")
+    void testObtenerTodosLosProductosCamposParciales() throws Exception {
+        ProductoDTO producto = new ProductoDTO(1L, "Taza", 2L, "Cerámica", "Taza de cerámica", 10f, 8f, 8f,
+            new BigDecimal("10.00"), false, List.of(3L));
+        when(catalogoService.obtenerTodos(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(producto), PageRequest.of(0, 10), 1));
+
+        // Solo se devuelven los atributos pedidos y el id; la paginación no cambia
+        mockMvc.perform(get("/api/public/productos/todos")
+                .param("size", "10")
+                .param("fields", "nombre, precio,idsImagenes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.totalElements").value(1))
+                .andExpect(jsonPath("$.data.content[0].id").value(1L))
+                .andExpect(jsonPath("$.data.content[0].nombre").value("Taza"))
+                .andExpect(jsonPath("$.data.content[0].precio").value(10.00))
+                .andExpect(jsonPath("$.data.content[0].idsImagenes[0]").value(3L))
+                .andExpect(jsonPath("$.data.content[0].descripcion").doesNotExist())
+                .andExpect(jsonPath("$.data.content[0].altura").doesNotExist());
+    }
+
     @Test
     @DisplayName("Controlador - Obtener todos los productos")
     void testObtenerTodosLosProductos() throws Exception {
@@ -292,8 +582,8 @@ public class ProductoControllerTest {
         // Página de paginación
         Page<Producto> productosPage = new PageImpl<>(productos, PageRequest.of(0, 10), productos.size());
 
-        when(productoService.obtenerTodos(any(Pageable.class)))
-                .thenReturn(productosPage);
+        when(catalogoService.obtenerTodos(any(Pageable.class)))
+                .thenReturn(productosPage.map(ProductoMapper::toDTO));
 
         // Realizar la petición GET al endpoint de obtención de todos los productos
         mockMvc.perform(get("/api/public/productos/todos")
@@ -323,7 +613,7 @@ public class ProductoControllerTest {
     void testObtenerProductoPorIdNoEncontrado() throws Exception {
         // Simular la obtención de un producto por ID que no existe
         Long id = 999L;
-        when(productoService.obtenerPorId(id)).thenThrow(new ProductoException.NoEncontrado(id));
+        when(catalogoService.obtenerProducto(id)).thenThrow(new ProductoException.NoEncontrado(id));
 
         // Realizar la petición GET al endpoint de obtención de producto por ID
         mockMvc.perform(get("/api/public/productos/{id}", id))
@@ -357,7 +647,7 @@ public class ProductoControllerTest {
         String jsonBody = objectMapper.writeValueAsString(productoDTO);
 
         // Simular que se lanza una excepción al intentar actualizar un producto no encontrado
-        doThrow(new ProductoException.NoEncontrado(id)).when(productoService).modificarProducto(eq(id), any(ProductoDTO.class));
+        doThrow(new ProductoException.NoEncontrado(id)).when(productoService).modificarProducto(eq(id), any(ProductoDTO.class), isNull());
 
         // Realizar la petición PUT al endpoint de actualización de producto
         mockMvc.perform(put("/api/admin/productos/{id}", id)
@@ -371,6 +661,89 @@ public class ProductoControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Controlador - Actualizar producto con la ETag obtenida en el GET de administración")
+    void testActualizarProductoConEtag() throws Exception {
+        Long id = 1L;
+        ProductoDTO productoDTO = new ProductoDTO("Taza", 2L, "Cerámica", "Taza de cerámica", 12.0f, 9.0f, 9.0f,
+            new BigDecimal("12.00"), false, List.of());
+        productoDTO.setId(id);
+        productoDTO.setVersion(4L);
+        when(productoService.obtenerDTOPorId(id)).thenReturn(productoDTO);
+
+        String etag = mockMvc.perform(get("/api/admin/productos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.message").value("Producto encontrado"))
+                .andExpect(jsonPath("$.data.version").value(4))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // La ETag se devuelve tal cual en If-Match y llega al servicio como la versión esperada
+        mockMvc.perform(put("/api/admin/productos/{id}", id)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType("application/json")
+                .content(new ObjectMapper().writeValueAsString(productoDTO)))
+                .andExpect(status().isOk());
+        verify(productoService).modificarProducto(eq(id), any(ProductoDTO.class), eq(4L));
+    }
+
+    @Test
+    @DisplayName("Controlador - Actualizar producto (versión no coincide)")
+    void testActualizarProductoVersionNoCoincide() throws Exception {
+        Long id = 1L;
+        ProductoDTO productoDTO = new ProductoDTO("Taza", 2L, "Cerámica", "Taza de cerámica", 12.0f, 9.0f, 9.0f,
+            new BigDecimal("12.00"), false, List.of());
+        String jsonBody = new ObjectMapper().writeValueAsString(productoDTO);
+
+        // El cliente envía la versión 3, pero el producto ya está en la 4
+        doThrow(new ConcurrenciaException.VersionNoCoincide("Product", id, 4))
+            .when(productoService).modificarProducto(eq(id), any(ProductoDTO.class), eq(3L));
+
+        mockMvc.perform(put("/api/admin/productos/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType("application/json")
+                .content(jsonBody))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.error").value("Business exception"))
+                .andExpect(jsonPath("$.message").value("Product with ID 1 has been modified, current version is 4"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Actualizar stock de producto (modificación concurrente)")
+    void testActualizarStockProductoModificacionConcurrente() throws Exception {
+        Long id = 1L;
+        String jsonBody = new ObjectMapper().writeValueAsString(new ProductoStockDTO(true));
+
+        // Otra transacción confirma su cambio entre la comprobación y el commit
+        doThrow(new ObjectOptimisticLockingFailureException(Producto.class, id))
+            .when(productoService).establecerStock(id, true, 3L);
+
+        mockMvc.perform(patch("/api/admin/productos/{id}/stock", id)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType("application/json")
+                .content(jsonBody))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(412))
+                .andExpect(jsonPath("$.error").value("Concurrent modification"));
+    }
+
+    @Test
+    @DisplayName("Controlador - Actualizar stock de producto (If-Match no válido)")
+    void testActualizarStockProductoIfMatchNoValido() throws Exception {
+        String jsonBody = new ObjectMapper().writeValueAsString(new ProductoStockDTO(true));
+
+        // Las ETags débiles no sirven para If-Match
+        mockMvc.perform(patch("/api/admin/productos/{id}/stock", 1L)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType("application/json")
+                .content(jsonBody))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value("Business exception"))
+                .andExpect(jsonPath("$.message").value("Invalid If-Match header W/\"3\""));
+    }
+
     @Test
     @DisplayName("Controlador - Actualizar stock de producto (excepción no encontrado)")
     void testActualizarStockProductoNoEncontrado() throws Exception {
@@ -382,7 +755,7 @@ public class ProductoControllerTest {
         String jsonBody = objectMapper.writeValueAsString(stockDTO);
 
         // Simular que se lanza una excepción al intentar actualizar el stock de un producto no encontrado
-        doThrow(new ProductoException.NoEncontrado(id)).when(productoService).establecerStock(eq(id), any(Boolean.class));
+        doThrow(new ProductoException.NoEncontrado(id)).when(productoService).establecerStock(eq(id), any(Boolean.class), isNull());
 
         // Realizar la petición PATCH al endpoint de actualización de stock de producto
         mockMvc.perform(patch("/api/admin/productos/{id}/stock", id)
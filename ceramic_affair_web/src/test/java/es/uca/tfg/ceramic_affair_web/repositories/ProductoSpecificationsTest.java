@@ -13,6 +13,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.jpa.domain.Specification;
 
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
 import es.uca.tfg.ceramic_affair_web.entities.Categoria;
 import es.uca.tfg.ceramic_affair_web.entities.Producto;
 
@@ -22,7 +23,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Clase de prueba para las especificaciones del repositorio Producto.
  * Proporciona pruebas de integración para las operaciones de búsqueda y filtrado en la entidad Producto.
  * 
- * @version 1.1
+ * @version 1.4
  */
 @DataJpaTest
 public class ProductoSpecificationsTest {
@@ -61,9 +62,10 @@ public class ProductoSpecificationsTest {
         producto2.setFechaCreacion(LocalDateTime.of(2025, 8, 2, 10, 0, 0));
         producto3.setFechaCreacion(LocalDateTime.of(2025, 8, 3, 10, 0, 0));
 
-        entityManager.merge(producto1);
-        entityManager.merge(producto2);
-        entityManager.merge(producto3);
+        // Se conservan las copias gestionadas para que las pruebas trabajen sobre la versión vigente
+        producto1 = entityManager.merge(producto1);
+        producto2 = entityManager.merge(producto2);
+        producto3 = entityManager.merge(producto3);
         entityManager.flush();
     }
 
@@ -133,4 +135,56 @@ public class ProductoSpecificationsTest {
         assertThat(productos.get(0).getNombre()).isEqualTo("Taza de cerámica");
         assertThat(productos.get(1).getNombre()).isEqualTo("Cuenco de cerámica");
     }
+
+    @Test
+    @DisplayName("Especificación - Filtrar por ids")
+    void testConIds() {
+        // Filtrar productos por un conjunto de ids
+        Specification<Producto> spec = ProductoSpecifications.conIds(List.of(producto1.getId(), producto3.getId()));
+        List<Producto> productos = productoRepo.findAll(spec);
+
+        // Verificar que solo se devuelven los productos indicados
+        assertThat(productos).extracting(Producto::getNombre).containsExactlyInAnyOrder("Jarrón de barro", "Cuenco de cerámica");
+
+        // Sin ids no se aplica filtro
+        assertThat(productoRepo.findAll(ProductoSpecifications.conIds(null))).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Especificación - Filtrar por rangos")
+    void testFiltrarPorRangos() {
+        // Rango de precio cerrado (límites inclusivos)
+        List<Producto> productos = productoRepo.findAll(ProductoSpecifications.precioEntre(BigDecimal.valueOf(5.49), BigDecimal.valueOf(7.99)));
+        assertThat(productos).extracting(Producto::getNombre).containsExactlyInAnyOrder("Taza de cerámica", "Cuenco de cerámica");
+
+        // Rango abierto por un extremo
+        productos = productoRepo.findAll(ProductoSpecifications.precioEntre(BigDecimal.TEN, null));
+        assertThat(productos).extracting(Producto::getNombre).containsExactly("Jarrón de barro");
+
+        // Rangos de dimensiones combinados
+        producto1.setAltura(30f);
+        producto1.setDiametro(12f);
+        productoRepo.save(producto1);
+        FiltroRangosDTO rangos = new FiltroRangosDTO();
+        rangos.setAlturaMin(20f);
+        rangos.setDiametroMax(15f);
+        assertThat(productoRepo.findAll(ProductoSpecifications.conRangos(rangos))).extracting(Producto::getNombre).containsExactly("Jarrón de barro");
+
+        // Sin rangos no se aplica filtro
+        assertThat(productoRepo.findAll(ProductoSpecifications.conRangos(new FiltroRangosDTO()))).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Especificación - Ordenar por precio")
+    void testOrdenarPorPrecio() {
+        List<Producto> baratos = productoRepo.findAll(ProductoSpecifications.ordenar("baratos"));
+        List<Producto> caros = productoRepo.findAll(ProductoSpecifications.ordenar("caros"));
+
+        assertThat(baratos).extracting(Producto::getNombre).containsExactly("Taza de cerámica", "Cuenco de cerámica", "Jarrón de barro");
+        assertThat(caros).extracting(Producto::getNombre).containsExactly("Jarrón de barro", "Cuenco de cerámica", "Taza de cerámica");
+
+        // Cualquier otro valor ordena por fecha
+        assertThat(productoRepo.findAll(ProductoSpecifications.ordenar("viejos"))).extracting(Producto::getNombre)
+            .containsExactly("Jarrón de barro", "Taza de cerámica", "Cuenco de cerámica");
+    }
 }
@@ -0,0 +1,146 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.SugerenciaDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+
+/**
+ * Clase de prueba para el servicio BusquedaService.
+ * Comprueba el índice invertido de productos y su actualización incremental desde ProductoService.
+ *
+ * @version 1.1
+ */
+@SpringBootTest
+@Transactional
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class BusquedaServiceTest {
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private CategoriaRepo categoriaRepo;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Categoria categoria;
+
+    @BeforeEach
+    void setUp() {
+        productoRepo.deleteAll();
+        categoriaRepo.deleteAll();
+        categoria = categoriaRepo.save(new Categoria("Cerámica"));
+
+        // Descartar productos indexados por otras pruebas que han limpiado la base de datos directamente
+        busquedaService.invalidar();
+    }
+
+    private Long insertar(String nombre, String descripcion) {
+        return productoService.insertarProducto(new ProductoDTO(nombre, categoria.getId(), "Cerámica", descripcion, 10f, 8f, 0f,
+                BigDecimal.valueOf(10.99), false, List.of()));
+    }
+
+    @Test
+    @DisplayName("Búsqueda - Normalizar texto sin tildes ni mayúsculas")
+    void testNormalizar() {
+        assertEquals("jarron de ceramica", BusquedaService.normalizar("Jarrón de CERÁMICA"));
+        assertEquals("pinguino", BusquedaService.normalizar("Pingüino"));
+        assertEquals("", BusquedaService.normalizar(null));
+    }
+
+    @Test
+    @DisplayName("Búsqueda - Buscar por nombre ignorando tildes")
+    void testBuscarPorNombre() {
+        Long jarron = insertar("Jarrón azul", "Esmaltado a mano");
+        Long taza = insertar("Taza roja", "Taza para café");
+
+        // Subcadenas largas, cortas y sin tildes
+        assertThat(busquedaService.buscarPorNombre("jarron")).containsExactly(jarron);
+        assertThat(busquedaService.buscarPorNombre("JARRÓN AZ")).containsExactly(jarron);
+        assertThat(busquedaService.buscarPorNombre("ro")).containsExactlyInAnyOrder(jarron, taza);
+        assertThat(busquedaService.buscarPorNombre("a")).containsExactlyInAnyOrder(jarron, taza);
+        assertThat(busquedaService.buscarPorNombre("verde")).isEmpty();
+
+        // La descripción solo se consulta en la búsqueda de texto completo
+        assertThat(busquedaService.buscarPorNombre("cafe")).isEmpty();
+        assertThat(busquedaService.buscarEnTexto("café")).containsExactly(taza);
+
+        // Sin término no se filtra
+        assertNull(busquedaService.buscarPorNombre(""));
+        assertNull(busquedaService.buscarEnTexto(null));
+    }
+
+    @Test
+    @DisplayName("Búsqueda - El índice se actualiza al modificar y eliminar productos")
+    void testActualizacionIncremental() throws IOException {
+        Long id = insertar("Plato llano", "Plato de cerámica");
+        assertThat(busquedaService.buscarPorNombre("llano")).containsExactly(id);
+
+        // Modificar el nombre
+        productoService.modificarProducto(id, new ProductoDTO("Plato hondo", categoria.getId(), "Cerámica", "Plato de cerámica", 10f, 8f, 0f,
+                BigDecimal.valueOf(10.99), false, List.of()));
+        assertThat(busquedaService.buscarPorNombre("llano")).isEmpty();
+        assertThat(busquedaService.buscarPorNombre("hondo")).containsExactly(id);
+
+        // Eliminar el producto
+        productoService.eliminarProducto(id);
+        assertThat(busquedaService.buscarPorNombre("plato")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Búsqueda - Recargar el índice desde la base de datos")
+    void testInvalidar() {
+        Long id = insertar("Cuenco", "Cuenco esmaltado");
+
+        busquedaService.invalidar();
+
+        assertThat(busquedaService.buscarPorNombre("cuenco")).containsExactly(id);
+    }
+
+    @Test
+    @DisplayName("Búsqueda - Sugerencias sincronizadas con las escrituras de productos")
+    void testSugerir() throws IOException {
+        Long tetera = insertar("Tetera esmaltada", "Tetera para seis");
+        Long taza = insertar("Taza para té", "Taza a juego");
+
+        assertThat(busquedaService.sugerir("te", 5)).extracting(SugerenciaDTO::getId).containsExactlyInAnyOrder(tetera, taza);
+        assertThat(busquedaService.sugerir("esmal", 5)).extracting(SugerenciaDTO::getNombre).containsExactly("Tetera esmaltada");
+
+        // Las modificaciones y eliminaciones se reflejan sin recargar
+        productoService.modificarProducto(taza, new ProductoDTO("Cuenco", categoria.getId(), "Cerámica", "Cuenco", 10f, 8f, 0f,
+                BigDecimal.valueOf(10.99), false, List.of()));
+        productoService.eliminarProducto(tetera);
+        assertThat(busquedaService.sugerir("te", 5)).isEmpty();
+        assertThat(busquedaService.sugerir("cu", 5)).extracting(SugerenciaDTO::getId).containsExactly(taza);
+        assertThat(busquedaService.sugerir("", 5)).isEmpty();
+    }
+}
@@ -0,0 +1,212 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.configuration.CacheRespuestasFilter;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+
+/**
+ * Clase de prueba de la caché de respuestas de las lecturas públicas.
+ * Las peticiones pasan por la cadena de filtros completa; las pruebas no son transaccionales para
+ * que las modificaciones se confirmen y purguen la caché.
+ *
+ * @version 1.2
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class CacheRespuestasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    // Espía para comprobar en qué momento se purga tras una modificación
+    @MockitoSpyBean
+    private CacheRespuestas cacheRespuestas;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Long jarrones;
+    private Long jarron;
+    private Long plato;
+
+    @BeforeEach
+    void setUp() {
+        limpiar();
+        jarrones = categoriaService.insertarCategoria("Jarrones");
+        jarron = insertar("Jarrón azul");
+        plato = insertar("Plato llano");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        limpiar();
+    }
+
+    private void limpiar() {
+        datos.limpiar();
+        cacheRespuestas.vaciar();
+    }
+
+    private Long insertar(String nombre) {
+        ProductoDTO producto = datos.producto(nombre, jarrones);
+        producto.setDescripcion("Cerámica artesanal ".repeat(20));
+        return productoService.insertarProducto(producto);
+    }
+
+    @Test
+    @DisplayName("Caché de respuestas - Aciertos y clave normalizada")
+    void testAciertos() throws Exception {
+        MvcResult primera = mockMvc.perform(get("/api/public/productos/filtrar?size=5&page=0"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CacheRespuestasFilter.CABECERA_CACHE, "MISS"))
+            .andReturn();
+
+        // El orden de los parámetros no cambia la clave
+        MvcResult segunda = mockMvc.perform(get("/api/public/productos/filtrar?page=0&size=5"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(CacheRespuestasFilter.CABECERA_CACHE, "HIT"))
+            .andExpect(jsonPath("$.data.content.length()").value(2))
+            .andReturn();
+        assertThat(segunda.getResponse().getContentAsString(StandardCharsets.UTF_8))
+            .isEqualTo(primera.getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+        // Una petición condicional con la ETag guardada recibe 304
+        String etag = segunda.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/public/productos/filtrar?page=0&size=5").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        // Las rutas con efectos (suscripciones, contacto...) no se guardan
+        mockMvc.perform(get("/api/public/suscriptores/verificar?token=inexistente"))
+            .andExpect(header().doesNotExist(CacheRespuestasFilter.CABECERA_CACHE));
+    }
+
+    @Test
+    @DisplayName("Caché de respuestas - Compresión gzip")
+    void testGzip() throws Exception {
+        mockMvc.perform(get("/api/public/productos/todos")).andExpect(status().isOk());
+
+        MvcResult comprimida = mockMvc.perform(get("/api/public/productos/todos").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(header().string(CacheRespuestasFilter.CABECERA_CACHE, "HIT"))
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn();
+        MvcResult plana = mockMvc.perform(get("/api/public/productos/todos"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimida.getResponse().getContentAsByteArray()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(plana.getResponse().getContentAsByteArray());
+        }
+    }
+
+    @Test
+    @DisplayName("Caché de respuestas - Purga por etiquetas")
+    void testPurga() throws Exception {
+        mockMvc.perform(get("/api/public/productos/{id}", jarron)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/productos/{id}", plato)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/public/categorias/todas")).andExpect(status().isOk());
+
+        productoService.establecerStock(jarron, true);
+
+        // Se purgan el producto modificado y los listados del catálogo, pero no el resto de productos
+        mockMvc.perform(get("/api/public/productos/{id}", jarron))
+            .andExpect(header().string(CacheRespuestasFilter.CABECERA_CACHE, "MISS"))
+            .andExpect(jsonPath("$.data.soldOut").value(true));
+        mockMvc.perform(get("/api/public/categorias/todas"))
+            .andExpect(header().string(CacheRespuestasFilter.CABECERA_CACHE, "MISS"))
+            .andExpect(jsonPath("$.data[0].numeroEnStock").value(1));
+        mockMvc.perform(get("/api/public/productos/{id}", plato))
+            .andExpect(header().string(CacheRespuestasFilter.CABECERA_CACHE, "HIT"));
+
+        // Modificar la categoría purga los productos que la contienen
+        categoriaService.modificarCategoria(jarrones, "Jarras");
+        mockMvc.perform(get("/api/public/productos/{id}", plato))
+            .andExpect(header().string(CacheRespuestasFilter.CABECERA_CACHE, "MISS"))
+            .andExpect(jsonPath("$.data.nombreCategoria").value("Jarras"));
+    }
+
+    @Test
+    @DisplayName("Caché de respuestas - Etiquetas de las modificaciones")
+    void testEtiquetasModificaciones() {
+        assertThat(CacheRespuestas.etiquetasDe(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, 42L)))
+            .containsExactlyInAnyOrder("producto:42", CacheRespuestas.ETIQUETA_CATALOGO);
+        // Una modificación de varias entidades purga todas las de su tipo
+        assertThat(CacheRespuestas.etiquetasDe(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, null)))
+            .containsExactlyInAnyOrder("producto", CacheRespuestas.ETIQUETA_CATALOGO);
+        assertThat(CacheRespuestas.etiquetasDe(new CatalogoModificadoEvent(Entidad.FIND_ME_POST, Operacion.ELIMINACION, 3L)))
+            .containsExactlyInAnyOrder("find-me-post:3", CacheRespuestas.ETIQUETA_FIND_ME_POSTS);
+    }
+
+    @Test
+    @DisplayName("Caché de respuestas - La purga se ejecuta después de avanzar la revisión")
+    void testPurgaTrasRevision() {
+        List<Long> revisionesAlPurgar = new ArrayList<>();
+        doAnswer(invocacion -> {
+            revisionesAlPurgar.add(revisionCatalogo.getRevision());
+            return invocacion.callRealMethod();
+        }).when(cacheRespuestas).purgar(any());
+
+        // Si la purga se adelantara, una lectura entre ambas guardaría el snapshot anterior con la nueva generación
+        long antes = revisionCatalogo.getRevision();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            eventPublisher.publishEvent(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, jarron)));
+
+        assertThat(revisionesAlPurgar).containsExactly(antes + 1);
+    }
+}
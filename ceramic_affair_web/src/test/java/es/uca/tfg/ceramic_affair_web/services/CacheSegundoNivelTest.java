@@ -0,0 +1,177 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.EstadisticasCacheDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.configuration.CacheSegundoNivelConfig;
+import es.uca.tfg.ceramic_affair_web.entities.FindMePost;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.FindMePostRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Clase de prueba de la caché de segundo nivel y de la caché de consultas.
+ * Las pruebas no son transaccionales: cada lectura se hace en su propia transacción, como en la
+ * aplicación, para que solo la caché de segundo nivel pueda evitar las consultas.
+ *
+ * @version 1.1
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class CacheSegundoNivelTest {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ImagenService imagenService;
+
+    @Autowired
+    private EstadisticasCacheService estadisticasCacheService;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private CategoriaRepo categoriaRepo;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private FindMePostRepo findMePostRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private List<String> rutasImagenes(Long idProducto) {
+        return transactionTemplate.execute(status -> productoRepo.findById(idProducto).orElseThrow()
+            .getImagenes().stream().map(Imagen::getRuta).toList());
+    }
+
+    @Test
+    @DisplayName("Caché - Entidades leídas desde la caché")
+    void testCacheEntidades() {
+        Long id = categoriaService.insertarCategoria("Jarrones");
+        categoriaRepo.findById(id);
+
+        // La segunda lectura, en otra transacción, no consulta la base de datos
+        estadisticas.clear();
+        assertEquals("Jarrones", categoriaRepo.findById(id).orElseThrow().getNombre());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(1, estadisticas.getDomainDataRegionStatistics(CacheSegundoNivelConfig.REGION_CATEGORIA).getHitCount());
+
+        // Las modificaciones actualizan la caché
+        categoriaService.modificarCategoria(id, "Jarras");
+        assertEquals("Jarras", categoriaRepo.findById(id).orElseThrow().getNombre());
+    }
+
+    @Test
+    @DisplayName("Caché - Imágenes de un producto")
+    void testCacheImagenesProducto() {
+        Long frente = imagenRepo.save(new Imagen("jarron-frente.jpg", "jpg", 1024f, 800f, 600f)).getId();
+        Long perfil = imagenRepo.save(new Imagen("jarron-perfil.jpg", "jpg", 1024f, 800f, 600f)).getId();
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        Long id = productoService.insertarProducto(new ProductoDTO("Jarrón azul", jarrones, null, "Cerámica",
+            10f, 8f, 8f, new BigDecimal("20"), false, List.of(frente, perfil)));
+        rutasImagenes(id);
+
+        // El producto y su lista de imágenes salen de la caché
+        estadisticas.clear();
+        assertThat(rutasImagenes(id)).containsExactlyInAnyOrder("jarron-frente.jpg", "jarron-perfil.jpg");
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        // Eliminar una imagen invalida la lista guardada en la caché
+        try {
+            imagenService.eliminarImagen(perfil);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        assertThat(rutasImagenes(id)).containsExactly("jarron-frente.jpg");
+    }
+
+    @Test
+    @DisplayName("Caché - Consultas")
+    void testCacheConsultas() {
+        findMePostRepo.save(new FindMePost("Mercadillo", "Puesto de cerámica", LocalDateTime.now(), LocalDateTime.now().plusDays(1), 36.5, -6.2));
+        findMePostRepo.findAllByOrderByFechaInicioDesc();
+
+        estadisticas.clear();
+        assertThat(findMePostRepo.findAllByOrderByFechaInicioDesc()).hasSize(1);
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(1, estadisticas.getQueryCacheHitCount());
+
+        // Una escritura en la tabla invalida el resultado guardado
+        findMePostRepo.save(new FindMePost("Feria", "Feria de artesanía", LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(3), 36.5, -6.2));
+        assertThat(findMePostRepo.findAllByOrderByFechaInicioDesc()).extracting(FindMePost::getTitulo).containsExactly("Feria", "Mercadillo");
+    }
+
+    @Test
+    @DisplayName("Caché - Estadísticas")
+    void testEstadisticasCache() {
+        Long id = categoriaService.insertarCategoria("Jarrones");
+        estadisticas.clear();
+        categoriaRepo.findById(id);
+        categoriaRepo.findById(id);
+
+        EstadisticasCacheDTO resultado = estadisticasCacheService.obtenerEstadisticas();
+        assertThat(resultado.getRatioAciertos()).isGreaterThan(0);
+        assertThat(resultado.getRegiones()).extracting(EstadisticasCacheDTO.Region::getNombre)
+            .contains(CacheSegundoNivelConfig.REGION_CATEGORIA, CacheSegundoNivelConfig.REGION_PRODUCTO, CacheSegundoNivelConfig.REGION_PRODUCTO_IMAGENES);
+        EstadisticasCacheDTO.Region categorias = resultado.getRegiones().stream()
+            .filter(region -> region.getNombre().equals(CacheSegundoNivelConfig.REGION_CATEGORIA)).findFirst().orElseThrow();
+        assertThat(categorias.getAciertos()).isGreaterThanOrEqualTo(1);
+        assertThat(categorias.getRatioAciertos()).isGreaterThan(0);
+    }
+}
@@ -0,0 +1,127 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.CambiosCatalogoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoStockLoteDTO;
+
+/**
+ * Clase de prueba para la sincronización incremental del catálogo.
+ * Las pruebas no son transaccionales: los cambios se registran tras el commit de cada modificación.
+ *
+ * @version 1.1
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class CambiosCatalogoServiceTest {
+
+    @Autowired
+    private CambiosCatalogoService cambiosCatalogoService;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Long jarrones;
+    private Long jarron;
+    private Long plato;
+    private long desde;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+        jarrones = categoriaService.insertarCategoria("Jarrones");
+        jarron = insertar("Jarrón azul");
+        plato = insertar("Plato llano");
+        desde = revisionCatalogo.getRevision();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private Long insertar(String nombre) {
+        return datos.insertarProducto(nombre, jarrones);
+    }
+
+    @Test
+    @DisplayName("Cambios - Productos modificados, creados y eliminados")
+    void testCambios() throws Exception {
+        assertTrue(cambiosCatalogoService.obtenerCambios(desde).getProductos().isEmpty());
+
+        productoService.establecerStock(jarron, true);
+        Long taza = insertar("Taza");
+        productoService.eliminarProducto(plato);
+
+        CambiosCatalogoDTO cambios = cambiosCatalogoService.obtenerCambios(desde);
+        assertFalse(cambios.isCompleto());
+        assertEquals(revisionCatalogo.getRevision(), cambios.getRevision());
+        assertThat(cambios.getProductos()).extracting(ProductoDTO::getId).containsExactly(jarron, taza);
+        assertTrue(cambios.getProductos().get(0).isSoldOut());
+        assertEquals(List.of(plato), cambios.getProductosEliminados());
+        assertThat(cambios.getCategorias()).singleElement()
+            .satisfies(categoria -> assertEquals(1, categoria.getNumeroEnStock()));
+
+        // Desde la revisión devuelta ya no hay nada nuevo
+        CambiosCatalogoDTO siguientes = cambiosCatalogoService.obtenerCambios(cambios.getRevision());
+        assertTrue(siguientes.getProductos().isEmpty() && siguientes.getCategorias().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Cambios - Stock por lotes y modificación de categoría")
+    void testCambiosLoteYCategoria() {
+        productoService.establecerStockLote(List.of(new ProductoStockLoteDTO.Elemento(plato, true)));
+        assertThat(cambiosCatalogoService.obtenerCambios(desde).getProductos()).extracting(ProductoDTO::getId).containsExactly(plato);
+
+        // Renombrar la categoría cambia todos sus productos
+        long antesDeRenombrar = revisionCatalogo.getRevision();
+        categoriaService.modificarCategoria(jarrones, "Jarras");
+        CambiosCatalogoDTO cambios = cambiosCatalogoService.obtenerCambios(antesDeRenombrar);
+        assertThat(cambios.getProductos()).extracting(ProductoDTO::getNombreCategoria).containsOnly("Jarras").hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Cambios - Recarga completa")
+    void testCambiosCompleto() {
+        // Revisión de otra ejecución de la aplicación
+        assertTrue(cambiosCatalogoService.obtenerCambios(desde + 1_000).isCompleto());
+
+        // Al eliminar una categoría no se sabe qué productos se han quedado sin ella
+        categoriaService.eliminarCategoria(jarrones);
+        CambiosCatalogoDTO cambios = cambiosCatalogoService.obtenerCambios(desde);
+        assertTrue(cambios.isCompleto());
+        assertEquals(revisionCatalogo.getRevision(), cambios.getRevision());
+    }
+}
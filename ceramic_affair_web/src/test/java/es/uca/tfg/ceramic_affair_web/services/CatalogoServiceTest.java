@@ -0,0 +1,326 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoExpandidoDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.exceptions.ProductoException;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+
+/**
+ * Clase de prueba para el servicio CatalogoService.
+ * Las pruebas no son transaccionales: el snapshot solo se invalida cuando las modificaciones
+ * se confirman, por lo que cada prueba limpia la base de datos al terminar.
+ *
+ * @version 1.7
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class CatalogoServiceTest {
+
+    @Autowired
+    private CatalogoService catalogoService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private FindMePostService findMePostService;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private Long insertar(String nombre, Long idCategoria, boolean soldOut) {
+        ProductoDTO producto = datos.producto(nombre, idCategoria);
+        producto.setSoldOut(soldOut);
+        return productoService.insertarProducto(producto);
+    }
+
+    private Long insertar(String nombre, Long idCategoria, float altura, String precio) {
+        ProductoDTO producto = datos.producto(nombre, idCategoria);
+        producto.setAltura(altura);
+        producto.setPrecio(new BigDecimal(precio));
+        return productoService.insertarProducto(producto);
+    }
+
+    @Test
+    @DisplayName("Catálogo - Filtrar productos desde el snapshot")
+    void testFiltrarProductos() {
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        Long tazas = categoriaService.insertarCategoria("Tazas");
+        insertar("Jarrón azul", jarrones, false);
+        insertar("Taza roja", tazas, false);
+        insertar("Jarrón rojo", jarrones, true);
+
+        // Más recientes primero por defecto
+        Page<ProductoDTO> recientes = catalogoService.filtrarProductos(null, null, null, null, PageRequest.of(0, 10));
+        assertEquals(3, recientes.getTotalElements());
+        assertThat(recientes.getContent()).extracting(ProductoDTO::getNombre)
+            .containsExactly("Jarrón rojo", "Taza roja", "Jarrón azul");
+
+        // Más antiguos primero
+        Page<ProductoDTO> viejos = catalogoService.filtrarProductos(null, null, null, "viejos", PageRequest.of(0, 2));
+        assertEquals(3, viejos.getTotalElements());
+        assertThat(viejos.getContent()).extracting(ProductoDTO::getNombre)
+            .containsExactly("Jarrón azul", "Taza roja");
+
+        // Categoría y stock
+        Page<ProductoDTO> jarronesEnStock = catalogoService.filtrarProductos(null, jarrones, true, null, PageRequest.of(0, 10));
+        assertThat(jarronesEnStock.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón azul");
+
+        // Nombre
+        Page<ProductoDTO> rojos = catalogoService.filtrarProductos("ROJ", null, null, null, PageRequest.of(0, 10));
+        assertThat(rojos.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón rojo", "Taza roja");
+    }
+
+    @Test
+    @DisplayName("Catálogo - Filtrar productos por rangos y ordenar por precio desde el snapshot")
+    void testFiltrarProductosPorRangos() {
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        Long tazas = categoriaService.insertarCategoria("Tazas");
+        insertar("Jarrón grande", jarrones, 40f, "45.00");
+        insertar("Taza", tazas, 9f, "12.50");
+        insertar("Jarrón pequeño", jarrones, 15f, "25.00");
+        insertar("Jarrón mediano", jarrones, 25f, "25.00");
+
+        // Más baratos primero; a igualdad de precio, menor id primero
+        Page<ProductoDTO> baratos = catalogoService.filtrarProductos(null, null, null, null, "baratos", PageRequest.of(0, 10));
+        assertThat(baratos.getContent()).extracting(ProductoDTO::getNombre)
+            .containsExactly("Taza", "Jarrón pequeño", "Jarrón mediano", "Jarrón grande");
+
+        // Más caros primero, con categoría y rango de precio y de altura
+        FiltroRangosDTO rangos = new FiltroRangosDTO(new BigDecimal("20"), null);
+        rangos.setAlturaMax(30f);
+        Page<ProductoDTO> caros = catalogoService.filtrarProductos(null, jarrones, null, rangos, "caros", PageRequest.of(0, 10));
+        assertEquals(2, caros.getTotalElements());
+        assertThat(caros.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón mediano", "Jarrón pequeño");
+
+        // El snapshot y la base de datos devuelven la misma página
+        for (String orden : List.of("baratos", "caros", "viejos")) {
+            List<Long> desdeSnapshot = catalogoService.filtrarProductos(null, null, null, rangos, orden, PageRequest.of(0, 2))
+                .map(ProductoDTO::getId).getContent();
+            List<Long> desdeBaseDeDatos = productoService.filtrarProductos(null, null, null, rangos, orden, PageRequest.of(0, 2))
+                .map(ProductoDTO::getId).getContent();
+            assertEquals(desdeBaseDeDatos, desdeSnapshot);
+        }
+
+        // Los rangos también se aplican al paginar por cursor
+        PaginaCursor<ProductoDTO> pagina = catalogoService.filtrarProductosPorCursor(null, null, null, rangos, null, null, 10);
+        assertThat(pagina.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón mediano", "Jarrón pequeño");
+    }
+
+    @Test
+    @DisplayName("Catálogo - Filtrar productos por cursor desde el snapshot")
+    void testFiltrarProductosPorCursor() {
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        Long tazas = categoriaService.insertarCategoria("Tazas");
+        insertar("Jarrón 1", jarrones, false);
+        insertar("Taza 1", tazas, false);
+        insertar("Jarrón 2", jarrones, false);
+        insertar("Jarrón 3", jarrones, true);
+        insertar("Jarrón 4", jarrones, false);
+
+        // Hacia delante, filtrando por categoría
+        PaginaCursor<ProductoDTO> primera = catalogoService.filtrarProductosPorCursor(null, jarrones, null, null, "", 3);
+        assertThat(primera.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón 4", "Jarrón 3", "Jarrón 2");
+        assertNull(primera.getCursorAnterior());
+        PaginaCursor<ProductoDTO> segunda = catalogoService.filtrarProductosPorCursor(null, jarrones, null, null, primera.getCursorSiguiente(), 3);
+        assertThat(segunda.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón 1");
+        assertNull(segunda.getCursorSiguiente());
+
+        // Hacia atrás
+        PaginaCursor<ProductoDTO> vuelta = catalogoService.filtrarProductosPorCursor(null, jarrones, null, null, segunda.getCursorAnterior(), 3);
+        assertThat(vuelta.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón 4", "Jarrón 3", "Jarrón 2");
+        assertNull(vuelta.getCursorAnterior());
+
+        // Más antiguos primero y en stock
+        PaginaCursor<ProductoDTO> viejos = catalogoService.filtrarProductosPorCursor(null, null, true, "viejos", null, 2);
+        assertThat(viejos.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón 1", "Taza 1");
+        PaginaCursor<ProductoDTO> viejos2 = catalogoService.filtrarProductosPorCursor(null, null, true, "viejos", viejos.getCursorSiguiente(), 2);
+        assertThat(viejos2.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón 2", "Jarrón 4");
+        assertNull(viejos2.getCursorSiguiente());
+        PaginaCursor<ProductoDTO> viejosVuelta = catalogoService.filtrarProductosPorCursor(null, null, true, "viejos", viejos2.getCursorAnterior(), 2);
+        assertThat(viejosVuelta.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Jarrón 1", "Taza 1");
+
+        // El snapshot y la base de datos devuelven la misma página
+        PaginaCursor<ProductoDTO> desdeBaseDeDatos = productoService.filtrarProductosPorCursor(null, null, true, "viejos", viejos.getCursorSiguiente(), 2);
+        assertThat(desdeBaseDeDatos.getContent()).extracting(ProductoDTO::getId)
+            .containsExactlyElementsOf(viejos2.getContent().stream().map(ProductoDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Catálogo - Filtrar productos por cursor no válido (excepción)")
+    void testFiltrarProductosPorCursorNoValido() {
+        assertThatThrownBy(() -> catalogoService.filtrarProductosPorCursor(null, null, null, null, "xyz", 3))
+            .isInstanceOf(ProductoException.CursorNoValido.class);
+    }
+
+    @Test
+    @DisplayName("Catálogo - Filtrar productos por cursor con orden por precio (excepción)")
+    void testFiltrarProductosPorCursorOrdenPrecio() {
+        assertThatThrownBy(() -> catalogoService.filtrarProductosPorCursor(null, null, null, "caros", "", 3))
+            .isInstanceOf(ProductoException.OrdenNoValido.class);
+    }
+
+    @Test
+    @DisplayName("Catálogo - Buscar productos tolerando erratas")
+    void testBuscarProductos() {
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        Long tazas = categoriaService.insertarCategoria("Tazas");
+        Long jarron = insertar("Jarrón azul", jarrones, false);
+        Long taza = insertar("Taza azul", tazas, false);
+        insertar("Plato", tazas, false);
+
+        // Errata en el nombre
+        Page<ProductoDTO> resultados = catalogoService.buscarProductos("jaron", PageRequest.of(0, 10));
+        assertEquals(1, resultados.getTotalElements());
+        assertEquals(jarron, resultados.getContent().get(0).getId());
+        assertEquals("Jarrones", resultados.getContent().get(0).getNombreCategoria());
+
+        // Varias palabras: primero el que coincide con ambas, paginado
+        Page<ProductoDTO> primera = catalogoService.buscarProductos("jarron azull", PageRequest.of(0, 1));
+        assertEquals(2, primera.getTotalElements());
+        assertEquals(jarron, primera.getContent().get(0).getId());
+        assertEquals(taza, catalogoService.buscarProductos("jarron azull", PageRequest.of(1, 1)).getContent().get(0).getId());
+
+        // Sin coincidencias
+        assertEquals(0, catalogoService.buscarProductos("xilófono", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Catálogo - Expandir productos con los metadatos de sus imágenes")
+    void testExpandirImagenes() {
+        Long categoria = categoriaService.insertarCategoria("Jarrones");
+        Imagen frente = imagenRepo.save(new Imagen("jarron-frente.jpg", "jpg", 2048, 800, 600));
+        Imagen detalle = imagenRepo.save(new Imagen("jarron-detalle.jpg", "jpg", 1024, 400, 300));
+        Long id = productoService.insertarProducto(new ProductoDTO("Jarrón", categoria, null, "Jarrón de cerámica", 10f, 8f, 0f,
+                BigDecimal.valueOf(20.99), false, List.of(frente.getId(), detalle.getId())));
+        insertar("Taza", categoria, false);
+
+        // Producto individual: las imágenes conservan el orden de sus ids
+        ProductoDTO expandido = catalogoService.expandirImagenes(catalogoService.obtenerProducto(id));
+        assertThat(expandido).isInstanceOf(ProductoExpandidoDTO.class);
+        List<ImagenDTO> imagenes = ((ProductoExpandidoDTO) expandido).getImagenes();
+        assertThat(imagenes).extracting(ImagenDTO::getId).containsExactly(frente.getId(), detalle.getId());
+        assertEquals("/uploads/jarron-detalle.jpg", imagenes.get(1).getUrl());
+        assertEquals(400f, imagenes.get(1).getAncho());
+        assertEquals(300f, imagenes.get(1).getAlto());
+
+        // Página: los productos sin imágenes se expanden con una lista vacía
+        Page<ProductoDTO> pagina = catalogoService.expandirImagenes(catalogoService.obtenerTodos(PageRequest.of(0, 10)));
+        assertThat(pagina.getContent()).allSatisfy(dto -> assertThat(dto).isInstanceOf(ProductoExpandidoDTO.class));
+        assertThat(((ProductoExpandidoDTO) pagina.getContent().get(1)).getImagenes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Catálogo - El snapshot se reconstruye tras confirmar una modificación")
+    void testReconstruirTrasModificacion() {
+        Long categoria = categoriaService.insertarCategoria("Tazas");
+        Long id = insertar("Taza", categoria, false);
+
+        CatalogoSnapshot antes = catalogoService.obtenerSnapshot();
+        assertSame(antes, catalogoService.obtenerSnapshot());
+        assertEquals(1, catalogoService.filtrarProductos(null, null, true, null, PageRequest.of(0, 10)).getTotalElements());
+
+        productoService.establecerStock(id, true);
+
+        CatalogoSnapshot despues = catalogoService.obtenerSnapshot();
+        assertNotSame(antes, despues);
+        assertTrue(despues.getGeneracion() > antes.getGeneracion());
+        assertTrue(catalogoService.obtenerProducto(id).isSoldOut());
+        assertEquals(0, catalogoService.filtrarProductos(null, null, true, null, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Catálogo - Las publicaciones avanzan la revisión global sin reconstruir el snapshot")
+    void testRevisionTrasModificarPublicacion() {
+        CatalogoSnapshot antes = catalogoService.obtenerSnapshot();
+        long revision = revisionCatalogo.getRevision();
+        String etag = revisionCatalogo.getEtag();
+
+        Long id = findMePostService.insertarFindMePost(new FindMePostDTO("Mercado", "Puesto en la plaza",
+            LocalDateTime.of(2025, 5, 1, 10, 0), LocalDateTime.of(2025, 5, 1, 14, 0), 36.5, -6.3));
+        try {
+            assertTrue(revisionCatalogo.getRevision() > revision);
+            assertNotEquals(etag, revisionCatalogo.getEtag());
+            assertSame(antes, catalogoService.obtenerSnapshot());
+        } finally {
+            findMePostService.eliminarFindMePost(id);
+        }
+    }
+
+    @Test
+    @DisplayName("Catálogo - Obtener todos los productos ordenados por id")
+    void testObtenerTodos() {
+        Long categoria = categoriaService.insertarCategoria("Platos");
+        Long id1 = insertar("Plato", categoria, false);
+        Long id2 = insertar("Plato hondo", categoria, false);
+
+        Page<ProductoDTO> pagina = catalogoService.obtenerTodos(PageRequest.of(0, 1));
+        assertEquals(2, pagina.getTotalElements());
+        assertEquals(id1, pagina.getContent().get(0).getId());
+        assertEquals(id2, catalogoService.obtenerTodos(PageRequest.of(1, 1)).getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Catálogo - Obtener producto inexistente (excepción)")
+    void testObtenerProductoInexistente() {
+        assertThatThrownBy(() -> catalogoService.obtenerProducto(999L))
+            .isInstanceOf(ProductoException.NoEncontrado.class)
+            .hasMessageContaining("Product not found with ID 999");
+    }
+}
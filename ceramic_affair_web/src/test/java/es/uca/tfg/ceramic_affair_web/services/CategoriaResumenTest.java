@@ -0,0 +1,136 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.CategoriaResumenDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.exceptions.CategoriaException;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Clase de prueba para los resúmenes de categorías de CategoriaService.
+ * Las pruebas no son transaccionales para que las modificaciones del catálogo se confirmen y
+ * avancen su revisión; cada prueba limpia la base de datos al terminar.
+ *
+ * @version 1.1
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class CategoriaResumenTest {
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Long jarrones;
+    private Long tazas;
+    private Long portada;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+        jarrones = categoriaService.insertarCategoria("Jarrones");
+        tazas = categoriaService.insertarCategoria("Tazas");
+        portada = imagenRepo.save(new Imagen("jarron-frente.jpg", "jpg", 1024f, 800f, 600f)).getId();
+        Long perfil = imagenRepo.save(new Imagen("jarron-perfil.jpg", "jpg", 1024f, 800f, 600f)).getId();
+        insertar("Jarrón azul", jarrones, false, List.of(portada, perfil));
+        insertar("Jarrón rojo", jarrones, true, List.of());
+        insertar("Jarrón verde", jarrones, false, List.of());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private Long insertar(String nombre, Long categoria, boolean soldOut, List<Long> imagenes) {
+        ProductoDTO producto = datos.producto(nombre, categoria);
+        producto.setSoldOut(soldOut);
+        producto.setIdsImagenes(imagenes);
+        return productoService.insertarProducto(producto);
+    }
+
+    @Test
+    @DisplayName("Resumen de categorías - Recuentos y portada")
+    void testObtenerResumenes() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        List<CategoriaResumenDTO> resumenes = categoriaService.obtenerResumenes();
+
+        // Una consulta agrupada y otra para las imágenes de portada, sin cargar los productos
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertEquals(0, estadisticas.getEntityLoadCount() - estadisticas.getEntityStatistics(Imagen.class.getName()).getLoadCount());
+
+        assertThat(resumenes).extracting(CategoriaResumenDTO::getNombre).containsExactly("Jarrones", "Tazas");
+        CategoriaResumenDTO resumenJarrones = resumenes.get(0);
+        assertEquals(3, resumenJarrones.getNumeroProductos());
+        assertEquals(2, resumenJarrones.getNumeroEnStock());
+        assertEquals(portada, resumenJarrones.getPortada().getId());
+        assertEquals("/uploads/jarron-frente.jpg", resumenJarrones.getPortada().getUrl());
+
+        // Categoría vacía
+        CategoriaResumenDTO resumenTazas = categoriaService.obtenerResumen(tazas);
+        assertEquals(0, resumenTazas.getNumeroProductos());
+        assertEquals(0, resumenTazas.getNumeroEnStock());
+        assertNull(resumenTazas.getPortada());
+
+        assertThatThrownBy(() -> categoriaService.obtenerResumen(-1L))
+            .isInstanceOf(CategoriaException.NoEncontrada.class);
+    }
+
+    @Test
+    @DisplayName("Resumen de categorías - Caché invalidada al modificar el catálogo")
+    void testCacheResumenes() {
+        categoriaService.obtenerResumenes();
+
+        // Sin modificaciones se sirven desde la caché, sin consultas
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        assertEquals(3, categoriaService.obtenerResumen(jarrones).getNumeroProductos());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        // Una modificación del catálogo invalida la caché
+        insertar("Taza", tazas, false, List.of());
+        categoriaService.modificarCategoria(jarrones, "Jarras");
+        assertEquals(1, categoriaService.obtenerResumen(tazas).getNumeroProductos());
+        assertEquals("Jarras", categoriaService.obtenerResumen(jarrones).getNombre());
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.transaction.annotation.Transactional;
 import es.uca.tfg.ceramic_affair_web.entities.Categoria;
 import es.uca.tfg.ceramic_affair_web.entities.Producto;
 import es.uca.tfg.ceramic_affair_web.exceptions.CategoriaException;
+import es.uca.tfg.ceramic_affair_web.exceptions.ConcurrenciaException;
 import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
 import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
 
@@ -29,7 +30,7 @@ import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
  * Clase de prueba para el servicio CategoriaService.
  * Proporciona pruebas de integración para las operaciones CRUD en la entidad Categoria.
  * 
- * @version 1.1
+ * @version 1.2
  */
 @SpringBootTest
 @Transactional
@@ -172,6 +173,26 @@ public class CategoriaServiceTest {
         assertThat(categoriaRepo.findById(idCategoria)).isEmpty();
     }
 
+    @Test
+    @DisplayName("Servicio - Modificar y eliminar categoría comprobando su versión")
+    void testCategoriaConVersion() {
+        Long id = categoriaService.insertarCategoria("Cerámica");
+        categoriaRepo.flush();
+        long version = categoriaService.obtenerPorId(id).getVersion();
+
+        categoriaService.modificarCategoria(id, "Cerámica Moderna", version);
+        categoriaRepo.flush();
+
+        // La versión leída antes de la modificación ya no es válida
+        assertThatThrownBy(() -> categoriaService.eliminarCategoria(id, version))
+            .isInstanceOf(ConcurrenciaException.VersionNoCoincide.class)
+            .hasMessage("Category with ID " + id + " has been modified, current version is " + (version + 1));
+        assertThat(categoriaRepo.findById(id)).isPresent();
+
+        categoriaService.eliminarCategoria(id, version + 1);
+        assertThat(categoriaRepo.findById(id)).isEmpty();
+    }
+
     @Test
     @DisplayName("Servicio - Eliminar categoría (excepción)")
     void testEliminarCategoriaInexistente() {
@@ -0,0 +1,130 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Clase de prueba para la agrupación de consultas concurrentes ConsultasCompartidas.
+ *
+ * @version 1.0
+ */
+public class ConsultasCompartidasTest {
+
+    private static final int HILOS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+
+    @AfterEach
+    void cleanUp() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Lanza HILOS peticiones con la misma clave mientras la primera consulta está bloqueada,
+     * y la libera cuando todas se han quedado esperando.
+     */
+    private <V> List<Future<V>> lanzarBloqueadas(ConsultasCompartidas<String, V> consultas, CountDownLatch liberar,
+                                                 AtomicInteger ejecuciones, V resultado, RuntimeException error) throws Exception {
+        CountDownLatch empezada = new CountDownLatch(1);
+        List<Future<V>> peticiones = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            peticiones.add(executor.submit(() -> consultas.obtener("clave", () -> {
+                ejecuciones.incrementAndGet();
+                empezada.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (error != null) {
+                    throw error;
+                }
+                return resultado;
+            })));
+        }
+        assertTrue(empezada.await(5, TimeUnit.SECONDS));
+        // Margen para que el resto de hilos llegue a la consulta en curso
+        Thread.sleep(200);
+        liberar.countDown();
+        return peticiones;
+    }
+
+    @Test
+    @DisplayName("Consultas compartidas - Las peticiones simultáneas comparten una ejecución")
+    void testUnaEjecucion() throws Exception {
+        ConsultasCompartidas<String, List<String>> consultas = new ConsultasCompartidas<>();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        List<String> resultado = List.of("Jarrón azul");
+
+        List<Future<List<String>>> peticiones = lanzarBloqueadas(consultas, new CountDownLatch(1), ejecuciones, resultado, null);
+
+        for (Future<List<String>> peticion : peticiones) {
+            assertSame(resultado, peticion.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, ejecuciones.get());
+        assertEquals(0, consultas.getEnCurso());
+
+        // Al terminar no se guarda nada: la siguiente petición vuelve a consultar
+        consultas.obtener("clave", () -> {
+            ejecuciones.incrementAndGet();
+            return resultado;
+        });
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    @DisplayName("Consultas compartidas - Las peticiones agrupadas reciben la misma excepción")
+    void testExcepcion() throws Exception {
+        ConsultasCompartidas<String, String> consultas = new ConsultasCompartidas<>();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        IllegalStateException error = new IllegalStateException("Base de datos no disponible");
+
+        List<Future<String>> peticiones = lanzarBloqueadas(consultas, new CountDownLatch(1), ejecuciones, null, error);
+
+        for (Future<String> peticion : peticiones) {
+            Exception e = assertThrows(Exception.class, () -> peticion.get(5, TimeUnit.SECONDS));
+            assertSame(error, e.getCause());
+        }
+        assertEquals(1, ejecuciones.get());
+        assertEquals(0, consultas.getEnCurso());
+    }
+
+    @Test
+    @DisplayName("Consultas compartidas - Claves distintas y transacciones activas no se agrupan")
+    void testSinAgrupar() {
+        ConsultasCompartidas<String, String> consultas = new ConsultasCompartidas<>();
+
+        // Una consulta anidada con otra clave se ejecuta aunque la primera siga en curso
+        String resultado = consultas.obtener("revision-1", () -> "1:" + consultas.obtener("revision-2", () -> "2"));
+        assertEquals("1:2", resultado);
+
+        // Dentro de una transacción, incluso la misma clave se consulta de nuevo
+        AtomicInteger ejecuciones = new AtomicInteger();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            consultas.obtener("clave", () -> {
+                ejecuciones.incrementAndGet();
+                return consultas.obtener("clave", () -> String.valueOf(ejecuciones.incrementAndGet()));
+            });
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(2, ejecuciones.get());
+    }
+}
@@ -0,0 +1,109 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.entities.FindMePost;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.FindMePostRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+
+/**
+ * Datos de prueba compartidos por las pruebas del catálogo: limpieza de la base de datos y productos de ejemplo.
+ * La limpieza borra directamente con los repositorios, así que publica los mismos eventos de eliminación
+ * que publicarían los servicios; de este modo el snapshot, los resúmenes y las cachés se renuevan
+ * como tras cualquier modificación real.
+ * Las pruebas que la usan la declaran con @Import(DatosCatalogoPrueba.class).
+ *
+ * @version 1.0
+ */
+@TestComponent
+public class DatosCatalogoPrueba {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private CategoriaRepo categoriaRepo;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private FindMePostRepo findMePostRepo;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Método para eliminar los productos, categorías, imágenes y publicaciones "Encuéntrame".
+     */
+    public void limpiar() {
+        eliminar(productoRepo, Producto::getId, Entidad.PRODUCTO);
+        eliminar(categoriaRepo, Categoria::getId, Entidad.CATEGORIA);
+        eliminar(imagenRepo, Imagen::getId, Entidad.IMAGEN);
+        eliminar(findMePostRepo, FindMePost::getId, Entidad.FIND_ME_POST);
+        // El índice de búsqueda se actualiza desde los servicios, no con los eventos
+        busquedaService.invalidar();
+    }
+
+    /**
+     * Método para crear el DTO de un producto de ejemplo, que cada prueba puede ajustar antes de insertarlo.
+     *
+     * @param nombre el nombre del producto
+     * @param idCategoria el id de su categoría (null si no tiene)
+     * @return el DTO del producto
+     */
+    public ProductoDTO producto(String nombre, Long idCategoria) {
+        return new ProductoDTO(nombre, idCategoria, null, "Cerámica artesanal",
+            10f, 8f, 8f, new BigDecimal("20"), false, List.of());
+    }
+
+    /**
+     * Método para insertar un producto de ejemplo.
+     *
+     * @param nombre el nombre del producto
+     * @param idCategoria el id de su categoría (null si no tiene)
+     * @return el id del producto
+     */
+    public Long insertarProducto(String nombre, Long idCategoria) {
+        return productoService.insertarProducto(producto(nombre, idCategoria));
+    }
+
+    /**
+     * Método helper para eliminar todas las filas de un repositorio y publicar su eliminación.
+     *
+     * @param repo el repositorio
+     * @param id la función que obtiene el id de cada entidad
+     * @param entidad la entidad del evento
+     */
+    private <T> void eliminar(JpaRepository<T, Long> repo, Function<T, Long> id, Entidad entidad) {
+        List<T> filas = repo.findAll();
+        if (filas.isEmpty()) {
+            return;
+        }
+        repo.deleteAll(filas);
+        eventPublisher.publishEvent(CatalogoModificadoEvent.deVarias(entidad, Operacion.ELIMINACION,
+            filas.stream().map(id).toList()));
+    }
+}
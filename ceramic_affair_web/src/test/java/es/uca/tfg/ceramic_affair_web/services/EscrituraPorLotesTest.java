@@ -0,0 +1,160 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.uca.tfg.ceramic_affair_web.entities.Categoria;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Clase de prueba de las escrituras de varias filas del catálogo.
+ * Mide con las estadísticas de Hibernate las sentencias SQL preparadas por operación,
+ * incluidas las que se difieren hasta el flush, y comprueba que se mantienen acotadas
+ * gracias a la generación de ids por bloques y al envío de sentencias JDBC por lotes.
+ *
+ * @version 1.2
+ */
+@SpringBootTest
+@Transactional
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class EscrituraPorLotesTest {
+
+    private static final int NUM_FILAS = 40;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private CategoriaRepo categoriaRepo;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        productoRepo.deleteAll();
+        categoriaRepo.deleteAll();
+        imagenRepo.deleteAll();
+        entityManager.flush();
+        entityManager.clear();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Método helper para ejecutar una operación y contar las sentencias preparadas, incluido el flush final.
+     *
+     * @param operacion la operación a medir
+     * @return el número de sentencias preparadas
+     */
+    private long sentencias(Runnable operacion) {
+        estadisticas.clear();
+        operacion.run();
+        entityManager.flush();
+        long sentencias = estadisticas.getPrepareStatementCount();
+        entityManager.clear();
+        return sentencias;
+    }
+
+    @Test
+    @DisplayName("Lotes - Insertar varias filas")
+    void testInsertarVariasFilas() {
+        List<Categoria> categorias = new ArrayList<>();
+        for (int i = 0; i < NUM_FILAS; i++) {
+            categorias.add(new Categoria("Categoría " + i));
+        }
+
+        // Ids por bloques: las inserciones no necesitan volver a la base de datos para conocer el id
+        long insercion = sentencias(() -> categoriaRepo.saveAll(categorias));
+        assertThat(insercion).isLessThanOrEqualTo(5);
+        assertThat(categoriaRepo.count()).isEqualTo(NUM_FILAS);
+    }
+
+    @Test
+    @DisplayName("Lotes - Eliminar una categoría con productos")
+    void testEliminarCategoriaConProductos() {
+        Categoria categoria = categoriaRepo.save(new Categoria("Jarrones"));
+        for (int i = 0; i < NUM_FILAS; i++) {
+            productoRepo.save(new Producto("Jarrón " + i, categoria, "Jarrón de cerámica", 0, 0, 0, BigDecimal.TEN, false, null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Long id = categoria.getId();
+
+        // Los productos se desvinculan con una única sentencia UPDATE, sin cargarlos
+        int[] desvinculados = new int[1];
+        long eliminacion = sentencias(() -> desvinculados[0] = categoriaService.eliminarCategoria(id));
+        assertThat(eliminacion).isLessThanOrEqualTo(4);
+        assertThat(desvinculados[0]).isEqualTo(NUM_FILAS);
+        assertThat(categoriaRepo.findById(id)).isEmpty();
+        assertThat(productoRepo.findAll()).hasSize(NUM_FILAS).allSatisfy(p -> {
+            assertThat(p.getCategoria()).isNull();
+            assertThat(p.getVersion()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("Lotes - Eliminar un producto con imágenes")
+    void testEliminarProductoConImagenes() {
+        List<Imagen> imagenes = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            imagenes.add(imagenRepo.save(new Imagen("inexistente-" + i + ".jpg", "jpg", 10f, 10f, 10f)));
+        }
+        Producto producto = productoRepo.save(new Producto("Taza", null, "Taza de cerámica", 0, 0, 0, BigDecimal.TEN, false, imagenes));
+        entityManager.flush();
+        entityManager.clear();
+        Long id = producto.getId();
+
+        // Las imágenes y el producto se eliminan con una sentencia cada uno
+        long eliminacion = sentencias(() -> {
+            try {
+                productoService.eliminarProducto(id);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertThat(eliminacion).isLessThanOrEqualTo(4);
+        assertThat(productoRepo.findById(id)).isEmpty();
+        assertThat(imagenRepo.count()).isZero();
+    }
+}
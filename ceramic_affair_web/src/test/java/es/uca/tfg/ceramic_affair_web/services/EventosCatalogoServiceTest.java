@@ -0,0 +1,201 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import es.uca.tfg.ceramic_affair_web.configuration.CacheRespuestasFilter;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+
+/**
+ * Clase de prueba del flujo de eventos del catálogo.
+ * Las pruebas no son transaccionales: los eventos se difunden tras el commit de cada modificación.
+ *
+ * @version 1.2
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class EventosCatalogoServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventosCatalogoService eventosCatalogoService;
+
+    @Autowired
+    private RevisionCatalogo revisionCatalogo;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Long jarron;
+    private Long plato;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        jarron = datos.insertarProducto("Jarrón azul", jarrones);
+        plato = datos.insertarProducto("Plato llano", jarrones);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Timed out waiting for catalog event");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Emisor de un cliente que ha dejado de leer: cada envío se queda bloqueado hasta que se libera.
+     */
+    private static SseEmitter bloqueado(CountDownLatch liberar) {
+        return new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+                try {
+                    liberar.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static String contenido(MvcResult resultado) {
+        try {
+            return resultado.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Eventos - Cambios de stock y eliminaciones en directo")
+    void testEventosEnDirecto() throws Exception {
+        MvcResult flujo = mockMvc.perform(get("/api/public/eventos/catalogo"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        esperar(() -> contenido(flujo).contains("event:conectado"));
+        // Las respuestas asíncronas no pasan por la caché de respuestas
+        assertThat(flujo.getResponse().getHeader(CacheRespuestasFilter.CABECERA_CACHE)).isNull();
+
+        // El id del evento es la revisión anterior a la modificación
+        long revision = revisionCatalogo.getRevision();
+        productoService.establecerStock(jarron, true);
+        esperar(() -> contenido(flujo).contains("\"soldOut\":true"));
+        assertThat(contenido(flujo)).contains("id:" + revision + "\nevent:producto\ndata:{\"operacion\":\"MODIFICACION\",\"id\":" + jarron);
+
+        productoService.eliminarProducto(plato);
+        esperar(() -> contenido(flujo).contains("{\"operacion\":\"ELIMINACION\",\"id\":" + plato + ",\"soldOut\":null,\"precio\":null}"));
+    }
+
+    @Test
+    @DisplayName("Eventos - Un suscriptor lento se desconecta al llenar su buffer")
+    void testSuscriptorLento() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        SseEmitter lento = bloqueado(liberar);
+
+        try {
+            eventosCatalogoService.suscribir(lento);
+            int suscriptores = eventosCatalogoService.getSuscriptores();
+
+            // El primer evento queda bloqueado en el envío; los siguientes llenan el buffer
+            for (int i = 0; i <= EventosCatalogoService.CAPACIDAD_BUFFER + 1; i++) {
+                eventosCatalogoService.alModificarCatalogo(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, null));
+            }
+            esperar(() -> eventosCatalogoService.getSuscriptores() == suscriptores - 1);
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Eventos - Los clientes que no leen no frenan el envío a los demás")
+    void testSuscriptoresBloqueados() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger recibidos = new AtomicInteger();
+        AtomicBoolean desconectado = new AtomicBoolean();
+        SseEmitter sano = new SseEmitter() {
+            @Override
+            public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+                if (desconectado.get()) {
+                    throw new IOException("Broken pipe");
+                }
+                recibidos.incrementAndGet();
+            }
+        };
+
+        int suscriptores = eventosCatalogoService.getSuscriptores();
+        try {
+            // Tantos clientes bloqueados como hilos de envío
+            for (int i = 0; i < EventosCatalogoService.HILOS_ENVIO; i++) {
+                eventosCatalogoService.suscribir(bloqueado(liberar));
+            }
+            eventosCatalogoService.suscribir(sano);
+
+            int eventos = 5;
+            for (int i = 0; i < eventos; i++) {
+                eventosCatalogoService.alModificarCatalogo(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, null));
+            }
+
+            // El suscriptor sano recibe el evento inicial y todos los demás; los bloqueados se desconectan
+            esperar(() -> recibidos.get() == eventos + 1);
+            esperar(() -> eventosCatalogoService.getSuscriptores() == suscriptores + 1);
+        } finally {
+            liberar.countDown();
+        }
+
+        // El cliente sano se desconecta para no recibir los eventos de otras pruebas
+        desconectado.set(true);
+        eventosCatalogoService.latir();
+        esperar(() -> eventosCatalogoService.getSuscriptores() == suscriptores);
+    }
+}
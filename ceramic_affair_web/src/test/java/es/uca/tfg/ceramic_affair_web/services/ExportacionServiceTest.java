@@ -0,0 +1,145 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.exceptions.ExportacionException;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+
+/**
+ * Clase de prueba para el servicio ExportacionService.
+ * Las pruebas no son transaccionales porque la exportación abre su propia transacción de lectura;
+ * cada prueba limpia la base de datos al terminar.
+ *
+ * @version 1.1
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class ExportacionServiceTest {
+
+    @Autowired
+    private ExportacionService exportacionService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Long jarron;
+    private Long plato;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        Long frente = imagenRepo.save(new Imagen("jarron-frente.jpg", "jpg", 1024f, 800f, 600f)).getId();
+        Long perfil = imagenRepo.save(new Imagen("jarron-perfil.jpg", "jpg", 1024f, 800f, 600f)).getId();
+        jarron = productoService.insertarProducto(new ProductoDTO("Jarrón azul", jarrones, null, "Torneado, \"esmaltado\"",
+            20f, 10f, 8f, new BigDecimal("25.50"), false, List.of(frente, perfil)));
+        // El plato queda sin categoría al eliminar la suya
+        Long platos = categoriaService.insertarCategoria("Platos");
+        plato = productoService.insertarProducto(new ProductoDTO("Plato", platos, null, "Plato llano",
+            2f, 20f, 20f, new BigDecimal("12"), true, List.of()));
+        categoriaService.eliminarCategoria(platos);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private String exportar(ImportacionDTO.Formato formato) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        exportacionService.exportar(salida, formato);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Exportación - NDJSON")
+    void testExportarNdjson() throws IOException {
+        List<String> lineas = exportar(ImportacionDTO.Formato.NDJSON).lines().toList();
+        assertEquals(2, lineas.size());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode primero = objectMapper.readTree(lineas.get(0));
+        assertEquals(jarron.longValue(), primero.get("id").asLong());
+        assertEquals("Jarrones", primero.get("nombreCategoria").asText());
+        assertEquals("Torneado, \"esmaltado\"", primero.get("descripcion").asText());
+        assertEquals(0, new BigDecimal("25.50").compareTo(primero.get("precio").decimalValue()));
+        assertThat(primero.get("rutasImagenes")).extracting(JsonNode::asText).containsExactly("jarron-frente.jpg", "jarron-perfil.jpg");
+
+        JsonNode segundo = objectMapper.readTree(lineas.get(1));
+        assertEquals(plato.longValue(), segundo.get("id").asLong());
+        assertThat(segundo.get("nombreCategoria").isNull()).isTrue();
+        assertThat(segundo.get("soldOut").asBoolean()).isTrue();
+        assertThat(segundo.get("rutasImagenes")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Exportación - CSV")
+    void testExportarCsv() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader(exportar(ImportacionDTO.Formato.CSV)));
+
+        assertThat(lector.leer()).containsExactly("id", "nombre", "idCategoria", "nombreCategoria", "descripcion",
+            "altura", "anchura", "diametro", "precio", "soldOut", "fechaCreacion", "rutasImagenes");
+        List<String> primero = lector.leer();
+        assertEquals(String.valueOf(jarron), primero.get(0));
+        assertEquals("Jarrones", primero.get(3));
+        assertEquals("Torneado, \"esmaltado\"", primero.get(4));
+        assertEquals("25.50", primero.get(8));
+        assertEquals("jarron-frente.jpg|jarron-perfil.jpg", primero.get(11));
+        List<String> segundo = lector.leer();
+        assertEquals("", segundo.get(3));
+        assertEquals("true", segundo.get(9));
+        assertEquals("", segundo.get(11));
+        assertThat(lector.leer()).isNull();
+    }
+
+    @Test
+    @DisplayName("Exportación - Formato según el parámetro")
+    void testFormatoDe() {
+        assertEquals(ImportacionDTO.Formato.CSV, ExportacionService.formatoDe("csv"));
+        assertEquals(ImportacionDTO.Formato.NDJSON, ExportacionService.formatoDe("NDJSON"));
+        assertThatThrownBy(() -> ExportacionService.formatoDe("xml"))
+            .isInstanceOf(ExportacionException.FormatoNoSoportado.class)
+            .hasMessage("Unsupported export format xml, use csv or ndjson");
+    }
+}
@@ -0,0 +1,172 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FacetasDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.FiltroRangosDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Clase de prueba para el servicio FacetasService.
+ * Las pruebas no son transaccionales para que las modificaciones del catálogo se confirmen y
+ * avancen su revisión; cada prueba limpia la base de datos al terminar.
+ *
+ * @version 1.2
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class FacetasServiceTest {
+
+    @Autowired
+    private FacetasService facetasService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Long jarrones;
+    private Long platos;
+    private Long taza;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+        jarrones = categoriaService.insertarCategoria("Jarrones");
+        platos = categoriaService.insertarCategoria("Platos");
+        insertar("Jarrón azul", jarrones, 30f, "25.50", false);
+        insertar("Jarrón grande", jarrones, 60f, "120", true);
+        insertar("Plato llano", platos, 2f, "12", false);
+        insertar("Plato hondo", platos, 5f, "18", false);
+        // La taza queda sin categoría al eliminar la suya
+        Long tazas = categoriaService.insertarCategoria("Tazas");
+        taza = insertar("Taza", tazas, 9f, "50", false);
+        categoriaService.eliminarCategoria(tazas);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private Long insertar(String nombre, Long categoria, float altura, String precio, boolean soldOut) {
+        ProductoDTO producto = datos.producto(nombre, categoria);
+        producto.setAltura(altura);
+        producto.setPrecio(new BigDecimal(precio));
+        producto.setSoldOut(soldOut);
+        return productoService.insertarProducto(producto);
+    }
+
+    private static long totalCategoria(FacetasDTO facetas, Long categoria) {
+        return facetas.getCategorias().stream()
+            .filter(faceta -> Objects.equals(faceta.getId(), categoria))
+            .mapToLong(FacetasDTO.FacetaCategoria::getTotal)
+            .findFirst().orElse(0);
+    }
+
+    @Test
+    @DisplayName("Facetas - Sin filtros")
+    void testFacetasSinFiltros() {
+        FacetasDTO facetas = facetasService.obtenerFacetas(null, null, null, null);
+
+        assertEquals(5, facetas.getTotal());
+        assertEquals(4, facetas.getEnStock());
+        assertEquals(1, facetas.getAgotados());
+        // Por nombre, con los productos sin categoría al final
+        assertThat(facetas.getCategorias()).extracting(FacetasDTO.FacetaCategoria::getNombre).containsExactly("Jarrones", "Platos", null);
+        assertEquals(2, totalCategoria(facetas, jarrones));
+        assertEquals(1, totalCategoria(facetas, null));
+        assertThat(facetas.getPrecios()).extracting(FacetasDTO.IntervaloPrecio::getTotal).containsExactly(2L, 1L, 1L, 1L);
+        assertNull(facetas.getPrecios().get(3).getHasta());
+        assertEquals(0, new BigDecimal("12").compareTo(facetas.getPrecio().getMin()));
+        assertEquals(0, new BigDecimal("120").compareTo(facetas.getPrecio().getMax()));
+        assertEquals(0, new BigDecimal("2").compareTo(facetas.getAltura().getMin()));
+        assertEquals(0, new BigDecimal("60").compareTo(facetas.getAltura().getMax()));
+    }
+
+    @Test
+    @DisplayName("Facetas - Con filtros")
+    void testFacetasConFiltros() {
+        FacetasDTO facetas = facetasService.obtenerFacetas(null, jarrones, true, null);
+
+        // El resto de facetas cumplen todos los filtros
+        assertEquals(1, facetas.getTotal());
+        assertEquals(0, new BigDecimal("25.50").compareTo(facetas.getPrecio().getMin()));
+        assertEquals(0, new BigDecimal("25.50").compareTo(facetas.getPrecio().getMax()));
+        assertThat(facetas.getPrecios()).extracting(FacetasDTO.IntervaloPrecio::getTotal).containsExactly(0L, 1L, 0L, 0L);
+        // La faceta de categoría no aplica el filtro de categoría
+        assertEquals(1, totalCategoria(facetas, jarrones));
+        assertEquals(2, totalCategoria(facetas, platos));
+        assertEquals(1, totalCategoria(facetas, null));
+        // La faceta de stock no aplica el filtro de stock
+        assertEquals(1, facetas.getEnStock());
+        assertEquals(1, facetas.getAgotados());
+
+        // Filtro por nombre
+        facetas = facetasService.obtenerFacetas("PLATO", null, null, null);
+        assertEquals(2, facetas.getTotal());
+        assertThat(facetas.getCategorias()).extracting(FacetasDTO.FacetaCategoria::getId).containsExactly(platos);
+
+        // Filtro por rango de precio
+        facetas = facetasService.obtenerFacetas(null, null, null, new FiltroRangosDTO(new BigDecimal("15"), new BigDecimal("50")));
+        assertEquals(3, facetas.getTotal());
+        assertEquals(0, new BigDecimal("18").compareTo(facetas.getPrecio().getMin()));
+        assertEquals(0, new BigDecimal("50").compareTo(facetas.getPrecio().getMax()));
+
+        facetas = facetasService.obtenerFacetas("inexistente", null, null, null);
+        assertEquals(0, facetas.getTotal());
+        assertThat(facetas.getCategorias()).isEmpty();
+        assertNull(facetas.getPrecio().getMin());
+    }
+
+    @Test
+    @DisplayName("Facetas - Caché invalidada al modificar el catálogo")
+    void testCacheFacetas() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        FacetasDTO primera = facetasService.obtenerFacetas("Jarrón", null, false, null);
+
+        // La misma firma de filtro se sirve desde la caché, sin consultas
+        estadisticas.clear();
+        assertSame(primera, facetasService.obtenerFacetas("jarron ", null, null, null));
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        // Una modificación del catálogo invalida la caché
+        productoService.establecerStock(taza, true);
+        FacetasDTO segunda = facetasService.obtenerFacetas("Jarrón", null, false, null);
+        assertThat(segunda).isNotSameAs(primera);
+        assertEquals(2, facetasService.obtenerFacetas(null, null, null, null).getAgotados());
+    }
+}
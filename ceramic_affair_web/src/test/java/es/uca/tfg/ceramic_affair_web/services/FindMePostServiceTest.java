@@ -3,6 +3,7 @@ package es.uca.tfg.ceramic_affair_web.services;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,7 +22,7 @@ import es.uca.tfg.ceramic_affair_web.repositories.FindMePostRepo;
  * Servicio para pruebas unitarias de FindMePostService.
  * Este servicio se utiliza para realizar pruebas de integración sobre la lógica de negocio relacionada con las publicaciones "Encuéntrame".
  * 
- * @version 1.0
+ * @version 1.1
  */
 @SpringBootTest
 @Transactional
@@ -189,4 +190,23 @@ public class FindMePostServiceTest {
 
         assertEquals(2, findMePostService.obtenerTodas().size());
     }
+
+    @Test
+    @DisplayName("Servicio - Obtener todas las publicaciones 'Encuéntrame' sin descripción")
+    void testObtenerTodasSinDescripcion() {
+        findMePostService.insertarFindMePost(new FindMePostDTO("Título 1", "Descripción 1",
+            LocalDateTime.of(2023, 10, 1, 0, 0), LocalDateTime.of(2023, 10, 31, 0, 0), 36.5, -6.3));
+        Long id = findMePostService.insertarFindMePost(new FindMePostDTO("Título 2", "Descripción 2",
+            LocalDateTime.of(2023, 11, 1, 0, 0), LocalDateTime.of(2023, 11, 30, 0, 0), 37.0, -6.5));
+
+        List<FindMePostDTO> publicaciones = findMePostService.obtenerTodas(false);
+
+        assertEquals(2, publicaciones.size());
+        assertEquals(id, publicaciones.get(0).getId());
+        assertEquals("Título 2", publicaciones.get(0).getTitulo());
+        assertEquals(LocalDateTime.of(2023, 11, 1, 0, 0), publicaciones.get(0).getFechaInicio());
+        assertEquals(-6.5, publicaciones.get(0).getLongitud());
+        assertNull(publicaciones.get(0).getDescripcion());
+        assertEquals("Descripción 2", findMePostService.obtenerTodas(true).get(0).getDescripcion());
+    }
 }
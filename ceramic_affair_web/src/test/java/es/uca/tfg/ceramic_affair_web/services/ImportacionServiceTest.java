@@ -0,0 +1,244 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.ImportacionDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Producto;
+import es.uca.tfg.ceramic_affair_web.exceptions.ImportacionException;
+import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+
+/**
+ * Clase de prueba para el servicio ImportacionService.
+ * Las pruebas no son transaccionales porque cada lote se confirma en su propia transacción;
+ * cada prueba limpia la base de datos al terminar.
+ *
+ * @version 1.2
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class ImportacionServiceTest {
+
+    @Autowired
+    private ImportacionService importacionService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private BusquedaService busquedaService;
+
+    @Autowired
+    private ProductoRepo productoRepo;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    private static InputStream flujo(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Importación - CSV con filas válidas y no válidas")
+    void testImportarCsv() throws IOException {
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        categoriaService.insertarCategoria("Tazas");
+
+        String csv = """
+            nombre,nombreCategoria,descripcion,altura,anchura,diametro,precio,soldOut
+            Jarrón azul,jarrones,"Torneado, esmaltado",20,10,8,25.50,false
+            Taza roja,TAZAS,Taza de desayuno,8,8,7,9.99,true
+            Plato,Platos,Plato llano,2,20,20,12,false
+            ,Tazas,Sin nombre,8,8,7,9.99,false
+            Cuenco,,Cuenco sin categoría,abc,10,10,5,false
+            Fuente,,Fuente sin precio,5,30,30,,false
+
+            Tetera,,Tetera blanca,15,12,10,30,false
+            """;
+
+        ImportacionDTO informe = importacionService.importar(flujo(csv), ImportacionDTO.Formato.CSV);
+
+        assertEquals(ImportacionDTO.Estado.COMPLETADA, informe.getEstado());
+        assertEquals(7, informe.getFilasProcesadas());
+        assertEquals(3, informe.getFilasImportadas());
+        assertEquals(4, informe.getFilasConError());
+        assertThat(informe.getErrores()).extracting(ImportacionDTO.ErrorFila::getFila).containsExactly(4, 5, 6, 7);
+        assertThat(informe.getErrores()).extracting(ImportacionDTO.ErrorFila::getMensaje).containsExactly(
+            "Category not found with name Platos",
+            "nombre: El nombre del producto es obligatiorio",
+            "Invalid value for 'altura': abc",
+            "precio: El precio del producto es obligatorio");
+        assertNotNull(informe.getFechaFin());
+
+        // Los productos importados se guardan con su categoría y se indexan para la búsqueda
+        List<Producto> productos = productoRepo.findAllConRelaciones().stream()
+            .sorted(Comparator.comparing(Producto::getNombre)).toList();
+        assertThat(productos).extracting(Producto::getNombre).containsExactly("Jarrón azul", "Taza roja", "Tetera");
+        assertEquals(jarrones, productos.get(0).getCategoria().getId());
+        assertEquals("Torneado, esmaltado", productos.get(0).getDescripcion());
+        assertEquals(0, new BigDecimal("25.50").compareTo(productos.get(0).getPrecio()));
+        assertThat(productos.get(2).getCategoria()).isNull();
+        assertThat(busquedaService.buscarPorNombre("tetera")).containsExactly(productos.get(2).getId());
+
+        // El informe se puede consultar después por su id
+        assertEquals(3, importacionService.obtenerPorId(informe.getId()).getFilasImportadas());
+        assertThat(importacionService.obtenerTodas()).extracting(ImportacionDTO::getId).contains(informe.getId());
+    }
+
+    @Test
+    @DisplayName("Importación - NDJSON en varios lotes")
+    void testImportarNdjson() throws IOException {
+        Long tazas = categoriaService.insertarCategoria("Tazas");
+
+        StringBuilder ndjson = new StringBuilder();
+        int filas = ImportacionService.TAMANO_LOTE * 2 + 10;
+        for (int i = 1; i <= filas; i++) {
+            ndjson.append("{\"nombre\":\"Taza ").append(i).append("\",\"idCategoria\":").append(tazas)
+                .append(",\"altura\":8,\"anchura\":8,\"diametro\":7,\"precio\":9.99,\"soldOut\":false}\n");
+        }
+        ndjson.append("{\"nombre\":\"Taza rota\",\"idCategoria\":-1,\"altura\":8,\"anchura\":8,\"diametro\":7,\"precio\":9.99,\"soldOut\":false}\n");
+        ndjson.append("no es json\n");
+
+        ImportacionDTO informe = importacionService.importar(flujo(ndjson.toString()), ImportacionDTO.Formato.NDJSON);
+
+        assertEquals(filas, informe.getFilasImportadas());
+        assertEquals(filas, productoRepo.count());
+        assertThat(informe.getErrores()).extracting(ImportacionDTO.ErrorFila::getFila).containsExactly(filas + 1, filas + 2);
+        assertEquals("Category not found with ID -1", informe.getErrores().get(0).getMensaje());
+        assertThat(informe.getErrores().get(1).getMensaje()).startsWith("Invalid JSON");
+    }
+
+    @Test
+    @DisplayName("Importación - Cabecera CSV no válida")
+    void testCabeceraNoValida() {
+        assertThatThrownBy(() -> importacionService.importar(flujo("nombre,color\nTaza,roja\n"), ImportacionDTO.Formato.CSV))
+            .isInstanceOf(ImportacionException.CabeceraNoValida.class)
+            .hasMessage("Invalid CSV header: unknown column 'color'");
+
+        // La importación fallida queda registrada
+        assertEquals(ImportacionDTO.Estado.FALLIDA, importacionService.obtenerTodas().get(0).getEstado());
+    }
+
+    @Test
+    @DisplayName("Importación - Progreso consultable por el id propuesto mientras se recibe el archivo")
+    void testProgresoConIdPropuesto() throws Exception {
+        String id = "prueba-" + UUID.randomUUID();
+        String fila = "{\"nombre\":\"Taza\",\"altura\":8,\"anchura\":8,\"diametro\":7,\"precio\":9.99,\"soldOut\":false}\n";
+        PipedInputStream entrada = new PipedInputStream();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (OutputStream salida = new PipedOutputStream(entrada)) {
+            Future<ImportacionDTO> importacion = executor.submit(
+                () -> importacionService.importar(entrada, ImportacionDTO.Formato.NDJSON, id));
+
+            salida.write((fila + fila).getBytes(StandardCharsets.UTF_8));
+            salida.flush();
+            ImportacionDTO progreso = esperarFilasProcesadas(id, 2);
+            assertEquals(ImportacionDTO.Estado.EN_CURSO, progreso.getEstado());
+
+            salida.write(fila.getBytes(StandardCharsets.UTF_8));
+            salida.close();
+            ImportacionDTO informe = importacion.get(10, TimeUnit.SECONDS);
+            assertEquals(id, informe.getId());
+            assertEquals(ImportacionDTO.Estado.COMPLETADA, informe.getEstado());
+            assertEquals(3, informe.getFilasImportadas());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ImportacionDTO esperarFilasProcesadas(String id, int filas) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        ImportacionDTO progreso = null;
+        while (System.nanoTime() < limite) {
+            try {
+                progreso = importacionService.obtenerPorId(id);
+                if (progreso.getFilasProcesadas() >= filas) {
+                    break;
+                }
+            } catch (ImportacionException.NoEncontrada e) {
+                // El hilo de la importación todavía no la ha registrado
+            }
+            Thread.sleep(10);
+        }
+        assertNotNull(progreso);
+        assertEquals(filas, progreso.getFilasProcesadas());
+        return progreso;
+    }
+
+    @Test
+    @DisplayName("Importación - Id propuesto no válido o repetido")
+    void testIdPropuestoNoValido() throws IOException {
+        assertThatThrownBy(() -> importacionService.importar(flujo("nombre\n"), ImportacionDTO.Formato.CSV, "no válido"))
+            .isInstanceOf(ImportacionException.IdNoValido.class);
+
+        String id = "prueba-" + UUID.randomUUID();
+        importacionService.importar(flujo("nombre\n"), ImportacionDTO.Formato.CSV, id);
+        assertThatThrownBy(() -> importacionService.importar(flujo("nombre\n"), ImportacionDTO.Formato.CSV, id))
+            .isInstanceOf(ImportacionException.IdDuplicado.class)
+            .hasMessage("Import already exists with ID " + id);
+    }
+
+    @Test
+    @DisplayName("Importación - Formato según el tipo de contenido")
+    void testFormatoDe() {
+        assertEquals(ImportacionDTO.Formato.CSV, ImportacionService.formatoDe("text/csv; charset=UTF-8"));
+        assertEquals(ImportacionDTO.Formato.NDJSON, ImportacionService.formatoDe("application/x-ndjson"));
+        assertThatThrownBy(() -> ImportacionService.formatoDe("application/json"))
+            .isInstanceOf(ImportacionException.FormatoNoSoportado.class);
+        assertThatThrownBy(() -> ImportacionService.formatoDe(null))
+            .isInstanceOf(ImportacionException.FormatoNoSoportado.class);
+    }
+
+    @Test
+    @DisplayName("Importación - Importación no encontrada")
+    void testObtenerNoEncontrada() {
+        assertThatThrownBy(() -> importacionService.obtenerPorId("no-existe"))
+            .isInstanceOf(ImportacionException.NoEncontrada.class)
+            .hasMessage("Import not found with ID no-existe");
+    }
+}
@@ -0,0 +1,123 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Clase de prueba para el índice de búsqueda IndiceBusqueda.
+ * Proporciona pruebas unitarias de la búsqueda tolerante a erratas y una prueba de rendimiento
+ * que comprueba el presupuesto de latencia p99 sobre un catálogo sintético. La prueba de rendimiento depende
+ * de la máquina, por lo que solo se ejecuta al indicar el presupuesto: mvn test -Dbusqueda.p99.ms=25
+ *
+ * @version 1.1
+ */
+public class IndiceBusquedaTest {
+
+    // Presupuesto de latencia p99 de una búsqueda, en milisegundos (activa la prueba de rendimiento)
+    private static final String PROPIEDAD_PRESUPUESTO_P99 = "busqueda.p99.ms";
+
+    private static final String[] PIEZAS = { "Jarrón", "Tetera", "Plato", "Taza", "Cuenco", "Fuente", "Botella", "Maceta",
+        "Azucarero", "Lámpara", "Bandeja", "Vasija" };
+    private static final String[] ADJETIVOS = { "azul", "rojo", "esmaltado", "rústico", "blanco", "grande", "pequeño",
+        "verde", "negro", "torneado", "pintado", "antiguo" };
+
+    @Test
+    @DisplayName("Índice - Distancia de Levenshtein acotada")
+    void testDistancia() {
+        assertEquals(0, IndiceBusqueda.distancia("plato", "plato", 2));
+        assertEquals(1, IndiceBusqueda.distancia("platto", "plato", 2));
+        assertEquals(1, IndiceBusqueda.distancia("tetra", "tetera", 2));
+        assertEquals(2, IndiceBusqueda.distancia("pltao", "plato", 2)); // Transposición: dos operaciones
+        assertEquals(3, IndiceBusqueda.distancia("taza", "jarron", 2)); // Supera el límite: devuelve límite + 1
+    }
+
+    @Test
+    @DisplayName("Índice - Búsqueda tolerante a erratas")
+    void testBuscarAproximado() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(1L, "Jarrón azul", "Jarrón torneado a mano");
+        indice.anadir(2L, "Tetera esmaltada", "Tetera para seis tazas");
+        indice.anadir(3L, "Plato llano", "Plato de cerámica");
+        indice.anadir(4L, "Taza roja", "Acompaña a la tetera esmaltada");
+
+        assertThat(indice.buscarAproximado("jarron")).containsExactly(1L);
+        assertThat(indice.buscarAproximado("platto")).containsExactly(3L);
+        assertThat(indice.buscarAproximado("tettera")).containsExactly(2L, 4L); // El nombre pesa más que la descripción
+        assertThat(indice.buscarAproximado("jarr")).containsExactly(1L); // Prefijo
+        assertThat(indice.buscarAproximado("xilofono")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Índice - Ordenar por relevancia con varias palabras")
+    void testRelevancia() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(1L, "Taza azul", "Taza de desayuno");
+        indice.anadir(2L, "Taza roja", "Taza de desayuno");
+        indice.anadir(3L, "Plato rojo", "Plato llano");
+
+        // La taza roja coincide con ambas palabras; a igualdad de puntuación, primero los más nuevos
+        assertThat(indice.buscarAproximado("taza roja")).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Índice - Quitar un producto del vocabulario")
+    void testQuitar() {
+        IndiceBusqueda indice = new IndiceBusqueda();
+        indice.anadir(1L, "Maceta", "Maceta de barro");
+        indice.anadir(1L, "Cuenco", "Cuenco de barro");
+
+        assertThat(indice.buscarAproximado("maceta")).isEmpty();
+        assertThat(indice.buscarAproximado("cuenco")).containsExactly(1L);
+
+        indice.quitar(1L);
+        assertThat(indice.buscarAproximado("barro")).isEmpty();
+        assertEquals(0, indice.getNumeroProductos());
+    }
+
+    @Test
+    @DisplayName("Índice - Latencia p99 de la búsqueda tolerante a erratas")
+    @EnabledIfSystemProperty(named = PROPIEDAD_PRESUPUESTO_P99, matches = "\\d+")
+    void testLatenciaP99() {
+        // Catálogo sintético de 5000 productos
+        Random random = new Random(42);
+        IndiceBusqueda indice = new IndiceBusqueda();
+        for (long id = 1; id <= 5000; id++) {
+            String nombre = PIEZAS[random.nextInt(PIEZAS.length)] + " " + ADJETIVOS[random.nextInt(ADJETIVOS.length)] + " " + id;
+            String descripcion = "Pieza de cerámica " + ADJETIVOS[random.nextInt(ADJETIVOS.length)] + " hecha a mano";
+            indice.anadir(id, nombre, descripcion);
+        }
+
+        // Consultas con erratas habituales
+        List<String> consultas = new ArrayList<>(Arrays.asList("jarron", "tetra", "platto", "tasa azul", "cuencoo rustico",
+            "botela", "lampara verde", "macetta", "azucarero blanco", "vasija antigua", "fuenet", "bandeja"));
+
+        // Calentamiento de la JIT
+        for (int i = 0; i < 500; i++) {
+            indice.buscarAproximado(consultas.get(i % consultas.size()));
+        }
+
+        int repeticiones = 2000;
+        long[] tiempos = new long[repeticiones];
+        for (int i = 0; i < repeticiones; i++) {
+            long inicio = System.nanoTime();
+            indice.buscarAproximado(consultas.get(i % consultas.size()));
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+
+        long p50 = tiempos[repeticiones / 2] / 1_000;
+        long p99 = tiempos[(int) (repeticiones * 0.99)] / 1_000;
+        long presupuesto = Long.getLong(PROPIEDAD_PRESUPUESTO_P99) * 1_000;
+        assertThat(p99).as("Búsqueda aproximada sobre 5000 productos: p50 = %d µs, p99 = %d µs", p50, p99)
+            .isLessThan(presupuesto);
+    }
+}
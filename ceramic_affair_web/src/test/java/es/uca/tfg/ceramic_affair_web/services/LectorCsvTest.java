@@ -0,0 +1,56 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Clase de prueba para el lector de CSV LectorCsv.
+ * Proporciona pruebas unitarias de la lectura registro a registro.
+ *
+ * @version 1.0
+ */
+public class LectorCsvTest {
+
+    @Test
+    @DisplayName("CSV - Campos simples y entre comillas")
+    void testLeer() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader(
+            "nombre,descripcion\r\nTaza,\"Taza \"\"grande\"\", de barro\"\n\"Plato\",\"Dos\nlíneas\"\n,\n"));
+
+        assertThat(lector.leer()).containsExactly("nombre", "descripcion");
+        assertEquals(2, lector.getLinea());
+        assertThat(lector.leer()).containsExactly("Taza", "Taza \"grande\", de barro");
+        assertThat(lector.leer()).containsExactly("Plato", "Dos\nlíneas");
+        assertEquals(5, lector.getLinea()); // El salto de línea entre comillas también cuenta
+        assertThat(lector.leer()).containsExactly("", "");
+        assertNull(lector.leer());
+    }
+
+    @Test
+    @DisplayName("CSV - Último registro sin salto de línea")
+    void testSinSaltoFinal() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a,b\nc,d"));
+
+        assertThat(lector.leer()).containsExactly("a", "b");
+        assertThat(lector.leer()).containsExactly("c", "d");
+        assertNull(lector.leer());
+    }
+
+    @Test
+    @DisplayName("CSV - Comillas sin cerrar")
+    void testComillasSinCerrar() throws IOException {
+        LectorCsv lector = new LectorCsv(new StringReader("a,\"b\nc,d\n"));
+
+        assertThatThrownBy(lector::leer)
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unterminated quoted field");
+    }
+}
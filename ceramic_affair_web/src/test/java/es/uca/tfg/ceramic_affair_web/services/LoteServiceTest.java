@@ -0,0 +1,153 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ImagenMapper;
+import es.uca.tfg.ceramic_affair_web.DTOs.LoteDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.entities.Imagen;
+import es.uca.tfg.ceramic_affair_web.exceptions.LoteException;
+import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+
+/**
+ * Clase de prueba para el servicio LoteService.
+ * Las pruebas no son transaccionales, como las del catálogo, para que los productos
+ * confirmados lleguen al snapshot; cada prueba limpia la base de datos al terminar.
+ *
+ * @version 1.3
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class LoteServiceTest {
+
+    @Autowired
+    private LoteService loteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private FindMePostService findMePostService;
+
+    @Autowired
+    private ImagenRepo imagenRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    @Test
+    @DisplayName("Lote - Obtener varios recursos en una sola llamada")
+    void testObtenerLote() {
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        Long tazas = categoriaService.insertarCategoria("Tazas");
+        Long imagen = imagenRepo.save(new Imagen("jarron.jpg", "jpg", 1024f, 800f, 600f)).getId();
+        Long jarron = productoService.insertarProducto(new ProductoDTO("Jarrón azul", jarrones, null, "Jarrón torneado",
+            10f, 8f, 0f, BigDecimal.valueOf(25), false, List.of(imagen)));
+        Long taza = productoService.insertarProducto(new ProductoDTO("Taza roja", tazas, null, "Taza de desayuno",
+            8f, 8f, 0f, BigDecimal.valueOf(12), false, List.of()));
+        Long post = findMePostService.insertarFindMePost(new FindMePostDTO("Mercado de cerámica", "Puesto en la plaza",
+            LocalDateTime.of(2025, 5, 1, 10, 0), LocalDateTime.of(2025, 5, 1, 14, 0), 36.5, -6.3));
+
+        // Los ids repetidos se resuelven una vez y el orden de la petición se conserva
+        LoteDTO lote = loteService.obtenerLote(List.of(taza, jarron, taza, -1L), List.of(imagen), List.of(tazas, jarrones, -2L), List.of(post));
+
+        assertThat(lote.getProductos().keySet()).containsExactly(taza, jarron);
+        assertEquals("Jarrón azul", lote.getProductos().get(jarron).getNombre());
+        assertEquals("jarron.jpg", lote.getImagenes().get(imagen).getRuta());
+        assertEquals(ImagenMapper.PREFIJO_URL + "jarron.jpg", lote.getImagenes().get(imagen).getUrl());
+        assertThat(lote.getCategorias().keySet()).containsExactly(tazas, jarrones);
+        assertEquals("Mercado de cerámica", lote.getFindMePosts().get(post).getTitulo());
+
+        assertThat(lote.getNoEncontrados()).containsOnlyKeys(LoteDTO.PRODUCTOS, LoteDTO.CATEGORIAS);
+        assertThat(lote.getNoEncontrados().get(LoteDTO.PRODUCTOS)).containsExactly(-1L);
+        assertThat(lote.getNoEncontrados().get(LoteDTO.CATEGORIAS)).containsExactly(-2L);
+    }
+
+    @Test
+    @DisplayName("Lote - Las categorías se devuelven sin sus productos")
+    void testObtenerLoteCategoriasSinProductos() {
+        Long jarrones = categoriaService.insertarCategoria("Jarrones");
+        productoService.insertarProducto(new ProductoDTO("Jarrón azul", jarrones, null, "Jarrón torneado",
+            10f, 8f, 0f, BigDecimal.valueOf(25), false, List.of()));
+        productoService.insertarProducto(new ProductoDTO("Jarrón verde", jarrones, null, "Jarrón torneado",
+            10f, 8f, 0f, BigDecimal.valueOf(25), true, List.of()));
+
+        LoteDTO lote = loteService.obtenerLote(null, null, List.of(jarrones), null);
+
+        // Se serializa como lo haría el controlador
+        JsonNode categoria = objectMapper.valueToTree(lote).path("categorias").path(String.valueOf(jarrones));
+        assertEquals("Jarrones", categoria.path("nombre").asText());
+        assertEquals(2, categoria.path("numeroProductos").asLong());
+        assertEquals(1, categoria.path("numeroEnStock").asLong());
+        assertTrue(categoria.path("productos").isMissingNode());
+    }
+
+    @Test
+    @DisplayName("Lote - Lote vacío")
+    void testObtenerLoteVacio() {
+        LoteDTO lote = loteService.obtenerLote(null, null, List.of(), null);
+
+        assertTrue(lote.getProductos().isEmpty());
+        assertTrue(lote.getImagenes().isEmpty());
+        assertTrue(lote.getCategorias().isEmpty());
+        assertTrue(lote.getFindMePosts().isEmpty());
+        assertTrue(lote.getNoEncontrados().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Lote - Demasiados elementos")
+    void testObtenerLoteDemasiadosElementos() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= LoteService.MAX_ELEMENTOS; id++) {
+            ids.add(id);
+        }
+
+        assertThatThrownBy(() -> loteService.obtenerLote(ids, List.of(1L), null, null))
+            .isInstanceOf(LoteException.DemasiadosElementos.class);
+    }
+}
@@ -0,0 +1,128 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.FindMePostDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.PortadaDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Clase de prueba para los datos agregados de la página de inicio.
+ * Las pruebas no son transaccionales: la portada se calcula en su propia transacción de solo lectura.
+ *
+ * @version 1.1
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatosCatalogoPrueba.class)
+public class PortadaServiceTest {
+
+    @Autowired
+    private PortadaService portadaService;
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private FindMePostService findMePostService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DatosCatalogoPrueba datos;
+
+    @MockitoBean
+    private GmailEmailService gmailEmailService;
+
+    @MockitoBean
+    private RecaptchaService recaptchaService;
+
+    private Long jarrones;
+    private Long platos;
+
+    @BeforeEach
+    void setUp() {
+        datos.limpiar();
+        jarrones = categoriaService.insertarCategoria("Jarrones");
+        platos = categoriaService.insertarCategoria("Platos");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        datos.limpiar();
+    }
+
+    @Test
+    @DisplayName("Portada - Productos más recientes por categoría y próximas publicaciones")
+    void testObtenerPortada() {
+        datos.insertarProducto("Jarrón azul", jarrones);
+        Long jarronVerde = datos.insertarProducto("Jarrón verde", jarrones);
+        Long jarronRojo = datos.insertarProducto("Jarrón rojo", jarrones);
+        Long plato = datos.insertarProducto("Plato llano", platos);
+        // Los productos que se quedan sin categoría no aparecen
+        Long otros = categoriaService.insertarCategoria("Otros");
+        datos.insertarProducto("Cuenco", otros);
+        categoriaService.eliminarCategoria(otros);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        findMePostService.insertarFindMePost(new FindMePostDTO("Mercadillo pasado", "Ya terminó",
+            ahora.minusDays(3), ahora.minusDays(2), 36.5, -6.2));
+        findMePostService.insertarFindMePost(new FindMePostDTO("Feria de cerámica", "Próximamente",
+            ahora.plusDays(5), ahora.plusDays(6), 36.5, -6.2));
+
+        PortadaDTO portada = portadaService.obtenerPortada(2);
+
+        assertThat(portada.getSecciones()).extracting(seccion -> seccion.getCategoria().getNombre())
+            .containsExactly("Jarrones", "Platos");
+        assertThat(portada.getSecciones().get(0).getProductos()).extracting(ProductoDTO::getId)
+            .containsExactly(jarronRojo, jarronVerde);
+        assertThat(portada.getSecciones().get(1).getProductos()).extracting(ProductoDTO::getId)
+            .containsExactly(plato);
+        assertThat(portada.getProximasPublicaciones()).extracting(FindMePostDTO::getTitulo)
+            .containsExactly("Feria de cerámica");
+    }
+
+    @Test
+    @DisplayName("Portada - Número fijo de consultas y caché")
+    void testConsultasYCache() {
+        for (int i = 0; i < 5; i++) {
+            datos.insertarProducto("Jarrón " + i, jarrones);
+            datos.insertarProducto("Plato " + i, platos);
+        }
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Resúmenes de categorías (2), ids por ventana (1), productos con relaciones (1) y publicaciones (1)
+        estadisticas.clear();
+        PortadaDTO portada = portadaService.obtenerPortada(3);
+        assertTrue(estadisticas.getPrepareStatementCount() <= 5, "Statements: " + estadisticas.getPrepareStatementCount());
+        assertEquals(3, portada.getSecciones().get(1).getProductos().size());
+
+        // Mientras no cambie el contenido, la portada se sirve desde la caché
+        estadisticas.clear();
+        assertSame(portada, portadaService.obtenerPortada(3));
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        // Una modificación invalida la portada
+        Long nuevo = datos.insertarProducto("Jarrón nuevo", jarrones);
+        assertEquals(nuevo, portadaService.obtenerPortada(3).getSecciones().get(0).getProductos().get(0).getId());
+    }
+}
@@ -5,12 +5,16 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,20 +28,27 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.transaction.annotation.Transactional;
 
 import es.uca.tfg.ceramic_affair_web.DTOs.ProductoDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ProductoStockLoteDTO;
+import es.uca.tfg.ceramic_affair_web.DTOs.ResultadoStockDTO;
 import es.uca.tfg.ceramic_affair_web.entities.Categoria;
 import es.uca.tfg.ceramic_affair_web.entities.Imagen;
 import es.uca.tfg.ceramic_affair_web.entities.Producto;
 import es.uca.tfg.ceramic_affair_web.exceptions.CategoriaException;
+import es.uca.tfg.ceramic_affair_web.exceptions.ConcurrenciaException;
+import es.uca.tfg.ceramic_affair_web.exceptions.LoteException;
 import es.uca.tfg.ceramic_affair_web.exceptions.ProductoException;
 import es.uca.tfg.ceramic_affair_web.repositories.CategoriaRepo;
 import es.uca.tfg.ceramic_affair_web.repositories.ImagenRepo;
+import es.uca.tfg.ceramic_affair_web.payload.PaginaCursor;
 import es.uca.tfg.ceramic_affair_web.repositories.ProductoRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
 
 /**
  * Clase de prueba para el servicio ProductoService.
  * Proporciona pruebas de integración para las operaciones CRUD en la entidad Producto.
  * 
- * @version 1.1
+ * @version 1.7
  */
 @SpringBootTest
 @Transactional
@@ -56,6 +67,12 @@ public class ProductoServiceTest {
     @Autowired
     private ImagenRepo imagenRepo;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @MockitoBean
     private GmailEmailService gmailEmailService;
 
@@ -189,6 +206,83 @@ public class ProductoServiceTest {
         assertTrue(producto.isSoldOut());
     }
 
+    @Test
+    @DisplayName("Servicio - Establecer stock de varios productos")
+    void testEstablecerStockLote() {
+        Categoria categoria = categoriaRepo.save(new Categoria("Cerámica"));
+        Long taza = productoService.insertarProducto(new ProductoDTO("Taza", categoria.getId(), "Cerámica", "Taza de cerámica", 10.0f, 8.0f, 0.0f,
+                BigDecimal.valueOf(10.99), false, List.of()));
+        Long plato = productoService.insertarProducto(new ProductoDTO("Plato", categoria.getId(), "Cerámica", "Plato llano", 10.0f, 8.0f, 0.0f,
+                BigDecimal.valueOf(12.99), true, List.of()));
+        Long jarron = productoService.insertarProducto(new ProductoDTO("Jarrón", categoria.getId(), "Cerámica", "Jarrón azul", 10.0f, 8.0f, 0.0f,
+                BigDecimal.valueOf(30.99), true, List.of()));
+        productoRepo.flush();
+        long versionTaza = productoService.obtenerPorId(taza).getVersion();
+        long versionPlato = productoService.obtenerPorId(plato).getVersion();
+        entityManager.clear();
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        List<ResultadoStockDTO> resultados = productoService.establecerStockLote(List.of(
+            new ProductoStockLoteDTO.Elemento(taza, true),
+            new ProductoStockLoteDTO.Elemento(plato, true),
+            new ProductoStockLoteDTO.Elemento(jarron, false),
+            new ProductoStockLoteDTO.Elemento(-1L, true)));
+
+        // Una consulta para leer el estado y una sentencia UPDATE por cada valor de soldOut
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(resultados).extracting(ResultadoStockDTO::getId).containsExactly(taza, plato, jarron, -1L);
+        assertThat(resultados).extracting(ResultadoStockDTO::getEstado).containsExactly(
+            ResultadoStockDTO.Estado.ACTUALIZADO, ResultadoStockDTO.Estado.SIN_CAMBIOS,
+            ResultadoStockDTO.Estado.ACTUALIZADO, ResultadoStockDTO.Estado.NO_ENCONTRADO);
+
+        // Los cambios se aplican y la versión avanza solo en los productos modificados
+        assertTrue(productoService.obtenerPorId(taza).isSoldOut());
+        assertFalse(productoService.obtenerPorId(jarron).isSoldOut());
+        assertEquals(versionTaza + 1, productoService.obtenerPorId(taza).getVersion());
+        assertEquals(versionPlato, productoService.obtenerPorId(plato).getVersion());
+    }
+
+    @Test
+    @DisplayName("Servicio - Establecer stock de varios productos (demasiados productos)")
+    void testEstablecerStockLoteDemasiados() {
+        List<ProductoStockLoteDTO.Elemento> elementos = new ArrayList<>();
+        for (long id = 1; id <= ProductoService.MAX_STOCK_LOTE + 1; id++) {
+            elementos.add(new ProductoStockLoteDTO.Elemento(id, true));
+        }
+
+        assertThatThrownBy(() -> productoService.establecerStockLote(elementos))
+            .isInstanceOf(LoteException.DemasiadosElementos.class)
+            .hasMessage("Too many elements in batch request, maximum is " + ProductoService.MAX_STOCK_LOTE);
+    }
+
+    @Test
+    @DisplayName("Servicio - Modificar producto comprobando su versión")
+    void testModificarProductoConVersion() {
+        Categoria categoria = categoriaRepo.save(new Categoria("Cerámica"));
+        Long id = productoService.insertarProducto(new ProductoDTO("Taza", categoria.getId(), "Cerámica", "Taza de cerámica", 10.0f, 8.0f, 0.0f,
+                BigDecimal.valueOf(10.99), false, List.of()));
+        productoRepo.flush();
+        long version = productoService.obtenerPorId(id).getVersion();
+
+        // Con la versión vigente se modifica y la versión avanza
+        productoService.establecerStock(id, true, version);
+        productoRepo.flush();
+        assertEquals(version + 1, productoService.obtenerPorId(id).getVersion());
+
+        // Con la versión antigua se rechaza, tanto en el stock como en la modificación completa
+        assertThatThrownBy(() -> productoService.establecerStock(id, false, version))
+            .isInstanceOf(ConcurrenciaException.VersionNoCoincide.class)
+            .hasMessage("Product with ID " + id + " has been modified, current version is " + (version + 1));
+        ProductoDTO productoModificado = new ProductoDTO("Taza Grande", categoria.getId(), "Cerámica", "Taza de cerámica grande", 12.0f, 9.0f, 0.0f,
+                BigDecimal.valueOf(12.99), false, List.of());
+        assertThatThrownBy(() -> productoService.modificarProducto(id, productoModificado, version))
+            .isInstanceOf(ConcurrenciaException.VersionNoCoincide.class);
+        assertTrue(productoService.obtenerPorId(id).isSoldOut());
+        assertEquals("Taza", productoService.obtenerPorId(id).getNombre());
+    }
+
     @Test
     @DisplayName("Servicio - Establecer stock de producto (excepción no encontrado)")
     void testEstablecerStockNoEncontrado() {
@@ -245,7 +339,7 @@ public class ProductoServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         // Filtro: nombre = "Taza", categoría = "Cerámica", soloEnStock = true, orden = "viejos"
-        Page<Producto> productosFiltrados = productoService.filtrarProductos("Taza", categoria.getId(), true, "viejos", pageable);
+        Page<ProductoDTO> productosFiltrados = productoService.filtrarProductos("Taza", categoria.getId(), true, "viejos", pageable);
 
         // Verificar que se han filtrado correctamente los productos
         assertNotNull(productosFiltrados);
@@ -268,12 +362,33 @@ public class ProductoServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         // Filtro: nombre = "Botella", categoría = "Cerámica", soloEnStock = null, orden = null
-        Page<Producto> productosFiltrados = productoService.filtrarProductos("Botella", categoria.getId(), null, null, pageable);
+        Page<ProductoDTO> productosFiltrados = productoService.filtrarProductos("Botella", categoria.getId(), null, null, pageable);
 
         // Verificar que se han filtrado correctamente los productos
         assertNotNull(productosFiltrados);
         assertEquals(2, productosFiltrados.getTotalElements());
-        assertThat(productosFiltrados.getContent()).extracting(Producto::getNombre).containsExactlyInAnyOrder("Botella azul", "Botella roja");
+        assertThat(productosFiltrados.getContent()).extracting(ProductoDTO::getNombre).containsExactlyInAnyOrder("Botella azul", "Botella roja");
+    }
+
+    @Test
+    @DisplayName("Servicio - Filtrar productos por nombre sin tildes")
+    void testFiltrarProductosPorNombreSinTildes() {
+        // Categoría
+        Categoria categoria = categoriaRepo.save(new Categoria("Cerámica"));
+
+        // Productos
+        productoService.insertarProducto(new ProductoDTO("Jarrón azul", categoria.getId(), "Cerámica", "Jarrón de cerámica", 10f, 8f, 0f, BigDecimal.valueOf(10.99), false, List.of()));
+        productoService.insertarProducto(new ProductoDTO("Cuenco", categoria.getId(), "Cerámica", "Cuenco para jarrón", 10f, 8f, 0f, BigDecimal.valueOf(12.99), false, List.of()));
+
+        // Filtro: nombre = "JARRON", sin tilde ni mayúsculas
+        Page<ProductoDTO> productosFiltrados = productoService.filtrarProductos("JARRON", null, null, null, PageRequest.of(0, 10));
+
+        // Verificar que solo coincide el nombre, no la descripción
+        assertEquals(1, productosFiltrados.getTotalElements());
+        assertEquals("Jarrón azul", productosFiltrados.getContent().get(0).getNombre());
+
+        // Un nombre sin coincidencias devuelve una página vacía
+        assertEquals(0, productoService.filtrarProductos("tetera", null, null, null, PageRequest.of(0, 10)).getTotalElements());
     }
 
     @Test
@@ -298,7 +413,7 @@ public class ProductoServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         // Filtro: nombre = "Botella", categoría = null, soloEnStock = null, orden = "recientes"
-        Page<Producto> productosFiltrados = productoService.filtrarProductos("Botella", null, null, "recientes", pageable);
+        Page<ProductoDTO> productosFiltrados = productoService.filtrarProductos("Botella", null, null, "recientes", pageable);
 
         // Verificar que se han filtrado correctamente los productos
         assertNotNull(productosFiltrados);
@@ -320,7 +435,7 @@ public class ProductoServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         // Filtro: nombre = null, categoría = "Cerámica", soloEnStock = true, orden = null
-        Page<Producto> productosFiltrados = productoService.filtrarProductos(null, categoria.getId(), true, null, pageable);
+        Page<ProductoDTO> productosFiltrados = productoService.filtrarProductos(null, categoria.getId(), true, null, pageable);
 
         // Verificar que se han filtrado correctamente los productos
         assertNotNull(productosFiltrados);
@@ -339,13 +454,137 @@ public class ProductoServiceTest {
         productoService.insertarProducto(new ProductoDTO("Plato", categoria.getId(), "Cerámica", "Plato de cerámica", 12f, 10f, 0f, BigDecimal.valueOf(15.99), true, List.of()));
 
         // Filtro: nombre = null, categoría = null, soloEnStock = null, orden = null
-        Page<Producto> productosFiltrados = productoService.filtrarProductos(null, null, null, null, Pageable.unpaged());
+        Page<ProductoDTO> productosFiltrados = productoService.filtrarProductos(null, null, null, null, Pageable.unpaged());
 
         // Verificar que se han filtrado correctamente los productos
         assertNotNull(productosFiltrados);
         assertEquals(2, productosFiltrados.getTotalElements());
     }
 
+    @Test
+    @DisplayName("Servicio - Filtrar productos sin consultas N+1")
+    void testFiltrarProductosNumeroDeSentenciasAcotado() {
+        // Categorías y productos con varias imágenes cada uno
+        Categoria jarrones = categoriaRepo.save(new Categoria("Jarrones"));
+        Categoria tazas = categoriaRepo.save(new Categoria("Tazas"));
+        for (int i = 0; i < 6; i++) {
+            Imagen imagen1 = imagenRepo.save(new Imagen("ruta/imagen" + i + "a.jpg", "jpg", 1024, 800, 600));
+            Imagen imagen2 = imagenRepo.save(new Imagen("ruta/imagen" + i + "b.jpg", "jpg", 1024, 800, 600));
+            Categoria categoria = (i % 2 == 0) ? jarrones : tazas;
+            productoService.insertarProducto(new ProductoDTO("Pieza " + i, categoria.getId(), categoria.getNombre(), "Pieza de cerámica", 10f, 8f, 0f,
+                    BigDecimal.valueOf(10.99), false, List.of(imagen1.getId(), imagen2.getId())));
+        }
+
+        // Vaciar el contexto de persistencia para que las relaciones se carguen desde la base de datos
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        // Listado: página de productos, recuento y carga de relaciones
+        Page<ProductoDTO> pagina = productoService.filtrarProductos(null, null, null, null, PageRequest.of(0, 4));
+        assertEquals(6, pagina.getTotalElements());
+        assertThat(pagina.getContent()).allSatisfy(dto -> {
+            assertNotNull(dto.getNombreCategoria());
+            assertEquals(2, dto.getIdsImagenes().size());
+        });
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+
+        entityManager.clear();
+        estadisticas.clear();
+
+        // Listado completo: mismo límite
+        Page<ProductoDTO> todos = productoService.obtenerTodos(PageRequest.of(0, 4));
+        assertEquals(4, todos.getNumberOfElements());
+        assertThat(todos.getContent()).allSatisfy(dto -> assertEquals(2, dto.getIdsImagenes().size()));
+        assertThat(estadisticas.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Servicio - Filtrar productos por cursor")
+    void testFiltrarProductosPorCursor() {
+        // Categoría
+        Categoria categoria = categoriaRepo.save(new Categoria("Cerámica"));
+
+        // Insertar cinco productos
+        for (int i = 1; i <= 5; i++) {
+            productoService.insertarProducto(new ProductoDTO("Pieza " + i, categoria.getId(), "Cerámica", "Pieza de cerámica", 10.0f, 8.0f, 0.0f,
+                    BigDecimal.valueOf(10.99), false, List.of()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Primera página: más recientes primero
+        PaginaCursor<ProductoDTO> primera = productoService.filtrarProductosPorCursor(null, null, null, null, null, 2);
+        assertThat(primera.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Pieza 5", "Pieza 4");
+        assertNull(primera.getCursorAnterior());
+        assertNotNull(primera.getCursorSiguiente());
+
+        // Segunda y última página
+        PaginaCursor<ProductoDTO> segunda = productoService.filtrarProductosPorCursor(null, null, null, null, primera.getCursorSiguiente(), 2);
+        assertThat(segunda.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Pieza 3", "Pieza 2");
+        PaginaCursor<ProductoDTO> ultima = productoService.filtrarProductosPorCursor(null, null, null, null, segunda.getCursorSiguiente(), 2);
+        assertThat(ultima.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Pieza 1");
+        assertNull(ultima.getCursorSiguiente());
+
+        // Volver hacia atrás
+        PaginaCursor<ProductoDTO> vuelta = productoService.filtrarProductosPorCursor(null, null, null, null, ultima.getCursorAnterior(), 2);
+        assertThat(vuelta.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Pieza 3", "Pieza 2");
+        PaginaCursor<ProductoDTO> inicio = productoService.filtrarProductosPorCursor(null, null, null, null, vuelta.getCursorAnterior(), 2);
+        assertThat(inicio.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Pieza 5", "Pieza 4");
+        assertNull(inicio.getCursorAnterior());
+
+        // Más antiguos primero
+        PaginaCursor<ProductoDTO> viejos = productoService.filtrarProductosPorCursor(null, null, null, "viejos", null, 3);
+        assertThat(viejos.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Pieza 1", "Pieza 2", "Pieza 3");
+        PaginaCursor<ProductoDTO> viejos2 = productoService.filtrarProductosPorCursor(null, null, null, "viejos", viejos.getCursorSiguiente(), 3);
+        assertThat(viejos2.getContent()).extracting(ProductoDTO::getNombre).containsExactly("Pieza 4", "Pieza 5");
+        assertNull(viejos2.getCursorSiguiente());
+    }
+
+    @Test
+    @DisplayName("Servicio - Filtrar productos por cursor no válido (excepción)")
+    void testFiltrarProductosPorCursorNoValido() {
+        assertThatThrownBy(() -> {
+            productoService.filtrarProductosPorCursor(null, null, null, null, "no-es-un-cursor", 2);
+        }).isInstanceOf(ProductoException.CursorNoValido.class)
+          .hasMessageContaining("Invalid pagination cursor");
+    }
+
+    @Test
+    @DisplayName("Servicio - Filtrar productos por cursor con orden por precio (excepción)")
+    void testFiltrarProductosPorCursorOrdenPrecio() {
+        // La clave del cursor es (fechaCreacion, id): los órdenes por precio se rechazan en lugar de ignorarse
+        assertThatThrownBy(() -> productoService.filtrarProductosPorCursor(null, null, null, "baratos", null, 2))
+            .isInstanceOf(ProductoException.OrdenNoValido.class)
+            .hasMessage("Order baratos is not supported with cursor pagination");
+    }
+
+    @Test
+    @DisplayName("Servicio - Buscar productos tolerando erratas")
+    void testBuscarProductos() {
+        // Categoría
+        Categoria categoria = categoriaRepo.save(new Categoria("Cerámica"));
+
+        // Productos
+        Long tetera = productoService.insertarProducto(new ProductoDTO("Tetera esmaltada", categoria.getId(), "Cerámica", "Tetera para seis", 10f, 8f, 0f, BigDecimal.valueOf(30.99), false, List.of()));
+        Long taza = productoService.insertarProducto(new ProductoDTO("Taza", categoria.getId(), "Cerámica", "Taza a juego con la tetera", 10f, 8f, 0f, BigDecimal.valueOf(9.99), false, List.of()));
+        productoService.insertarProducto(new ProductoDTO("Plato", categoria.getId(), "Cerámica", "Plato llano", 10f, 8f, 0f, BigDecimal.valueOf(12.99), false, List.of()));
+
+        // Errata: el nombre pesa más que la descripción
+        Page<ProductoDTO> resultados = productoService.buscarProductos("tetra", PageRequest.of(0, 10));
+        assertEquals(2, resultados.getTotalElements());
+        assertThat(resultados.getContent()).extracting(ProductoDTO::getId).containsExactly(tetera, taza);
+
+        // Segunda página
+        Page<ProductoDTO> segunda = productoService.buscarProductos("tetra", PageRequest.of(1, 1));
+        assertThat(segunda.getContent()).extracting(ProductoDTO::getId).containsExactly(taza);
+
+        // Sin texto no hay resultados
+        assertEquals(0, productoService.buscarProductos(" ", PageRequest.of(0, 10)).getTotalElements());
+    }
+
     @Test
     @DisplayName("Servicio - Eliminar producto por ID")
     void testEliminarProducto() throws IOException {
@@ -391,7 +630,7 @@ public class ProductoServiceTest {
         Pageable pageable = PageRequest.of(0, 10);
 
         // Obtener todos los productos
-        Page<Producto> productos = productoService.obtenerTodos(pageable);
+        Page<ProductoDTO> productos = productoService.obtenerTodos(pageable);
 
         // Verificar que se han obtenido todos los productos
         assertNotNull(productos);
@@ -0,0 +1,75 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Entidad;
+import es.uca.tfg.ceramic_affair_web.events.CatalogoModificadoEvent.Operacion;
+
+/**
+ * Clase de prueba para el contador de revisiones RevisionCatalogo.
+ *
+ * @version 1.1
+ */
+public class RevisionCatalogoTest {
+
+    @Test
+    @DisplayName("Revisión - Registrar modificaciones del catálogo y de las publicaciones")
+    void testRegistrarModificacion() {
+        RevisionCatalogo revisiones = new RevisionCatalogo();
+        String etagInicial = revisiones.getEtag();
+        assertTrue(etagInicial.startsWith("\"") && etagInicial.endsWith("\"")); // ETag fuerte
+
+        revisiones.alModificarCatalogo(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, 1L));
+        assertEquals(2, revisiones.getRevision());
+        assertEquals(2, revisiones.getRevisionCatalogo());
+        assertNotEquals(etagInicial, revisiones.getEtag());
+
+        // Las publicaciones no afectan al snapshot del catálogo
+        revisiones.alModificarCatalogo(new CatalogoModificadoEvent(Entidad.FIND_ME_POST, Operacion.CREACION, 1L));
+        assertEquals(3, revisiones.getRevision());
+        assertEquals(2, revisiones.getRevisionCatalogo());
+        assertTrue(revisiones.getUltimaModificacion() <= System.currentTimeMillis());
+    }
+
+    @Test
+    @DisplayName("Revisión - Registro de cambios del catálogo")
+    void testCambiosDesde() {
+        RevisionCatalogo revisiones = new RevisionCatalogo(100);
+        revisiones.alModificarCatalogo(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, 1L));
+        revisiones.alModificarCatalogo(new CatalogoModificadoEvent(Entidad.FIND_ME_POST, Operacion.CREACION, 5L));
+        revisiones.alModificarCatalogo(CatalogoModificadoEvent.deVarias(Entidad.PRODUCTO, Operacion.MODIFICACION, List.of(2L, 3L)));
+
+        // Solo los cambios del catálogo posteriores a la revisión, en orden; las publicaciones no se registran
+        RevisionCatalogo.Cambios cambios = revisiones.cambiosDesde(101);
+        assertEquals(103, cambios.revision());
+        assertEquals(List.of(2L, 3L), cambios.cambios().stream().map(RevisionCatalogo.Cambio::id).toList());
+        assertEquals(3, revisiones.cambiosDesde(100).cambios().size());
+        assertTrue(revisiones.cambiosDesde(103).cambios().isEmpty());
+
+        // Revisiones anteriores al registro o posteriores a la actual (de otra ejecución)
+        assertNull(revisiones.cambiosDesde(99));
+        assertNull(revisiones.cambiosDesde(104));
+    }
+
+    @Test
+    @DisplayName("Revisión - Registro de cambios lleno")
+    void testCambiosDesdeRegistroLleno() {
+        RevisionCatalogo revisiones = new RevisionCatalogo();
+        for (long id = 1; id <= RevisionCatalogo.MAX_CAMBIOS + 1; id++) {
+            revisiones.alModificarCatalogo(new CatalogoModificadoEvent(Entidad.PRODUCTO, Operacion.MODIFICACION, id));
+        }
+
+        // Se ha descartado el cambio de la revisión 2: solo se pueden pedir los cambios posteriores a ella
+        assertNull(revisiones.cambiosDesde(1));
+        assertEquals(RevisionCatalogo.MAX_CAMBIOS, revisiones.cambiosDesde(2).cambios().size());
+    }
+}
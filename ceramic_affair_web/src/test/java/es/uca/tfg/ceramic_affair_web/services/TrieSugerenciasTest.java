@@ -0,0 +1,90 @@
+package es.uca.tfg.ceramic_affair_web.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import es.uca.tfg.ceramic_affair_web.DTOs.SugerenciaDTO;
+
+/**
+ * Clase de prueba para el árbol de sugerencias TrieSugerencias.
+ * Proporciona pruebas unitarias del autocompletado por prefijo y de su mantenimiento incremental.
+ *
+ * @version 1.0
+ */
+public class TrieSugerenciasTest {
+
+    private static List<String> nombres(List<SugerenciaDTO> sugerencias) {
+        return sugerencias.stream().map(SugerenciaDTO::getNombre).toList();
+    }
+
+    @Test
+    @DisplayName("Sugerencias - Prefijo del nombre y de sus palabras")
+    void testSugerir() {
+        TrieSugerencias trie = new TrieSugerencias();
+        trie.anadir(1L, "Jarrón azul", 100);
+        trie.anadir(2L, "Jarra de agua", 200);
+        trie.anadir(3L, "Taza azul", 300);
+
+        // Más recientes primero, ignorando tildes y mayúsculas
+        assertThat(nombres(trie.sugerir("JAR", 10))).containsExactly("Jarra de agua", "Jarrón azul");
+        assertThat(nombres(trie.sugerir("jarro", 10))).containsExactly("Jarrón azul");
+
+        // Palabras interiores del nombre
+        assertThat(nombres(trie.sugerir("azu", 10))).containsExactly("Taza azul", "Jarrón azul");
+        assertThat(nombres(trie.sugerir("jarra de a", 10))).containsExactly("Jarra de agua");
+
+        // Sin coincidencias, incluso divergiendo dentro de una arista
+        assertThat(trie.sugerir("jarrx", 10)).isEmpty();
+        assertThat(trie.sugerir("zzz", 10)).isEmpty();
+        assertThat(trie.sugerir("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Sugerencias - Límite de sugerencias")
+    void testLimite() {
+        TrieSugerencias trie = new TrieSugerencias();
+        for (long id = 1; id <= 15; id++) {
+            trie.anadir(id, "Plato " + id, id);
+        }
+
+        List<SugerenciaDTO> sugerencias = trie.sugerir("plato", 3);
+        assertThat(sugerencias).extracting(SugerenciaDTO::getId).containsExactly(15L, 14L, 13L);
+        assertEquals(TrieSugerencias.MAX_SUGERENCIAS, trie.sugerir("pla", 100).size());
+    }
+
+    @Test
+    @DisplayName("Sugerencias - Modificar y quitar productos")
+    void testActualizar() {
+        TrieSugerencias trie = new TrieSugerencias();
+        for (long id = 1; id <= 12; id++) {
+            trie.anadir(id, "Cuenco " + id, id);
+        }
+        trie.anadir(20L, "Cuenco grande", 1);
+
+        // El cuenco grande es el más antiguo: no entra entre los 10 mejores
+        assertThat(trie.sugerir("cuenco", 10)).extracting(SugerenciaDTO::getId).doesNotContain(20L);
+
+        // Al quitar productos recientes, las mejores entradas se recalculan desde el subárbol
+        for (long id = 3; id <= 12; id++) {
+            trie.quitar(id);
+        }
+        assertThat(trie.sugerir("cuenco", 10)).extracting(SugerenciaDTO::getId).containsExactly(2L, 20L, 1L); // A igualdad de peso, mayor id primero
+        assertThat(nombres(trie.sugerir("gran", 10))).containsExactly("Cuenco grande");
+
+        // Modificar el nombre sustituye sus claves
+        trie.anadir(20L, "Maceta", 1);
+        assertThat(trie.sugerir("gran", 10)).isEmpty();
+        assertThat(nombres(trie.sugerir("mac", 10))).containsExactly("Maceta");
+
+        trie.quitar(1L);
+        trie.quitar(2L);
+        trie.quitar(20L);
+        assertThat(trie.sugerir("c", 10)).isEmpty();
+        assertEquals(0, trie.getNumeroProductos());
+    }
+}